@@ -0,0 +1,274 @@
+package com.jacto.scheduler.cache;
+
+import com.jacto.scheduler.payload.response.EquipmentResponse;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import com.jacto.scheduler.payload.response.SparePartResponse;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Subdocumentos com os campos em ordem fixa, sem nomes: inteiros em varint, textos em UTF-8 com tamanho,
+// nulos marcados em um byte. Qualquer mudança de campos exige um codec novo (outro id), para os valores antigos ainda serem lidos
+@Component
+public class BinarySchedulingCodec implements SchedulingCodec {
+
+    public static final byte ID = 2;
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return "binary";
+    }
+
+    @Override
+    public byte[] encodeEquipments(List<EquipmentResponse> equipments) {
+        Writer out = new Writer();
+        out.count(equipments);
+        for (EquipmentResponse equipment : equipments) {
+            out.nullableLong(equipment.getId());
+            out.string(equipment.getName());
+            out.string(equipment.getSerialNumber());
+            out.string(equipment.getDescription());
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public List<EquipmentResponse> decodeEquipments(byte[] data, int offset, int length) {
+        Reader in = new Reader(data, offset, offset + length);
+        try {
+            int count = in.count();
+            List<EquipmentResponse> equipments = new ArrayList<>(Math.max(count, 0));
+            for (int i = 0; i < count; i++) {
+                EquipmentResponse equipment = new EquipmentResponse();
+                equipment.setId(in.nullableLong());
+                equipment.setName(in.string());
+                equipment.setSerialNumber(in.string());
+                equipment.setDescription(in.string());
+                equipments.add(equipment);
+            }
+            return equipments;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new SerializationException("Equipamentos truncados no cache", e);
+        }
+    }
+
+    @Override
+    public byte[] encodeSpareParts(List<SparePartResponse> spareParts) {
+        Writer out = new Writer();
+        out.count(spareParts);
+        for (SparePartResponse sparePart : spareParts) {
+            out.nullableLong(sparePart.getId());
+            out.string(sparePart.getName());
+            out.string(sparePart.getPartNumber());
+            out.nullableLong(sparePart.getQuantity() == null ? null : sparePart.getQuantity().longValue());
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public List<SparePartResponse> decodeSpareParts(byte[] data, int offset, int length) {
+        Reader in = new Reader(data, offset, offset + length);
+        try {
+            int count = in.count();
+            List<SparePartResponse> spareParts = new ArrayList<>(Math.max(count, 0));
+            for (int i = 0; i < count; i++) {
+                SparePartResponse sparePart = new SparePartResponse();
+                sparePart.setId(in.nullableLong());
+                sparePart.setName(in.string());
+                sparePart.setPartNumber(in.string());
+                Long quantity = in.nullableLong();
+                sparePart.setQuantity(quantity == null ? null : quantity.intValue());
+                spareParts.add(sparePart);
+            }
+            return spareParts;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new SerializationException("Peças truncadas no cache", e);
+        }
+    }
+
+    @Override
+    public byte[] encodeLocation(GeoLocationDetails location) {
+        Writer out = new Writer();
+        out.nullableDouble(location.getLatitude());
+        out.nullableDouble(location.getLongitude());
+        out.string(location.getDisplayName());
+        out.string(location.getCity());
+        out.string(location.getState());
+        out.string(location.getCountry());
+        out.string(location.getPostalCode());
+        out.string(location.getFormattedAddress());
+        out.rawDouble(location.getDistance());
+        return out.toByteArray();
+    }
+
+    @Override
+    public GeoLocationDetails decodeLocation(byte[] data, int offset, int length) {
+        Reader in = new Reader(data, offset, offset + length);
+        try {
+            GeoLocationDetails location = new GeoLocationDetails();
+            location.setLatitude(in.nullableDouble());
+            location.setLongitude(in.nullableDouble());
+            location.setDisplayName(in.string());
+            location.setCity(in.string());
+            location.setState(in.string());
+            location.setCountry(in.string());
+            location.setPostalCode(in.string());
+            location.setFormattedAddress(in.string());
+            location.setDistance(in.rawDouble());
+            return location;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new SerializationException("Localização truncada no cache", e);
+        }
+    }
+
+    private static final class Writer {
+        private byte[] buffer = new byte[256];
+        private int position;
+
+        void flag(boolean value) {
+            ensure(1);
+            buffer[position++] = (byte) (value ? 1 : 0);
+        }
+
+        void nullableLong(Long value) {
+            flag(value != null);
+            if (value != null) {
+                // zigzag: valores negativos pequenos também ficam com poucos bytes
+                varint((value << 1) ^ (value >> 63));
+            }
+        }
+
+        void nullableDouble(Double value) {
+            flag(value != null);
+            if (value != null) {
+                rawDouble(value);
+            }
+        }
+
+        void rawDouble(double value) {
+            ensure(8);
+            long bits = Double.doubleToRawLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (bits >>> shift);
+            }
+        }
+
+        // Tamanho + 1, com zero para nulo
+        void string(String value) {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length + 1L);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void count(List<?> values) {
+            varint(values == null ? 0 : values.size() + 1L);
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensure(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private final int end;
+        private int position;
+
+        Reader(byte[] data, int offset, int end) {
+            this.data = data;
+            this.position = offset;
+            this.end = end;
+        }
+
+        boolean flag() {
+            return next() != 0;
+        }
+
+        Long nullableLong() {
+            if (!flag()) {
+                return null;
+            }
+            long zigzag = varint();
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        Double nullableDouble() {
+            return flag() ? rawDouble() : null;
+        }
+
+        double rawDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (next() & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        String string() {
+            int length = (int) varint() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (position + length > end) {
+                throw new ArrayIndexOutOfBoundsException(position + length);
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        // -1 para lista nula
+        int count() {
+            return (int) varint() - 1;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte current = next();
+                value |= (long) (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Varint inválido no agendamento em cache");
+        }
+
+        private byte next() {
+            if (position >= end) {
+                throw new ArrayIndexOutOfBoundsException(position);
+            }
+            return data[position++];
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.jacto.scheduler.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.jacto.scheduler.payload.response.EquipmentResponse;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import com.jacto.scheduler.payload.response.SparePartResponse;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+// JSON tipado: lê direto para os tipos da resposta, sem passar por um mapa genérico
+@Component
+public class JsonSchedulingCodec implements SchedulingCodec {
+
+    public static final byte ID = 1;
+
+    private final ObjectWriter writer;
+    private final ObjectReader equipmentsReader;
+    private final ObjectReader sparePartsReader;
+    private final ObjectReader locationReader;
+
+    public JsonSchedulingCodec(ObjectMapper redisObjectMapper) {
+        this.writer = redisObjectMapper.writer();
+        this.equipmentsReader = redisObjectMapper.readerFor(new TypeReference<List<EquipmentResponse>>() { });
+        this.sparePartsReader = redisObjectMapper.readerFor(new TypeReference<List<SparePartResponse>>() { });
+        this.locationReader = redisObjectMapper.readerFor(GeoLocationDetails.class);
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return "json";
+    }
+
+    @Override
+    public byte[] encodeEquipments(List<EquipmentResponse> equipments) {
+        return encode(equipments);
+    }
+
+    @Override
+    public List<EquipmentResponse> decodeEquipments(byte[] data, int offset, int length) {
+        return decode(equipmentsReader, data, offset, length);
+    }
+
+    @Override
+    public byte[] encodeSpareParts(List<SparePartResponse> spareParts) {
+        return encode(spareParts);
+    }
+
+    @Override
+    public List<SparePartResponse> decodeSpareParts(byte[] data, int offset, int length) {
+        return decode(sparePartsReader, data, offset, length);
+    }
+
+    @Override
+    public byte[] encodeLocation(GeoLocationDetails location) {
+        return encode(location);
+    }
+
+    @Override
+    public GeoLocationDetails decodeLocation(byte[] data, int offset, int length) {
+        return decode(locationReader, data, offset, length);
+    }
+
+    private byte[] encode(Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Falha ao serializar subdocumento do agendamento", e);
+        }
+    }
+
+    private static <T> T decode(ObjectReader reader, byte[] data, int offset, int length) {
+        try {
+            return reader.readValue(data, offset, length);
+        } catch (IOException e) {
+            throw new SerializationException("Subdocumento do agendamento em JSON inválido no cache", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.jacto.scheduler.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Filtro de Bloom para ids numéricos: "não contém" é definitivo, "talvez contenha" erra na taxa configurada.
+// As k posições saem de dois hashes do id (h1 + i * h2), sem alocar nada por consulta
+public final class LongBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    private LongBloomFilter(long bitCount, int hashCount) {
+        // Arredondado para palavras inteiras de 64 bits
+        int words = (int) Math.max(1, (bitCount + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = words * 64L;
+        this.hashCount = hashCount;
+    }
+
+    // Dimensiona para a taxa de falsos positivos pedida, limitado a maxBits
+    public static LongBloomFilter create(long expectedInsertions, double falsePositiveRate, long maxBits) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Taxa de falsos positivos deve estar entre 0 e 1: " + falsePositiveRate);
+        }
+        long n = Math.max(1, expectedInsertions);
+        long optimalBits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        long bitCount = Math.max(64, Math.min(optimalBits, maxBits));
+        int hashCount = (int) Math.max(1, Math.round((double) bitCount / n * Math.log(2)));
+        return new LongBloomFilter(bitCount, hashCount);
+    }
+
+    public void put(long value) {
+        long hash1 = mix(value);
+        long hash2 = mix(hash1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(long value) {
+        long hash1 = mix(value);
+        long hash2 = mix(hash1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    public long memoryBytes() {
+        return bitCount / 8;
+    }
+
+    // Taxa esperada com o preenchimento atual: (bits ligados / total) ^ k
+    public double expectedFalsePositiveRate() {
+        long set = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            set += Long.bitCount(bits.get(i));
+        }
+        return Math.pow((double) set / bitCount, hashCount);
+    }
+
+    // Finalizador do SplitMix64: ids sequenciais viram posições espalhadas
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,320 @@
+package com.jacto.scheduler.cache;
+
+import com.jacto.scheduler.payload.response.EquipmentResponse;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import com.jacto.scheduler.payload.response.SchedulingResponse;
+import com.jacto.scheduler.payload.response.SparePartResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Agendamento no Redis como um hash, campo a campo: os campos simples vão como texto (nulo = campo ausente) e as
+// coleções e a localização como subdocumentos do codec. Uma alteração de status, prioridade ou feedback regrava
+// só aquele campo (ver diff). Os campos de controle começam com '#': a versão e a expiração lógica ficam em
+// texto para os scripts de gravação condicional compará-las sem decodificar nada
+@Component
+public class SchedulingCacheFormat {
+
+    public static final String VERSION = "#v";
+    // Expiração lógica (epoch ms): a partir dela o valor é servido como velho até ser recalculado
+    public static final String SOFT_EXPIRY = "#x";
+    // Marca de agendamento inexistente: um hash só com este campo, sem versão, então qualquer gravação real o substitui
+    public static final String MISSING = "#missing";
+
+    public static final String EQUIPMENTS = "equipments";
+    public static final String SPARE_PARTS = "spareParts";
+    public static final String LOCATION = "locationDetails";
+
+    // Subdocumento: codec, flags e conteúdo
+    private static final int SUBDOCUMENT_HEADER_BYTES = 2;
+    private static final byte DEFLATED = 1;
+
+    private static final List<ScalarField<?>> SCALAR_FIELDS = List.of(
+            new ScalarField<>("id", SchedulingResponse::getId, SchedulingResponse::setId, Long::valueOf),
+            new ScalarField<>("farmName", SchedulingResponse::getFarmName, SchedulingResponse::setFarmName,
+                    Function.identity()),
+            new ScalarField<>("clientName", SchedulingResponse::getClientName, SchedulingResponse::setClientName,
+                    Function.identity()),
+            new ScalarField<>("clientEmail", SchedulingResponse::getClientEmail, SchedulingResponse::setClientEmail,
+                    Function.identity()),
+            new ScalarField<>("address", SchedulingResponse::getAddress, SchedulingResponse::setAddress,
+                    Function.identity()),
+            new ScalarField<>("latitude", SchedulingResponse::getLatitude, SchedulingResponse::setLatitude,
+                    Double::valueOf),
+            new ScalarField<>("longitude", SchedulingResponse::getLongitude, SchedulingResponse::setLongitude,
+                    Double::valueOf),
+            new ScalarField<>("scheduledAt", SchedulingResponse::getScheduledAt, SchedulingResponse::setScheduledAt,
+                    LocalDateTime::parse),
+            new ScalarField<>("completedAt", SchedulingResponse::getCompletedAt, SchedulingResponse::setCompletedAt,
+                    LocalDateTime::parse),
+            new ScalarField<>("serviceDescription", SchedulingResponse::getServiceDescription,
+                    SchedulingResponse::setServiceDescription, Function.identity()),
+            new ScalarField<>("status", SchedulingResponse::getStatus, SchedulingResponse::setStatus,
+                    Function.identity()),
+            new ScalarField<>("priority", SchedulingResponse::getPriority, SchedulingResponse::setPriority,
+                    Function.identity()),
+            new ScalarField<>("clientRating", SchedulingResponse::getClientRating,
+                    SchedulingResponse::setClientRating, Double::valueOf),
+            new ScalarField<>("clientFeedback", SchedulingResponse::getClientFeedback,
+                    SchedulingResponse::setClientFeedback, Function.identity()),
+            new ScalarField<>("technicianUsername", SchedulingResponse::getTechnicianUsername,
+                    SchedulingResponse::setTechnicianUsername, Function.identity()),
+            new ScalarField<>("technicianFullName", SchedulingResponse::getTechnicianFullName,
+                    SchedulingResponse::setTechnicianFullName, Function.identity()),
+            new ScalarField<>("technicianEmail", SchedulingResponse::getTechnicianEmail,
+                    SchedulingResponse::setTechnicianEmail, Function.identity()),
+            new ScalarField<>("technicianId", SchedulingResponse::getTechnicianId,
+                    SchedulingResponse::setTechnicianId, Long::valueOf));
+
+    private final SchedulingCodec writeCodec;
+    private final Map<Byte, SchedulingCodec> codecs = new HashMap<>();
+    private final int compressionThreshold;
+
+    @Autowired
+    public SchedulingCacheFormat(
+            List<SchedulingCodec> codecs,
+            @Value("${scheduling.cache.codec:binary}") String codec,
+            @Value("${scheduling.cache.compression-threshold:1024}") int compressionThreshold) {
+        SchedulingCodec selected = null;
+        for (SchedulingCodec candidate : codecs) {
+            this.codecs.put(candidate.id(), candidate);
+            if (candidate.name().equals(codec)) {
+                selected = candidate;
+            }
+        }
+        if (selected == null) {
+            throw new IllegalArgumentException("Codec de cache de agendamentos desconhecido: " + codec);
+        }
+        this.writeCodec = selected;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public SchedulingCodec writeCodec() {
+        return writeCodec;
+    }
+
+    public Map<String, byte[]> write(SchedulingResponse scheduling) {
+        return write(scheduling, -1);
+    }
+
+    // Todos os campos não nulos, na ordem da resposta; softExpiresAt negativo: sem expiração lógica
+    public Map<String, byte[]> write(SchedulingResponse scheduling, long softExpiresAt) {
+        Map<String, byte[]> fields = new LinkedHashMap<>();
+        Long version = scheduling.getVersion();
+        fields.put(VERSION, ascii(version == null ? -1 : version));
+        if (softExpiresAt >= 0) {
+            fields.put(SOFT_EXPIRY, ascii(softExpiresAt));
+        }
+        for (ScalarField<?> field : SCALAR_FIELDS) {
+            String value = field.text(scheduling);
+            if (value != null) {
+                fields.put(field.name, value.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        if (scheduling.getEquipments() != null) {
+            fields.put(EQUIPMENTS, subdocument(writeCodec.encodeEquipments(scheduling.getEquipments())));
+        }
+        if (scheduling.getSpareParts() != null) {
+            fields.put(SPARE_PARTS, subdocument(writeCodec.encodeSpareParts(scheduling.getSpareParts())));
+        }
+        if (scheduling.getLocationDetails() != null) {
+            fields.put(LOCATION, subdocument(writeCodec.encodeLocation(scheduling.getLocationDetails())));
+        }
+        return fields;
+    }
+
+    // Campos que mudaram de before para after (a versão inclusa) e os que deixaram de existir.
+    // A expiração lógica não entra: uma alteração parcial mantém a do registro
+    public FieldChanges diff(SchedulingResponse before, SchedulingResponse after) {
+        Map<String, byte[]> previous = write(before);
+        Map<String, byte[]> current = write(after);
+        Map<String, byte[]> updated = new LinkedHashMap<>();
+        current.forEach((name, value) -> {
+            if (!Arrays.equals(previous.get(name), value)) {
+                updated.put(name, value);
+            }
+        });
+        List<String> removed = new ArrayList<>();
+        for (String name : previous.keySet()) {
+            if (!current.containsKey(name)) {
+                removed.add(name);
+            }
+        }
+        return new FieldChanges(updated, removed);
+    }
+
+    // Hash vazio (chave ausente): null
+    public SchedulingResponse read(Map<String, byte[]> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return null;
+        }
+        byte[] version = fields.get(VERSION);
+        if (version == null) {
+            throw new SerializationException("Agendamento em cache sem versão");
+        }
+        SchedulingResponse scheduling = new SchedulingResponse();
+        try {
+            long parsedVersion = Long.parseLong(new String(version, StandardCharsets.US_ASCII));
+            scheduling.setVersion(parsedVersion < 0 ? null : parsedVersion);
+            for (ScalarField<?> field : SCALAR_FIELDS) {
+                byte[] value = fields.get(field.name);
+                if (value != null) {
+                    field.parse(scheduling, new String(value, StandardCharsets.UTF_8));
+                }
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new SerializationException("Campo inválido no agendamento em cache", e);
+        }
+        byte[] equipments = fields.get(EQUIPMENTS);
+        if (equipments != null) {
+            scheduling.setEquipments(readSubdocument(equipments, SchedulingCodec::decodeEquipments));
+        }
+        byte[] spareParts = fields.get(SPARE_PARTS);
+        if (spareParts != null) {
+            scheduling.setSpareParts(readSubdocument(spareParts, SchedulingCodec::decodeSpareParts));
+        }
+        byte[] location = fields.get(LOCATION);
+        if (location != null) {
+            scheduling.setLocationDetails(readSubdocument(location, SchedulingCodec::decodeLocation));
+        }
+        return scheduling;
+    }
+
+    public static Map<String, byte[]> missing() {
+        return Map.of(MISSING, new byte[]{1});
+    }
+
+    public static boolean isMissing(Map<String, byte[]> fields) {
+        return fields != null && fields.containsKey(MISSING);
+    }
+
+    // Expiração lógica gravada no hash, ou -1 quando não houver
+    public static long softExpiresAt(Map<String, byte[]> fields) {
+        byte[] value = fields == null ? null : fields.get(SOFT_EXPIRY);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(new String(value, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public static byte[] ascii(long value) {
+        return String.valueOf(value).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private byte[] subdocument(byte[] payload) {
+        byte flags = 0;
+        if (payload.length >= compressionThreshold) {
+            byte[] deflated = deflate(payload);
+            // Conteúdo que não encolhe vai sem compressão
+            if (deflated.length < payload.length) {
+                payload = deflated;
+                flags = DEFLATED;
+            }
+        }
+        byte[] value = new byte[SUBDOCUMENT_HEADER_BYTES + payload.length];
+        value[0] = writeCodec.id();
+        value[1] = flags;
+        System.arraycopy(payload, 0, value, SUBDOCUMENT_HEADER_BYTES, payload.length);
+        return value;
+    }
+
+    private <T> T readSubdocument(byte[] value, SubdocumentReader<T> reader) {
+        if (value.length < SUBDOCUMENT_HEADER_BYTES) {
+            throw new SerializationException("Subdocumento do agendamento truncado no cache");
+        }
+        SchedulingCodec codec = codecs.get(value[0]);
+        if (codec == null) {
+            throw new SerializationException("Subdocumento do agendamento com codec desconhecido: " + value[0]);
+        }
+        if ((value[1] & DEFLATED) != 0) {
+            byte[] payload = inflate(value, SUBDOCUMENT_HEADER_BYTES, value.length - SUBDOCUMENT_HEADER_BYTES);
+            return reader.read(codec, payload, 0, payload.length);
+        }
+        return reader.read(codec, value, SUBDOCUMENT_HEADER_BYTES, value.length - SUBDOCUMENT_HEADER_BYTES);
+    }
+
+    private static byte[] deflate(byte[] payload) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            byte[] buffer = new byte[payload.length];
+            int length = 0;
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            // Não coube no tamanho original: não compensa
+            return deflater.finished() ? Arrays.copyOf(buffer, length) : payload;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] value, int offset, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(value, offset, length);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("Subdocumento comprimido truncado no cache");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("Subdocumento comprimido inválido no cache", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // Campos a gravar (HSET) e a remover (HDEL) numa alteração parcial
+    public record FieldChanges(Map<String, byte[]> updated, List<String> removed) {
+
+        public boolean isEmpty() {
+            return updated.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    @FunctionalInterface
+    private interface SubdocumentReader<T> {
+        T read(SchedulingCodec codec, byte[] data, int offset, int length);
+    }
+
+    private record ScalarField<T>(String name, Function<SchedulingResponse, T> getter,
+                                  BiConsumer<SchedulingResponse, T> setter, Function<String, T> parser) {
+
+        String text(SchedulingResponse scheduling) {
+            T value = getter.apply(scheduling);
+            return value == null ? null : value.toString();
+        }
+
+        void parse(SchedulingResponse scheduling, String text) {
+            setter.accept(scheduling, parser.apply(text));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.jacto.scheduler.cache;
+
+import com.jacto.scheduler.payload.response.EquipmentResponse;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import com.jacto.scheduler.payload.response.SparePartResponse;
+
+import java.util.List;
+
+// Formato dos subdocumentos do agendamento guardados no Redis (coleções e localização; os campos simples vão
+// como texto). O id identifica o codec em cada subdocumento, então valores gravados com um codec continuam
+// legíveis depois de trocar o codec de escrita
+public interface SchedulingCodec {
+
+    byte id();
+
+    String name();
+
+    byte[] encodeEquipments(List<EquipmentResponse> equipments);
+
+    List<EquipmentResponse> decodeEquipments(byte[] data, int offset, int length);
+
+    byte[] encodeSpareParts(List<SparePartResponse> spareParts);
+
+    List<SparePartResponse> decodeSpareParts(byte[] data, int offset, int length);
+
+    byte[] encodeLocation(GeoLocationDetails location);
+
+    GeoLocationDetails decodeLocation(byte[] data, int offset, int length);
+}
@@ -0,0 +1,51 @@
+package com.jacto.scheduler.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.jacto.scheduler.payload.response.SchedulingResponse;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Corpo HTTP de um agendamento, pronto para ir à resposta sem passar de novo pelo Jackson. Usa o mesmo
+// ObjectMapper do conversor JSON do Spring MVC, então os bytes são os que ele produziria
+@Component
+public class SchedulingJsonWriter {
+
+    private final ObjectWriter writer;
+
+    public SchedulingJsonWriter(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writerFor(SchedulingResponse.class);
+    }
+
+    public byte[] write(SchedulingResponse scheduling) {
+        try {
+            return writer.writeValueAsBytes(scheduling);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Falha ao serializar o agendamento " + scheduling.getId(), e);
+        }
+    }
+
+    // Array JSON com os objetos já serializados, numa única cópia
+    public static byte[] array(List<byte[]> items) {
+        int length = 2 + Math.max(0, items.size() - 1);
+        for (byte[] item : items) {
+            length += item.length;
+        }
+        byte[] array = new byte[length];
+        array[0] = '[';
+        int position = 1;
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                array[position++] = ',';
+            }
+            byte[] item = items.get(i);
+            System.arraycopy(item, 0, array, position, item.length);
+            position += item.length;
+        }
+        array[position] = ']';
+        return array;
+    }
+}
@@ -0,0 +1,153 @@
+package com.jacto.scheduler.config;
+
+import com.jacto.scheduler.geocoding.GeocodingProvider;
+import com.jacto.scheduler.geocoding.NominatimClient;
+import com.jacto.scheduler.geocoding.OfflineGeocodingProvider;
+import com.jacto.scheduler.geocoding.OfflineReverseGeocoder;
+import com.jacto.scheduler.geocoding.StubGeocodingProvider;
+import com.jacto.scheduler.geocoding.TokenBucketRateLimiter;
+import com.jacto.scheduler.resilience.Bulkhead;
+import com.jacto.scheduler.resilience.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+@Configuration
+public class GeocodingConfig {
+    private static final Logger logger = LoggerFactory.getLogger(GeocodingConfig.class);
+
+    // Limite global de requisições ao provedor, compartilhado por todos os fluxos
+    @Bean
+    public TokenBucketRateLimiter geocodingRateLimiter(
+            @Value("${geocoding.rate-limit.permits-per-second:1}") double permitsPerSecond,
+            @Value("${geocoding.rate-limit.burst:1}") int burst) {
+        return new TokenBucketRateLimiter(permitsPerSecond, burst);
+    }
+
+    // Sem timeouts um Nominatim lento prende as threads de quem chama indefinidamente
+    @Bean
+    public RestTemplate geocodingRestTemplate(
+            RestTemplateBuilder builder,
+            @Value("${geocoding.nominatim.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${geocoding.nominatim.read-timeout:5s}") Duration readTimeout) {
+        return builder
+                .setConnectTimeout(connectTimeout)
+                .setReadTimeout(readTimeout)
+                .build();
+    }
+
+    // Cliente não bloqueante do caminho assíncrono; mantém conexões keep-alive abertas entre as chamadas.
+    // Poucas threads bastam para completar as respostas; o executor padrão criaria uma por resposta simultânea
+    @Bean
+    public HttpClient geocodingHttpClient(
+            @Value("${geocoding.nominatim.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${geocoding.nominatim.client-threads:2}") int clientThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(Executors.newFixedThreadPool(clientThreads, runnable -> {
+                    Thread thread = new Thread(runnable, "geocoding-http-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .build();
+    }
+
+    // Provedor consultado pelo caminho remoto; stub dispensa rede em desenvolvimento e testes de carga.
+    // Para simular um Nominatim lento, aponte geocoding.nominatim.base-url para o stand-in local.
+    // No modo offline o gazetteer responde e o provedor remoto, se habilitado, só detalha o endereço
+    @Bean
+    public GeocodingProvider geocodingProvider(
+            @Value("${geocoding.mode:remote}") String mode,
+            @Value("${geocoding.provider:nominatim}") String provider,
+            @Value("${geocoding.offline.remote-fallback:false}") boolean remoteFallback,
+            ObjectProvider<NominatimClient> nominatimClient,
+            ObjectProvider<OfflineReverseGeocoder> offlineReverseGeocoder) {
+        GeocodingProvider selected = switch (mode) {
+            case "remote" -> remoteProvider(provider, nominatimClient);
+            case "offline" -> new OfflineGeocodingProvider(offlineReverseGeocoder.getObject(),
+                    remoteFallback ? remoteProvider(provider, nominatimClient) : null);
+            default -> throw new IllegalStateException("Modo de geocodificação desconhecido: " + mode);
+        };
+        logger.info("Provedor de geocodificação: {}", selected.name());
+        return selected;
+    }
+
+    private static GeocodingProvider remoteProvider(String provider, ObjectProvider<NominatimClient> nominatimClient) {
+        return switch (provider) {
+            case "nominatim" -> nominatimClient.getObject();
+            case "stub" -> new StubGeocodingProvider();
+            default -> throw new IllegalStateException("Provedor de geocodificação desconhecido: " + provider);
+        };
+    }
+
+    @Bean
+    public CircuitBreaker geocodingCircuitBreaker(
+            @Qualifier("geocodingProvider") GeocodingProvider geocodingProvider,
+            @Value("${geocoding.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${geocoding.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${geocoding.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${geocoding.circuit-breaker.open-duration:30s}") Duration openDuration) {
+        return new CircuitBreaker(geocodingProvider.name(), windowSize, minimumCalls, failureRateThreshold, openDuration);
+    }
+
+    @Bean
+    public Bulkhead geocodingBulkhead(
+            @Qualifier("geocodingProvider") GeocodingProvider geocodingProvider,
+            @Value("${geocoding.bulkhead.max-concurrent-calls:4}") int maxConcurrentCalls,
+            @Value("${geocoding.bulkhead.max-wait:500ms}") Duration maxWait) {
+        return new Bulkhead(geocodingProvider.name(), maxConcurrentCalls, maxWait);
+    }
+
+    // Gazetteer carregado na inicialização; sem ele o modo offline não sobe. Os nomes de estado (admin1) são
+    // opcionais e só valem para o formato de cidades
+    @Bean
+    @ConditionalOnProperty(name = "geocoding.mode", havingValue = "offline")
+    public OfflineReverseGeocoder offlineReverseGeocoder(
+            @Value("${geocoding.offline.gazetteer}") Resource gazetteer,
+            @Value("${geocoding.offline.admin1-codes:#{null}}") Resource admin1Codes,
+            @Value("${geocoding.offline.max-distance-km:50}") double maxDistanceKm) throws IOException {
+        long start = System.nanoTime();
+        Map<String, String> admin1Names = Map.of();
+        if (admin1Codes != null) {
+            try (BufferedReader reader = open(admin1Codes)) {
+                admin1Names = OfflineReverseGeocoder.loadAdmin1Names(reader);
+            }
+        }
+        try (BufferedReader reader = open(gazetteer)) {
+            OfflineReverseGeocoder geocoder = OfflineReverseGeocoder.load(reader, admin1Names, maxDistanceKm);
+            logger.info("Gazetteer {} carregado: {} localidades em {} ms", gazetteer.getDescription(),
+                    geocoder.size(), (System.nanoTime() - start) / 1_000_000);
+            return geocoder;
+        }
+    }
+
+    private static BufferedReader open(Resource resource) throws IOException {
+        InputStream input = resource.getInputStream();
+        if (resource.getFilename() != null && resource.getFilename().endsWith(".gz")) {
+            input = new GZIPInputStream(input);
+        }
+        return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+}
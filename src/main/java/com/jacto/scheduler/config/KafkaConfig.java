@@ -57,7 +57,7 @@ public class KafkaConfig {
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, consumerGroupId);
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "com.jacto.scheduler.model");
+        configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "com.jacto.scheduler.model,com.jacto.scheduler.messaging");
         return new DefaultKafkaConsumerFactory<>(configProps);
     }
 
@@ -2,13 +2,19 @@ package com.jacto.scheduler.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jacto.scheduler.resilience.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+
 @Configuration
 public class RedisConfig {
 
@@ -38,4 +44,41 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    // Agendamentos em cache: um hash por agendamento, com os campos montados pelo SchedulingCacheFormat
+    @Bean
+    public RedisTemplate<String, byte[]> schedulingRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    // Protege o caminho dos agendamentos (ver RedisGuard): aberto, os comandos nem chegam ao Redis
+    @Bean
+    public CircuitBreaker redisCircuitBreaker(
+            @Value("${scheduling.cache.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${scheduling.cache.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${scheduling.cache.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${scheduling.cache.circuit-breaker.open-duration:10s}") Duration openDuration) {
+        return new CircuitBreaker("redis", windowSize, minimumCalls, failureRateThreshold, openDuration);
+    }
+
+    // Assinaturas pub/sub (invalidação do cache local de agendamentos)
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        // Iniciado pelo SchedulingLocalCache, que tolera o Redis fora do ar na subida
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            @Override
+            public boolean isAutoStartup() {
+                return false;
+            }
+        };
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
@@ -0,0 +1,12 @@
+package com.jacto.scheduler.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Habilita @Async (geocodificação pós-escrita) e @Scheduled (backfill, caches e, se ligados, lembretes)
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class TaskConfig {
+}
@@ -6,20 +6,26 @@ import com.jacto.scheduler.payload.request.SchedulingUpdateRequest;
 import com.jacto.scheduler.payload.response.MessageResponse;
 import com.jacto.scheduler.payload.response.SchedulingResponse;
 import com.jacto.scheduler.payload.response.TechnicianPerformanceResponse;
+import com.jacto.scheduler.service.SchedulingCursor;
+import com.jacto.scheduler.service.SchedulingPage;
 import com.jacto.scheduler.service.SchedulingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -29,49 +35,70 @@ import java.util.List;
 public class SchedulingController {
 
     private final SchedulingService schedulingService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public SchedulingController(SchedulingService schedulingService) {
+    public SchedulingController(
+            SchedulingService schedulingService,
+            @Value("${scheduling.page.default-size:50}") int defaultPageSize,
+            @Value("${scheduling.page.max-size:200}") int maxPageSize) {
         this.schedulingService = schedulingService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     @GetMapping
     @PreAuthorize("hasRole('TECNICO') or hasRole('ADMIN')")
     @Operation(
         summary = "Listar todos os agendamentos",
-        description = "Retorna todos os agendamentos do técnico autenticado",
+        description = "Retorna os agendamentos do técnico autenticado, dos mais recentes aos mais antigos, em páginas",
         responses = {
             @ApiResponse(
                 responseCode = "200",
-                description = "Lista de agendamentos",
-                content = @Content(schema = @Schema(implementation = SchedulingResponse.class))
+                description = "Página de agendamentos",
+                headers = @Header(name = HttpHeaders.LINK, description = "Próxima página (rel=\"next\"), ausente na última"),
+                content = @Content(array = @ArraySchema(schema = @Schema(implementation = SchedulingResponse.class)))
             ),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido"),
             @ApiResponse(responseCode = "401", description = "Não autenticado"),
             @ApiResponse(responseCode = "403", description = "Não autorizado")
         }
     )
-    public ResponseEntity<List<SchedulingResponse>> getAllSchedulingsForCurrentUser() {
-        List<SchedulingResponse> allSchedulingsForCurrentUser = schedulingService.getAllSchedulingsForCurrentUser();
-        return ResponseEntity.ok(allSchedulingsForCurrentUser);
+    public ResponseEntity<byte[]> getAllSchedulingsForCurrentUser(
+            @Parameter(description = "Token de continuação recebido no link da página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Itens por página") @RequestParam(required = false) Integer size) {
+        int pageSize = pageSize(size);
+        SchedulingPage<byte[]> page =
+                schedulingService.getAllSchedulingsJsonForCurrentUser(SchedulingCursor.decode(cursor), pageSize);
+        return json(page, pageSize);
     }
 
     @GetMapping("/upcoming")
     @PreAuthorize("hasRole('TECNICO') or hasRole('ADMIN')")
     @Operation(
         summary = "Listar agendamentos futuros",
-        description = "Retorna todos os agendamentos futuros do técnico autenticado",
+        description = "Retorna os agendamentos futuros do técnico autenticado, dos mais próximos aos mais distantes, em páginas",
         responses = {
             @ApiResponse(
                 responseCode = "200",
-                description = "Lista de agendamentos futuros",
-                content = @Content(schema = @Schema(implementation = SchedulingResponse.class))
+                description = "Página de agendamentos futuros",
+                headers = @Header(name = HttpHeaders.LINK, description = "Próxima página (rel=\"next\"), ausente na última"),
+                content = @Content(array = @ArraySchema(schema = @Schema(implementation = SchedulingResponse.class)))
             ),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido"),
             @ApiResponse(responseCode = "401", description = "Não autenticado"),
             @ApiResponse(responseCode = "403", description = "Não autorizado")
         }
     )
-    public ResponseEntity<List<SchedulingResponse>> getUpcomingSchedulingsForCurrentUser() {
-        List<SchedulingResponse> schedulings = schedulingService.getUpcomingSchedulingsForCurrentUser();
-        return ResponseEntity.ok(schedulings);
+    public ResponseEntity<byte[]> getUpcomingSchedulingsForCurrentUser(
+            @Parameter(description = "Token de continuação recebido no link da página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Itens por página") @RequestParam(required = false) Integer size) {
+        int pageSize = pageSize(size);
+        SchedulingPage<byte[]> page =
+                schedulingService.getUpcomingSchedulingsJsonForCurrentUser(SchedulingCursor.decode(cursor), pageSize);
+        return json(page, pageSize);
     }
 
     @GetMapping("/{id}")
@@ -90,10 +117,10 @@ public class SchedulingController {
             @ApiResponse(responseCode = "404", description = "Agendamento não encontrado")
         }
     )
-    public ResponseEntity<SchedulingResponse> getSchedulingById(
+    public ResponseEntity<byte[]> getSchedulingById(
             @Parameter(description = "ID do agendamento") @PathVariable Long id) {
-        SchedulingResponse scheduling = schedulingService.getSchedulingById(id);
-        return ResponseEntity.ok(scheduling);
+        byte[] scheduling = schedulingService.getSchedulingJsonById(id);
+        return json(scheduling);
     }
 
     @PostMapping
@@ -208,4 +235,29 @@ public class SchedulingController {
         TechnicianPerformanceResponse performance = schedulingService.getTechnicianPerformance(id);
         return ResponseEntity.ok(performance);
     }
+
+    // Corpo já serializado (ver SchedulingJsonWriter): vai direto à resposta, sem passar pelo Jackson
+    private static ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // O corpo continua sendo o array da página; a continuação vai no cabeçalho Link, com o mesmo tamanho de página
+    private static ResponseEntity<byte[]> json(SchedulingPage<byte[]> page, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (page.next() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.next().encode())
+                    .replaceQueryParam("size", size)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.content());
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
 }
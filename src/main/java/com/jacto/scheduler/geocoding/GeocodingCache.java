@@ -0,0 +1,201 @@
+package com.jacto.scheduler.geocoding;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class GeocodingCache implements MeterBinder {
+
+    public static final long DEFAULT_MAX_SIZE = 10_000;
+    public static final Duration DEFAULT_TTL = Duration.ofDays(7);
+    // 0.0001 grau equivale a aproximadamente 11 metros
+    public static final double DEFAULT_PRECISION = 0.0001;
+
+    private final Cache<CoordinateKey, Entry> cache;
+    private final double precision;
+    private final long maxSize;
+    private final Duration ttl;
+    private final Clock clock;
+    // Cache da execução anterior; consultado só quando a entrada não está em memória
+    private volatile GeocodingSnapshot snapshot;
+    private final AtomicLong snapshotHits = new AtomicLong();
+
+    @Autowired
+    public GeocodingCache(
+            @Value("${geocoding.cache.max-size:10000}") long maxSize,
+            @Value("${geocoding.cache.ttl:7d}") Duration ttl,
+            @Value("${geocoding.cache.precision:0.0001}") double precision) {
+        this(maxSize, ttl, precision, Clock.systemUTC());
+    }
+
+    GeocodingCache(long maxSize, Duration ttl, double precision, Clock clock) {
+        if (precision <= 0) {
+            throw new IllegalArgumentException("A precisão do cache de geocodificação deve ser positiva");
+        }
+        this.precision = precision;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.clock = clock;
+        // Caffeine usa W-TinyLFU: a frequência de acesso decide quem sai quando o cache está cheio.
+        // Cada entrada vence ttl depois da consulta ao provedor, que pode ter sido numa execução anterior
+        // (ver snapshot); o relógio de parede é o mesmo nos dois casos
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<CoordinateKey, Entry>() {
+                    @Override
+                    public long expireAfterCreate(CoordinateKey key, Entry entry, long currentTime) {
+                        return timeToLive(entry).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(CoordinateKey key, Entry entry, long currentTime,
+                                                  long currentDuration) {
+                        return timeToLive(entry).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(CoordinateKey key, Entry entry, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .recordStats()
+                .build();
+    }
+
+    public GeocodingCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TTL, DEFAULT_PRECISION);
+    }
+
+    public CoordinateKey keyFor(double latitude, double longitude) {
+        return new CoordinateKey(
+                Math.round(latitude / precision),
+                Math.round(longitude / precision));
+    }
+
+    // Graus por célula da grade
+    public double precision() {
+        return precision;
+    }
+
+    public GeoLocationDetails get(double latitude, double longitude) {
+        CoordinateKey key = keyFor(latitude, longitude);
+        Entry entry = cache.getIfPresent(key);
+        GeocodingSnapshot current = snapshot;
+        if (entry == null && current != null) {
+            entry = current.get(key);
+            if (entry == null || isExpired(entry)) {
+                return null;
+            }
+            // Promovida para a memória com o que resta do TTL: o arquivo só é lido uma vez por célula
+            snapshotHits.incrementAndGet();
+            cache.put(key, entry);
+        }
+        return entry == null ? null : entry.details();
+    }
+
+    public void put(double latitude, double longitude, GeoLocationDetails details) {
+        put(latitude, longitude, details, clock.millis());
+    }
+
+    // Endereço consultado em writtenAt (epoch ms), possivelmente por outro nó: vence pelo que resta do TTL, e
+    // não por um TTL inteiro a partir de agora. Um já vencido não é guardado
+    public void put(double latitude, double longitude, GeoLocationDetails details, long writtenAt) {
+        Entry entry = new Entry(details, writtenAt);
+        if (!isExpired(entry)) {
+            cache.put(keyFor(latitude, longitude), entry);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        snapshot = null;
+    }
+
+    // Ignora snapshots de outra grade ou em que todas as entradas já venceram. Nos demais, as vencidas nunca
+    // saem do arquivo: get e saveSnapshot as descartam
+    public boolean loadSnapshot(Path path) throws IOException {
+        GeocodingSnapshot loaded = GeocodingSnapshot.open(path);
+        if (loaded.precision() != precision || !loaded.newestWrittenAt().plus(ttl).isAfter(clock.instant())) {
+            return false;
+        }
+        snapshot = loaded;
+        return true;
+    }
+
+    // Entradas em memória têm prioridade; as do snapshot anterior ainda não promovidas completam até o tamanho máximo.
+    // Cada uma leva o momento da consulta original, então regravar não renova o TTL
+    public int saveSnapshot(Path path) throws IOException {
+        Map<CoordinateKey, Entry> entries = new HashMap<>();
+        cache.asMap().forEach((key, entry) -> {
+            if (!isExpired(entry)) {
+                entries.put(key, entry);
+            }
+        });
+        GeocodingSnapshot previous = snapshot;
+        if (previous != null) {
+            previous.forEach((key, entry) -> {
+                if (entries.size() < maxSize && !isExpired(entry)) {
+                    entries.putIfAbsent(key, entry);
+                }
+            });
+        }
+        GeocodingSnapshot.write(path, precision, entries);
+        snapshot = GeocodingSnapshot.open(path);
+        return entries.size();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Expõe cache.gets (hit/miss), cache.evictions e cache.size com a tag cache=geocoding
+        CaffeineCacheMetrics.monitor(registry, cache, "geocoding");
+        FunctionCounter.builder("geocoding.cache.snapshot.hits", snapshotHits, AtomicLong::get)
+                .description("Entradas recuperadas do snapshot em disco após um restart")
+                .register(registry);
+    }
+
+    private boolean isExpired(Entry entry) {
+        return timeToLive(entry).isZero();
+    }
+
+    // O que resta do TTL, pelo relógio de parede
+    private Duration timeToLive(Entry entry) {
+        return Duration.ofMillis(Math.max(0, entry.writtenAt() + ttl.toMillis() - clock.millis()));
+    }
+
+    // Coordenadas arredondadas para a grade definida pela precisão
+    public record CoordinateKey(long latitudeCell, long longitudeCell) {
+    }
+
+    // Endereço e o momento (epoch ms) em que o provedor o devolveu
+    public record Entry(GeoLocationDetails details, long writtenAt) {
+    }
+}
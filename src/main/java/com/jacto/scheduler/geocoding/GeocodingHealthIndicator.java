@@ -0,0 +1,36 @@
+package com.jacto.scheduler.geocoding;
+
+import com.jacto.scheduler.resilience.Bulkhead;
+import com.jacto.scheduler.resilience.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// Geocodificação é opcional: com o circuito aberto a aplicação continua UP e apenas sinaliza a degradação
+@Component
+public class GeocodingHealthIndicator implements HealthIndicator {
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public GeocodingHealthIndicator(
+            @Qualifier("geocodingCircuitBreaker") CircuitBreaker circuitBreaker,
+            @Qualifier("geocodingBulkhead") Bulkhead bulkhead) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Health health() {
+        CircuitBreaker.State state = circuitBreaker.getState();
+        return Health.up()
+                .withDetail("provider", circuitBreaker.getName())
+                .withDetail("circuitBreaker", state)
+                .withDetail("degraded", state != CircuitBreaker.State.CLOSED)
+                .withDetail("notPermittedCalls", circuitBreaker.getNotPermittedCalls())
+                .withDetail("availableCalls", bulkhead.getAvailableCalls())
+                .withDetail("maxConcurrentCalls", bulkhead.getMaxConcurrentCalls())
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.jacto.scheduler.geocoding;
+
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+
+import java.util.concurrent.CompletableFuture;
+
+// Fonte da geocodificação reversa; cache, coalescência e proteções ficam no GeocodingService
+public interface GeocodingProvider {
+
+    // Identifica o provedor em logs e no health check
+    String name();
+
+    GeoLocationDetails reverse(double latitude, double longitude);
+
+    // Provedores que respondem sem rede dispensam o limite de taxa, o circuit breaker e o bulkhead do serviço
+    // externo
+    default boolean isLocal() {
+        return false;
+    }
+
+    // Provedores locais respondem na hora; só os remotos precisam de uma implementação realmente assíncrona
+    default CompletableFuture<GeoLocationDetails> reverseAsync(double latitude, double longitude) {
+        try {
+            return CompletableFuture.completedFuture(reverse(latitude, longitude));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
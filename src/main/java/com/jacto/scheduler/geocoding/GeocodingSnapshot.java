@@ -0,0 +1,222 @@
+package com.jacto.scheduler.geocoding;
+
+import com.jacto.scheduler.geocoding.GeocodingCache.CoordinateKey;
+import com.jacto.scheduler.geocoding.GeocodingCache.Entry;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+// Snapshot do cache de geocodificação em arquivo mapeado em memória.
+// Layout: cabeçalho, índice de largura fixa ordenado pela célula e heap com os textos em UTF-8.
+// A abertura só valida o cabeçalho; cada entrada é decodificada na primeira consulta
+public final class GeocodingSnapshot {
+
+    private static final int MAGIC = 0x47454F31; // "GEO1"
+    // Versão 2: momento da consulta por entrada. Arquivos da versão 1 são recusados e o cache começa vazio
+    private static final int VERSION = 2;
+    // magic, versão, precisão, consulta mais recente entre as entradas (epoch ms), entradas, reservado
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4 + 4;
+    // célula de latitude, célula de longitude, consultada em (epoch ms), deslocamento no heap, tamanho do registro
+    private static final int INDEX_ENTRY_BYTES = 8 + 8 + 8 + 4 + 4;
+    private static final int FIELDS = 6;
+    private static final short NULL_FIELD = -1;
+    private static final Comparator<CoordinateKey> KEY_ORDER = Comparator
+            .comparingLong(CoordinateKey::latitudeCell)
+            .thenComparingLong(CoordinateKey::longitudeCell);
+
+    private final ByteBuffer buffer;
+    private final double precision;
+    private final Instant newestWrittenAt;
+    private final int size;
+    private final int heapStart;
+
+    private GeocodingSnapshot(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Snapshot de geocodificação em formato desconhecido");
+        }
+        this.buffer = buffer;
+        this.precision = buffer.getDouble(8);
+        this.newestWrittenAt = Instant.ofEpochMilli(buffer.getLong(16));
+        this.size = buffer.getInt(24);
+        this.heapStart = HEADER_BYTES + size * INDEX_ENTRY_BYTES;
+        if (size < 0 || heapStart > buffer.capacity()) {
+            throw new IllegalArgumentException("Snapshot de geocodificação truncado");
+        }
+    }
+
+    // O mapeamento continua válido depois que o canal é fechado
+    public static GeocodingSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new GeocodingSnapshot(buffer);
+        }
+    }
+
+    // Escreve num arquivo temporário e troca de uma vez: quem está lendo o snapshot anterior não é afetado
+    public static void write(Path path, double precision, Map<CoordinateKey, Entry> entries) throws IOException {
+        List<Record> records = new ArrayList<>(entries.size());
+        for (Map.Entry<CoordinateKey, Entry> entry : entries.entrySet()) {
+            byte[] encoded = encode(entry.getValue().details());
+            if (encoded != null) {
+                records.add(new Record(entry.getKey(), entry.getValue().writtenAt(), encoded));
+            }
+        }
+        records.sort(Comparator.comparing(Record::key, KEY_ORDER));
+
+        long heapBytes = 0;
+        long newestWrittenAt = 0;
+        for (Record record : records) {
+            heapBytes += record.bytes().length;
+            newestWrittenAt = Math.max(newestWrittenAt, record.writtenAt());
+        }
+        long totalBytes = HEADER_BYTES + (long) records.size() * INDEX_ENTRY_BYTES + heapBytes;
+        if (totalBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Snapshot de geocodificação excede 2 GB");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) totalBytes);
+        buffer.putInt(MAGIC).putInt(VERSION).putDouble(precision).putLong(newestWrittenAt)
+                .putInt(records.size()).putInt(0);
+        int heapOffset = 0;
+        for (Record record : records) {
+            buffer.putLong(record.key().latitudeCell())
+                    .putLong(record.key().longitudeCell())
+                    .putLong(record.writtenAt())
+                    .putInt(heapOffset)
+                    .putInt(record.bytes().length);
+            heapOffset += record.bytes().length;
+        }
+        for (Record record : records) {
+            buffer.put(record.bytes());
+        }
+        buffer.flip();
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public Entry get(CoordinateKey key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = HEADER_BYTES + mid * INDEX_ENTRY_BYTES;
+            int comparison = Long.compare(buffer.getLong(offset), key.latitudeCell());
+            if (comparison == 0) {
+                comparison = Long.compare(buffer.getLong(offset + 8), key.longitudeCell());
+            }
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return entry(offset);
+            }
+        }
+        return null;
+    }
+
+    public void forEach(BiConsumer<CoordinateKey, Entry> action) {
+        for (int i = 0; i < size; i++) {
+            int offset = HEADER_BYTES + i * INDEX_ENTRY_BYTES;
+            action.accept(new CoordinateKey(buffer.getLong(offset), buffer.getLong(offset + 8)), entry(offset));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double precision() {
+        return precision;
+    }
+
+    public Instant newestWrittenAt() {
+        return newestWrittenAt;
+    }
+
+    private Entry entry(int indexOffset) {
+        return new Entry(decode(indexOffset), buffer.getLong(indexOffset + 16));
+    }
+
+    private GeoLocationDetails decode(int indexOffset) {
+        int position = heapStart + buffer.getInt(indexOffset + 24);
+        String[] fields = new String[FIELDS];
+        for (int i = 0; i < FIELDS; i++) {
+            short length = buffer.getShort(position);
+            position += 2;
+            if (length != NULL_FIELD) {
+                byte[] bytes = new byte[length];
+                buffer.get(position, bytes);
+                fields[i] = new String(bytes, StandardCharsets.UTF_8);
+                position += length;
+            }
+        }
+
+        GeoLocationDetails details = new GeoLocationDetails();
+        details.setDisplayName(fields[0]);
+        details.setCity(fields[1]);
+        details.setState(fields[2]);
+        details.setPostalCode(fields[3]);
+        details.setCountry(fields[4]);
+        details.setFormattedAddress(fields[5]);
+        return details;
+    }
+
+    // Cada campo: tamanho (short, -1 para nulo) seguido dos bytes; null quando algum texto não cabe no formato
+    private static byte[] encode(GeoLocationDetails details) {
+        String[] fields = {details.getDisplayName(), details.getCity(), details.getState(),
+                details.getPostalCode(), details.getCountry(), details.getFormattedAddress()};
+        byte[][] encoded = new byte[FIELDS][];
+        int length = 0;
+        for (int i = 0; i < FIELDS; i++) {
+            length += 2;
+            if (fields[i] != null) {
+                encoded[i] = fields[i].getBytes(StandardCharsets.UTF_8);
+                if (encoded[i].length > Short.MAX_VALUE) {
+                    return null;
+                }
+                length += encoded[i].length;
+            }
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(length);
+        for (byte[] field : encoded) {
+            if (field == null) {
+                record.putShort(NULL_FIELD);
+            } else {
+                record.putShort((short) field.length).put(field);
+            }
+        }
+        return record.array();
+    }
+
+    private record Record(CoordinateKey key, long writtenAt, byte[] bytes) {
+    }
+}
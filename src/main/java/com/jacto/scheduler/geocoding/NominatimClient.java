@@ -0,0 +1,135 @@
+package com.jacto.scheduler.geocoding;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Chamada /reverse do Nominatim: bloqueante via RestTemplate ou assíncrona via HttpClient do JDK
+@Component
+public class NominatimClient implements GeocodingProvider {
+
+    private static final ObjectMapper RESPONSE_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> RESPONSE_TYPE = new TypeReference<>() {
+    };
+
+    private final String baseUrl;
+    private final RestTemplate restTemplate;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+
+    @Autowired
+    public NominatimClient(
+            @Value("${geocoding.nominatim.base-url:https://nominatim.openstreetmap.org}") String baseUrl,
+            @Qualifier("geocodingRestTemplate") RestTemplate restTemplate,
+            @Qualifier("geocodingHttpClient") HttpClient httpClient,
+            @Value("${geocoding.nominatim.read-timeout:5s}") Duration requestTimeout) {
+        this.baseUrl = baseUrl;
+        this.restTemplate = restTemplate;
+        this.httpClient = httpClient;
+        this.requestTimeout = requestTimeout;
+    }
+
+    public NominatimClient(String baseUrl, RestTemplate restTemplate) {
+        this(baseUrl, restTemplate, HttpClient.newHttpClient(), Duration.ofSeconds(5));
+    }
+
+    @Override
+    public String name() {
+        return "nominatim";
+    }
+
+    @Override
+    public GeoLocationDetails reverse(double latitude, double longitude) {
+        Map<String, Object> response = restTemplate.getForObject(reverseUrl(latitude, longitude), Map.class);
+        return toLocationDetails(response, latitude, longitude);
+    }
+
+    // Nenhuma thread fica presa aguardando a resposta; as conexões são reaproveitadas pelo HttpClient
+    @Override
+    public CompletableFuture<GeoLocationDetails> reverseAsync(double latitude, double longitude) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(reverseUrl(latitude, longitude)))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() >= 400) {
+                        throw new RuntimeException(
+                                "Serviço de geocodificação respondeu com status " + response.statusCode());
+                    }
+                    return toLocationDetails(parse(response.body()), latitude, longitude);
+                });
+    }
+
+    private String reverseUrl(double latitude, double longitude) {
+        return UriComponentsBuilder.fromHttpUrl(baseUrl + "/reverse")
+                .queryParam("format", "json")
+                .queryParam("lat", latitude)
+                .queryParam("lon", longitude)
+                .queryParam("zoom", 18)
+                .queryParam("addressdetails", 1)
+                .build()
+                .toUriString();
+    }
+
+    private static Map<String, Object> parse(byte[] body) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            return RESPONSE_MAPPER.readValue(body, RESPONSE_TYPE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Resposta inválida do serviço de geocodificação", e);
+        }
+    }
+
+    private static GeoLocationDetails toLocationDetails(Map<String, Object> response, double latitude, double longitude) {
+        if (response == null) {
+            throw new RuntimeException("Resposta vazia do serviço de geocodificação");
+        }
+
+        GeoLocationDetails details = new GeoLocationDetails();
+        details.setLatitude(latitude);
+        details.setLongitude(longitude);
+
+        if (response.containsKey("display_name")) {
+            details.setFormattedAddress((String) response.get("display_name"));
+        }
+
+        if (response.containsKey("address")) {
+            Map<String, String> address = (Map<String, String>) response.get("address");
+
+            if (address.containsKey("city")) {
+                details.setCity(address.get("city"));
+            }
+            if (address.containsKey("state")) {
+                details.setState(address.get("state"));
+            }
+            if (address.containsKey("postcode")) {
+                details.setPostalCode(address.get("postcode"));
+            }
+            if (address.containsKey("country")) {
+                details.setCountry(address.get("country"));
+            }
+        }
+
+        return details;
+    }
+}
@@ -0,0 +1,79 @@
+package com.jacto.scheduler.geocoding;
+
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Modo offline: cidade, estado, CEP e país vêm do gazetteer local. Com um provedor remoto de apoio, ele só
+// detalha o endereço formatado; se falhar, fica o resultado local
+public class OfflineGeocodingProvider implements GeocodingProvider {
+
+    private final OfflineReverseGeocoder gazetteer;
+    private final GeocodingProvider remote;
+
+    public OfflineGeocodingProvider(OfflineReverseGeocoder gazetteer) {
+        this(gazetteer, null);
+    }
+
+    // remote pode ser null: sem rede nenhuma
+    public OfflineGeocodingProvider(OfflineReverseGeocoder gazetteer, GeocodingProvider remote) {
+        this.gazetteer = gazetteer;
+        this.remote = remote;
+    }
+
+    @Override
+    public String name() {
+        return "offline";
+    }
+
+    @Override
+    public boolean isLocal() {
+        return remote == null;
+    }
+
+    @Override
+    public GeoLocationDetails reverse(double latitude, double longitude) {
+        if (remote == null) {
+            return gazetteer.reverse(latitude, longitude);
+        }
+
+        GeoLocationDetails local = gazetteer.nearest(latitude, longitude);
+        try {
+            return withRemoteAddress(local, remote.reverse(latitude, longitude));
+        } catch (RuntimeException e) {
+            if (local == null) {
+                throw e;
+            }
+            return local;
+        }
+    }
+
+    @Override
+    public CompletableFuture<GeoLocationDetails> reverseAsync(double latitude, double longitude) {
+        if (remote == null) {
+            return GeocodingProvider.super.reverseAsync(latitude, longitude);
+        }
+
+        GeoLocationDetails local = gazetteer.nearest(latitude, longitude);
+        return remote.reverseAsync(latitude, longitude).handle((details, error) -> {
+            if (error == null) {
+                return withRemoteAddress(local, details);
+            }
+            if (local == null) {
+                throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+            }
+            return local;
+        });
+    }
+
+    private static GeoLocationDetails withRemoteAddress(GeoLocationDetails local, GeoLocationDetails remote) {
+        if (local == null) {
+            return remote;
+        }
+        if (remote.getFormattedAddress() != null) {
+            local.setFormattedAddress(remote.getFormattedAddress());
+        }
+        return local;
+    }
+}
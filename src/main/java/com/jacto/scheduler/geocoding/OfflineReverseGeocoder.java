@@ -0,0 +1,319 @@
+package com.jacto.scheduler.geocoding;
+
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+// Geocodificação reversa sem rede: k-d tree implícita sobre vetores unitários (x, y, z) em arrays primitivos
+public final class OfflineReverseGeocoder {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final Locale BRAZIL = new Locale("pt", "BR");
+
+    // Formato de códigos postais do GeoNames (allCountries.txt de /export/zip)
+    private static final int POSTAL_COLUMNS = 11;
+    // Formato de cidades do GeoNames (cities500.txt, cities1000.txt...); o estado vem como código admin1
+    private static final int CITIES_COLUMNS = 15;
+
+    private final float[] tree;
+    private final int[] records;
+    private final String[] places;
+    private final String[] postalCodes;
+    private final int[] stateIds;
+    private final int[] countryIds;
+    private final String[] states;
+    private final String[] countries;
+    private final double maxDistanceKm;
+
+    private OfflineReverseGeocoder(Gazetteer gazetteer, double maxDistanceKm) {
+        int size = gazetteer.size;
+        this.places = Arrays.copyOf(gazetteer.places, size);
+        this.postalCodes = Arrays.copyOf(gazetteer.postalCodes, size);
+        this.stateIds = Arrays.copyOf(gazetteer.stateIds, size);
+        this.countryIds = Arrays.copyOf(gazetteer.countryIds, size);
+        this.states = gazetteer.states.toArray(new String[0]);
+        this.countries = gazetteer.countries.toArray(new String[0]);
+        this.maxDistanceKm = maxDistanceKm;
+
+        float[] points = Arrays.copyOf(gazetteer.points, size * 3);
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        build(points, order, 0, size, 0);
+
+        // Reordenar as coordenadas na ordem da árvore para percorrer memória contígua
+        this.tree = new float[size * 3];
+        this.records = order;
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(points, order[i] * 3, tree, i * 3, 3);
+        }
+    }
+
+    public static OfflineReverseGeocoder load(BufferedReader reader, double maxDistanceKm) throws IOException {
+        return load(reader, Map.of(), maxDistanceKm);
+    }
+
+    // admin1Names traduz o código admin1 do formato de cidades ("BR.27") para o nome do estado; sem tradução o
+    // estado fica vazio
+    public static OfflineReverseGeocoder load(BufferedReader reader, Map<String, String> admin1Names,
+                                              double maxDistanceKm) throws IOException {
+        Gazetteer gazetteer = new Gazetteer(admin1Names);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isBlank() && line.charAt(0) != '#') {
+                gazetteer.add(line.split("\t", -1));
+            }
+        }
+        if (gazetteer.size == 0) {
+            throw new IllegalArgumentException("Gazetteer vazio ou em formato desconhecido");
+        }
+        return new OfflineReverseGeocoder(gazetteer, maxDistanceKm);
+    }
+
+    // admin1CodesASCII.txt do GeoNames: código ("BR.27"), nome, nome em ASCII e id
+    public static Map<String, String> loadAdmin1Names(BufferedReader reader) throws IOException {
+        Map<String, String> names = new HashMap<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] columns = line.split("\t", -1);
+            if (columns.length >= 2 && !columns[0].isBlank() && !columns[1].isBlank()) {
+                names.put(columns[0], columns[1]);
+            }
+        }
+        return names;
+    }
+
+    public int size() {
+        return records.length;
+    }
+
+    public GeoLocationDetails reverse(double latitude, double longitude) {
+        GeoLocationDetails details = nearest(latitude, longitude);
+        if (details == null) {
+            throw new RuntimeException("Nenhuma localidade do gazetteer próxima às coordenadas informadas");
+        }
+        return details;
+    }
+
+    // Retorna null quando o ponto mais próximo está além da distância máxima configurada
+    public GeoLocationDetails nearest(double latitude, double longitude) {
+        double latRad = Math.toRadians(latitude);
+        double lonRad = Math.toRadians(longitude);
+        double x = Math.cos(latRad) * Math.cos(lonRad);
+        double y = Math.cos(latRad) * Math.sin(lonRad);
+        double z = Math.sin(latRad);
+
+        Nearest best = new Nearest();
+        search(0, records.length, 0, x, y, z, best);
+
+        double distanceKm = 2 * Math.asin(Math.min(1.0, Math.sqrt(best.distance2) / 2)) * EARTH_RADIUS_KM;
+        if (best.node < 0 || distanceKm > maxDistanceKm) {
+            return null;
+        }
+
+        int record = records[best.node];
+        GeoLocationDetails details = new GeoLocationDetails();
+        details.setLatitude(latitude);
+        details.setLongitude(longitude);
+        details.setCity(places[record]);
+        details.setState(states[stateIds[record]]);
+        details.setPostalCode(postalCodes[record]);
+        details.setCountry(countries[countryIds[record]]);
+        details.setDisplayName(places[record]);
+        details.setFormattedAddress(format(details));
+        // Distância em km até a localidade do gazetteer
+        details.setDistance(distanceKm);
+        return details;
+    }
+
+    private void search(int lo, int hi, int depth, double x, double y, double z, Nearest best) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int offset = mid * 3;
+            double dx = x - tree[offset];
+            double dy = y - tree[offset + 1];
+            double dz = z - tree[offset + 2];
+            double distance2 = dx * dx + dy * dy + dz * dz;
+            if (distance2 < best.distance2) {
+                best.distance2 = distance2;
+                best.node = mid;
+            }
+
+            // Primeiro o lado do plano em que o ponto está: a melhor distância encolhe cedo e o outro lado
+            // só é visitado se a esfera da melhor distância cruzar o plano
+            int axis = depth % 3;
+            double diff = (axis == 0 ? x : axis == 1 ? y : z) - tree[offset + axis];
+            depth++;
+            if (diff < 0) {
+                search(lo, mid, depth, x, y, z, best);
+                lo = mid + 1;
+            } else {
+                search(mid + 1, hi, depth, x, y, z, best);
+                hi = mid;
+            }
+            if (diff * diff >= best.distance2) {
+                return;
+            }
+        }
+    }
+
+    // Mediana de cada intervalo vira o nó; esquerda <= nó <= direita no eixo da profundidade
+    private static void build(float[] points, int[] order, int lo, int hi, int depth) {
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            int axis = depth % 3;
+            select(points, order, lo, hi - 1, mid, axis);
+            build(points, order, lo, mid, depth + 1);
+            lo = mid + 1;
+            depth++;
+        }
+    }
+
+    private static void select(float[] points, int[] order, int left, int right, int k, int axis) {
+        while (left < right) {
+            float pivot = points[order[(left + right) >>> 1] * 3 + axis];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (points[order[i] * 3 + axis] < pivot) {
+                    i++;
+                }
+                while (points[order[j] * 3 + axis] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = order[i];
+                    order[i] = order[j];
+                    order[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static String format(GeoLocationDetails details) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (String part : new String[]{details.getCity(), details.getState(), details.getPostalCode(), details.getCountry()}) {
+            if (part != null && !part.isBlank()) {
+                joiner.add(part);
+            }
+        }
+        return joiner.toString();
+    }
+
+    private static final class Nearest {
+        private double distance2 = Double.MAX_VALUE;
+        private int node = -1;
+    }
+
+    // Acumula os registros lidos antes de montar a árvore
+    private static final class Gazetteer {
+        private float[] points = new float[3 * 1024];
+        private String[] places = new String[1024];
+        private String[] postalCodes = new String[1024];
+        private int[] stateIds = new int[1024];
+        private int[] countryIds = new int[1024];
+        private final List<String> states = new ArrayList<>();
+        private final List<String> countries = new ArrayList<>();
+        private final Map<String, Integer> stateIndex = new HashMap<>();
+        private final Map<String, Integer> countryIndex = new HashMap<>();
+        private final Map<String, String> admin1Names;
+        private int size;
+
+        Gazetteer(Map<String, String> admin1Names) {
+            this.admin1Names = admin1Names;
+        }
+
+        void add(String[] columns) {
+            String countryCode;
+            String postalCode;
+            String place;
+            String state;
+            String latitude;
+            String longitude;
+            if (columns.length >= CITIES_COLUMNS) {
+                countryCode = columns[8];
+                postalCode = null;
+                place = columns[1];
+                state = admin1Names.get(countryCode + "." + columns[10]);
+                latitude = columns[4];
+                longitude = columns[5];
+            } else if (columns.length >= POSTAL_COLUMNS) {
+                countryCode = columns[0];
+                postalCode = columns[1];
+                place = columns[2];
+                state = columns[3];
+                latitude = columns[9];
+                longitude = columns[10];
+            } else {
+                return;
+            }
+
+            double latRad;
+            double lonRad;
+            try {
+                latRad = Math.toRadians(Double.parseDouble(latitude));
+                lonRad = Math.toRadians(Double.parseDouble(longitude));
+            } catch (NumberFormatException e) {
+                return;
+            }
+
+            if (size == places.length) {
+                grow();
+            }
+            points[size * 3] = (float) (Math.cos(latRad) * Math.cos(lonRad));
+            points[size * 3 + 1] = (float) (Math.cos(latRad) * Math.sin(lonRad));
+            points[size * 3 + 2] = (float) Math.sin(latRad);
+            places[size] = emptyToNull(place);
+            postalCodes[size] = emptyToNull(postalCode);
+            stateIds[size] = intern(emptyToNull(state), states, stateIndex);
+            countryIds[size] = intern(countryName(countryCode), countries, countryIndex);
+            size++;
+        }
+
+        private void grow() {
+            int capacity = places.length * 2;
+            points = Arrays.copyOf(points, capacity * 3);
+            places = Arrays.copyOf(places, capacity);
+            postalCodes = Arrays.copyOf(postalCodes, capacity);
+            stateIds = Arrays.copyOf(stateIds, capacity);
+            countryIds = Arrays.copyOf(countryIds, capacity);
+        }
+
+        private static int intern(String value, List<String> values, Map<String, Integer> index) {
+            return index.computeIfAbsent(value == null ? "" : value, key -> {
+                values.add(value);
+                return values.size() - 1;
+            });
+        }
+
+        private static String countryName(String countryCode) {
+            if (countryCode == null || countryCode.isBlank()) {
+                return null;
+            }
+            String name = new Locale("", countryCode).getDisplayCountry(BRAZIL);
+            return name.isBlank() ? countryCode : name;
+        }
+
+        private static String emptyToNull(String value) {
+            return value == null || value.isBlank() ? null : value;
+        }
+    }
+}
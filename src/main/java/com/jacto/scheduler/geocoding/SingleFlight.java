@@ -0,0 +1,104 @@
+package com.jacto.scheduler.geocoding;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Agrupa chamadas concorrentes para a mesma chave em uma única execução
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedCalls = new AtomicLong();
+
+    public V execute(K key, Duration timeout, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+
+        if (existing != null) {
+            coalescedCalls.incrementAndGet();
+            return await(key, existing, timeout);
+        }
+
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Remover sempre: uma falha não deve ser reaproveitada pelas próximas chamadas
+            inFlight.remove(key, call);
+        }
+    }
+
+    // Versão sem bloqueio: quem chega depois recebe uma cópia do future da chamada em andamento, que expira
+    // após timeout como a espera da versão síncrona
+    public CompletableFuture<V> executeAsync(K key, Duration timeout, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+
+        if (existing != null) {
+            coalescedCalls.incrementAndGet();
+            return existing.copy()
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((value, error) -> {
+                        if (error instanceof TimeoutException) {
+                            // Chamada travada: liberar a chave para que a próxima tente novamente
+                            inFlight.remove(key, existing);
+                        }
+                    });
+        }
+
+        CompletableFuture<V> loaded;
+        try {
+            loaded = loader.get();
+        } catch (RuntimeException e) {
+            loaded = CompletableFuture.failedFuture(e);
+        }
+        loaded.whenComplete((value, error) -> {
+            inFlight.remove(key, call);
+            if (error != null) {
+                call.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error);
+            } else {
+                call.complete(value);
+            }
+        });
+        return call.copy();
+    }
+
+    public long getCoalescedCalls() {
+        return coalescedCalls.get();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(K key, CompletableFuture<V> call, Duration timeout) {
+        try {
+            return call.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Chamada travada: liberar a chave para que a próxima tente novamente
+            inFlight.remove(key, call);
+            throw new RuntimeException("Tempo esgotado aguardando requisição em andamento para " + key, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrompido aguardando requisição em andamento para " + key, e);
+        }
+    }
+}
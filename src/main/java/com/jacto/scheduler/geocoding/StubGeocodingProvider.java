@@ -0,0 +1,28 @@
+package com.jacto.scheduler.geocoding;
+
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+
+import java.util.Locale;
+
+// Endereço fixo e determinístico, para desenvolvimento e testes de carga sem rede
+public class StubGeocodingProvider implements GeocodingProvider {
+
+    @Override
+    public String name() {
+        return "stub";
+    }
+
+    @Override
+    public GeoLocationDetails reverse(double latitude, double longitude) {
+        GeoLocationDetails details = new GeoLocationDetails();
+        details.setLatitude(latitude);
+        details.setLongitude(longitude);
+        details.setDisplayName(String.format(Locale.ROOT, "Local %.4f, %.4f", latitude, longitude));
+        details.setCity("Pompéia");
+        details.setState("São Paulo");
+        details.setPostalCode("17580-000");
+        details.setCountry("Brasil");
+        details.setFormattedAddress(details.getDisplayName() + ", Pompéia, São Paulo, 17580-000, Brasil");
+        return details;
+    }
+}
@@ -0,0 +1,60 @@
+package com.jacto.scheduler.geocoding;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Token bucket com reserva: quem chega primeiro recebe a próxima ficha disponível
+public class TokenBucketRateLimiter {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Taxa e rajada do limitador devem ser positivas");
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = burst;
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public boolean tryAcquire(Duration maxWait) {
+        long waitNanos = reserve(maxWait);
+        if (waitNanos <= 0) {
+            return waitNanos == 0;
+        }
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Reserva a próxima ficha sem dormir: retorna a espera em nanos, ou -1 se ela passaria de maxWait
+    public synchronized long reserve(Duration maxWait) {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        long waitNanos = (long) Math.ceil((1 - tokens) / permitsPerNano);
+        if (waitNanos > maxWait.toNanos()) {
+            return -1;
+        }
+        // Reservar a ficha futura; o saldo negativo enfileira os próximos
+        tokens -= 1;
+        return waitNanos;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+    }
+}
@@ -3,6 +3,7 @@ package com.jacto.scheduler.messaging;
 import com.jacto.scheduler.config.KafkaConfig;
 import com.jacto.scheduler.payload.response.SchedulingResponse;
 import com.jacto.scheduler.service.MailService;
+import com.jacto.scheduler.service.SchedulingItemChanges;
 import com.jacto.scheduler.service.SchedulingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,11 +45,12 @@ public class SchedulingNotificationConsumer {
 
     @KafkaListener(topics = KafkaConfig.SCHEDULING_UPDATED_TOPIC, groupId = "${spring.kafka.consumer.group-id}")
     @Transactional
-    public void handleSchedulingUpdated(Long schedulingId) {
-        SchedulingResponse scheduling = schedulingService.getSchedulingByIdForKafka(schedulingId);
+    public void handleSchedulingUpdated(SchedulingUpdatedMessage message) {
+        SchedulingResponse scheduling = schedulingService.getSchedulingByIdForKafka(message.schedulingId());
+        SchedulingItemChanges items = message.items();
 
-        logger.info("Recebida notificação de agendamento atualizado: ID={}, Status={}",
-                scheduling.getId(), scheduling.getStatus());
+        logger.info("Recebida notificação de agendamento atualizado: ID={}, Status={}, Equipamentos={}, Peças={}",
+                scheduling.getId(), scheduling.getStatus(), items.equipments(), items.spareParts());
     }
 
     @KafkaListener(topics = KafkaConfig.SCHEDULING_REMINDER_TOPIC, groupId = "${spring.kafka.consumer.group-id}")
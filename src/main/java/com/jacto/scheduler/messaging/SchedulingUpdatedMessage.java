@@ -0,0 +1,8 @@
+package com.jacto.scheduler.messaging;
+
+import com.jacto.scheduler.service.SchedulingItemChanges;
+
+// Mensagem do tópico de agendamento atualizado: além do id, leva quantos equipamentos e peças entraram, mudaram
+// e saíram, para quem consome não precisar comparar versões do agendamento
+public record SchedulingUpdatedMessage(Long schedulingId, SchedulingItemChanges items) {
+}
@@ -6,8 +6,11 @@ import jakarta.persistence.*;
 @Table(name = "equipments")
 public class Equipment {
 
+    // Ids reservados de 50 em 50 pela sequência: o Hibernate conhece o id antes do INSERT e pode mandar os
+    // itens de um agendamento num único lote JDBC (com IDENTITY cada um seria uma ida ao banco)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "equipments_id_seq")
+    @SequenceGenerator(name = "equipments_id_seq", sequenceName = "equipments_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
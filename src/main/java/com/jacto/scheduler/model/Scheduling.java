@@ -3,6 +3,7 @@ package com.jacto.scheduler.model;
 import com.jacto.scheduler.enumerations.SchedulingStatus;
 import com.jacto.scheduler.enumerations.ServicePriority;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -37,6 +38,9 @@ public class Scheduling {
     @Column(nullable = false)
     private Double longitude;
 
+    @Embedded
+    private SchedulingLocation location;
+
     @Column(nullable = false)
     private LocalDateTime scheduledAt;
 
@@ -60,9 +64,19 @@ public class Scheduling {
     @Column(length = 1000)
     private String clientFeedback;
 
+    // Incrementada a cada escrita; vai junto da cópia no cache para nenhuma leitura antiga sobrescrever uma mais nova.
+    // O default preenche as linhas já existentes quando a coluna é criada
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long version;
+
+    // Coleções carregadas em lote: ao percorrer uma lista, a primeira coleção acessada traz as de até 100
+    // agendamentos numa única consulta, em vez de uma por agendamento
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "scheduling", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Equipment> equipments = new HashSet<>();
 
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "scheduling", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<SparePart> spareParts = new HashSet<>();
 
@@ -130,6 +144,14 @@ public class Scheduling {
         this.longitude = longitude;
     }
 
+    public SchedulingLocation getLocation() {
+        return location;
+    }
+
+    public void setLocation(SchedulingLocation location) {
+        this.location = location;
+    }
+
     public LocalDateTime getScheduledAt() {
         return scheduledAt;
     }
@@ -194,6 +216,14 @@ public class Scheduling {
         this.equipments = equipments;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Set<SparePart> getSpareParts() {
         return spareParts;
     }
@@ -0,0 +1,103 @@
+package com.jacto.scheduler.model;
+
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.time.LocalDateTime;
+
+@Embeddable
+public class SchedulingLocation {
+
+    @Column(name = "location_city")
+    private String city;
+
+    @Column(name = "location_state")
+    private String state;
+
+    @Column(name = "location_postal_code")
+    private String postalCode;
+
+    @Column(name = "location_country")
+    private String country;
+
+    @Column(name = "location_formatted_address", length = 1000)
+    private String formattedAddress;
+
+    @Column(name = "location_geocoded_at")
+    private LocalDateTime geocodedAt;
+
+    // Última tentativa do backfill; sai junto com a localização quando as coordenadas mudam
+    @Column(name = "location_geocode_attempted_at")
+    private LocalDateTime geocodeAttemptedAt;
+
+    public SchedulingLocation() {
+    }
+
+    public static SchedulingLocation from(GeoLocationDetails details) {
+        SchedulingLocation location = new SchedulingLocation();
+        location.setCity(details.getCity());
+        location.setState(details.getState());
+        location.setPostalCode(details.getPostalCode());
+        location.setCountry(details.getCountry());
+        location.setFormattedAddress(details.getFormattedAddress());
+        location.setGeocodedAt(LocalDateTime.now());
+        return location;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getPostalCode() {
+        return postalCode;
+    }
+
+    public void setPostalCode(String postalCode) {
+        this.postalCode = postalCode;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public String getFormattedAddress() {
+        return formattedAddress;
+    }
+
+    public void setFormattedAddress(String formattedAddress) {
+        this.formattedAddress = formattedAddress;
+    }
+
+    public LocalDateTime getGeocodedAt() {
+        return geocodedAt;
+    }
+
+    public void setGeocodedAt(LocalDateTime geocodedAt) {
+        this.geocodedAt = geocodedAt;
+    }
+
+    public LocalDateTime getGeocodeAttemptedAt() {
+        return geocodeAttemptedAt;
+    }
+
+    public void setGeocodeAttemptedAt(LocalDateTime geocodeAttemptedAt) {
+        this.geocodeAttemptedAt = geocodeAttemptedAt;
+    }
+}
@@ -6,8 +6,10 @@ import jakarta.persistence.*;
 @Table(name = "spare_parts")
 public class SparePart {
 
+    // Mesma alocação em blocos dos equipamentos (ver Equipment)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "spare_parts_id_seq")
+    @SequenceGenerator(name = "spare_parts_id_seq", sequenceName = "spare_parts_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
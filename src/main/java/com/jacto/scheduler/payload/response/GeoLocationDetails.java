@@ -113,4 +113,10 @@ public class GeoLocationDetails {
     public Double getLongitude() {
         return longitude;
     }
+
+    // Cópia com outras coordenadas, para reaproveitar o resultado entre pontos vizinhos
+    public GeoLocationDetails withCoordinates(Double latitude, Double longitude) {
+        return new GeoLocationDetails(latitude, longitude, displayName, city, state, country,
+                postalCode, formattedAddress, distance);
+    }
 }
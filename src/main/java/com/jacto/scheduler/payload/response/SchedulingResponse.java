@@ -1,6 +1,8 @@
 package com.jacto.scheduler.payload.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.jacto.scheduler.model.Scheduling;
+import com.jacto.scheduler.model.SchedulingLocation;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -9,6 +11,7 @@ import java.util.stream.Collectors;
 public class SchedulingResponse {
 
     private Long id;
+    private Long version;
 
     private String farmName;
     private String clientName;
@@ -38,7 +41,18 @@ public class SchedulingResponse {
 
     // Construtor com base na entidade Scheduling
     public SchedulingResponse(Scheduling scheduling) {
+        this(scheduling, true);
+    }
+
+    // Sem equipamentos e peças: não inicializa as coleções da entidade, que ainda podem ser alteradas
+    // (o estado anterior a uma atualização, por exemplo)
+    public static SchedulingResponse withoutCollections(Scheduling scheduling) {
+        return new SchedulingResponse(scheduling, false);
+    }
+
+    private SchedulingResponse(Scheduling scheduling, boolean withCollections) {
         this.id = scheduling.getId();
+        this.version = scheduling.getVersion();
 
         this.farmName = scheduling.getFarmName();
         this.clientName = scheduling.getClientName();
@@ -59,13 +73,58 @@ public class SchedulingResponse {
         this.technicianEmail = scheduling.getTechnician().getEmail();
         this.technicianId = scheduling.getTechnician().getId();
 
-        this.equipments = scheduling.getEquipments().stream()
-                .map(EquipmentResponse::new)
-                .collect(Collectors.toList());
-
-        this.spareParts = scheduling.getSpareParts().stream()
-                .map(SparePartResponse::new)
-                .collect(Collectors.toList());
+        if (withCollections) {
+            this.equipments = scheduling.getEquipments().stream()
+                    .map(EquipmentResponse::new)
+                    .collect(Collectors.toList());
+
+            this.spareParts = scheduling.getSpareParts().stream()
+                    .map(SparePartResponse::new)
+                    .collect(Collectors.toList());
+        }
+
+        // Dados de geolocalização persistidos na escrita do agendamento
+        SchedulingLocation location = scheduling.getLocation();
+        if (location != null && location.getGeocodedAt() != null) {
+            GeoLocationDetails details = new GeoLocationDetails();
+            details.setLatitude(this.latitude);
+            details.setLongitude(this.longitude);
+            details.setCity(location.getCity());
+            details.setState(location.getState());
+            details.setPostalCode(location.getPostalCode());
+            details.setCountry(location.getCountry());
+            details.setFormattedAddress(location.getFormattedAddress());
+            this.locationDetails = details;
+        }
+    }
+
+    // Cópia com outra localização: respostas podem ser a instância compartilhada do cache local e não são
+    // alteradas depois de guardadas. Equipamentos e peças são compartilhados, também sem alteração
+    public SchedulingResponse withLocationDetails(GeoLocationDetails locationDetails) {
+        SchedulingResponse copy = new SchedulingResponse();
+        copy.id = id;
+        copy.version = version;
+        copy.farmName = farmName;
+        copy.clientName = clientName;
+        copy.clientEmail = clientEmail;
+        copy.address = address;
+        copy.latitude = latitude;
+        copy.longitude = longitude;
+        copy.scheduledAt = scheduledAt;
+        copy.completedAt = completedAt;
+        copy.serviceDescription = serviceDescription;
+        copy.status = status;
+        copy.priority = priority;
+        copy.clientRating = clientRating;
+        copy.clientFeedback = clientFeedback;
+        copy.equipments = equipments;
+        copy.spareParts = spareParts;
+        copy.locationDetails = locationDetails;
+        copy.technicianUsername = technicianUsername;
+        copy.technicianFullName = technicianFullName;
+        copy.technicianEmail = technicianEmail;
+        copy.technicianId = technicianId;
+        return copy;
     }
 
     public Long getId() {
@@ -235,4 +294,14 @@ public class SchedulingResponse {
     public void setTechnicianId(Long technicianId) {
         this.technicianId = technicianId;
     }
+
+    // Controle de concorrência do cache (vai no hash do Redis pelo SchedulingCacheFormat), não faz parte da API
+    @JsonIgnore
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,8 @@
+package com.jacto.scheduler.repository;
+
+// Projeção com apenas o necessário para geocodificar um agendamento
+public interface SchedulingCoordinates {
+    Long getId();
+    Double getLatitude();
+    Double getLongitude();
+}
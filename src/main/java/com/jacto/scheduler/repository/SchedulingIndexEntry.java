@@ -0,0 +1,9 @@
+package com.jacto.scheduler.repository;
+
+import java.time.LocalDateTime;
+
+// Projeção com apenas o necessário para montar o índice de agendamentos de um técnico e paginar as listagens
+public interface SchedulingIndexEntry {
+    Long getId();
+    LocalDateTime getScheduledAt();
+}
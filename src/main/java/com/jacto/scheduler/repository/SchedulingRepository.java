@@ -1,23 +1,70 @@
 package com.jacto.scheduler.repository;
 
 import com.jacto.scheduler.model.Scheduling;
+import com.jacto.scheduler.model.SchedulingLocation;
 import com.jacto.scheduler.enumerations.SchedulingStatus;
 import com.jacto.scheduler.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface SchedulingRepository extends JpaRepository<Scheduling, Long> {
-    List<Scheduling> findByTechnicianOrderByScheduledAtDesc(User technician);
+    // Carga dos agendamentos ausentes do cache nas listagens. Equipamentos e peças vêm em lote (@BatchSize na
+    // entidade); juntar as duas coleções aqui multiplicaria as linhas (equipamentos x peças) de cada agendamento
+    @Override
+    @EntityGraph(attributePaths = "technician")
+    List<Scheduling> findAllById(Iterable<Long> ids);
 
-    @Query("SELECT s FROM Scheduling s WHERE s.technician = ?1 AND s.scheduledAt > ?2 ORDER BY s.scheduledAt ASC")
-    List<Scheduling> findUpcomingSchedulings(User technician, LocalDateTime now);
+    // Só a posição (id e data) de cada item de uma página, na ordem da listagem: o conteúdo vem do cache e apenas
+    // os ausentes são carregados, e o cursor da próxima página sai da última posição lida, mesmo que o item tenha
+    // sido removido no meio. A continuação compara a tupla (scheduledAt, id) com esse cursor, o que vira um range
+    // scan no índice (technician_id, scheduled_at, id) em vez de um OFFSET que relê as páginas anteriores
+    @Query("SELECT s.id AS id, s.scheduledAt AS scheduledAt FROM Scheduling s WHERE s.technician = :technician " +
+           "ORDER BY s.scheduledAt DESC, s.id DESC")
+    List<SchedulingIndexEntry> findIndexEntriesByTechnician(
+            @Param("technician") User technician, Pageable pageable);
 
+    @Query("SELECT s.id AS id, s.scheduledAt AS scheduledAt FROM Scheduling s WHERE s.technician = :technician " +
+           "AND (s.scheduledAt, s.id) < (:scheduledAt, :id) ORDER BY s.scheduledAt DESC, s.id DESC")
+    List<SchedulingIndexEntry> findIndexEntriesByTechnicianBefore(
+            @Param("technician") User technician,
+            @Param("scheduledAt") LocalDateTime scheduledAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    @Query("SELECT s.id AS id, s.scheduledAt AS scheduledAt FROM Scheduling s WHERE s.technician = :technician " +
+           "AND s.scheduledAt > :now ORDER BY s.scheduledAt ASC, s.id ASC")
+    List<SchedulingIndexEntry> findUpcomingIndexEntries(
+            @Param("technician") User technician, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT s.id AS id, s.scheduledAt AS scheduledAt FROM Scheduling s WHERE s.technician = :technician " +
+           "AND (s.scheduledAt, s.id) > (:scheduledAt, :id) ORDER BY s.scheduledAt ASC, s.id ASC")
+    List<SchedulingIndexEntry> findUpcomingIndexEntriesAfter(
+            @Param("technician") User technician,
+            @Param("scheduledAt") LocalDateTime scheduledAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    // Páginas por id para reconstruir o índice do técnico no Redis sem carregar tudo de uma vez
+    @Query("SELECT s.id AS id, s.scheduledAt AS scheduledAt FROM Scheduling s " +
+           "WHERE s.technician.id = :technicianId AND s.id > :afterId ORDER BY s.id ASC")
+    List<SchedulingIndexEntry> findIndexEntries(
+            @Param("technicianId") Long technicianId, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Páginas de ids existentes, para reconstruir o filtro de ids em memória
+    @Query("SELECT s.id FROM Scheduling s WHERE s.id > :afterId ORDER BY s.id ASC")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "technician")
     @Query("SELECT s FROM Scheduling s WHERE s.scheduledAt BETWEEN ?1 AND ?2 AND s.status <> 'CANCELLED'")
     List<Scheduling> findSchedulingsForDateRange(LocalDateTime start, LocalDateTime end);
 
@@ -31,18 +78,53 @@ public interface SchedulingRepository extends JpaRepository<Scheduling, Long> {
            "WHERE s.technician = ?1 AND s.status = 'COMPLETED' AND s.completedAt IS NOT NULL")
     Double findAverageCompletionTimeForTechnician(User technician);
 
+    @EntityGraph(attributePaths = "technician")
     @Query("SELECT s FROM Scheduling s WHERE s.scheduledAt BETWEEN :startDate AND :endDate")
     List<Scheduling> findByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
+    @EntityGraph(attributePaths = "technician")
     @Query("SELECT s FROM Scheduling s WHERE s.technician.id = :technicianId AND s.scheduledAt BETWEEN :startDate AND :endDate")
     List<Scheduling> findByTechnicianAndDateRange(
             @Param("technicianId") Long technicianId,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
+    @EntityGraph(attributePaths = "technician")
     @Query("SELECT s FROM Scheduling s WHERE s.clientName = :clientName AND s.scheduledAt BETWEEN :startDate AND :endDate")
     List<Scheduling> findByClientAndDateRange(
             @Param("clientName") String clientName,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
+
+    // Pendentes que o backfill ainda não tentou geocodificar
+    @Query("SELECT s.id AS id, s.latitude AS latitude, s.longitude AS longitude FROM Scheduling s " +
+           "WHERE s.location.geocodedAt IS NULL AND s.location.geocodeAttemptedAt IS NULL ORDER BY s.id ASC")
+    List<SchedulingCoordinates> findPendingGeocoding(Pageable pageable);
+
+    // Pendentes cuja última tentativa é anterior a retryBefore, das tentadas há mais tempo para as mais recentes
+    @Query("SELECT s.id AS id, s.latitude AS latitude, s.longitude AS longitude FROM Scheduling s " +
+           "WHERE s.location.geocodedAt IS NULL AND s.location.geocodeAttemptedAt < :retryBefore " +
+           "ORDER BY s.location.geocodeAttemptedAt ASC, s.id ASC")
+    List<SchedulingCoordinates> findRetryableGeocoding(
+            @Param("retryBefore") LocalDateTime retryBefore, Pageable pageable);
+
+    // Não muda nada da resposta: fica fora da versão do agendamento
+    @Transactional
+    @Modifying
+    @Query("UPDATE Scheduling s SET s.location.geocodeAttemptedAt = :attemptedAt WHERE s.id = :id")
+    int markGeocodeAttempted(@Param("id") Long id, @Param("attemptedAt") LocalDateTime attemptedAt);
+
+    // Só grava se as coordenadas não mudaram desde o início da geocodificação
+    @Transactional
+    @Modifying
+    @Query("UPDATE Scheduling s SET s.location.city = :#{#location.city}, s.location.state = :#{#location.state}, " +
+           "s.location.postalCode = :#{#location.postalCode}, s.location.country = :#{#location.country}, " +
+           "s.location.formattedAddress = :#{#location.formattedAddress}, s.location.geocodedAt = :#{#location.geocodedAt}, " +
+           "s.version = s.version + 1 " +
+           "WHERE s.id = :id AND s.latitude = :latitude AND s.longitude = :longitude")
+    int updateLocation(
+            @Param("id") Long id,
+            @Param("latitude") Double latitude,
+            @Param("longitude") Double longitude,
+            @Param("location") SchedulingLocation location);
 }
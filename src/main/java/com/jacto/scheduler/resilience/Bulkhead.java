@@ -0,0 +1,85 @@
+package com.jacto.scheduler.resilience;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Limita as chamadas simultâneas a uma dependência para que ela não consuma todas as threads da aplicação
+public class Bulkhead implements MeterBinder {
+
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final Duration maxWait;
+    private final Semaphore permits;
+
+    public Bulkhead(String name, int maxConcurrentCalls, Duration maxWait) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("O bulkhead deve permitir ao menos uma chamada simultânea");
+        }
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw new CallNotPermittedException("Limite de chamadas simultâneas a " + name + " atingido");
+        }
+
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Sem espera: bloquear aqui anularia o ganho do caminho assíncrono; a vaga é liberada quando o future completa
+    public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> call) {
+        if (!permits.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                    new CallNotPermittedException("Limite de chamadas simultâneas a " + name + " atingido"));
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException | Error e) {
+            permits.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> permits.release());
+    }
+
+    public int getAvailableCalls() {
+        return permits.availablePermits();
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("resilience.bulkhead.available.calls", permits, Semaphore::availablePermits)
+                .description("Chamadas simultâneas ainda disponíveis")
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("resilience.bulkhead.max.calls", this, Bulkhead::getMaxConcurrentCalls)
+                .tag("name", name)
+                .register(registry);
+    }
+}
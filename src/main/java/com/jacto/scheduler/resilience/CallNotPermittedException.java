@@ -0,0 +1,11 @@
+package com.jacto.scheduler.resilience;
+
+// Chamada recusada antes de chegar ao serviço externo (circuito aberto, limite de concorrência ou de taxa)
+public class CallNotPermittedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CallNotPermittedException(String message) {
+        super(message);
+    }
+}
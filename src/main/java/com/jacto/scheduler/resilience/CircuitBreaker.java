@@ -0,0 +1,204 @@
+package com.jacto.scheduler.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Circuit breaker por contagem: abre quando a taxa de falhas das últimas chamadas passa do limite
+public class CircuitBreaker implements MeterBinder {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoTime;
+
+    // Janela circular com o resultado das últimas chamadas (true = falha)
+    private final boolean[] window;
+    private int windowIndex;
+    private int recordedCalls;
+    private int failedCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+    private final AtomicLong notPermittedCalls = new AtomicLong();
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration) {
+        this(name, windowSize, minimumCalls, failureRateThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                   Duration openDuration, LongSupplier nanoTime) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("Janela do circuit breaker deve conter o mínimo de chamadas");
+        }
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("Taxa de falhas do circuit breaker deve estar entre 0 e 1");
+        }
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        boolean probe = acquirePermission();
+        T result;
+        try {
+            result = call.get();
+        } catch (CallNotPermittedException e) {
+            // Recusas de camadas internas não dizem nada sobre a saúde do serviço
+            if (probe) {
+                releaseProbe();
+            }
+            throw e;
+        } catch (RuntimeException | Error e) {
+            onFailure(probe);
+            throw e;
+        }
+        onSuccess(probe);
+        return result;
+    }
+
+    // O resultado é registrado quando o future completa, sem bloquear quem chama
+    public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> call) {
+        boolean probe;
+        try {
+            probe = acquirePermission();
+        } catch (CallNotPermittedException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException | Error e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> {
+            if (error == null) {
+                onSuccess(probe);
+            } else if (unwrap(error) instanceof CallNotPermittedException) {
+                if (probe) {
+                    releaseProbe();
+                }
+            } else {
+                onFailure(probe);
+            }
+        });
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public long getNotPermittedCalls() {
+        return notPermittedCalls.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (State candidate : State.values()) {
+            Gauge.builder("resilience.circuitbreaker.state", this, breaker -> breaker.getState() == candidate ? 1 : 0)
+                    .description("1 para o estado atual do circuit breaker")
+                    .tag("name", name)
+                    .tag("state", candidate.name().toLowerCase())
+                    .register(registry);
+        }
+        FunctionCounter.builder("resilience.circuitbreaker.not.permitted.calls", notPermittedCalls, AtomicLong::get)
+                .description("Chamadas recusadas com o circuito aberto")
+                .tag("name", name)
+                .register(registry);
+    }
+
+    // Retorna true quando a chamada é a sonda do estado meio-aberto
+    private synchronized boolean acquirePermission() {
+        if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= openDurationNanos) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.CLOSED) {
+            return false;
+        }
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+        notPermittedCalls.incrementAndGet();
+        throw new CallNotPermittedException("Circuito de " + name + " aberto; chamada recusada");
+    }
+
+    private synchronized void onSuccess(boolean probe) {
+        if (probe) {
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    private synchronized void onFailure(boolean probe) {
+        if (probe) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recordedCalls >= minimumCalls && (double) failedCalls / recordedCalls >= failureRateThreshold) {
+                open();
+            }
+        }
+    }
+
+    private synchronized void releaseProbe() {
+        probeInFlight = false;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private void record(boolean failed) {
+        if (recordedCalls == window.length) {
+            if (window[windowIndex]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        window[windowIndex] = failed;
+        if (failed) {
+            failedCalls++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoTime.getAsLong();
+        probeInFlight = false;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        probeInFlight = false;
+        recordedCalls = 0;
+        failedCalls = 0;
+        windowIndex = 0;
+    }
+}
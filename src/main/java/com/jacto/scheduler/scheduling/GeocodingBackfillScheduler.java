@@ -0,0 +1,145 @@
+package com.jacto.scheduler.scheduling;
+
+import com.jacto.scheduler.repository.SchedulingCoordinates;
+import com.jacto.scheduler.repository.SchedulingRepository;
+import com.jacto.scheduler.service.SchedulingLocationService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+@ConditionalOnProperty(name = "geocoding.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class GeocodingBackfillScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeocodingBackfillScheduler.class);
+
+    private final SchedulingRepository schedulingRepository;
+    private final SchedulingLocationService schedulingLocationService;
+    private final int batchSize;
+    private final int maxPerRun;
+    private final Duration requestInterval;
+    private final Duration batchInterval;
+    private final Duration retryAfter;
+    // A execução dorme entre as requisições por até max-per-run segundos: numa thread própria, para não prender
+    // a única thread do agendador, que também roda os lembretes, a ressincronização do Redis e os snapshots
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "geocoding-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public GeocodingBackfillScheduler(
+            SchedulingRepository schedulingRepository,
+            SchedulingLocationService schedulingLocationService,
+            @Value("${geocoding.backfill.batch-size:50}") int batchSize,
+            @Value("${geocoding.backfill.max-per-run:500}") int maxPerRun,
+            @Value("${geocoding.backfill.request-interval:1s}") Duration requestInterval,
+            @Value("${geocoding.backfill.batch-interval:10s}") Duration batchInterval,
+            @Value("${geocoding.backfill.retry-after:PT6H}") Duration retryAfter) {
+        this.schedulingRepository = schedulingRepository;
+        this.schedulingLocationService = schedulingLocationService;
+        this.batchSize = batchSize;
+        this.maxPerRun = maxPerRun;
+        this.requestInterval = requestInterval;
+        this.batchInterval = batchInterval;
+        this.retryAfter = retryAfter;
+    }
+
+    // Só dispara: se a execução anterior ainda não terminou, esta rodada é pulada
+    @Scheduled(initialDelayString = "${geocoding.backfill.initial-delay:PT1M}",
+               fixedDelayString = "${geocoding.backfill.interval:PT30M}")
+    public void trigger() {
+        start();
+    }
+
+    // A execução em andamento, ou null se já havia uma
+    Future<?> start() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        return executor.submit(() -> {
+            try {
+                backfill();
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrompe a pausa em andamento; a execução termina no próximo item
+        executor.shutdownNow();
+    }
+
+    // Geocodifica agendamentos antigos ou que falharam, respeitando o limite do Nominatim. Cada agendamento é
+    // marcado antes da tentativa: os que falham sempre (coordenadas inválidas, por exemplo) só voltam depois de
+    // retry-after e atrás dos nunca tentados, sem gastar o limite de todas as execuções
+    public void backfill() {
+        LocalDateTime retryBefore = LocalDateTime.now().minus(retryAfter);
+        int processed = 0;
+        int geocoded = 0;
+
+        while (processed < maxPerRun) {
+            int limit = Math.min(batchSize, maxPerRun - processed);
+            List<SchedulingCoordinates> batch = nextBatch(retryBefore, limit);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            for (SchedulingCoordinates coordinates : batch) {
+                schedulingRepository.markGeocodeAttempted(coordinates.getId(), LocalDateTime.now());
+                if (schedulingLocationService.geocode(
+                        coordinates.getId(), coordinates.getLatitude(), coordinates.getLongitude())) {
+                    geocoded++;
+                }
+                processed++;
+                if (!pause(requestInterval)) {
+                    return;
+                }
+            }
+
+            // Lote incompleto: os pendentes acabaram, a próxima consulta passa às novas tentativas ou sai
+            if (batch.size() == limit && !pause(batchInterval)) {
+                break;
+            }
+        }
+
+        if (processed > 0) {
+            logger.info("Backfill de geocodificação: {} agendamentos processados, {} atualizados", processed, geocoded);
+        }
+    }
+
+    // Os marcados saem das duas consultas, por isso a próxima página é sempre a primeira
+    private List<SchedulingCoordinates> nextBatch(LocalDateTime retryBefore, int limit) {
+        List<SchedulingCoordinates> batch = schedulingRepository.findPendingGeocoding(PageRequest.of(0, limit));
+        if (batch.isEmpty()) {
+            batch = schedulingRepository.findRetryableGeocoding(retryBefore, PageRequest.of(0, limit));
+        }
+        return batch;
+    }
+
+    private boolean pause(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
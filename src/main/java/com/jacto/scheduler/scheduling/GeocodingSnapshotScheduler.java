@@ -0,0 +1,67 @@
+package com.jacto.scheduler.scheduling;
+
+import com.jacto.scheduler.geocoding.GeocodingCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Mantém o cache de geocodificação aquecido entre deploys sem depender de um armazenamento externo
+@Component
+@ConditionalOnProperty(name = "geocoding.cache.snapshot.enabled", havingValue = "true")
+public class GeocodingSnapshotScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeocodingSnapshotScheduler.class);
+
+    private final GeocodingCache geocodingCache;
+    private final Path path;
+
+    public GeocodingSnapshotScheduler(
+            GeocodingCache geocodingCache,
+            @Value("${geocoding.cache.snapshot.path}") Path path) {
+        this.geocodingCache = geocodingCache;
+        this.path = path;
+    }
+
+    // Só o cabeçalho é lido aqui; as entradas são decodificadas sob demanda
+    @PostConstruct
+    public void load() {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try {
+            if (geocodingCache.loadSnapshot(path)) {
+                logger.info("Snapshot do cache de geocodificação carregado de {}", path);
+            } else {
+                logger.info("Snapshot do cache de geocodificação em {} ignorado: expirado ou de outra precisão", path);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Falha ao carregar o snapshot do cache de geocodificação de {}: {}", path, e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${geocoding.cache.snapshot.interval:PT15M}",
+               fixedDelayString = "${geocoding.cache.snapshot.interval:PT15M}")
+    public void refresh() {
+        save();
+    }
+
+    // Grava também no desligamento para o próximo deploy começar com o cache mais recente
+    @PreDestroy
+    public void save() {
+        try {
+            int entries = geocodingCache.saveSnapshot(path);
+            logger.debug("Snapshot do cache de geocodificação gravado em {}: {} entradas", path, entries);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Falha ao gravar o snapshot do cache de geocodificação em {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.jacto.scheduler.repository.SchedulingRepository;
 import com.jacto.scheduler.service.NotificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -14,7 +15,10 @@ import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
 import java.util.List;
 
+// Desligado por padrão: sem controle de lembretes já enviados, cada execução avisa de novo todos os agendamentos
+// até o fim do dia seguinte
 @Component
+@ConditionalOnProperty(name = "scheduling.reminders.enabled", havingValue = "true")
 public class ReminderScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(ReminderScheduler.class);
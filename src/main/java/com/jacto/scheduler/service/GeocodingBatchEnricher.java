@@ -0,0 +1,125 @@
+package com.jacto.scheduler.service;
+
+import com.jacto.scheduler.geocoding.GeocodingCache;
+import com.jacto.scheduler.geocoding.GeocodingCache.CoordinateKey;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import com.jacto.scheduler.payload.response.SchedulingResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class GeocodingBatchEnricher {
+    private static final Logger logger = LoggerFactory.getLogger(GeocodingBatchEnricher.class);
+
+    private final GeocodingService geocodingService;
+    private final GeocodingCache geocodingCache;
+    private final Duration budget;
+
+    public GeocodingBatchEnricher(
+            GeocodingService geocodingService,
+            GeocodingCache geocodingCache,
+            @Value("${geocoding.enrichment.budget:2s}") Duration budget) {
+        this.geocodingService = geocodingService;
+        this.geocodingCache = geocodingCache;
+        this.budget = budget;
+    }
+
+    // Devolve a lista com a localização dos itens ainda não geocodificados, dentro do orçamento de tempo. Os
+    // itens podem ser as instâncias compartilhadas do cache local: os resolvidos viram cópias, nunca são alterados
+    public List<SchedulingResponse> enrich(List<SchedulingResponse> responses) {
+        Map<CoordinateKey, List<Integer>> pending = new LinkedHashMap<>();
+        for (int i = 0; i < responses.size(); i++) {
+            SchedulingResponse response = responses.get(i);
+            if (response.getLocationDetails() == null
+                    && response.getLatitude() != null && response.getLongitude() != null) {
+                pending.computeIfAbsent(
+                        geocodingCache.keyFor(response.getLatitude(), response.getLongitude()),
+                        key -> new ArrayList<>()).add(i);
+            }
+        }
+        if (pending.isEmpty()) {
+            return responses;
+        }
+
+        long deadline = System.nanoTime() + budget.toNanos();
+
+        // Células já conhecidas (memória ou Redis) são resolvidas sem requisição ao provedor
+        Map<CoordinateKey, double[]> cells = new LinkedHashMap<>();
+        pending.forEach((key, items) -> {
+            SchedulingResponse first = responses.get(items.get(0));
+            cells.put(key, new double[]{first.getLatitude(), first.getLongitude()});
+        });
+        GeocodingService.CachedLocations cached = geocodingService.getCachedLocationDetails(cells);
+
+        Map<CoordinateKey, CompletableFuture<GeoLocationDetails>> lookups = new LinkedHashMap<>();
+        for (Map.Entry<CoordinateKey, List<Integer>> entry : pending.entrySet()) {
+            GeoLocationDetails known = cached.found().get(entry.getKey());
+            if (known != null) {
+                lookups.put(entry.getKey(), CompletableFuture.completedFuture(known));
+                continue;
+            }
+            if (cached.failed().contains(entry.getKey())) {
+                continue;
+            }
+            // Todas as consultas saem de uma vez; nenhuma thread fica presa esperando o provedor
+            SchedulingResponse first = responses.get(entry.getValue().get(0));
+            lookups.put(entry.getKey(),
+                    geocodingService.getLocationDetailsAsync(first.getLatitude(), first.getLongitude()));
+        }
+
+        awaitUntil(lookups.values(), deadline);
+
+        List<SchedulingResponse> enriched = new ArrayList<>(responses);
+        int unresolved = 0;
+        for (Map.Entry<CoordinateKey, List<Integer>> entry : pending.entrySet()) {
+            CompletableFuture<GeoLocationDetails> lookup = lookups.get(entry.getKey());
+            GeoLocationDetails details = lookup != null && lookup.isDone() && !lookup.isCompletedExceptionally()
+                    ? lookup.join()
+                    : null;
+            for (int index : entry.getValue()) {
+                SchedulingResponse response = responses.get(index);
+                if (details != null) {
+                    enriched.set(index, response.withLocationDetails(
+                            details.withCoordinates(response.getLatitude(), response.getLongitude())));
+                } else {
+                    unresolved++;
+                }
+            }
+        }
+
+        if (unresolved > 0) {
+            logger.info("{} agendamentos retornados sem dados de geolocalização (orçamento de {} ms)",
+                    unresolved, budget.toMillis());
+        }
+        return enriched;
+    }
+
+    private void awaitUntil(Collection<CompletableFuture<GeoLocationDetails>> lookups, long deadline) {
+        try {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0) {
+                CompletableFuture.allOf(lookups.toArray(new CompletableFuture<?>[0]))
+                        .get(remaining, TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            // Orçamento esgotado: segue com o que já foi resolvido
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Falhas individuais são tratadas item a item
+        }
+    }
+}
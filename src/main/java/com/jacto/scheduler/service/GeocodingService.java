@@ -1,77 +1,327 @@
 package com.jacto.scheduler.service;
 
+import com.jacto.scheduler.geocoding.GeocodingCache;
+import com.jacto.scheduler.geocoding.GeocodingCache.CoordinateKey;
+import com.jacto.scheduler.geocoding.GeocodingProvider;
+import com.jacto.scheduler.geocoding.NominatimClient;
+import com.jacto.scheduler.geocoding.SingleFlight;
+import com.jacto.scheduler.geocoding.TokenBucketRateLimiter;
 import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import com.jacto.scheduler.resilience.Bulkhead;
+import com.jacto.scheduler.resilience.CallNotPermittedException;
+import com.jacto.scheduler.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
-public class GeocodingService {
+public class GeocodingService implements MeterBinder {
 
-    private final RestTemplate restTemplate;
-    private final String nominatimBaseUrl;
+    private static final Duration DEFAULT_COALESCING_TIMEOUT = Duration.ofSeconds(10);
 
-    public GeocodingService() {
-        this.restTemplate = new RestTemplate();
-        this.nominatimBaseUrl = "https://nominatim.openstreetmap.org";
-    }
+    private final GeocodingProvider provider;
+    private final GeocodingCache geocodingCache;
+    private final SingleFlight<CoordinateKey, GeoLocationDetails> singleFlight = new SingleFlight<>();
+    private final Duration coalescingTimeout;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final Duration rateLimitMaxWait;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final RedisGeocodingCache sharedCache;
+    private final Executor redisExecutor;
+    private volatile Timer successTimer;
+    private volatile Timer failureTimer;
+    private volatile Timer rejectedTimer;
 
+    @Autowired
     public GeocodingService(
-            @Value("${geocoding.nominatim.base-url:https://nominatim.openstreetmap.org}") String nominatimBaseUrl) {
-        this.restTemplate = new RestTemplate();
-        this.nominatimBaseUrl = nominatimBaseUrl;
+            @Qualifier("geocodingProvider") GeocodingProvider provider,
+            GeocodingCache geocodingCache,
+            @Value("${geocoding.coalescing.timeout:10s}") Duration coalescingTimeout,
+            TokenBucketRateLimiter geocodingRateLimiter,
+            @Value("${geocoding.rate-limit.max-wait:5s}") Duration rateLimitMaxWait,
+            @Qualifier("geocodingCircuitBreaker") CircuitBreaker circuitBreaker,
+            @Qualifier("geocodingBulkhead") Bulkhead bulkhead,
+            RedisGeocodingCache sharedCache,
+            @Value("${geocoding.redis.threads:4}") int redisThreads) {
+        this(provider, geocodingCache, coalescingTimeout, geocodingRateLimiter, rateLimitMaxWait, circuitBreaker,
+                bulkhead, sharedCache, newRedisExecutor(redisThreads));
+    }
+
+    GeocodingService(GeocodingProvider provider, GeocodingCache geocodingCache, Duration coalescingTimeout,
+                     TokenBucketRateLimiter geocodingRateLimiter, Duration rateLimitMaxWait,
+                     CircuitBreaker circuitBreaker, Bulkhead bulkhead, RedisGeocodingCache sharedCache,
+                     Executor redisExecutor) {
+        this.provider = provider;
+        this.geocodingCache = geocodingCache;
+        this.coalescingTimeout = coalescingTimeout;
+        this.rateLimiter = geocodingRateLimiter;
+        this.rateLimitMaxWait = rateLimitMaxWait;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.sharedCache = sharedCache;
+        this.redisExecutor = redisExecutor;
     }
 
     // Construtor para testes
-    GeocodingService(String nominatimBaseUrl, RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
-        this.nominatimBaseUrl = nominatimBaseUrl;
+    GeocodingService(String nominatimBaseUrl, RestTemplate restTemplate, RedisGeocodingCache sharedCache) {
+        this(new NominatimClient(nominatimBaseUrl, restTemplate), new GeocodingCache(), DEFAULT_COALESCING_TIMEOUT,
+                new TokenBucketRateLimiter(1000, 1000), Duration.ZERO,
+                new CircuitBreaker("nominatim", 20, 10, 0.5, Duration.ofSeconds(30)),
+                new Bulkhead("nominatim", 4, Duration.ofSeconds(1)), sharedCache, Runnable::run);
+    }
+
+    // O Redis é I/O bloqueante; as threads do HttpClient são poucas e só devem completar respostas
+    private static ExecutorService newRedisExecutor(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "geocoding-redis-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (redisExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
     }
 
     public GeoLocationDetails getLocationDetails(Double latitude, Double longitude) {
-        String url = UriComponentsBuilder.fromHttpUrl(nominatimBaseUrl + "/reverse")
-                .queryParam("format", "json")
-                .queryParam("lat", latitude)
-                .queryParam("lon", longitude)
-                .queryParam("zoom", 18)
-                .queryParam("addressdetails", 1)
-                .build()
-                .toUriString();
-
-        Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-
-        if (response == null) {
-            throw new RuntimeException("Resposta vazia do serviço de geocodificação");
+        if (latitude == null || longitude == null) {
+            throw new IllegalArgumentException("Latitude e longitude são obrigatórias para geocodificar");
+        }
+
+        // Fazendas são visitadas várias vezes nas mesmas coordenadas
+        GeoLocationDetails cached = geocodingCache.get(latitude, longitude);
+        if (cached != null) {
+            return cached.withCoordinates(latitude, longitude);
         }
 
-        GeoLocationDetails details = new GeoLocationDetails();
-        details.setLatitude(latitude);
-        details.setLongitude(longitude);
+        // Chamadas simultâneas para a mesma célula aguardam uma única requisição ao provedor
+        GeoLocationDetails details = singleFlight.execute(
+                geocodingCache.keyFor(latitude, longitude), coalescingTimeout, () -> {
+                    GeoLocationDetails loaded = geocodingCache.get(latitude, longitude);
+                    if (loaded == null) {
+                        RedisGeocodingCache.Entry entry = loadSharedLocationDetails(latitude, longitude);
+                        geocodingCache.put(latitude, longitude, entry.details(), entry.writtenAt());
+                        loaded = entry.details();
+                    }
+                    return loaded;
+                });
+        return details.withCoordinates(latitude, longitude);
+    }
 
-        if (response.containsKey("display_name")) {
-            details.setFormattedAddress((String) response.get("display_name"));
+    // Chamadas simultâneas para muitas coordenadas sem ocupar uma thread por requisição
+    public CompletableFuture<GeoLocationDetails> getLocationDetailsAsync(double latitude, double longitude) {
+        GeoLocationDetails cached = geocodingCache.get(latitude, longitude);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.withCoordinates(latitude, longitude));
         }
 
-        if (response.containsKey("address")) {
-            Map<String, String> address = (Map<String, String>) response.get("address");
+        return singleFlight.executeAsync(geocodingCache.keyFor(latitude, longitude), coalescingTimeout, () -> {
+            GeoLocationDetails loaded = geocodingCache.get(latitude, longitude);
+            if (loaded != null) {
+                return CompletableFuture.completedFuture(loaded);
+            }
+            return loadSharedLocationDetailsAsync(latitude, longitude).thenApply(entry -> {
+                geocodingCache.put(latitude, longitude, entry.details(), entry.writtenAt());
+                return entry.details();
+            });
+        }).thenApply(details -> details.withCoordinates(latitude, longitude));
+    }
 
-            if (address.containsKey("city")) {
-                details.setCity(address.get("city"));
+    // Resolve em lote o que já está no cache local ou no Redis (um único MGET), sem chamar o provedor
+    CachedLocations getCachedLocationDetails(Map<CoordinateKey, double[]> cells) {
+        Map<CoordinateKey, GeoLocationDetails> found = new HashMap<>();
+        Set<CoordinateKey> failed = new HashSet<>();
+        // As chaves do Redis seguem a grade local: uma por célula
+        Map<String, CoordinateKey> missing = new LinkedHashMap<>();
+        for (Map.Entry<CoordinateKey, double[]> cell : cells.entrySet()) {
+            double[] coordinates = cell.getValue();
+            GeoLocationDetails cached = geocodingCache.get(coordinates[0], coordinates[1]);
+            if (cached != null) {
+                found.put(cell.getKey(), cached);
+            } else {
+                missing.put(sharedCache.cell(cell.getKey()), cell.getKey());
             }
-            if (address.containsKey("state")) {
-                details.setState(address.get("state"));
+        }
+
+        Map<String, RedisGeocodingCache.Entry> shared = sharedCache.getAll(missing.keySet());
+        for (Map.Entry<String, RedisGeocodingCache.Entry> entry : shared.entrySet()) {
+            CoordinateKey key = missing.get(entry.getKey());
+            if (entry.getValue().isNegative()) {
+                failed.add(key);
+            } else {
+                double[] coordinates = cells.get(key);
+                geocodingCache.put(coordinates[0], coordinates[1], entry.getValue().details(),
+                        entry.getValue().writtenAt());
+                found.put(key, entry.getValue().details());
             }
-            if (address.containsKey("postcode")) {
-                details.setPostalCode(address.get("postcode"));
+        }
+        return new CachedLocations(found, failed);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("geocoding.requests.coalesced", singleFlight, SingleFlight::getCoalescedCalls)
+                .description("Chamadas que reaproveitaram uma geocodificação já em andamento")
+                .register(registry);
+        successTimer = providerTimer(registry, "success");
+        failureTimer = providerTimer(registry, "failure");
+        rejectedTimer = providerTimer(registry, "rejected");
+    }
+
+    // A entrada leva o momento da consulta ao provedor, que pode ter sido feita por outro nó: a cópia local vence
+    // junto com ela, sem renovar o TTL
+    private RedisGeocodingCache.Entry loadSharedLocationDetails(double latitude, double longitude) {
+        String cell = sharedCache.cell(geocodingCache.keyFor(latitude, longitude));
+        RedisGeocodingCache.Entry entry = sharedCache.get(cell);
+        if (entry != null) {
+            if (entry.isNegative()) {
+                throw new RuntimeException("Falha recente ao geocodificar estas coordenadas; nova tentativa em breve");
             }
-            if (address.containsKey("country")) {
-                details.setCountry(address.get("country"));
+            return entry;
+        }
+
+        GeoLocationDetails details;
+        try {
+            details = fetchLocationDetails(latitude, longitude);
+        } catch (CallNotPermittedException e) {
+            // Recusa local (circuito aberto, limite de taxa): não diz nada sobre as coordenadas
+            throw e;
+        } catch (RuntimeException e) {
+            sharedCache.putNegative(cell);
+            throw e;
+        }
+        long writtenAt = System.currentTimeMillis();
+        sharedCache.put(cell, details, writtenAt);
+        return new RedisGeocodingCache.Entry(details, writtenAt);
+    }
+
+    // Leitura e gravação no Redis rodam no executor próprio: a resposta do provedor chega por uma thread do
+    // HttpClient, que não pode ficar presa em I/O
+    private CompletableFuture<RedisGeocodingCache.Entry> loadSharedLocationDetailsAsync(double latitude,
+                                                                                       double longitude) {
+        String cell = sharedCache.cell(geocodingCache.keyFor(latitude, longitude));
+        return CompletableFuture.supplyAsync(() -> sharedCache.get(cell), redisExecutor).thenCompose(entry -> {
+            if (entry != null) {
+                return entry.isNegative()
+                        ? CompletableFuture.failedFuture(new RuntimeException(
+                                "Falha recente ao geocodificar estas coordenadas; nova tentativa em breve"))
+                        : CompletableFuture.completedFuture(entry);
+            }
+
+            return fetchLocationDetailsAsync(latitude, longitude)
+                    .thenApply(details -> new RedisGeocodingCache.Entry(details, System.currentTimeMillis()))
+                    .whenCompleteAsync((fetched, error) -> {
+                        if (error == null) {
+                            sharedCache.put(cell, fetched.details(), fetched.writtenAt());
+                        } else if (!(unwrap(error) instanceof CallNotPermittedException)) {
+                            sharedCache.putNegative(cell);
+                        }
+                    }, redisExecutor);
+        });
+    }
+
+    private CompletableFuture<GeoLocationDetails> fetchLocationDetailsAsync(double latitude, double longitude) {
+        if (provider.isLocal()) {
+            return provider.reverseAsync(latitude, longitude);
+        }
+
+        long waitNanos = rateLimiter.reserve(rateLimitMaxWait);
+        if (waitNanos < 0) {
+            record(rejectedTimer, 0);
+            return CompletableFuture.failedFuture(
+                    new CallNotPermittedException("Limite de requisições ao serviço de geocodificação atingido"));
+        }
+        // A espera do limitador vira um agendamento, não uma thread dormindo, e acontece antes de ocupar o bulkhead
+        CompletableFuture<Void> permitted = waitNanos == 0
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.runAsync(() -> { },
+                        CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+
+        return permitted.thenCompose(ignored -> circuitBreaker.<GeoLocationDetails>executeAsync(
+                () -> bulkhead.executeAsync(() -> {
+                    long start = System.nanoTime();
+                    return provider.reverseAsync(latitude, longitude).whenComplete((details, error) ->
+                            record(error == null ? successTimer : failureTimer, System.nanoTime() - start));
+                }))).whenComplete((details, error) -> {
+                    if (error != null && unwrap(error) instanceof CallNotPermittedException) {
+                        record(rejectedTimer, 0);
+                    }
+                });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static Timer providerTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("geocoding.provider.requests")
+                .description("Latência das chamadas ao provedor de geocodificação")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    // Com o provedor degradado a chamada falha na hora e o agendamento segue sem localização. Provedor local não
+    // tem serviço externo a proteger. A espera do limitador vem antes do disjuntor e do bulkhead: não ocupa uma
+    // vaga sem requisição em andamento nem entra na latência do provedor
+    private GeoLocationDetails fetchLocationDetails(double latitude, double longitude) {
+        if (provider.isLocal()) {
+            return provider.reverse(latitude, longitude);
+        }
+
+        try {
+            if (!rateLimiter.tryAcquire(rateLimitMaxWait)) {
+                throw new CallNotPermittedException("Limite de requisições ao serviço de geocodificação atingido");
             }
+            return circuitBreaker.execute(() -> bulkhead.execute(() -> {
+                long start = System.nanoTime();
+                Timer timer = failureTimer;
+                try {
+                    GeoLocationDetails details = provider.reverse(latitude, longitude);
+                    timer = successTimer;
+                    return details;
+                } finally {
+                    record(timer, System.nanoTime() - start);
+                }
+            }));
+        } catch (CallNotPermittedException e) {
+            // Recusas não chegam ao provedor: entram só na contagem
+            record(rejectedTimer, 0);
+            throw e;
         }
+    }
+
+    private static void record(Timer timer, long nanos) {
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
 
-        return details;
+    record CachedLocations(Map<CoordinateKey, GeoLocationDetails> found, Set<CoordinateKey> failed) {
     }
 }
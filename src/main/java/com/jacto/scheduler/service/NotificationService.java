@@ -1,6 +1,7 @@
 package com.jacto.scheduler.service;
 
 import com.jacto.scheduler.config.KafkaConfig;
+import com.jacto.scheduler.messaging.SchedulingUpdatedMessage;
 import com.jacto.scheduler.model.Scheduling;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
@@ -18,8 +19,8 @@ public class NotificationService {
         kafkaTemplate.send(KafkaConfig.SCHEDULING_CREATED_TOPIC, schedulingId);
     }
 
-    public void sendSchedulingUpdatedNotification(Long schedulingId) {
-        kafkaTemplate.send(KafkaConfig.SCHEDULING_UPDATED_TOPIC, schedulingId);
+    public void sendSchedulingUpdatedNotification(Long schedulingId, SchedulingItemChanges itemChanges) {
+        kafkaTemplate.send(KafkaConfig.SCHEDULING_UPDATED_TOPIC, new SchedulingUpdatedMessage(schedulingId, itemChanges));
     }
 
     public void sendSchedulingDeletedNotification(Long schedulingId) {
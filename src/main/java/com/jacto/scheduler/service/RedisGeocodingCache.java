@@ -0,0 +1,168 @@
+package com.jacto.scheduler.service;
+
+import com.jacto.scheduler.geocoding.GeocodingCache;
+import com.jacto.scheduler.geocoding.GeocodingCache.CoordinateKey;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Cache de segundo nível compartilhado entre os nós: o que um nó aprende com o Nominatim os outros reaproveitam
+@Service
+public class RedisGeocodingCache {
+    private static final Logger logger = LoggerFactory.getLogger(RedisGeocodingCache.class);
+
+    private static final String GEOCODE_KEY_PREFIX = "geocode:";
+    private static final char SEPARATOR = '\u001F';
+    private static final String NEGATIVE = "!";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String gridPrefix;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+
+    public RedisGeocodingCache(
+            StringRedisTemplate redisTemplate,
+            GeocodingCache geocodingCache,
+            @Value("${geocoding.redis.ttl:30d}") Duration ttl,
+            @Value("${geocoding.redis.negative-ttl:10m}") Duration negativeTtl) {
+        this.redisTemplate = redisTemplate;
+        this.gridPrefix = BigDecimal.valueOf(geocodingCache.precision()).stripTrailingZeros().toPlainString() + ":";
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+    }
+
+    // Mesma grade do cache local: cada célula local tem exatamente uma chave no Redis. A precisão faz parte da
+    // chave para que nós com grades diferentes não leiam as células uns dos outros
+    public String cell(CoordinateKey key) {
+        return gridPrefix + key.latitudeCell() + ":" + key.longitudeCell();
+    }
+
+    // Retorna null quando a célula não está no Redis (ou o Redis está indisponível)
+    public Entry get(String cell) {
+        try {
+            return decode(redisTemplate.opsForValue().get(GEOCODE_KEY_PREFIX + cell));
+        } catch (DataAccessException e) {
+            logger.debug("Falha ao ler geocodificação do Redis: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // Um único MGET para todas as células; as ausentes ficam fora do mapa
+    public Map<String, Entry> getAll(Collection<String> cells) {
+        Map<String, Entry> entries = new HashMap<>();
+        if (cells.isEmpty()) {
+            return entries;
+        }
+        List<String> ordered = new ArrayList<>(cells);
+        List<String> keys = new ArrayList<>(ordered.size());
+        for (String cell : ordered) {
+            keys.add(GEOCODE_KEY_PREFIX + cell);
+        }
+
+        List<String> values;
+        try {
+            values = redisTemplate.opsForValue().multiGet(keys);
+        } catch (DataAccessException e) {
+            logger.debug("Falha ao ler geocodificações do Redis: {}", e.getMessage());
+            return entries;
+        }
+        if (values == null) {
+            return entries;
+        }
+        for (int i = 0; i < ordered.size(); i++) {
+            Entry entry = decode(values.get(i));
+            if (entry != null) {
+                entries.put(ordered.get(i), entry);
+            }
+        }
+        return entries;
+    }
+
+    // writtenAt (epoch ms) é o momento da consulta ao provedor: vai junto para que os outros nós, ao copiar a
+    // célula para a memória, contem o TTL local a partir dele
+    public void put(String cell, GeoLocationDetails details, long writtenAt) {
+        write(cell, encode(details, writtenAt), ttl);
+    }
+
+    // Falhas recentes ficam registradas por pouco tempo para que os outros nós não repitam a chamada
+    public void putNegative(String cell) {
+        write(cell, NEGATIVE, negativeTtl);
+    }
+
+    private void write(String cell, String value, Duration expiration) {
+        try {
+            redisTemplate.opsForValue().set(GEOCODE_KEY_PREFIX + cell, value, expiration);
+        } catch (DataAccessException e) {
+            logger.debug("Falha ao gravar geocodificação no Redis: {}", e.getMessage());
+        }
+    }
+
+    static String encode(GeoLocationDetails details, long writtenAt) {
+        StringBuilder value = new StringBuilder();
+        String[] fields = {details.getCity(), details.getState(), details.getPostalCode(),
+                details.getCountry(), details.getFormattedAddress()};
+        for (String field : fields) {
+            if (field != null) {
+                value.append(field);
+            }
+            value.append(SEPARATOR);
+        }
+        return value.append(writtenAt).toString();
+    }
+
+    static Entry decode(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (NEGATIVE.equals(value)) {
+            return Entry.NEGATIVE;
+        }
+        String[] fields = value.split(String.valueOf(SEPARATOR), -1);
+        if (fields.length != 5 && fields.length != 6) {
+            return null;
+        }
+        // Gravadas antes do momento da consulta fazer parte do valor: idade desconhecida, nenhum nó as guarda
+        // na memória e elas somem pelo TTL do Redis
+        long writtenAt = 0;
+        if (fields.length == 6) {
+            try {
+                writtenAt = Long.parseLong(fields[5]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        GeoLocationDetails details = new GeoLocationDetails();
+        details.setCity(emptyToNull(fields[0]));
+        details.setState(emptyToNull(fields[1]));
+        details.setPostalCode(emptyToNull(fields[2]));
+        details.setCountry(emptyToNull(fields[3]));
+        details.setFormattedAddress(emptyToNull(fields[4]));
+        return new Entry(details, writtenAt);
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    // details == null indica uma falha recente registrada por algum nó; writtenAt é o momento (epoch ms) da
+    // consulta ao provedor
+    public record Entry(GeoLocationDetails details, long writtenAt) {
+        static final Entry NEGATIVE = new Entry(null, 0);
+
+        public boolean isNegative() {
+            return details == null;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.jacto.scheduler.service;
+
+import com.jacto.scheduler.resilience.CallNotPermittedException;
+import com.jacto.scheduler.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Toda chamada ao Redis do caminho dos agendamentos passa por aqui. Com o circuito aberto as chamadas nem
+// chegam ao Redis (sem pagar o timeout) e quem chama segue pela memória local e pelo banco.
+// Chaves cuja escrita falhou ficam num buffer limitado e são apagadas quando o Redis volta: a próxima leitura
+// as recarrega do banco, em vez de servir a cópia anterior à queda
+@Component
+public class RedisGuard implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(RedisGuard.class);
+
+    private final CircuitBreaker circuitBreaker;
+    private final StringRedisTemplate redisTemplate;
+    private final int maxPendingKeys;
+    // Chave -> ação após apagá-la (invalidar as cópias locais dos outros nós, por exemplo); a mais antiga sai
+    // primeiro quando o buffer enche
+    private final LinkedHashMap<String, PendingWrite> pending = new LinkedHashMap<>();
+    private final AtomicLong droppedKeys = new AtomicLong();
+
+    @Autowired
+    public RedisGuard(
+            @Qualifier("redisCircuitBreaker") CircuitBreaker circuitBreaker,
+            StringRedisTemplate redisTemplate,
+            @Value("${scheduling.cache.resync.max-keys:10000}") int maxPendingKeys) {
+        this.circuitBreaker = circuitBreaker;
+        this.redisTemplate = redisTemplate;
+        this.maxPendingKeys = maxPendingKeys;
+    }
+
+    // fallback quando o Redis falha ou o circuito está aberto. Só o comando deve ir em command: exceções de
+    // regra de negócio lançadas ali contariam como falha do Redis
+    public <T> T call(Supplier<T> command, T fallback) {
+        try {
+            return circuitBreaker.execute(command);
+        } catch (CallNotPermittedException e) {
+            return fallback;
+        } catch (DataAccessException e) {
+            logger.debug("Falha no Redis, seguindo sem cache: {}", e.getMessage());
+            return fallback;
+        }
+    }
+
+    // Escrita que, se perdida, deixaria a chave velha no Redis: registra a chave para a ressincronização.
+    // onResync roda depois que a chave for apagada; devolve se a escrita chegou ao Redis
+    public boolean write(String key, Runnable command, Runnable onResync) {
+        boolean written = call(() -> {
+            command.run();
+            return true;
+        }, false);
+        if (!written) {
+            markPending(key, onResync);
+        }
+        return written;
+    }
+
+    public boolean isAvailable() {
+        return circuitBreaker.getState() == CircuitBreaker.State.CLOSED;
+    }
+
+    // Um único DEL com as chaves pendentes, pelo circuito: aberto, fica para a próxima rodada
+    @Scheduled(fixedDelayString = "${scheduling.cache.resync.interval:PT5S}")
+    public void resync() {
+        Map<String, PendingWrite> batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new LinkedHashMap<>(pending);
+        }
+        List<String> keys = new ArrayList<>(batch.keySet());
+        Long deleted = call(() -> redisTemplate.delete(keys), null);
+        if (deleted == null) {
+            return;
+        }
+        synchronized (pending) {
+            // Uma chave que falhou de novo durante o DEL tem outro registro e continua pendente
+            batch.forEach(pending::remove);
+        }
+        for (PendingWrite write : batch.values()) {
+            if (write.onResync != null) {
+                write.onResync.run();
+            }
+        }
+        logger.info("Redis de volta: {} chaves escritas durante a indisponibilidade foram ressincronizadas",
+                keys.size());
+    }
+
+    public int getPendingKeys() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    public long getDroppedKeys() {
+        return droppedKeys.get();
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("scheduling.cache.resync.pending", this, RedisGuard::getPendingKeys)
+                .description("Chaves escritas com o Redis indisponível, aguardando ressincronização")
+                .register(registry);
+        FunctionCounter.builder("scheduling.cache.resync.dropped", droppedKeys, AtomicLong::get)
+                .description("Chaves descartadas com o buffer de ressincronização cheio; vencem só pelo TTL")
+                .register(registry);
+    }
+
+    private void markPending(String key, Runnable onResync) {
+        synchronized (pending) {
+            // Reinserida no fim: a ordem do mapa é a da última falha
+            pending.remove(key);
+            pending.put(key, new PendingWrite(onResync));
+            if (pending.size() > maxPendingKeys) {
+                String eldest = pending.keySet().iterator().next();
+                pending.remove(eldest);
+                if (droppedKeys.getAndIncrement() == 0) {
+                    logger.warn("Buffer de ressincronização do Redis cheio ({} chaves); as mais antigas vencem "
+                            + "só pelo TTL", maxPendingKeys);
+                }
+            }
+        }
+    }
+
+    // Comparado por identidade: cada falha gera um registro novo
+    private static final class PendingWrite {
+        private final Runnable onResync;
+
+        private PendingWrite(Runnable onResync) {
+            this.onResync = onResync;
+        }
+    }
+}
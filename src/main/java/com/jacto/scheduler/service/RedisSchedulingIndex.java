@@ -0,0 +1,281 @@
+package com.jacto.scheduler.service;
+
+import com.jacto.scheduler.repository.SchedulingIndexEntry;
+import com.jacto.scheduler.repository.SchedulingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Índice por técnico no Redis: sorted set com os ids dos agendamentos, pontuados pela data agendada.
+// Um membro sentinela (#building ou #ready, com pontuação -inf) guarda o estado no próprio set, então uma
+// eviction leva índice e estado juntos. Só um índice #ready responde às listagens
+@Service
+public class RedisSchedulingIndex {
+    private static final Logger logger = LoggerFactory.getLogger(RedisSchedulingIndex.class);
+
+    private static final String INDEX_KEY_PREFIX = "technician:";
+    private static final String INDEX_KEY_SUFFIX = ":schedulings";
+    // Ids removidos durante uma reconstrução, para a página lida antes da remoção não trazê-los de volta
+    private static final String REMOVED_KEY_SUFFIX = ":schedulings:removed";
+
+    // Só mexe em índices existentes (prontos ou em construção): criar um parcial o faria parecer completo
+    static final RedisScript<Long> ADD = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return 0
+            end
+            redis.call('ZADD', KEYS[1], ARGV[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    static final RedisScript<Long> REMOVE = RedisScript.of("""
+            local removed = redis.call('ZREM', KEYS[1], ARGV[1])
+            if redis.call('ZSCORE', KEYS[1], '#building') then
+                redis.call('SADD', KEYS[2], ARGV[1])
+                redis.call('EXPIRE', KEYS[2], ARGV[2])
+            end
+            return removed
+            """, Long.class);
+
+    // Um único nó reconstrói por vez; a expiração libera o índice se esse nó cair no meio
+    static final RedisScript<Long> START_REBUILD = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            redis.call('ZADD', KEYS[1], '-inf', '#building')
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    // NX: uma escrita concorrente já gravou a pontuação atual e a página lida do banco pode estar velha.
+    // ARGV: pares pontuação, id
+    static final RedisScript<Long> ADD_PAGE = RedisScript.of("""
+            if not redis.call('ZSCORE', KEYS[1], '#building') then
+                return -1
+            end
+            local added = 0
+            for i = 1, #ARGV, 2 do
+                if redis.call('SISMEMBER', KEYS[2], ARGV[i + 1]) == 0 then
+                    added = added + redis.call('ZADD', KEYS[1], 'NX', ARGV[i], ARGV[i + 1])
+                end
+            end
+            return added
+            """, Long.class);
+
+    static final RedisScript<Long> FINISH_REBUILD = RedisScript.of("""
+            if not redis.call('ZSCORE', KEYS[1], '#building') then
+                return 0
+            end
+            redis.call('ZREM', KEYS[1], '#building')
+            redis.call('ZADD', KEYS[1], '-inf', '#ready')
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            redis.call('DEL', KEYS[2])
+            return 1
+            """, Long.class);
+
+    // Página de posições depois do cursor, em pares id, pontuação. ARGV: ordem ('desc' para todos, mais recentes primeiro, ou 'asc' para os
+    // próximos), pontuação de partida (exclusiva), id do cursor ('' na primeira página) e tamanho. Datas iguais
+    // ficam em ordem de texto no sorted set, então os empatados com o cursor e o último grupo de datas iguais
+    // da página entram inteiros e são ordenados pelo id numérico, como no banco. O limite '(-inf' deixa os
+    // sentinelas de fora; índice ausente ou incompleto devolve nil
+    @SuppressWarnings("rawtypes")
+    static final RedisScript<List> RANGE = RedisScript.of("""
+            if not redis.call('ZSCORE', KEYS[1], '#ready') then
+                return false
+            end
+            local desc = ARGV[1] == 'desc'
+            local limit = tonumber(ARGV[4])
+            local page = {}
+            local function collect(members, skip, afterId)
+                for i = 1, #members, 2 do
+                    local id = tonumber(members[i])
+                    if members[i + 1] ~= skip
+                            and (not afterId or (desc and id < afterId) or (not desc and id > afterId)) then
+                        page[#page + 1] = {tonumber(members[i + 1]), id}
+                    end
+                end
+            end
+            if ARGV[3] ~= '' then
+                collect(redis.call('ZRANGEBYSCORE', KEYS[1], ARGV[2], ARGV[2], 'WITHSCORES'), nil, tonumber(ARGV[3]))
+            end
+            local members
+            if desc then
+                members = redis.call('ZREVRANGEBYSCORE', KEYS[1], '(' .. ARGV[2], '(-inf', 'WITHSCORES', 'LIMIT', 0, limit)
+            else
+                members = redis.call('ZRANGEBYSCORE', KEYS[1], '(' .. ARGV[2], '+inf', 'WITHSCORES', 'LIMIT', 0, limit)
+            end
+            local cut = nil
+            if #members == limit * 2 then
+                cut = members[#members]
+            end
+            collect(members, cut, nil)
+            if cut then
+                collect(redis.call('ZRANGEBYSCORE', KEYS[1], cut, cut, 'WITHSCORES'), nil, nil)
+            end
+            table.sort(page, function(a, b)
+                if a[1] ~= b[1] then
+                    return (a[1] > b[1]) == desc
+                end
+                return (a[2] > b[2]) == desc
+            end)
+            local positions = {}
+            for i = 1, math.min(limit, #page) do
+                positions[2 * i - 1] = page[i][2]
+                positions[2 * i] = page[i][1]
+            end
+            return positions
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisGuard redisGuard;
+    private final SchedulingRepository schedulingRepository;
+    private final Duration ttl;
+    private final Duration buildTimeout;
+    private final int pageSize;
+
+    public RedisSchedulingIndex(
+            StringRedisTemplate redisTemplate,
+            RedisGuard redisGuard,
+            SchedulingRepository schedulingRepository,
+            @Value("${scheduling.index.ttl:24h}") Duration ttl,
+            @Value("${scheduling.index.build-timeout:5m}") Duration buildTimeout,
+            @Value("${scheduling.index.rebuild-page-size:500}") int pageSize) {
+        this.redisTemplate = redisTemplate;
+        this.redisGuard = redisGuard;
+        this.schedulingRepository = schedulingRepository;
+        this.ttl = ttl;
+        this.buildTimeout = buildTimeout;
+        this.pageSize = pageSize;
+    }
+
+    // Até limit posições depois do cursor (nulo na primeira página), na ordem da listagem. Vazio quando o índice
+    // não está pronto (ou o Redis está indisponível): a página vem do banco. As datas valem até o milissegundo
+    public Optional<List<SchedulingCursor>> findAll(Long technicianId, SchedulingCursor after, int limit) {
+        return after == null
+                ? range(technicianId, "desc", "+inf", "", limit)
+                : range(technicianId, "desc", score(after.scheduledAt()), after.id().toString(), limit);
+    }
+
+    public Optional<List<SchedulingCursor>> findUpcoming(Long technicianId, LocalDateTime now, SchedulingCursor after, int limit) {
+        return after == null
+                ? range(technicianId, "asc", score(now), "", limit)
+                : range(technicianId, "asc", score(after.scheduledAt()), after.id().toString(), limit);
+    }
+
+    // Sem o Redis o índice do técnico fica pendente e é descartado quando ele voltar: a próxima listagem o
+    // reconstrói do banco, em vez de responder sem o agendamento
+    public void add(Long technicianId, Long schedulingId, LocalDateTime scheduledAt) {
+        String indexKey = indexKey(technicianId);
+        if (!redisGuard.write(indexKey,
+                () -> redisTemplate.execute(ADD, List.of(indexKey), score(scheduledAt), schedulingId.toString()),
+                null)) {
+            logger.warn("Falha ao indexar o agendamento {}; índice do técnico {} será reconstruído",
+                    schedulingId, technicianId);
+        }
+    }
+
+    public void remove(Long technicianId, Long schedulingId) {
+        String indexKey = indexKey(technicianId);
+        if (!redisGuard.write(indexKey,
+                () -> redisTemplate.execute(REMOVE, List.of(indexKey, removedKey(technicianId)),
+                        schedulingId.toString(), String.valueOf(buildTimeout.toSeconds())),
+                null)) {
+            logger.warn("Falha ao remover o agendamento {} do índice; índice do técnico {} será reconstruído",
+                    schedulingId, technicianId);
+        }
+    }
+
+    // Reconstrói em páginas por id, fora da requisição. Escritas concorrentes continuam valendo: elas entram
+    // no índice em construção e a página lida do banco nunca as sobrescreve nem ressuscita ids removidos
+    @Async
+    public void rebuild(Long technicianId) {
+        if (!redisGuard.isAvailable()) {
+            return;
+        }
+        String indexKey = indexKey(technicianId);
+        List<String> keys = List.of(indexKey, removedKey(technicianId));
+        try {
+            Long started = redisTemplate.execute(START_REBUILD, List.of(indexKey),
+                    String.valueOf(buildTimeout.toSeconds()));
+            if (started == null || started == 0) {
+                return;
+            }
+
+            long afterId = 0;
+            int indexed = 0;
+            List<SchedulingIndexEntry> page;
+            do {
+                page = schedulingRepository.findIndexEntries(technicianId, afterId, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                List<String> args = new ArrayList<>(page.size() * 2);
+                for (SchedulingIndexEntry entry : page) {
+                    args.add(score(entry.getScheduledAt()));
+                    args.add(entry.getId().toString());
+                }
+                Long added = redisTemplate.execute(ADD_PAGE, keys, args.toArray());
+                if (added != null && added < 0) {
+                    // O índice expirou ou foi removido no meio: a próxima listagem recomeça
+                    logger.debug("Reconstrução do índice do técnico {} interrompida", technicianId);
+                    return;
+                }
+                indexed += page.size();
+                afterId = page.get(page.size() - 1).getId();
+            } while (page.size() == pageSize);
+
+            redisTemplate.execute(FINISH_REBUILD, keys, String.valueOf(ttl.toSeconds()));
+            logger.debug("Índice do técnico {} reconstruído com {} agendamentos", technicianId, indexed);
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao reconstruir o índice do técnico {}: {}", technicianId, e.getMessage());
+        }
+    }
+
+    private Optional<List<SchedulingCursor>> range(
+            Long technicianId, String order, String from, String afterId, int limit) {
+        List<?> members = redisGuard.call(
+                () -> redisTemplate.execute(RANGE, List.of(indexKey(technicianId)),
+                        order, from, afterId, String.valueOf(limit)),
+                null);
+        if (members == null) {
+            return Optional.empty();
+        }
+        List<SchedulingCursor> positions = new ArrayList<>(members.size() / 2);
+        for (int i = 0; i + 1 < members.size(); i += 2) {
+            positions.add(new SchedulingCursor(
+                    scheduledAt(Long.parseLong(members.get(i + 1).toString())),
+                    Long.valueOf(members.get(i).toString())));
+        }
+        return Optional.of(positions);
+    }
+
+    // Milissegundos desde a época, tratando a data agendada como UTC (a mesma regra vale para o "agora")
+    private static String score(LocalDateTime dateTime) {
+        return String.valueOf(dateTime.toInstant(ZoneOffset.UTC).toEpochMilli());
+    }
+
+    private static LocalDateTime scheduledAt(long score) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(score), ZoneOffset.UTC);
+    }
+
+    private static String indexKey(Long technicianId) {
+        return INDEX_KEY_PREFIX + technicianId + INDEX_KEY_SUFFIX;
+    }
+
+    private static String removedKey(Long technicianId) {
+        return INDEX_KEY_PREFIX + technicianId + REMOVED_KEY_SUFFIX;
+    }
+}
@@ -1,41 +1,470 @@
 package com.jacto.scheduler.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jacto.scheduler.cache.SchedulingCacheFormat;
+import com.jacto.scheduler.cache.SchedulingJsonWriter;
+import com.jacto.scheduler.exception.ResourceNotFoundException;
 import com.jacto.scheduler.payload.response.SchedulingResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.SerializationException;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 @Service
 public class RedisSchedulingService {
+    private static final Logger logger = LoggerFactory.getLogger(RedisSchedulingService.class);
 
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final ObjectMapper objectMapper;
-    private static final String SCHEDULING_KEY_PREFIX = "scheduling:";
-    private static final long CACHE_EXPIRATION = 24; // 24 horas
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final SchedulingCacheFormat format;
+    private final SchedulingLocalCache localCache;
+    // Com o Redis indisponível as leituras seguem pela memória local e pelo banco (ver RedisGuard)
+    private final RedisGuard redisGuard;
+    // Um hash por agendamento (ver SchedulingCacheFormat); o prefixo é outro que o dos valores inteiros de antes,
+    // que vencem sozinhos pelo TTL
+    private static final String SCHEDULING_KEY_PREFIX = "scheduling:hash:";
+    private static final String REFRESH_LOCK_PREFIX = "scheduling:refresh:";
+    private static final byte[] ONLY_IF_ABSENT = "nx".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ALWAYS = new byte[0];
 
-    public RedisSchedulingService(RedisTemplate<String, Object> redisTemplate, ObjectMapper objectMapper) {
+    // Expiração lógica = ttl ± ttlJitter, para registros gravados juntos não vencerem juntos. O Redis guarda o
+    // valor por mais staleGrace: nesse intervalo um nó recalcula e os outros continuam servindo a cópia velha
+    private final Duration ttl;
+    private final Duration ttlJitter;
+    private final Duration staleGrace;
+    // XFetch: recomputeTime estima quanto custa recalcular um registro; beta > 1 antecipa mais o recálculo
+    private final Duration recomputeTime;
+    private final double beta;
+    private final Duration lockTtl;
+    // Por quanto tempo um id inexistente responde 404 sem ir ao banco
+    private final Duration negativeTtl;
+    // Identifica este nó como dono da trava de recálculo
+    private final byte[] lockToken = UUID.randomUUID().toString().getBytes(StandardCharsets.US_ASCII);
+
+    // Substitui o hash inteiro (ARGV[3..]: pares campo, valor) e renova a expiração (ARGV[1], em segundos).
+    // Com ARGV[2] = 'nx' só grava se a chave não existir
+    static final String WRITE_SOURCE = """
+            if ARGV[2] == 'nx' and redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], unpack(ARGV, 3))
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """;
+    static final RedisScript<Long> WRITE = RedisScript.of(WRITE_SOURCE, Long.class);
+
+    // Grava o hash (ARGV[4..]) só se a versão guardada for menor que a nova (ARGV[1]) ou não existir.
+    // Assim uma leitura do banco anterior a uma escrita não sobrescreve a cópia mais nova.
+    // Versão nova negativa (ausente) grava sempre. A mesma versão só é regravada por quem detém a trava de
+    // recálculo (KEYS[2] com o valor ARGV[3]), para renovar a expiração (ARGV[2]); a gravação libera a trava
+    static final String CACHE_IF_NEWER_SOURCE = """
+            local incoming = tonumber(ARGV[1])
+            if incoming >= 0 then
+                local stored = tonumber(redis.call('HGET', KEYS[1], '#v'))
+                if stored and (stored > incoming or (stored == incoming and redis.call('GET', KEYS[2]) ~= ARGV[3])) then
+                    return 0
+                end
+            end
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], unpack(ARGV, 4))
+            redis.call('EXPIRE', KEYS[1], ARGV[2])
+            if redis.call('GET', KEYS[2]) == ARGV[3] then
+                redis.call('DEL', KEYS[2])
+            end
+            return 1
+            """;
+    static final RedisScript<Long> CACHE_IF_NEWER = RedisScript.of(CACHE_IF_NEWER_SOURCE, Long.class);
+
+    // Alteração parcial: só vale sobre exatamente a versão anterior à escrita (ARGV[1]); remove os ARGV[2] campos
+    // seguintes e grava os pares restantes, mantendo a expiração. Qualquer outra versão (ou chave ausente)
+    // devolve 0 e quem chama regrava o hash inteiro
+    static final String PATCH_SOURCE = """
+            if redis.call('HGET', KEYS[1], '#v') ~= ARGV[1] then
+                return 0
+            end
+            local removed = tonumber(ARGV[2])
+            if removed > 0 then
+                redis.call('HDEL', KEYS[1], unpack(ARGV, 3, 2 + removed))
+            end
+            if #ARGV > 2 + removed then
+                redis.call('HSET', KEYS[1], unpack(ARGV, 3 + removed))
+            end
+            return 1
+            """;
+    static final RedisScript<Long> PATCH = RedisScript.of(PATCH_SOURCE, Long.class);
+    // Resultado da gravação condicional quando o Redis não respondeu
+    private static final long UNAVAILABLE = -1L;
+
+    public RedisSchedulingService(
+            @Qualifier("schedulingRedisTemplate") RedisTemplate<String, byte[]> redisTemplate,
+            SchedulingCacheFormat format,
+            SchedulingLocalCache localCache,
+            RedisGuard redisGuard,
+            @Value("${scheduling.cache.ttl:24h}") Duration ttl,
+            @Value("${scheduling.cache.ttl-jitter:2h}") Duration ttlJitter,
+            @Value("${scheduling.cache.stale-grace:10m}") Duration staleGrace,
+            @Value("${scheduling.cache.refresh.recompute-time:100ms}") Duration recomputeTime,
+            @Value("${scheduling.cache.refresh.beta:1.0}") double beta,
+            @Value("${scheduling.cache.refresh.lock-ttl:5s}") Duration lockTtl,
+            @Value("${scheduling.cache.negative-ttl:60s}") Duration negativeTtl) {
         this.redisTemplate = redisTemplate;
-        this.objectMapper = objectMapper;
+        this.format = format;
+        this.localCache = localCache;
+        this.redisGuard = redisGuard;
+        this.ttl = ttl;
+        this.ttlJitter = ttlJitter;
+        this.staleGrace = staleGrace;
+        this.recomputeTime = recomputeTime;
+        this.beta = beta;
+        this.lockTtl = lockTtl;
+        this.negativeTtl = negativeTtl;
     }
 
+    // Após uma escrita: as cópias locais dos outros nós são invalidadas. Sem o Redis a chave fica pendente e é
+    // apagada (e invalidada nos outros nós) quando ele voltar; até lá, só a cópia deste nó é atualizada
     public void saveScheduling(SchedulingResponse scheduling) {
         String key = SCHEDULING_KEY_PREFIX + scheduling.getId();
-        redisTemplate.opsForValue().set(key, scheduling, CACHE_EXPIRATION, TimeUnit.HOURS);
+        Object[] args = writeArgs(scheduling);
+        afterWrite(scheduling, redisGuard.write(key,
+                () -> redisTemplate.execute(WRITE, List.of(key), args),
+                () -> localCache.invalidate(scheduling.getId())));
+    }
+
+    // Após uma alteração: só os campos que mudaram de before para after vão ao Redis (um status novo é um único
+    // HSET), desde que ele guarde exatamente a versão de before. Senão o hash inteiro é regravado
+    public void saveChanges(SchedulingResponse before, SchedulingResponse after) {
+        SchedulingCacheFormat.FieldChanges changes = format.diff(before, after);
+        if (changes.isEmpty()) {
+            return;
+        }
+        String key = SCHEDULING_KEY_PREFIX + after.getId();
+        Object[] patchArgs = patchArgs(before.getVersion(), changes);
+        Object[] writeArgs = writeArgs(after);
+        afterWrite(after, redisGuard.write(key, () -> {
+            Long patched = redisTemplate.execute(PATCH, List.of(key), patchArgs);
+            if (patched == null || patched == 0L) {
+                redisTemplate.execute(WRITE, List.of(key), writeArgs);
+            }
+        }, () -> localCache.invalidate(after.getId())));
+    }
+
+    // Após uma leitura do banco: os dados não mudaram, então não há o que invalidar nos outros nós.
+    // Só grava se o Redis não tiver a mesma versão ou uma mais nova; devolve se gravou.
+    // Sem o Redis a leitura do banco fica só na memória local, cuja defasagem o TTL curto limita
+    public boolean cacheScheduling(SchedulingResponse scheduling) {
+        List<String> keys = cacheIfNewerKeys(scheduling);
+        Object[] args = cacheIfNewerArgs(scheduling);
+        Long result = redisGuard.call(() -> redisTemplate.execute(CACHE_IF_NEWER, keys, args), UNAVAILABLE);
+        if (result != null && result == UNAVAILABLE) {
+            localCache.put(scheduling);
+            return false;
+        }
+        boolean written = result != null && result == 1L;
+        // Uma versão recusada é mais velha que a do Redis e não deve ir para a memória local
+        if (written) {
+            localCache.put(scheduling);
+        }
+        return written;
+    }
+
+    // Todas as gravações condicionais vão num único pipeline: uma ida e volta em vez de uma por item
+    public int cacheSchedulings(Collection<SchedulingResponse> schedulings) {
+        if (schedulings.isEmpty()) {
+            return 0;
+        }
+        List<SchedulingResponse> ordered = new ArrayList<>(schedulings);
+        List<Object[]> args = new ArrayList<>(ordered.size());
+        for (SchedulingResponse scheduling : ordered) {
+            args.add(cacheIfNewerArgs(scheduling));
+        }
+        List<Object> results = redisGuard.call(() -> redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, byte[]> pipeline = (RedisOperations<String, byte[]>) operations;
+                for (int i = 0; i < ordered.size(); i++) {
+                    pipeline.execute(CACHE_IF_NEWER, cacheIfNewerKeys(ordered.get(i)), args.get(i));
+                }
+                return null;
+            }
+        }), null);
+        if (results == null) {
+            ordered.forEach(localCache::put);
+            return 0;
+        }
+
+        int written = 0;
+        for (int i = 0; i < ordered.size(); i++) {
+            Object result = i < results.size() ? results.get(i) : null;
+            if (Long.valueOf(1L).equals(result)) {
+                localCache.put(ordered.get(i));
+                written++;
+            }
+        }
+        return written;
     }
 
+    // Memória local primeiro, depois um único pipeline de HGETALL para o restante; os ausentes ficam fora do mapa.
+    // Registros que este nó deve recalcular (ver shouldRefresh) também ficam de fora, como se tivessem expirado
+    public Map<Long, SchedulingResponse> getSchedulings(Collection<Long> ids) {
+        Map<Long, SchedulingResponse> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            SchedulingResponse local = localCache.get(id);
+            if (local != null) {
+                found.put(id, local);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        List<Object> values = redisGuard.call(() -> redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, byte[]> pipeline = (RedisOperations<String, byte[]>) operations;
+                for (Long id : missing) {
+                    pipeline.opsForHash().entries(SCHEDULING_KEY_PREFIX + id);
+                }
+                return null;
+            }
+        }), null);
+        if (values == null) {
+            return found;
+        }
+        long now = System.currentTimeMillis();
+        List<Long> refresh = new ArrayList<>();
+        for (int i = 0; i < missing.size() && i < values.size(); i++) {
+            Map<String, byte[]> fields = fields(values.get(i));
+            SchedulingResponse scheduling = decode(missing.get(i), fields);
+            if (scheduling == null) {
+                continue;
+            }
+            found.put(missing.get(i), scheduling);
+            if (shouldRefresh(fields, now)) {
+                refresh.add(missing.get(i));
+            } else {
+                localCache.put(scheduling);
+            }
+        }
+        if (!refresh.isEmpty()) {
+            for (Long id : acquireRefreshLocks(refresh)) {
+                found.remove(id);
+            }
+        }
+        return found;
+    }
+
+    // Id marcado como inexistente (ver cacheMissing): ResourceNotFoundException, sem ida ao banco
     public SchedulingResponse getScheduling(Long id) {
+        // Registros quentes saem da memória, sem ida ao Redis nem decodificação
+        SchedulingResponse local = localCache.get(id);
+        if (local != null) {
+            return local;
+        }
+
         String key = SCHEDULING_KEY_PREFIX + id;
-        Object value = redisTemplate.opsForValue().get(key);
-        if (value == null) {
+        HashOperations<String, String, byte[]> hash = redisTemplate.opsForHash();
+        Map<String, byte[]> fields = redisGuard.call(() -> hash.entries(key), null);
+        if (SchedulingCacheFormat.isMissing(fields)) {
+            throw new ResourceNotFoundException("Agendamento não encontrado com id: " + id);
+        }
+        SchedulingResponse scheduling = decode(id, fields);
+        if (scheduling == null) {
             return null;
         }
-        return objectMapper.convertValue(value, SchedulingResponse.class);
+        if (shouldRefresh(fields, System.currentTimeMillis())) {
+            // Quem ganha a trava recalcula; os demais seguem com a cópia atual até a nova chegar
+            Boolean locked = redisGuard.call(
+                    () -> redisTemplate.opsForValue().setIfAbsent(REFRESH_LOCK_PREFIX + id, lockToken, lockTtl), false);
+            return Boolean.TRUE.equals(locked) ? null : scheduling;
+        }
+        localCache.put(scheduling);
+        return scheduling;
     }
 
+    // Corpo HTTP do agendamento; para a cópia da memória local, o já serializado por uma resposta anterior.
+    // Instâncias vindas do Redis ou do banco são serializadas aqui: o Redis guarda campos, não o corpo
+    public byte[] toJson(SchedulingResponse scheduling) {
+        return localCache.json(scheduling);
+    }
+
+    public byte[] toJsonArray(List<SchedulingResponse> schedulings) {
+        List<byte[]> items = new ArrayList<>(schedulings.size());
+        for (SchedulingResponse scheduling : schedulings) {
+            items.add(localCache.json(scheduling));
+        }
+        return SchedulingJsonWriter.array(items);
+    }
+
+    // A marca de inexistente fica no lugar do hash, para consultas repetidas ao id removido não irem ao banco
     public void deleteScheduling(Long id) {
         String key = SCHEDULING_KEY_PREFIX + id;
-        redisTemplate.delete(key);
+        Object[] args = markerArgs(ALWAYS);
+        boolean written = redisGuard.write(key,
+                () -> redisTemplate.execute(WRITE, List.of(key), args),
+                () -> localCache.invalidate(id));
+        if (written) {
+            localCache.invalidate(id);
+        } else {
+            localCache.evict(id);
+        }
+    }
+
+    // O agendamento continua existindo, só mudou fora das escritas do cache (ex.: a localização gravada pela
+    // geocodificação): apaga o hash, sem marca de inexistente, e a próxima leitura recarrega do banco
+    public void evictScheduling(Long id) {
+        String key = SCHEDULING_KEY_PREFIX + id;
+        boolean written = redisGuard.write(key,
+                () -> redisTemplate.delete(key),
+                () -> localCache.invalidate(id));
+        if (written) {
+            localCache.invalidate(id);
+        } else {
+            localCache.evict(id);
+        }
+    }
+
+    // Após uma consulta ao banco sem resultado. NX: um agendamento gravado nesse meio tempo não é apagado
+    public void cacheMissing(Long id) {
+        String key = SCHEDULING_KEY_PREFIX + id;
+        Object[] args = markerArgs(ONLY_IF_ABSENT);
+        redisGuard.call(() -> redisTemplate.execute(WRITE, List.of(key), args), 0L);
+    }
+
+    private void afterWrite(SchedulingResponse scheduling, boolean written) {
+        if (written) {
+            localCache.update(scheduling);
+        } else {
+            localCache.put(scheduling);
+        }
+    }
+
+    private static List<String> cacheIfNewerKeys(SchedulingResponse scheduling) {
+        return List.of(SCHEDULING_KEY_PREFIX + scheduling.getId(), REFRESH_LOCK_PREFIX + scheduling.getId());
+    }
+
+    private Object[] writeArgs(SchedulingResponse scheduling) {
+        long softTtl = softTtlMillis();
+        Map<String, byte[]> fields = format.write(scheduling, System.currentTimeMillis() + softTtl);
+        return withFields(fields, SchedulingCacheFormat.ascii(expirationSeconds(softTtl)), ALWAYS);
+    }
+
+    private Object[] cacheIfNewerArgs(SchedulingResponse scheduling) {
+        Long version = scheduling.getVersion();
+        long softTtl = softTtlMillis();
+        Map<String, byte[]> fields = format.write(scheduling, System.currentTimeMillis() + softTtl);
+        return withFields(fields, SchedulingCacheFormat.ascii(version == null ? -1 : version),
+                SchedulingCacheFormat.ascii(expirationSeconds(softTtl)), lockToken);
+    }
+
+    private Object[] markerArgs(byte[] mode) {
+        return withFields(SchedulingCacheFormat.missing(),
+                SchedulingCacheFormat.ascii(Math.max(1, negativeTtl.toSeconds())), mode);
+    }
+
+    // Versão esperada, quantidade de campos removidos, os removidos e os pares a gravar
+    private static Object[] patchArgs(Long expectedVersion, SchedulingCacheFormat.FieldChanges changes) {
+        List<byte[]> head = new ArrayList<>(2 + changes.removed().size());
+        head.add(SchedulingCacheFormat.ascii(expectedVersion == null ? -1 : expectedVersion));
+        head.add(SchedulingCacheFormat.ascii(changes.removed().size()));
+        for (String name : changes.removed()) {
+            head.add(name.getBytes(StandardCharsets.UTF_8));
+        }
+        return withFields(changes.updated(), head.toArray(new byte[0][]));
+    }
+
+    // Argumentos fixos seguidos dos pares campo, valor
+    private static Object[] withFields(Map<String, byte[]> fields, byte[]... head) {
+        Object[] args = new Object[head.length + fields.size() * 2];
+        System.arraycopy(head, 0, args, 0, head.length);
+        int i = head.length;
+        for (Map.Entry<String, byte[]> field : fields.entrySet()) {
+            args[i++] = field.getKey().getBytes(StandardCharsets.UTF_8);
+            args[i++] = field.getValue();
+        }
+        return args;
+    }
+
+    // Uma única ida e volta para todas as travas; devolve os ids que este nó passou a recalcular
+    private List<Long> acquireRefreshLocks(List<Long> ids) {
+        List<Object> results = redisGuard.call(() -> redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, byte[]> pipeline = (RedisOperations<String, byte[]>) operations;
+                for (Long id : ids) {
+                    pipeline.opsForValue().setIfAbsent(REFRESH_LOCK_PREFIX + id, lockToken, lockTtl);
+                }
+                return null;
+            }
+        }), null);
+        List<Long> granted = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (results != null && i < results.size() && Boolean.TRUE.equals(results.get(i))) {
+                granted.add(ids.get(i));
+            }
+        }
+        return granted;
+    }
+
+    // XFetch: recalcula antes da expiração lógica com probabilidade crescente à medida que ela se aproxima,
+    // e sempre depois dela. Registros sem expiração lógica nunca são antecipados
+    private boolean shouldRefresh(Map<String, byte[]> fields, long now) {
+        long softExpiresAt = SchedulingCacheFormat.softExpiresAt(fields);
+        if (softExpiresAt < 0) {
+            return false;
+        }
+        double gap = -recomputeTime.toMillis() * beta * Math.log(1 - ThreadLocalRandom.current().nextDouble());
+        return now + gap >= softExpiresAt;
+    }
+
+    private long softTtlMillis() {
+        long jitter = ttlJitter.toMillis();
+        long offset = jitter > 0 ? ThreadLocalRandom.current().nextLong(-jitter, jitter + 1) : 0;
+        return ttl.toMillis() + offset;
+    }
+
+    private long expirationSeconds(long softTtlMillis) {
+        return TimeUnit.MILLISECONDS.toSeconds(softTtlMillis + staleGrace.toMillis());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, byte[]> fields(Object value) {
+        return value instanceof Map<?, ?> map ? (Map<String, byte[]>) map : null;
+    }
+
+    // Hash ilegível ou marca de inexistente vale como ausente: a leitura recarrega do banco e a gravação
+    // condicional o substitui
+    private SchedulingResponse decode(Long id, Map<String, byte[]> fields) {
+        if (SchedulingCacheFormat.isMissing(fields)) {
+            return null;
+        }
+        try {
+            return format.read(fields);
+        } catch (SerializationException e) {
+            logger.debug("Agendamento {} ilegível no cache: {}", id, e.getMessage());
+            return null;
+        }
     }
 }
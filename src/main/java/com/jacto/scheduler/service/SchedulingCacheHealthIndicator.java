@@ -0,0 +1,34 @@
+package com.jacto.scheduler.service;
+
+import com.jacto.scheduler.resilience.CircuitBreaker;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// O Redis é só cache dos agendamentos: com o circuito aberto a aplicação continua UP pela memória local e pelo
+// banco e apenas sinaliza a degradação (o indicador padrão do Redis, que a derrubaria, fica desligado)
+@Component
+public class SchedulingCacheHealthIndicator implements HealthIndicator {
+
+    private final RedisGuard redisGuard;
+    private final SchedulingLocalCache localCache;
+
+    public SchedulingCacheHealthIndicator(RedisGuard redisGuard, SchedulingLocalCache localCache) {
+        this.redisGuard = redisGuard;
+        this.localCache = localCache;
+    }
+
+    @Override
+    public Health health() {
+        CircuitBreaker circuitBreaker = redisGuard.getCircuitBreaker();
+        CircuitBreaker.State state = circuitBreaker.getState();
+        return Health.up()
+                .withDetail("circuitBreaker", state)
+                .withDetail("degraded", state != CircuitBreaker.State.CLOSED)
+                .withDetail("notPermittedCalls", circuitBreaker.getNotPermittedCalls())
+                .withDetail("pendingResyncKeys", redisGuard.getPendingKeys())
+                .withDetail("droppedResyncKeys", redisGuard.getDroppedKeys())
+                .withDetail("localCacheActive", localCache.isSubscribed())
+                .build();
+    }
+}
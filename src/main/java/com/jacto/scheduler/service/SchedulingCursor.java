@@ -0,0 +1,38 @@
+package com.jacto.scheduler.service;
+
+import com.jacto.scheduler.repository.SchedulingIndexEntry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Posição nas listagens paginadas: o último agendamento lido, pela ordem (scheduledAt, id). Vai ao cliente
+// como um token opaco; a próxima página começa logo depois dele, sem OFFSET
+public record SchedulingCursor(LocalDateTime scheduledAt, Long id) {
+
+    public static SchedulingCursor of(SchedulingIndexEntry entry) {
+        return new SchedulingCursor(entry.getScheduledAt(), entry.getId());
+    }
+
+    public String encode() {
+        byte[] position = (scheduledAt + "," + id).getBytes(StandardCharsets.US_ASCII);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position);
+    }
+
+    // Nulo ou vazio é a primeira página; um token adulterado ou de outro formato responde 400
+    public static SchedulingCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int separator = position.lastIndexOf(',');
+            return new SchedulingCursor(
+                    LocalDateTime.parse(position.substring(0, separator)),
+                    Long.valueOf(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido: " + token);
+        }
+    }
+}
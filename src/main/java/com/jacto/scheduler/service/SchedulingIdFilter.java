@@ -0,0 +1,128 @@
+package com.jacto.scheduler.service;
+
+import com.jacto.scheduler.cache.LongBloomFilter;
+import com.jacto.scheduler.repository.SchedulingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+// Filtro de Bloom com os ids de agendamentos existentes, reconstruído periodicamente a partir do banco.
+// Só responde "não existe" para ids até o maior id da reconstrução anterior: ids alocados e ainda não
+// commitados durante uma varredura ficariam de fora, e até a seguinte todos já tiveram tempo de commitar.
+// Ids acima disso (recém-criados, neste ou em outro nó) sempre passam
+@Component
+public class SchedulingIdFilter implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(SchedulingIdFilter.class);
+
+    private final SchedulingRepository schedulingRepository;
+    private final double falsePositiveRate;
+    private final long maxBits;
+    private final int pageSize;
+
+    private volatile Snapshot snapshot;
+    // Maior id visto na última varredura: vira o limite coberto pela próxima
+    private volatile long lastScanMaxId = -1;
+    private volatile Counter rejections;
+
+    @Autowired
+    public SchedulingIdFilter(
+            SchedulingRepository schedulingRepository,
+            @Value("${scheduling.id-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${scheduling.id-filter.max-memory:8MB}") DataSize maxMemory,
+            @Value("${scheduling.id-filter.page-size:5000}") int pageSize) {
+        this.schedulingRepository = schedulingRepository;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxBits = maxMemory.toBytes() * 8;
+        this.pageSize = pageSize;
+    }
+
+    // false só quando o id com certeza não existe; sem filtro carregado, tudo passa
+    public boolean mightExist(Long id) {
+        if (id == null || id <= 0) {
+            reject();
+            return false;
+        }
+        Snapshot current = snapshot;
+        if (current == null || id > current.coveredUpTo || current.filter.mightContain(id)) {
+            return true;
+        }
+        reject();
+        return false;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${scheduling.id-filter.rebuild-interval:PT10M}")
+    public void rebuild() {
+        try {
+            // Folga para os criados até a próxima reconstrução não degradarem a taxa de falsos positivos
+            long count = schedulingRepository.count();
+            LongBloomFilter filter = LongBloomFilter.create(count + count / 4 + 1024, falsePositiveRate, maxBits);
+
+            long afterId = 0;
+            List<Long> page;
+            do {
+                page = schedulingRepository.findIdsAfter(afterId, PageRequest.of(0, pageSize));
+                for (Long id : page) {
+                    filter.put(id);
+                }
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1);
+                }
+            } while (page.size() == pageSize);
+
+            long coveredUpTo = lastScanMaxId;
+            snapshot = new Snapshot(filter, coveredUpTo);
+            lastScanMaxId = afterId;
+            logger.info("Filtro de ids de agendamento reconstruído: {} ids, {} KB, {} hashes, cobre até o id {}",
+                    count, filter.memoryBytes() / 1024, filter.hashCount(), coveredUpTo);
+        } catch (DataAccessException e) {
+            // O filtro anterior (ou nenhum) continua valendo
+            logger.warn("Falha ao reconstruir o filtro de ids de agendamento: {}", e.getMessage());
+        }
+    }
+
+    public long memoryBytes() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.filter.memoryBytes();
+    }
+
+    public double expectedFalsePositiveRate() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.filter.expectedFalsePositiveRate();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("scheduling.id.filter.memory", this, SchedulingIdFilter::memoryBytes)
+                .description("Memória ocupada pelo filtro de ids de agendamento")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("scheduling.id.filter.false.positive.rate", this, SchedulingIdFilter::expectedFalsePositiveRate)
+                .description("Taxa de falsos positivos esperada com o preenchimento atual do filtro")
+                .register(registry);
+        rejections = Counter.builder("scheduling.id.filter.rejections")
+                .description("Consultas de agendamento recusadas pelo filtro, sem ida ao Redis nem ao banco")
+                .register(registry);
+    }
+
+    private void reject() {
+        Counter counter = rejections;
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private record Snapshot(LongBloomFilter filter, long coveredUpTo) {
+    }
+}
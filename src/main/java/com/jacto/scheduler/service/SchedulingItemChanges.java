@@ -0,0 +1,25 @@
+package com.jacto.scheduler.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// O que a atualização de um agendamento fez com os itens: quantos equipamentos e peças entraram, mudaram e
+// saíram. Coleção ausente da requisição conta como sem alteração. Vai junto na notificação de atualização
+public record SchedulingItemChanges(Counts equipments, Counts spareParts) {
+
+    public static final SchedulingItemChanges NONE = new SchedulingItemChanges(Counts.NONE, Counts.NONE);
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return equipments.isEmpty() && spareParts.isEmpty();
+    }
+
+    public record Counts(int added, int updated, int removed) {
+
+        public static final Counts NONE = new Counts(0, 0, 0);
+
+        @JsonIgnore
+        public boolean isEmpty() {
+            return added == 0 && updated == 0 && removed == 0;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.jacto.scheduler.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jacto.scheduler.cache.SchedulingJsonWriter;
+import com.jacto.scheduler.payload.response.SchedulingResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Cache em memória (L1) na frente do Redis. Escritas e remoções publicam uma invalidação para os outros nós;
+// o TTL curto limita a defasagem caso uma mensagem se perca, já que o pub/sub do Redis não garante entrega.
+// Cada cópia guarda também o corpo HTTP já serializado, gerado na primeira resposta que a usar
+@Component
+public class SchedulingLocalCache implements MessageListener, MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(SchedulingLocalCache.class);
+
+    private static final char SEPARATOR = ':';
+
+    private final Cache<Long, Entry> cache;
+    private final SchedulingJsonWriter jsonWriter;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisGuard redisGuard;
+    private final String channel;
+    private final RedisMessageListenerContainer listenerContainer;
+    // Sem a assinatura as invalidações dos outros nós se perderiam: até ela existir, o L1 fica desligado
+    private volatile boolean subscribed;
+    // Identifica este nó para ignorar as próprias invalidações
+    private final String nodeId = UUID.randomUUID().toString();
+    private volatile Timer invalidationLag;
+
+    @Autowired
+    public SchedulingLocalCache(
+            StringRedisTemplate redisTemplate,
+            RedisGuard redisGuard,
+            RedisMessageListenerContainer listenerContainer,
+            SchedulingJsonWriter jsonWriter,
+            @Value("${scheduling.cache.l1.max-size:10000}") long maxSize,
+            @Value("${scheduling.cache.l1.ttl:60s}") Duration ttl,
+            @Value("${scheduling.cache.invalidation-channel:scheduling:invalidation}") String channel) {
+        this.redisTemplate = redisTemplate;
+        this.redisGuard = redisGuard;
+        this.jsonWriter = jsonWriter;
+        this.listenerContainer = listenerContainer;
+        this.channel = channel;
+        this.cache = buildCache(maxSize, ttl);
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    // Construtor para testes: sem container, o cache já nasce ativo
+    SchedulingLocalCache(StringRedisTemplate redisTemplate, RedisGuard redisGuard, SchedulingJsonWriter jsonWriter,
+                         long maxSize, Duration ttl, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.redisGuard = redisGuard;
+        this.jsonWriter = jsonWriter;
+        this.listenerContainer = null;
+        this.channel = channel;
+        this.cache = buildCache(maxSize, ttl);
+        this.subscribed = true;
+    }
+
+    private static Cache<Long, Entry> buildCache(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // A mesma instância é devolvida a todas as requisições: quem chama não deve alterá-la
+    public SchedulingResponse get(Long id) {
+        Entry entry = subscribed ? cache.getIfPresent(id) : null;
+        return entry == null ? null : entry.scheduling;
+    }
+
+    public void put(SchedulingResponse scheduling) {
+        if (subscribed) {
+            cache.put(scheduling.getId(), new Entry(scheduling));
+        }
+    }
+
+    // Corpo HTTP do agendamento: o guardado, se scheduling for a cópia local; senão serializado na hora
+    public byte[] json(SchedulingResponse scheduling) {
+        // Pelo mapa, para não contar de novo como acerto nas estatísticas do cache
+        Entry entry = cache.asMap().get(scheduling.getId());
+        if (entry == null || entry.scheduling != scheduling) {
+            return jsonWriter.write(scheduling);
+        }
+        return entry.json(jsonWriter);
+    }
+
+    // Atualiza a cópia local e avisa os outros nós que a deles ficou velha
+    public void update(SchedulingResponse scheduling) {
+        put(scheduling);
+        publishInvalidation(scheduling.getId());
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+        publishInvalidation(id);
+    }
+
+    // Só a cópia deste nó, sem publicar (Redis indisponível)
+    public void evict(Long id) {
+        cache.invalidate(id);
+    }
+
+    // O Redis pode não estar disponível na subida; a aplicação sobe mesmo assim e tenta de novo depois
+    @Scheduled(initialDelay = 0, fixedDelayString = "${scheduling.cache.subscribe-retry:PT30S}")
+    public void subscribe() {
+        if (subscribed || listenerContainer == null) {
+            return;
+        }
+        try {
+            listenerContainer.start();
+            subscribed = true;
+            logger.info("Cache local de agendamentos ativo; invalidações em {}", channel);
+        } catch (RuntimeException e) {
+            listenerContainer.stop();
+            logger.warn("Cache local de agendamentos desligado até o Redis aceitar a assinatura: {}", e.getMessage());
+        }
+    }
+
+    public boolean isSubscribed() {
+        return subscribed;
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public double hitRate() {
+        return cache.stats().hitRate();
+    }
+
+    // Mensagem: id:instante da publicação (epoch ms):nó de origem
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(String.valueOf(SEPARATOR), 3);
+        if (parts.length != 3 || nodeId.equals(parts[2])) {
+            return;
+        }
+        try {
+            cache.invalidate(Long.parseLong(parts[0]));
+            Timer lag = invalidationLag;
+            if (lag != null) {
+                lag.record(Math.max(0, System.currentTimeMillis() - Long.parseLong(parts[1])), TimeUnit.MILLISECONDS);
+            }
+        } catch (NumberFormatException e) {
+            logger.debug("Invalidação de agendamento inválida: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // cache.gets (hit/miss), cache.evictions e cache.size com a tag cache=scheduling.l1
+        CaffeineCacheMetrics.monitor(registry, cache, "scheduling.l1");
+        Gauge.builder("scheduling.cache.l1.hit.ratio", this, SchedulingLocalCache::hitRate)
+                .description("Fração das leituras de agendamento servidas pela memória local")
+                .register(registry);
+        invalidationLag = Timer.builder("scheduling.cache.invalidation.lag")
+                .description("Tempo entre a publicação de uma invalidação e a remoção da cópia local")
+                .register(registry);
+    }
+
+    // Pelo circuito do Redis: aberto, a escrita não paga o timeout do PUBLISH. Sem o Redis as outras cópias só
+    // expiram pelo TTL; a escrita em si não falha por isso
+    private void publishInvalidation(Long id) {
+        String message = String.valueOf(id) + SEPARATOR + System.currentTimeMillis() + SEPARATOR + nodeId;
+        redisGuard.call(() -> redisTemplate.convertAndSend(channel, message), null);
+    }
+
+    private static final class Entry {
+        private final SchedulingResponse scheduling;
+        private volatile byte[] json;
+
+        private Entry(SchedulingResponse scheduling) {
+            this.scheduling = scheduling;
+        }
+
+        // A instância guardada não é alterada (a geocodificação em lote das listagens trabalha em cópias), então
+        // o corpo gerado na primeira vez vale enquanto ela estiver no cache. Ele existe só aqui: uma cópia que
+        // sai da memória local e volta pelo Redis é serializada de novo
+        byte[] json(SchedulingJsonWriter writer) {
+            byte[] current = json;
+            if (current == null) {
+                current = writer.write(scheduling);
+                json = current;
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.jacto.scheduler.service;
+
+// Publicado quando um agendamento é criado ou tem suas coordenadas alteradas
+public record SchedulingLocationChangedEvent(Long schedulingId, Double latitude, Double longitude) {
+}
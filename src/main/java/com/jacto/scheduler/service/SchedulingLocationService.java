@@ -0,0 +1,59 @@
+package com.jacto.scheduler.service;
+
+import com.jacto.scheduler.model.SchedulingLocation;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import com.jacto.scheduler.repository.SchedulingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Service
+public class SchedulingLocationService {
+    private static final Logger logger = LoggerFactory.getLogger(SchedulingLocationService.class);
+
+    private final SchedulingRepository schedulingRepository;
+    private final GeocodingService geocodingService;
+    private final RedisSchedulingService redisSchedulingService;
+
+    public SchedulingLocationService(
+            SchedulingRepository schedulingRepository,
+            GeocodingService geocodingService,
+            RedisSchedulingService redisSchedulingService) {
+        this.schedulingRepository = schedulingRepository;
+        this.geocodingService = geocodingService;
+        this.redisSchedulingService = redisSchedulingService;
+    }
+
+    // Geocodifica fora da transação e da thread da requisição, após o commit
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocationChanged(SchedulingLocationChangedEvent event) {
+        geocode(event.schedulingId(), event.latitude(), event.longitude());
+    }
+
+    public boolean geocode(Long schedulingId, Double latitude, Double longitude) {
+        GeoLocationDetails details;
+        try {
+            details = geocodingService.getLocationDetails(latitude, longitude);
+        } catch (Exception e) {
+            logger.warn("Não foi possível geocodificar o agendamento ID={}: {}", schedulingId, e.getMessage());
+            return false;
+        }
+
+        int updated = schedulingRepository.updateLocation(
+                schedulingId, latitude, longitude, SchedulingLocation.from(details));
+
+        if (updated == 0) {
+            // Agendamento removido ou coordenadas alteradas nesse meio tempo
+            logger.debug("Geocodificação descartada para o agendamento ID={}", schedulingId);
+            return false;
+        }
+
+        // A próxima leitura recarrega do banco já com a localização. Só remove a cópia: a marca de inexistente
+        // de deleteScheduling faria o agendamento responder 404
+        redisSchedulingService.evictScheduling(schedulingId);
+        return true;
+    }
+}
@@ -0,0 +1,11 @@
+package com.jacto.scheduler.service;
+
+import java.util.function.Function;
+
+// Uma página das listagens e a posição da seguinte (nula na última)
+public record SchedulingPage<T>(T content, SchedulingCursor next) {
+
+    public <R> SchedulingPage<R> map(Function<T, R> mapper) {
+        return new SchedulingPage<>(mapper.apply(content), next);
+    }
+}
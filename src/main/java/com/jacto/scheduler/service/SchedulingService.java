@@ -5,22 +5,36 @@ import com.jacto.scheduler.enumerations.ServicePriority;
 import com.jacto.scheduler.exception.ResourceNotFoundException;
 import com.jacto.scheduler.model.*;
 import com.jacto.scheduler.payload.request.*;
-import com.jacto.scheduler.payload.response.GeoLocationDetails;
 import com.jacto.scheduler.payload.response.SchedulingResponse;
 import com.jacto.scheduler.payload.response.TechnicianPerformanceResponse;
-import com.jacto.scheduler.repository.EquipmentRepository;
+import com.jacto.scheduler.repository.SchedulingIndexEntry;
 import com.jacto.scheduler.repository.SchedulingRepository;
-import com.jacto.scheduler.repository.SparePartRepository;
 import com.jacto.scheduler.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,114 +42,130 @@ public class SchedulingService {
     private static final Logger logger = LoggerFactory.getLogger(SchedulingService.class);
 
     private final SchedulingRepository schedulingRepository;
-    private final EquipmentRepository equipmentRepository;
-    private final SparePartRepository sparePartRepository;
     private final UserRepository userRepository;
-    private final GeocodingService geocodingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GeocodingBatchEnricher geocodingBatchEnricher;
     private final NotificationService notificationService;
     private final RedisSchedulingService redisSchedulingService;
+    private final RedisSchedulingIndex schedulingIndex;
+    private final SchedulingIdFilter schedulingIdFilter;
+    private final EntityManager entityManager;
 
     public SchedulingService(
             SchedulingRepository schedulingRepository,
-            EquipmentRepository equipmentRepository,
-            SparePartRepository sparePartRepository,
             UserRepository userRepository,
             NotificationService notificationService,
-            GeocodingService geocodingService,
-            RedisSchedulingService redisSchedulingService) {
+            ApplicationEventPublisher eventPublisher,
+            GeocodingBatchEnricher geocodingBatchEnricher,
+            RedisSchedulingService redisSchedulingService,
+            RedisSchedulingIndex schedulingIndex,
+            SchedulingIdFilter schedulingIdFilter,
+            EntityManager entityManager) {
         this.schedulingRepository = schedulingRepository;
-        this.equipmentRepository = equipmentRepository;
-        this.sparePartRepository = sparePartRepository;
         this.userRepository = userRepository;
         this.notificationService = notificationService;
-        this.geocodingService = geocodingService;
+        this.eventPublisher = eventPublisher;
+        this.geocodingBatchEnricher = geocodingBatchEnricher;
         this.redisSchedulingService = redisSchedulingService;
+        this.schedulingIndex = schedulingIndex;
+        this.schedulingIdFilter = schedulingIdFilter;
+        this.entityManager = entityManager;
     }
 
-    public List<SchedulingResponse> getAllSchedulingsForCurrentUser() {
+    // Páginas por cursor: cada requisição lê só size posições (um a mais para saber se há próxima página), seja no
+    // índice do Redis ou no banco, então o custo não cresce com o histórico do técnico
+    public SchedulingPage<List<SchedulingResponse>> getAllSchedulingsForCurrentUser(SchedulingCursor after, int size) {
         User currentUser = getCurrentUser();
 
-        List<Scheduling> schedulings = schedulingRepository.findByTechnicianOrderByScheduledAtDesc(currentUser);
-
-        return schedulings.stream()
-                .map(scheduling -> {
-                    // Sempre converter e enriquecer com dados do banco
-                    SchedulingResponse response = new SchedulingResponse(scheduling);
-                    enrichWithGeocodingData(response);
-
-                    // Atualizar o cache com os dados mais recentes
-                    redisSchedulingService.saveScheduling(response);
-
-                    return response;
-                })
-                .collect(Collectors.toList());
+        // Índice no Redis primeiro; sem ele, os ids vêm do banco e o índice é reconstruído em segundo plano
+        List<SchedulingCursor> positions =
+                schedulingIndex.findAll(currentUser.getId(), after, size + 1).orElseGet(() -> {
+                    schedulingIndex.rebuild(currentUser.getId());
+                    PageRequest page = PageRequest.of(0, size + 1);
+                    return positions(after == null
+                            ? schedulingRepository.findIndexEntriesByTechnician(currentUser, page)
+                            : schedulingRepository.findIndexEntriesByTechnicianBefore(
+                                    currentUser, after.scheduledAt(), after.id(), page));
+                });
+
+        return toPage(currentUser.getId(), positions, size);
     }
 
-    public List<SchedulingResponse> getUpcomingSchedulingsForCurrentUser() {
+    public SchedulingPage<List<SchedulingResponse>> getUpcomingSchedulingsForCurrentUser(
+            SchedulingCursor after, int size) {
         User currentUser = getCurrentUser();
 
-        List<Scheduling> schedulings = schedulingRepository.findUpcomingSchedulings(
-                currentUser, LocalDateTime.now());
-
-        return schedulings.stream()
-                .map(scheduling -> {
-                    // Sempre converter e enriquecer com dados do banco
-                    SchedulingResponse response = new SchedulingResponse(scheduling);
-                    enrichWithGeocodingData(response);
-
-                    // Atualizar o cache com os dados mais recentes
-                    redisSchedulingService.saveScheduling(response);
-
-                    return response;
-                })
-                .collect(Collectors.toList());
+        // Um cursor que já passou não deixa nada entre ele e o agora: a página começa no agora
+        LocalDateTime now = LocalDateTime.now();
+        SchedulingCursor from = after != null && after.scheduledAt().isAfter(now) ? after : null;
+        List<SchedulingCursor> positions =
+                schedulingIndex.findUpcoming(currentUser.getId(), now, from, size + 1).orElseGet(() -> {
+                    schedulingIndex.rebuild(currentUser.getId());
+                    PageRequest page = PageRequest.of(0, size + 1);
+                    return positions(from == null
+                            ? schedulingRepository.findUpcomingIndexEntries(currentUser, now, page)
+                            : schedulingRepository.findUpcomingIndexEntriesAfter(
+                                    currentUser, from.scheduledAt(), from.id(), page));
+                });
+
+        return toPage(currentUser.getId(), positions, size);
     }
 
     public SchedulingResponse getSchedulingById(Long id) {
         User currentUser = getCurrentUser();
 
         // Tentar obter do cache primeiro
-        SchedulingResponse cachedScheduling = redisSchedulingService.getScheduling(id);
+        SchedulingResponse cachedScheduling = getCachedScheduling(id);
         if (cachedScheduling != null) {
             return cachedScheduling;
         }
 
         // Se não estiver no cache, buscar no banco de dados
-        Scheduling scheduling = schedulingRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Agendamento não encontrado com id: " + id));
+        Scheduling scheduling = findSchedulingOrCacheMissing(id);
 
         // Verifica se o agendamento pertence ao usuário atual
         if (!scheduling.getTechnician().getId().equals(currentUser.getId())) {
             throw new ResourceNotFoundException("Agendamento não encontrado com id: " + id);
         }
 
-        // Converter para resposta e enriquecer com dados de geolocalização
+        // Converter para resposta (localização já persistida)
         SchedulingResponse response = new SchedulingResponse(scheduling);
-        enrichWithGeocodingData(response);
 
         // Salvar no cache para futuras consultas
-        redisSchedulingService.saveScheduling(response);
+        redisSchedulingService.cacheScheduling(response);
 
         return response;
     }
 
+    // Variantes para a API: os mesmos agendamentos, já como o corpo JSON da resposta. Cópias da memória local
+    // reaproveitam o corpo serializado na primeira vez que foram servidas
+    public byte[] getSchedulingJsonById(Long id) {
+        return redisSchedulingService.toJson(getSchedulingById(id));
+    }
+
+    public SchedulingPage<byte[]> getAllSchedulingsJsonForCurrentUser(SchedulingCursor after, int size) {
+        return getAllSchedulingsForCurrentUser(after, size).map(redisSchedulingService::toJsonArray);
+    }
+
+    public SchedulingPage<byte[]> getUpcomingSchedulingsJsonForCurrentUser(SchedulingCursor after, int size) {
+        return getUpcomingSchedulingsForCurrentUser(after, size).map(redisSchedulingService::toJsonArray);
+    }
+
     public SchedulingResponse getSchedulingByIdForKafka(Long id) {
         // Tentar obter do cache primeiro
-        SchedulingResponse cachedScheduling = redisSchedulingService.getScheduling(id);
+        SchedulingResponse cachedScheduling = getCachedScheduling(id);
         if (cachedScheduling != null) {
             return cachedScheduling;
         }
 
         // Se não estiver no cache, buscar no banco de dados
-        Scheduling scheduling = schedulingRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Agendamento não encontrado com id: " + id));
+        Scheduling scheduling = findSchedulingOrCacheMissing(id);
 
-        // Converter para resposta e enriquecer com dados de geolocalização
+        // Converter para resposta (localização já persistida)
         SchedulingResponse response = new SchedulingResponse(scheduling);
-        enrichWithGeocodingData(response);
 
         // Salvar no cache para futuras consultas
-        redisSchedulingService.saveScheduling(response);
+        redisSchedulingService.cacheScheduling(response);
 
         return response;
     }
@@ -171,42 +201,26 @@ public class SchedulingService {
             }
         }
 
-        // Salvar o agendamento primeiro para obter o ID
-        scheduling = schedulingRepository.save(scheduling);
-
-        // Processar equipamentos, se houver
-        if (request.getEquipments() != null && !request.getEquipments().isEmpty()) {
-            for (EquipmentRequest equipmentRequest : request.getEquipments()) {
-                Equipment equipment = new Equipment();
-                equipment.setScheduling(scheduling);
-                equipment.setName(equipmentRequest.getName());
-                equipment.setSerialNumber(equipmentRequest.getSerialNumber());
-                equipment.setDescription(equipmentRequest.getDescription());
-                equipmentRepository.save(equipment);
-            }
+        // Itens entram pela cascata do agendamento: com ids de sequência, vão ao banco em lote no flush
+        if (request.getEquipments() != null) {
+            addEquipments(scheduling, request.getEquipments());
         }
-
-        // Processar peças de reposição, se houver
-        if (request.getSpareParts() != null && !request.getSpareParts().isEmpty()) {
-            for (SparePartRequest sparePartRequest : request.getSpareParts()) {
-                SparePart sparePart = new SparePart();
-                sparePart.setScheduling(scheduling);
-                sparePart.setName(sparePartRequest.getName());
-                sparePart.setPartNumber(sparePartRequest.getPartNumber());
-                sparePart.setQuantity(sparePartRequest.getQuantity());
-                sparePartRepository.save(sparePart);
-            }
+        if (request.getSpareParts() != null) {
+            addSpareParts(scheduling, request.getSpareParts());
         }
 
-        // Buscar o agendamento completo com relacionamentos
-        scheduling = schedulingRepository.findById(scheduling.getId()).orElseThrow();
+        scheduling = schedulingRepository.save(scheduling);
 
-        // Retornar resposta com dados de geolocalização
+        // Retornar resposta; a geolocalização é preenchida de forma assíncrona
         SchedulingResponse response = new SchedulingResponse(scheduling);
-        enrichWithGeocodingData(response);
 
-        // Salvar no cache
+        // Salvar no cache e no índice do técnico
         redisSchedulingService.saveScheduling(response);
+        schedulingIndex.add(currentUser.getId(), scheduling.getId(), scheduling.getScheduledAt());
+
+        // Geocodificar após o commit, fora da requisição
+        eventPublisher.publishEvent(new SchedulingLocationChangedEvent(
+                scheduling.getId(), scheduling.getLatitude(), scheduling.getLongitude()));
 
         // Enviar notificação assíncrona
         notificationService.sendSchedulingCreatedNotification(scheduling.getId());
@@ -226,6 +240,9 @@ public class SchedulingService {
             throw new ResourceNotFoundException("Agendamento não encontrado com id: " + id);
         }
 
+        // Estado anterior, para o cache regravar só os campos alterados
+        SchedulingResponse before = SchedulingResponse.withoutCollections(scheduling);
+
         // Validar se a data do agendamento não é anterior à data atual
         if (request.getScheduledAt() != null && request.getScheduledAt().isBefore(LocalDateTime.now())) {
             throw new IllegalArgumentException("A data de agendamento não pode ser anterior à data atual");
@@ -248,9 +265,17 @@ public class SchedulingService {
             scheduling.setAddress(request.getAddress());
         }
 
+        boolean locationChanged = false;
         if (request.getLatitude() != null && request.getLongitude() != null) {
+            locationChanged = !request.getLatitude().equals(scheduling.getLatitude())
+                    || !request.getLongitude().equals(scheduling.getLongitude());
             scheduling.setLatitude(request.getLatitude());
             scheduling.setLongitude(request.getLongitude());
+
+            // Descartar a localização anterior até a nova geocodificação
+            if (locationChanged) {
+                scheduling.setLocation(null);
+            }
         }
 
         if (request.getScheduledAt() != null) {
@@ -283,54 +308,45 @@ public class SchedulingService {
             }
         }
 
-        // Salvar as alterações do agendamento
-        scheduling = schedulingRepository.save(scheduling);
-
-        // Atualizar equipamentos, se fornecidos
-        if (request.getEquipments() != null) {
-            // Remover equipamentos existentes
-            equipmentRepository.deleteAll(equipmentRepository.findByScheduling(scheduling));
-
-            // Adicionar novos equipamentos
-            for (EquipmentRequest equipmentRequest : request.getEquipments()) {
-                Equipment equipment = new Equipment();
-                equipment.setScheduling(scheduling);
-                equipment.setName(equipmentRequest.getName());
-                equipment.setSerialNumber(equipmentRequest.getSerialNumber());
-                equipment.setDescription(equipmentRequest.getDescription());
-                equipmentRepository.save(equipment);
-            }
-        }
-
-        // Atualizar peças de reposição, se fornecidas
-        if (request.getSpareParts() != null) {
-            // Remover peças existentes
-            sparePartRepository.deleteAll(sparePartRepository.findByScheduling(scheduling));
-
-            // Adicionar novas peças
-            for (SparePartRequest sparePartRequest : request.getSpareParts()) {
-                SparePart sparePart = new SparePart();
-                sparePart.setScheduling(scheduling);
-                sparePart.setName(sparePartRequest.getName());
-                sparePart.setPartNumber(sparePartRequest.getPartNumber());
-                sparePart.setQuantity(sparePartRequest.getQuantity());
-                sparePartRepository.save(sparePart);
-            }
+        // Mesclar os itens, se fornecidos: cada item da requisição é casado com o existente de mesmo número de
+        // série (ou de peça) e só o que difere vira INSERT, UPDATE ou DELETE
+        SchedulingItemChanges itemChanges = new SchedulingItemChanges(
+                request.getEquipments() == null ? SchedulingItemChanges.Counts.NONE
+                        : mergeEquipments(scheduling, request.getEquipments()),
+                request.getSpareParts() == null ? SchedulingItemChanges.Counts.NONE
+                        : mergeSpareParts(scheduling, request.getSpareParts()));
+
+        // Um único flush grava campos e itens (em lote) e incrementa a versão uma vez, que o cache usa para
+        // conferir se a cópia dele é a anterior a esta alteração
+        scheduling = schedulingRepository.saveAndFlush(scheduling);
+
+        // Alterar só o conteúdo de itens existentes não suja o agendamento, mas a versão precisa mudar do mesmo jeito
+        if (!itemChanges.isEmpty() && Objects.equals(scheduling.getVersion(), before.getVersion())) {
+            entityManager.lock(scheduling, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
         }
 
-        // Buscar o agendamento atualizado
-        scheduling = schedulingRepository.findById(id).orElseThrow();
-
-        // Retornar resposta com dados de geolocalização
+        // Retornar resposta com a localização persistida
         SchedulingResponse response = new SchedulingResponse(scheduling);
-        enrichWithGeocodingData(response);
 
-        // Atualizar o cache
-        redisSchedulingService.saveScheduling(response);
+        // Atualizar o cache e a posição no índice do técnico. Coleções sem alteração não são regravadas
+        if (itemChanges.equipments().isEmpty()) {
+            before.setEquipments(response.getEquipments());
+        }
+        if (itemChanges.spareParts().isEmpty()) {
+            before.setSpareParts(response.getSpareParts());
+        }
+        redisSchedulingService.saveChanges(before, response);
+        schedulingIndex.add(currentUser.getId(), scheduling.getId(), scheduling.getScheduledAt());
+
+        // Geocodificar novamente apenas se as coordenadas mudaram
+        if (locationChanged) {
+            eventPublisher.publishEvent(new SchedulingLocationChangedEvent(
+                    scheduling.getId(), scheduling.getLatitude(), scheduling.getLongitude()));
+        }
 
         // Enviar notificação de atualização, se necessário
-        if (request.getStatus() != null) {
-            notificationService.sendSchedulingUpdatedNotification(scheduling.getId());
+        if (request.getStatus() != null || !itemChanges.isEmpty()) {
+            notificationService.sendSchedulingUpdatedNotification(scheduling.getId(), itemChanges);
         }
 
         return response;
@@ -351,8 +367,9 @@ public class SchedulingService {
         // Remover o agendamento (e todos os relacionamentos em cascata)
         schedulingRepository.delete(scheduling);
 
-        // Remover do cache
+        // Remover do cache e do índice do técnico
         redisSchedulingService.deleteScheduling(id);
+        schedulingIndex.remove(currentUser.getId(), id);
     }
 
     @Transactional
@@ -365,17 +382,20 @@ public class SchedulingService {
             throw new IllegalStateException("Feedback só pode ser adicionado a agendamentos concluídos");
         }
 
+        SchedulingResponse before = SchedulingResponse.withoutCollections(scheduling);
+
         // Adicionar feedback e avaliação
         scheduling.setClientRating(request.getRating());
         scheduling.setClientFeedback(request.getFeedback());
 
-        // Salvar as alterações
-        scheduling = schedulingRepository.save(scheduling);
+        // Salvar as alterações, com a versão já incrementada
+        scheduling = schedulingRepository.saveAndFlush(scheduling);
 
-        // Retornar resposta atualizada
+        // Retornar resposta atualizada; as listagens leem do cache, que precisa refletir o feedback
         SchedulingResponse response = new SchedulingResponse(scheduling);
-        enrichWithGeocodingData(response);
-
+        before.setEquipments(response.getEquipments());
+        before.setSpareParts(response.getSpareParts());
+        redisSchedulingService.saveChanges(before, response);
         return response;
     }
 
@@ -395,6 +415,171 @@ public class SchedulingService {
         return performance;
     }
 
+    // Ids que com certeza não existem, pelo filtro em memória ou pela marca no Redis, respondem 404 sem ir ao banco
+    private SchedulingResponse getCachedScheduling(Long id) {
+        if (!schedulingIdFilter.mightExist(id)) {
+            throw new ResourceNotFoundException("Agendamento não encontrado com id: " + id);
+        }
+        return redisSchedulingService.getScheduling(id);
+    }
+
+    // A ausência fica marcada no Redis por pouco tempo, para consultas repetidas ao mesmo id não irem ao banco
+    private Scheduling findSchedulingOrCacheMissing(Long id) {
+        Optional<Scheduling> scheduling = schedulingRepository.findById(id);
+        if (scheduling.isEmpty()) {
+            redisSchedulingService.cacheMissing(id);
+            throw new ResourceNotFoundException("Agendamento não encontrado com id: " + id);
+        }
+        return scheduling.get();
+    }
+
+    private static void addEquipments(Scheduling scheduling, List<EquipmentRequest> requests) {
+        for (EquipmentRequest equipmentRequest : requests) {
+            scheduling.getEquipments().add(newEquipment(scheduling, equipmentRequest));
+        }
+    }
+
+    private static void addSpareParts(Scheduling scheduling, List<SparePartRequest> requests) {
+        for (SparePartRequest sparePartRequest : requests) {
+            scheduling.getSpareParts().add(newSparePart(scheduling, sparePartRequest));
+        }
+    }
+
+    private static Equipment newEquipment(Scheduling scheduling, EquipmentRequest request) {
+        Equipment equipment = new Equipment();
+        equipment.setScheduling(scheduling);
+        copyEquipment(equipment, request);
+        return equipment;
+    }
+
+    private static void copyEquipment(Equipment equipment, EquipmentRequest request) {
+        equipment.setName(request.getName());
+        equipment.setSerialNumber(request.getSerialNumber());
+        equipment.setDescription(request.getDescription());
+    }
+
+    private static SparePart newSparePart(Scheduling scheduling, SparePartRequest request) {
+        SparePart sparePart = new SparePart();
+        sparePart.setScheduling(scheduling);
+        copySparePart(sparePart, request);
+        return sparePart;
+    }
+
+    private static void copySparePart(SparePart sparePart, SparePartRequest request) {
+        sparePart.setName(request.getName());
+        sparePart.setPartNumber(request.getPartNumber());
+        sparePart.setQuantity(request.getQuantity());
+    }
+
+    // Equipamento sem número de série é identificado pelo nome
+    private static SchedulingItemChanges.Counts mergeEquipments(Scheduling scheduling, List<EquipmentRequest> requests) {
+        return mergeItems(scheduling.getEquipments(), requests,
+                equipment -> itemKey(equipment.getSerialNumber(), equipment.getName()),
+                request -> itemKey(request.getSerialNumber(), request.getName()),
+                (equipment, request) -> Objects.equals(equipment.getName(), request.getName())
+                        && Objects.equals(equipment.getSerialNumber(), request.getSerialNumber())
+                        && Objects.equals(equipment.getDescription(), request.getDescription()),
+                SchedulingService::copyEquipment,
+                request -> newEquipment(scheduling, request));
+    }
+
+    private static SchedulingItemChanges.Counts mergeSpareParts(Scheduling scheduling, List<SparePartRequest> requests) {
+        return mergeItems(scheduling.getSpareParts(), requests,
+                sparePart -> itemKey(sparePart.getPartNumber(), sparePart.getName()),
+                request -> itemKey(request.getPartNumber(), request.getName()),
+                (sparePart, request) -> Objects.equals(sparePart.getName(), request.getName())
+                        && Objects.equals(sparePart.getPartNumber(), request.getPartNumber())
+                        && Objects.equals(sparePart.getQuantity(), request.getQuantity()),
+                SchedulingService::copySparePart,
+                request -> newSparePart(scheduling, request));
+    }
+
+    // Número de série ou de peça quando houver; senão o nome, numa posição própria para não colidir com um número
+    private static List<String> itemKey(String number, String name) {
+        return number == null || number.isBlank() ? Arrays.asList(null, name) : Arrays.asList(number, null);
+    }
+
+    // Itens repetidos com a mesma chave são casados na ordem; os existentes que sobram saem por orphanRemoval
+    private static <E, R> SchedulingItemChanges.Counts mergeItems(
+            Set<E> items, List<R> requests, Function<E, List<String>> itemKey, Function<R, List<String>> requestKey,
+            BiPredicate<E, R> unchanged, BiConsumer<E, R> copy, Function<R, E> create) {
+        Map<List<String>, Deque<E>> existing = new HashMap<>();
+        for (E item : items) {
+            existing.computeIfAbsent(itemKey.apply(item), key -> new ArrayDeque<>()).add(item);
+        }
+
+        int added = 0;
+        int updated = 0;
+        for (R request : requests) {
+            Deque<E> candidates = existing.get(requestKey.apply(request));
+            E item = candidates == null ? null : candidates.poll();
+            if (item == null) {
+                items.add(create.apply(request));
+                added++;
+            } else if (!unchanged.test(item, request)) {
+                copy.accept(item, request);
+                updated++;
+            }
+        }
+
+        int removed = 0;
+        for (Deque<E> unmatched : existing.values()) {
+            for (E item : unmatched) {
+                items.remove(item);
+                removed++;
+            }
+        }
+        return new SchedulingItemChanges.Counts(added, updated, removed);
+    }
+
+    // O cursor é a última posição lida, não o último item entregue: se os itens da página foram removidos entre a
+    // leitura das posições e a carga, a página sai menor (ou vazia), mas a listagem continua depois deles
+    private SchedulingPage<List<SchedulingResponse>> toPage(
+            Long technicianId, List<SchedulingCursor> positions, int size) {
+        boolean hasNext = positions.size() > size;
+        List<SchedulingCursor> page = hasNext ? positions.subList(0, size) : positions;
+        List<Long> ids = page.stream().map(SchedulingCursor::id).collect(Collectors.toList());
+        SchedulingCursor next = hasNext ? page.get(page.size() - 1) : null;
+        return new SchedulingPage<>(toCachedResponses(technicianId, ids), next);
+    }
+
+    private static List<SchedulingCursor> positions(List<SchedulingIndexEntry> entries) {
+        return entries.stream().map(SchedulingCursor::of).collect(Collectors.toList());
+    }
+
+    private List<SchedulingResponse> toCachedResponses(Long technicianId, List<Long> ids) {
+        // Escritas e geocodificações invalidam o cache, então o que está nele reflete o banco
+        Map<Long, SchedulingResponse> cached = redisSchedulingService.getSchedulings(ids);
+
+        // Só os ausentes são carregados do banco e convertidos
+        List<Long> missingIds = ids.stream()
+                .filter(id -> !cached.containsKey(id))
+                .collect(Collectors.toList());
+        Map<Long, SchedulingResponse> loaded = new HashMap<>();
+        if (!missingIds.isEmpty()) {
+            for (Scheduling scheduling : schedulingRepository.findAllById(missingIds)) {
+                loaded.put(scheduling.getId(), new SchedulingResponse(scheduling));
+            }
+        }
+
+        List<SchedulingResponse> responses = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            SchedulingResponse response = cached.containsKey(id) ? cached.get(id) : loaded.get(id);
+            if (response != null) {
+                responses.add(response);
+            } else {
+                // Removido entre a consulta de ids e a carga, ou sobra no índice de uma remoção que falhou
+                schedulingIndex.remove(technicianId, id);
+            }
+        }
+
+        // Guardar os recém-carregados num único pipeline, como estão no banco
+        redisSchedulingService.cacheSchedulings(loaded.values());
+
+        // Itens ainda não geocodificados são resolvidos em lote, dentro do orçamento de tempo
+        return geocodingBatchEnricher.enrich(responses);
+    }
+
     private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
@@ -402,14 +587,4 @@ public class SchedulingService {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado: " + username));
     }
-
-    private void enrichWithGeocodingData(SchedulingResponse response) {
-        try {
-            GeoLocationDetails locationDetails = geocodingService.getLocationDetails(
-                    response.getLatitude(), response.getLongitude());
-            response.setLocationDetails(locationDetails);
-        } catch (Exception e) {
-            logger.error("Não foi possível enriquecer o endereço do agendamento com dados de geolocalização");
-        }
-    }
 }
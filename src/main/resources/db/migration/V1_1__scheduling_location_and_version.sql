@@ -0,0 +1,12 @@
+-- Colunas que o ddl-auto não chegou a criar nos bancos marcados na V1: localização geocodificada gravada junto do
+-- agendamento e versão para o controle otimista. IF NOT EXISTS: algum banco pode tê-las recebido do ddl-auto
+
+ALTER TABLE schedulings ADD COLUMN IF NOT EXISTS location_city VARCHAR(255);
+ALTER TABLE schedulings ADD COLUMN IF NOT EXISTS location_state VARCHAR(255);
+ALTER TABLE schedulings ADD COLUMN IF NOT EXISTS location_postal_code VARCHAR(255);
+ALTER TABLE schedulings ADD COLUMN IF NOT EXISTS location_country VARCHAR(255);
+ALTER TABLE schedulings ADD COLUMN IF NOT EXISTS location_formatted_address VARCHAR(1000);
+ALTER TABLE schedulings ADD COLUMN IF NOT EXISTS location_geocoded_at TIMESTAMP(6);
+
+-- O default preenche as linhas existentes
+ALTER TABLE schedulings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,47 @@
+-- Esquema anterior às migrações, como o ddl-auto do Hibernate 6 o criava (ids em colunas identity). Bancos que já
+-- o têm são marcados nesta versão (spring.flyway.baseline-on-migrate) e recebem só as migrações seguintes, por isso
+-- tudo o que veio depois fica nelas e não aqui
+
+CREATE TABLE users (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username  VARCHAR(255) NOT NULL UNIQUE,
+    password  VARCHAR(255) NOT NULL,
+    full_name VARCHAR(255) NOT NULL,
+    email     VARCHAR(255) NOT NULL UNIQUE,
+    role      VARCHAR(255) CHECK (role IN ('TECNICO', 'ADMIN'))
+);
+
+CREATE TABLE schedulings (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    technician_id       BIGINT           NOT NULL REFERENCES users (id),
+    farm_name           VARCHAR(255)     NOT NULL,
+    client_name         VARCHAR(255)     NOT NULL,
+    client_email        VARCHAR(255)     NOT NULL,
+    address             VARCHAR(255)     NOT NULL,
+    latitude            DOUBLE PRECISION NOT NULL,
+    longitude           DOUBLE PRECISION NOT NULL,
+    scheduled_at        TIMESTAMP(6)     NOT NULL,
+    completed_at        TIMESTAMP(6),
+    status              VARCHAR(255)     NOT NULL
+        CHECK (status IN ('PENDING', 'CONFIRMED', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED')),
+    priority            VARCHAR(255)     NOT NULL CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH', 'URGENT')),
+    service_description VARCHAR(1000),
+    client_rating       DOUBLE PRECISION,
+    client_feedback     VARCHAR(1000)
+);
+
+CREATE TABLE equipments (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    scheduling_id BIGINT       NOT NULL REFERENCES schedulings (id),
+    name          VARCHAR(255) NOT NULL,
+    serial_number VARCHAR(255),
+    description   VARCHAR(255)
+);
+
+CREATE TABLE spare_parts (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    scheduling_id BIGINT       NOT NULL REFERENCES schedulings (id),
+    name          VARCHAR(255) NOT NULL,
+    part_number   VARCHAR(255),
+    quantity      INTEGER      NOT NULL
+);
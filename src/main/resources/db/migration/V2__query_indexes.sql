@@ -0,0 +1,21 @@
+-- Índices no formato das consultas do SchedulingRepository; SchedulingIndexUsageTest confere com EXPLAIN que
+-- nenhuma delas lê a tabela inteira. IF NOT EXISTS: bancos vindos do ddl-auto já podem ter o das listagens
+
+-- Listagens paginadas por (scheduled_at, id), próximos agendamentos, período do técnico e agregados por técnico
+CREATE INDEX IF NOT EXISTS idx_schedulings_technician_scheduled_at ON schedulings (technician_id, scheduled_at, id);
+
+-- Relatórios por período
+CREATE INDEX idx_schedulings_scheduled_at ON schedulings (scheduled_at);
+
+-- Lembretes: só os não cancelados
+CREATE INDEX idx_schedulings_scheduled_at_active ON schedulings (scheduled_at) WHERE status <> 'CANCELLED';
+
+-- Período de um cliente
+CREATE INDEX idx_schedulings_client_scheduled_at ON schedulings (client_name, scheduled_at);
+
+-- Fila de geocodificação: pequena, some à medida que os agendamentos são geocodificados
+CREATE INDEX idx_schedulings_pending_geocoding ON schedulings (id) WHERE location_geocoded_at IS NULL;
+
+-- Coleções de cada agendamento (carregadas em lote) e remoção em cascata
+CREATE INDEX idx_equipments_scheduling_id ON equipments (scheduling_id);
+CREATE INDEX idx_spare_parts_scheduling_id ON spare_parts (scheduling_id);
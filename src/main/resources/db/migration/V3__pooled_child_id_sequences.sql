@@ -0,0 +1,16 @@
+-- Equipamentos e peças reservam ids em blocos de 50 (allocationSize nas entidades), para o Hibernate inseri-los
+-- em lote. Bancos vindos do ddl-auto têm colunas identity, cuja sequência o Hibernate não enxerga como sequência:
+-- a coluna vira um bigint comum com sequência própria. O incremento precisa ser o mesmo do allocationSize; o
+-- próximo bloco começa depois do último id usado
+
+ALTER TABLE equipments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE equipments ALTER COLUMN id DROP DEFAULT;
+CREATE SEQUENCE IF NOT EXISTS equipments_id_seq OWNED BY equipments.id;
+ALTER SEQUENCE equipments_id_seq INCREMENT BY 50;
+SELECT setval('equipments_id_seq', COALESCE(MAX(id), 1), MAX(id) IS NOT NULL) FROM equipments;
+
+ALTER TABLE spare_parts ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE spare_parts ALTER COLUMN id DROP DEFAULT;
+CREATE SEQUENCE IF NOT EXISTS spare_parts_id_seq OWNED BY spare_parts.id;
+ALTER SEQUENCE spare_parts_id_seq INCREMENT BY 50;
+SELECT setval('spare_parts_id_seq', COALESCE(MAX(id), 1), MAX(id) IS NOT NULL) FROM spare_parts;
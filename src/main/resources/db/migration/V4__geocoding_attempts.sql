@@ -0,0 +1,8 @@
+-- Última tentativa de geocodificação do backfill. A fila de pendentes passa a ser ordenada por ela: os nunca
+-- tentados (nulos) pelo id, os que falharam pela tentativa mais antiga
+
+ALTER TABLE schedulings ADD COLUMN location_geocode_attempted_at TIMESTAMP(6);
+
+DROP INDEX idx_schedulings_pending_geocoding;
+CREATE INDEX idx_schedulings_pending_geocoding ON schedulings (location_geocode_attempted_at, id)
+    WHERE location_geocoded_at IS NULL;
@@ -0,0 +1,186 @@
+package com.jacto.scheduler.benchmark;
+
+import com.jacto.scheduler.geocoding.GeocodingCache;
+import com.jacto.scheduler.geocoding.NominatimClient;
+import com.jacto.scheduler.geocoding.NominatimStandIn;
+import com.jacto.scheduler.geocoding.TokenBucketRateLimiter;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import com.jacto.scheduler.resilience.Bulkhead;
+import com.jacto.scheduler.resilience.CircuitBreaker;
+import com.jacto.scheduler.service.GeocodingService;
+import com.jacto.scheduler.service.RedisGeocodingCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+// Carga de geocodificações distintas: caminho bloqueante (uma thread por chamada) versus assíncrono
+@Tag("benchmark")
+class GeocodingAsyncLoadBenchmarkTest {
+
+    private static final int CALLS = 1_000;
+    // Mesma concorrência nos dois caminhos: 64 threads no bloqueante, 64 requisições em voo no assíncrono
+    private static final int CONCURRENCY = 64;
+    private static final int PROVIDER_LATENCY_MS = 20;
+    private static final int ROUNDS = 5;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private NominatimStandIn nominatim;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        nominatim = NominatimStandIn.start().withLatency(Duration.ofMillis(PROVIDER_LATENCY_MS), Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nominatim.close();
+    }
+
+    @Test
+    void distinctLookups_BlockingVersusAsync() throws Exception {
+        // Mesma configuração do bean geocodingHttpClient
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(2);
+        HttpClient httpClient = HttpClient.newBuilder().executor(clientExecutor).build();
+
+        System.out.printf("%d geocodificações distintas por rodada (latência do provedor %d ms, %d em paralelo)%n",
+                CALLS, PROVIDER_LATENCY_MS, CONCURRENCY);
+        List<Result> blocking = new ArrayList<>();
+        List<Result> async = new ArrayList<>();
+        // A primeira rodada é aquecimento de JIT e conexões
+        for (int round = 0; round <= ROUNDS; round++) {
+            Result blockingRound = runBlocking(newService(httpClient), CALLS, round);
+            Result asyncRound = runAsync(newService(httpClient), CALLS, round);
+            if (round > 0) {
+                blocking.add(blockingRound);
+                async.add(asyncRound);
+            }
+        }
+        clientExecutor.shutdownNow();
+
+        System.out.printf("  bloqueante: %s%n", summary(blocking));
+        System.out.printf("  assíncrono: %s%n", summary(async));
+
+        for (int i = 0; i < ROUNDS; i++) {
+            assertEquals(CALLS, blocking.get(i).resolved);
+            assertEquals(CALLS, async.get(i).resolved);
+            assertTrue(async.get(i).peakExtraThreads < blocking.get(i).peakExtraThreads,
+                    "assíncrono usou " + async.get(i).peakExtraThreads + " threads extras");
+        }
+    }
+
+    private static String summary(List<Result> results) {
+        return String.format("total mediano %d ms, p50 mediano %d ms, p99 mediano %d ms, pico de %d threads extras",
+                median(results.stream().mapToLong(result -> TimeUnit.NANOSECONDS.toMillis(result.elapsedNanos))),
+                median(results.stream().mapToLong(result -> result.percentileMillis(0.50))),
+                median(results.stream().mapToLong(result -> result.percentileMillis(0.99))),
+                results.stream().mapToInt(Result::peakExtraThreads).max().orElse(0));
+    }
+
+    private static long median(LongStream values) {
+        long[] sorted = values.sorted().toArray();
+        return sorted[sorted.length / 2];
+    }
+
+    private GeocodingService newService(HttpClient httpClient) {
+        return new GeocodingService(
+                new NominatimClient(nominatim.baseUrl(), new RestTemplate(), httpClient, Duration.ofSeconds(10)),
+                new GeocodingCache(10_000, Duration.ofHours(1), GeocodingCache.DEFAULT_PRECISION),
+                Duration.ofSeconds(30), new TokenBucketRateLimiter(1_000_000, 1_000_000), Duration.ofSeconds(5),
+                new CircuitBreaker("nominatim", 100, 100, 0.5, Duration.ofSeconds(30)),
+                new Bulkhead("nominatim", 10 * CALLS, Duration.ofSeconds(30)), mock(RedisGeocodingCache.class), 4);
+    }
+
+    private Result runBlocking(GeocodingService service, int calls, int round) throws Exception {
+        int baseline = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+        ExecutorService pool = Executors.newFixedThreadPool(CONCURRENCY);
+        long[] latencies = new long[calls];
+        long start = System.nanoTime();
+        try {
+            List<Future<GeoLocationDetails>> futures = new ArrayList<>();
+            for (int i = 0; i < calls; i++) {
+                int index = i;
+                double[] coordinate = coordinate(round, i);
+                long submitted = start;
+                futures.add(pool.submit(() -> {
+                    GeoLocationDetails details = service.getLocationDetails(coordinate[0], coordinate[1]);
+                    latencies[index] = System.nanoTime() - submitted;
+                    return details;
+                }));
+            }
+            int resolved = 0;
+            for (Future<GeoLocationDetails> future : futures) {
+                if (future.get(30, TimeUnit.SECONDS) != null) {
+                    resolved++;
+                }
+            }
+            return new Result(resolved, System.nanoTime() - start, latencies, threads.getPeakThreadCount() - baseline);
+        } finally {
+            // As threads do pool não podem sobreviver até a medição seguinte
+            pool.shutdownNow();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private Result runAsync(GeocodingService service, int calls, int round) throws InterruptedException {
+        int baseline = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+        Semaphore window = new Semaphore(CONCURRENCY);
+        long[] latencies = new long[calls];
+        long start = System.nanoTime();
+        List<CompletableFuture<GeoLocationDetails>> futures = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            int index = i;
+            double[] coordinate = coordinate(round, i);
+            // Latência medida desde a chegada da chamada, como no bloqueante (inclui a espera por vaga)
+            long submitted = start;
+            window.acquire();
+            futures.add(service.getLocationDetailsAsync(coordinate[0], coordinate[1])
+                    .whenComplete((details, error) -> {
+                        latencies[index] = System.nanoTime() - submitted;
+                        window.release();
+                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).orTimeout(30, TimeUnit.SECONDS).join();
+        int resolved = (int) futures.stream().filter(future -> future.join() != null).count();
+        return new Result(resolved, System.nanoTime() - start, latencies, threads.getPeakThreadCount() - baseline);
+    }
+
+    // Células distintas a cada rodada para que nenhuma chamada seja resolvida pelo cache
+    private static double[] coordinate(int round, int index) {
+        return new double[]{-20.0 - round * 5 - (index / 100) * 0.01, -50.0 - (index % 100) * 0.01};
+    }
+
+    private record Result(int resolved, long elapsedNanos, long[] latencies, int peakExtraThreads) {
+
+        long percentileMillis(double percentile) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, index)]);
+        }
+
+    }
+}
@@ -0,0 +1,112 @@
+package com.jacto.scheduler.benchmark;
+
+import com.jacto.scheduler.geocoding.GeocodingCache;
+import com.jacto.scheduler.geocoding.NominatimClient;
+import com.jacto.scheduler.geocoding.NominatimStandIn;
+import com.jacto.scheduler.geocoding.TokenBucketRateLimiter;
+import com.jacto.scheduler.payload.response.SchedulingResponse;
+import com.jacto.scheduler.resilience.Bulkhead;
+import com.jacto.scheduler.resilience.CircuitBreaker;
+import com.jacto.scheduler.service.GeocodingBatchEnricher;
+import com.jacto.scheduler.service.GeocodingService;
+import com.jacto.scheduler.service.RedisGeocodingCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+// Latência da listagem de agendamentos com o cache de geocodificação frio e quente. Desde a geocodificação na
+// escrita, a listagem só geocodifica os agendamentos que ainda não têm localização gravada (recém-criados ou cuja
+// geocodificação falhou): a medida passa pelo GeocodingBatchEnricher com uma página inteira deles, o que
+// getAllSchedulingsForCurrentUser faz depois de carregá-la
+@Tag("benchmark")
+class GeocodingCacheBenchmarkTest {
+
+    private static final int FARMS = 30;
+    private static final int VISITS = 300;
+    private static final int PROVIDER_LATENCY_MS = 5;
+    private static final int ROUNDS = 5;
+
+    private NominatimStandIn nominatim;
+    private GeocodingCache geocodingCache;
+    private GeocodingService geocodingService;
+    private GeocodingBatchEnricher enricher;
+    private List<SchedulingResponse> page;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        nominatim = NominatimStandIn.start().withLatency(Duration.ofMillis(PROVIDER_LATENCY_MS), Duration.ZERO);
+
+        page = new ArrayList<>();
+        for (int i = 0; i < VISITS; i++) {
+            int farm = i % FARMS;
+            SchedulingResponse scheduling = new SchedulingResponse();
+            scheduling.setId((long) i);
+            scheduling.setLatitude(-22.1 - farm * 0.01);
+            scheduling.setLongitude(-50.1 - farm * 0.01);
+            page.add(scheduling);
+        }
+
+        geocodingCache = new GeocodingCache(10_000, Duration.ofHours(1), GeocodingCache.DEFAULT_PRECISION);
+        geocodingService = new GeocodingService(
+                new NominatimClient(nominatim.baseUrl(), new RestTemplate()),
+                geocodingCache,
+                Duration.ofSeconds(10), new TokenBucketRateLimiter(1000, 1000), Duration.ofSeconds(5),
+                new CircuitBreaker("nominatim", 20, 10, 0.5, Duration.ofSeconds(30)),
+                new Bulkhead("nominatim", FARMS, Duration.ofSeconds(5)), mock(RedisGeocodingCache.class), 4);
+        // Bulkhead e orçamento folgados (o caminho assíncrono recusa o que passa do bulkhead): a medida é do tempo
+        // para resolver a página inteira
+        enricher = new GeocodingBatchEnricher(geocodingService, geocodingCache, Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        geocodingService.shutdown();
+        nominatim.close();
+    }
+
+    @Test
+    void listEnrichment_ColdVersusWarmCache() {
+        long[] cold = new long[ROUNDS];
+        long[] warm = new long[ROUNDS];
+
+        for (int round = 0; round < ROUNDS; round++) {
+            geocodingCache.invalidateAll();
+            cold[round] = measureListMillis();
+            warm[round] = measureListMillis();
+        }
+
+        long coldMedian = median(cold);
+        long warmMedian = median(warm);
+        System.out.printf("Listagem de %d agendamentos sem localização em %d fazendas (latência do provedor %d ms)%n",
+                VISITS, FARMS, PROVIDER_LATENCY_MS);
+        System.out.printf("  cache frio:   mediana %d ms %s%n", coldMedian, Arrays.toString(cold));
+        System.out.printf("  cache quente: mediana %d ms %s%n", warmMedian, Arrays.toString(warm));
+        System.out.printf("  estatísticas: %s%n", geocodingCache.stats());
+
+        assertTrue(warmMedian < coldMedian);
+    }
+
+    private long measureListMillis() {
+        long start = System.nanoTime();
+        List<SchedulingResponse> enriched = enricher.enrich(page);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(enriched.stream().allMatch(scheduling -> scheduling.getLocationDetails() != null));
+        return elapsed;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,160 @@
+package com.jacto.scheduler.benchmark;
+
+import com.jacto.scheduler.enumerations.Role;
+import com.jacto.scheduler.model.User;
+import com.jacto.scheduler.payload.request.EquipmentRequest;
+import com.jacto.scheduler.payload.request.SchedulingRequest;
+import com.jacto.scheduler.payload.request.SparePartRequest;
+import com.jacto.scheduler.report.service.impl.ReportServiceImpl;
+import com.jacto.scheduler.service.GeocodingBatchEnricher;
+import com.jacto.scheduler.service.NotificationService;
+import com.jacto.scheduler.service.RedisSchedulingIndex;
+import com.jacto.scheduler.service.RedisSchedulingService;
+import com.jacto.scheduler.service.SchedulingIdFilter;
+import com.jacto.scheduler.service.SchedulingService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Comandos SQL e tempo para criar um agendamento com 50 itens (25 equipamentos e 25 peças) no Postgres de teste:
+// em lotes, como a aplicação faz, versus um INSERT por item (lote de tamanho 1, o que o IDENTITY impunha)
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SchedulingService.class, ReportServiceImpl.class})
+class SchedulingBatchInsertBenchmarkTest {
+
+    private static final int ITEMS = 50;
+    private static final int WARMUP = 50;
+    private static final int CREATES = 100;
+
+    @MockBean
+    private RedisSchedulingService redisSchedulingService;
+
+    @MockBean
+    private RedisSchedulingIndex schedulingIndex;
+
+    @MockBean
+    private SchedulingIdFilter schedulingIdFilter;
+
+    @MockBean
+    private GeocodingBatchEnricher geocodingBatchEnricher;
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SchedulingService schedulingService;
+
+    @BeforeEach
+    void setUp() {
+        User technician = new User();
+        technician.setUsername("tecnico");
+        technician.setPassword("senha");
+        technician.setFullName("Técnico");
+        technician.setEmail("tecnico@jacto.com");
+        technician.setRole(Role.TECNICO);
+        entityManager.persistAndFlush(technician);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("tecnico", null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void createWithFiftyItems_BatchedVersusOneInsertPerItem() {
+        SchedulingRequest request = request();
+
+        long[] single = create(request, 1);
+        long[] batched = create(request, 50);
+
+        System.out.printf("Criação de um agendamento com %d itens%n", ITEMS);
+        System.out.printf("  um INSERT por item: %3d comandos, %6.2f ms%n", single[0], single[1] / 1e6);
+        System.out.printf("  em lotes:           %3d comandos, %6.2f ms%n", batched[0], batched[1] / 1e6);
+
+        assertTrue(single[0] > ITEMS);
+        assertTrue(batched[0] <= 6);
+    }
+
+    // Comandos preparados por criação e tempo médio (ns), com o flush dentro da medição
+    private long[] create(SchedulingRequest request, int batchSize) {
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+        for (int i = 0; i < WARMUP; i++) {
+            createAndFlush(request);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < CREATES; i++) {
+            createAndFlush(request);
+        }
+        long elapsed = System.nanoTime() - start;
+        return new long[] {statistics.getPrepareStatementCount() / CREATES, elapsed / CREATES};
+    }
+
+    private void createAndFlush(SchedulingRequest request) {
+        schedulingService.createScheduling(request);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static SchedulingRequest request() {
+        SchedulingRequest request = new SchedulingRequest();
+        request.setFarmName("Fazenda Santa Helena");
+        request.setClientName("João Ávila");
+        request.setClientEmail("joao@fazenda.com");
+        request.setAddress("Estrada Municipal, km 3");
+        request.setLatitude(-22.2139);
+        request.setLongitude(-50.1742);
+        request.setScheduledAt(LocalDateTime.now().plusDays(1));
+        request.setServiceDescription("Calibração do pulverizador");
+
+        List<EquipmentRequest> equipments = new ArrayList<>();
+        List<SparePartRequest> spareParts = new ArrayList<>();
+        for (int i = 0; i < ITEMS / 2; i++) {
+            EquipmentRequest equipment = new EquipmentRequest();
+            equipment.setName("Pulverizador " + i);
+            equipment.setSerialNumber("PJ-" + i);
+            equipments.add(equipment);
+
+            SparePartRequest sparePart = new SparePartRequest();
+            sparePart.setName("Bico " + i);
+            sparePart.setQuantity(4);
+            spareParts.add(sparePart);
+        }
+        request.setEquipments(equipments);
+        request.setSpareParts(spareParts);
+        return request;
+    }
+}
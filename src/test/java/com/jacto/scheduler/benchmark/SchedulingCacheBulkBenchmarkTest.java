@@ -0,0 +1,162 @@
+package com.jacto.scheduler.benchmark;
+
+import com.jacto.scheduler.cache.BinarySchedulingCodec;
+import com.jacto.scheduler.cache.SchedulingCacheFormat;
+import com.jacto.scheduler.config.RedisConfig;
+import com.jacto.scheduler.payload.response.SchedulingResponse;
+import com.jacto.scheduler.resilience.CircuitBreaker;
+import com.jacto.scheduler.service.RedisGuard;
+import com.jacto.scheduler.service.RedisSchedulingService;
+import com.jacto.scheduler.service.RedisStandIn;
+import com.jacto.scheduler.service.SchedulingLocalCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+// Listagem de agendamentos no cache do Redis: uma ida e volta por item versus pipeline
+@Tag("benchmark")
+class SchedulingCacheBulkBenchmarkTest {
+
+    private static final int SCHEDULINGS = 500;
+    private static final int REDIS_LATENCY_MICROS = 500;
+    private static final int ROUNDS = 5;
+
+    private RedisStandIn redis;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisSchedulingService service;
+    private List<SchedulingResponse> schedulings;
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redis = RedisStandIn.start().withLatency(Duration.ofNanos(REDIS_LATENCY_MICROS * 1_000L));
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", redis.port()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        // Mesmo template e formato da aplicação; o L1 fica de fora para toda leitura chegar ao Redis
+        SchedulingCacheFormat format = new SchedulingCacheFormat(List.of(new BinarySchedulingCodec()), "binary", 1024);
+        service = new RedisSchedulingService(new RedisConfig().schedulingRedisTemplate(connectionFactory), format,
+                mock(SchedulingLocalCache.class), redisGuard(connectionFactory),
+                Duration.ofHours(24), Duration.ofHours(2), Duration.ofMinutes(10),
+                Duration.ofMillis(100), 1.0, Duration.ofSeconds(5), Duration.ofSeconds(60));
+
+        schedulings = new ArrayList<>();
+        ids = new ArrayList<>();
+        for (long id = 1; id <= SCHEDULINGS; id++) {
+            SchedulingResponse scheduling = new SchedulingResponse();
+            scheduling.setId(id);
+            scheduling.setFarmName("Fazenda " + id);
+            scheduling.setAddress("Estrada Municipal, km " + id);
+            scheduling.setScheduledAt(LocalDateTime.of(2024, 5, 10, 8, 0).plusHours(id));
+            schedulings.add(scheduling);
+            ids.add(id);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+        redis.close();
+    }
+
+    @Test
+    void listCaching_SequentialVersusBulk() {
+        long[] sequentialWrite = new long[ROUNDS];
+        long[] sequentialRead = new long[ROUNDS];
+        long[] bulkWrite = new long[ROUNDS];
+        long[] bulkRead = new long[ROUNDS];
+
+        // A primeira rodada é aquecimento de JIT e conexões
+        for (int round = -1; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            schedulings.forEach(service::cacheScheduling);
+            long written = System.nanoTime();
+            int found = 0;
+            for (Long id : ids) {
+                if (service.getScheduling(id) != null) {
+                    found++;
+                }
+            }
+            long read = System.nanoTime();
+            assertEquals(SCHEDULINGS, found);
+
+            service.cacheSchedulings(schedulings);
+            long bulkWritten = System.nanoTime();
+            Map<Long, SchedulingResponse> bulk = service.getSchedulings(ids);
+            long bulkReadDone = System.nanoTime();
+            assertEquals(SCHEDULINGS, bulk.size());
+
+            if (round >= 0) {
+                sequentialWrite[round] = (written - start) / 1_000_000;
+                sequentialRead[round] = (read - written) / 1_000_000;
+                bulkWrite[round] = (bulkWritten - read) / 1_000_000;
+                bulkRead[round] = (bulkReadDone - bulkWritten) / 1_000_000;
+            }
+        }
+
+        System.out.printf("%d agendamentos por rodada (latência do Redis %d µs)%n", SCHEDULINGS, REDIS_LATENCY_MICROS);
+        System.out.printf("  escrita item a item: mediana %d ms %s%n", median(sequentialWrite), Arrays.toString(sequentialWrite));
+        System.out.printf("  escrita em pipeline: mediana %d ms %s%n", median(bulkWrite), Arrays.toString(bulkWrite));
+        System.out.printf("  leitura item a item: mediana %d ms %s%n", median(sequentialRead), Arrays.toString(sequentialRead));
+        System.out.printf("  leitura em pipeline: mediana %d ms %s%n", median(bulkRead), Arrays.toString(bulkRead));
+
+        assertTrue(median(bulkWrite) < median(sequentialWrite));
+        assertTrue(median(bulkRead) < median(sequentialRead));
+    }
+
+    // Vários nós perdem a mesma listagem no L1 ao mesmo tempo e todos a recarregam do banco
+    @Test
+    void concurrentReadThrough_UnconditionalVersusVersionedWrites() {
+        int nodes = 10;
+        long unconditionalStart = redis.getWrites();
+        for (int node = 0; node < nodes; node++) {
+            service.cacheSchedulings(withVersion(null));
+        }
+        long unconditional = redis.getWrites() - unconditionalStart;
+
+        long versionedStart = redis.getWrites();
+        for (int node = 0; node < nodes; node++) {
+            service.cacheSchedulings(withVersion(1L));
+        }
+        long versioned = redis.getWrites() - versionedStart;
+
+        System.out.printf("%d nós recarregando os mesmos %d agendamentos%n", nodes, SCHEDULINGS);
+        System.out.printf("  gravações incondicionais: %d%n", unconditional);
+        System.out.printf("  gravações por versão:     %d%n", versioned);
+
+        assertEquals((long) nodes * SCHEDULINGS, unconditional);
+        assertEquals(SCHEDULINGS, versioned);
+    }
+
+    private List<SchedulingResponse> withVersion(Long version) {
+        schedulings.forEach(scheduling -> scheduling.setVersion(version));
+        return schedulings;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static RedisGuard redisGuard(LettuceConnectionFactory connectionFactory) {
+        return new RedisGuard(new CircuitBreaker("redis", 20, 10, 0.5, Duration.ofSeconds(10)),
+                new StringRedisTemplate(connectionFactory), 1000);
+    }
+}
@@ -0,0 +1,127 @@
+package com.jacto.scheduler.benchmark;
+
+import com.jacto.scheduler.cache.BinarySchedulingCodec;
+import com.jacto.scheduler.cache.SchedulingCacheFormat;
+import com.jacto.scheduler.config.RedisConfig;
+import com.jacto.scheduler.payload.response.SchedulingResponse;
+import com.jacto.scheduler.resilience.CircuitBreaker;
+import com.jacto.scheduler.service.RedisGuard;
+import com.jacto.scheduler.service.RedisSchedulingService;
+import com.jacto.scheduler.service.RedisStandIn;
+import com.jacto.scheduler.service.SchedulingLocalCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+// Bytes enviados ao Redis por alteração típica de um agendamento: o hash inteiro (como toda escrita fazia antes)
+// versus só os campos alterados
+@Tag("benchmark")
+class SchedulingCacheUpdateBenchmarkTest {
+
+    private static final int UPDATES = 100;
+
+    private RedisStandIn redis;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisSchedulingService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redis = RedisStandIn.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", redis.port()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        // Mesmo template e formato da aplicação; o L1 fica de fora para toda leitura chegar ao Redis
+        SchedulingCacheFormat format = new SchedulingCacheFormat(List.of(new BinarySchedulingCodec()), "binary", 1024);
+        service = new RedisSchedulingService(new RedisConfig().schedulingRedisTemplate(connectionFactory), format,
+                mock(SchedulingLocalCache.class),
+                new RedisGuard(new CircuitBreaker("redis", 20, 10, 0.5, Duration.ofSeconds(10)),
+                        new StringRedisTemplate(connectionFactory), 1000),
+                Duration.ofHours(24), Duration.ofHours(2), Duration.ofMinutes(10),
+                Duration.ofMillis(100), 1.0, Duration.ofSeconds(5), Duration.ofSeconds(60));
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+        redis.close();
+    }
+
+    @Test
+    void typicalUpdates_WholeHashVersusChangedFields() {
+        SchedulingResponse scheduling = SchedulingCodecBenchmarkTest.scheduling(3, 2);
+        // Carrega os scripts: o primeiro envio de cada um vai como EVAL, com o código inteiro
+        service.saveScheduling(scheduling);
+        service.saveChanges(scheduling, withStatus(scheduling, "IN_PROGRESS"));
+        service.saveScheduling(scheduling);
+
+        long whole = bytesPerUpdate(version -> service.saveScheduling(withStatus(scheduling, "IN_PROGRESS", version)));
+        long status = bytesPerUpdate(version -> service.saveChanges(withStatus(scheduling, "PENDING", version - 1),
+                withStatus(scheduling, "IN_PROGRESS", version)));
+        long feedback = bytesPerUpdate(version -> service.saveChanges(withFeedback(scheduling, null, version - 1),
+                withFeedback(scheduling, "Atendimento rápido, pulverizador calibrado e bicos trocados", version)));
+
+        SchedulingResponse result = service.getScheduling(scheduling.getId());
+        assertEquals("Atendimento rápido, pulverizador calibrado e bicos trocados", result.getClientFeedback());
+        assertEquals(3, result.getEquipments().size());
+
+        System.out.printf("Bytes enviados ao Redis por alteração (agendamento com 3 equipamentos, 2 peças e localização)%n");
+        System.out.printf("  hash inteiro:      %5d bytes%n", whole);
+        System.out.printf("  só o status:       %5d bytes%n", status);
+        System.out.printf("  só o feedback:     %5d bytes%n", feedback);
+
+        assertTrue(status * 4 < whole);
+        assertTrue(feedback * 2 < whole);
+    }
+
+    // Média de UPDATES alterações, cada uma sobre a versão gravada pela anterior
+    private long bytesPerUpdate(VersionedUpdate update) {
+        service.saveScheduling(withStatus(SchedulingCodecBenchmarkTest.scheduling(3, 2), "PENDING", 0L));
+        long start = redis.getBytesReceived();
+        for (long version = 1; version <= UPDATES; version++) {
+            update.apply(version);
+        }
+        return (redis.getBytesReceived() - start) / UPDATES;
+    }
+
+    private static SchedulingResponse withStatus(SchedulingResponse scheduling, String status) {
+        return withStatus(scheduling, status, scheduling.getVersion() + 1);
+    }
+
+    private static SchedulingResponse withStatus(SchedulingResponse scheduling, String status, long version) {
+        SchedulingResponse copy = copy(scheduling, version);
+        copy.setStatus(status);
+        return copy;
+    }
+
+    private static SchedulingResponse withFeedback(SchedulingResponse scheduling, String feedback, long version) {
+        SchedulingResponse copy = copy(scheduling, version);
+        copy.setStatus("COMPLETED");
+        copy.setClientRating(feedback == null ? null : 5.0);
+        copy.setClientFeedback(feedback);
+        return copy;
+    }
+
+    private static SchedulingResponse copy(SchedulingResponse scheduling, long version) {
+        SchedulingResponse copy = SchedulingCodecBenchmarkTest.scheduling(
+                scheduling.getEquipments().size(), scheduling.getSpareParts().size());
+        copy.setVersion(version);
+        return copy;
+    }
+
+    @FunctionalInterface
+    private interface VersionedUpdate {
+        void apply(long version);
+    }
+}
@@ -0,0 +1,172 @@
+package com.jacto.scheduler.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jacto.scheduler.cache.BinarySchedulingCodec;
+import com.jacto.scheduler.cache.JsonSchedulingCodec;
+import com.jacto.scheduler.cache.SchedulingCacheFormat;
+import com.jacto.scheduler.config.RedisConfig;
+import com.jacto.scheduler.payload.response.EquipmentResponse;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import com.jacto.scheduler.payload.response.SchedulingResponse;
+import com.jacto.scheduler.payload.response.SparePartResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Tamanho e custo de codificar/decodificar um agendamento em cache: JSON genérico + convertValue (caminho antigo)
+// versus o hash do SchedulingCacheFormat com os subdocumentos em cada codec. O tamanho do hash soma nomes e
+// valores dos campos
+@Tag("benchmark")
+class SchedulingCodecBenchmarkTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+    private static final int ROUNDS = 5;
+
+    private final ObjectMapper objectMapper = new RedisConfig().redisObjectMapper();
+
+    @Test
+    void typicalScheduling_LegacyJsonVersusCodecs() {
+        SchedulingResponse scheduling = scheduling(3, 2);
+
+        // Caminho antigo: Jackson2JsonRedisSerializer<Object> devolve um LinkedHashMap, convertido depois
+        Jackson2JsonRedisSerializer<Object> legacy = new Jackson2JsonRedisSerializer<>(objectMapper, Object.class);
+        Result legacyResult = measure("JSON genérico + convertValue", scheduling, legacy::serialize,
+                bytes -> objectMapper.convertValue(legacy.deserialize(bytes), SchedulingResponse.class),
+                bytes -> bytes.length);
+
+        JsonSchedulingCodec json = new JsonSchedulingCodec(objectMapper);
+        BinarySchedulingCodec binary = new BinarySchedulingCodec();
+        SchedulingCacheFormat jsonFormat = new SchedulingCacheFormat(List.of(json, binary), "json", Integer.MAX_VALUE);
+        SchedulingCacheFormat binaryFormat = new SchedulingCacheFormat(List.of(json, binary), "binary", Integer.MAX_VALUE);
+        SchedulingCacheFormat deflatedFormat = new SchedulingCacheFormat(List.of(json, binary), "binary", 0);
+        Result jsonResult = measure("hash, JSON tipado", scheduling, jsonFormat::write, jsonFormat::read,
+                SchedulingCodecBenchmarkTest::size);
+        Result binaryResult = measure("hash, binário", scheduling, binaryFormat::write, binaryFormat::read,
+                SchedulingCodecBenchmarkTest::size);
+        Result deflatedResult = measure("hash, binário + Deflate", scheduling, deflatedFormat::write,
+                deflatedFormat::read, SchedulingCodecBenchmarkTest::size);
+
+        System.out.printf("Agendamento com 3 equipamentos, 2 peças e localização (%d iterações por rodada)%n", ITERATIONS);
+        for (Result result : List.of(legacyResult, jsonResult, binaryResult, deflatedResult)) {
+            System.out.printf("  %-30s %5d bytes, codificação %6d ns/op, decodificação %6d ns/op%n",
+                    result.name, result.bytes, result.encodeNanos, result.decodeNanos);
+        }
+
+        assertTrue(binaryResult.bytes < legacyResult.bytes);
+        assertTrue(binaryResult.decodeNanos < legacyResult.decodeNanos);
+        assertTrue(jsonResult.decodeNanos < legacyResult.decodeNanos);
+    }
+
+    private <T> Result measure(String name, SchedulingResponse scheduling, Function<SchedulingResponse, T> encoder,
+                               Function<T, SchedulingResponse> decoder, ToIntFunction<T> size) {
+        T encoded = encoder.apply(scheduling);
+        assertEquals(scheduling.getFarmName(), decoder.apply(encoded).getFarmName());
+        assertEquals(scheduling.getScheduledAt(), decoder.apply(encoded).getScheduledAt());
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += size.applyAsInt(encoder.apply(scheduling));
+            sink += decoder.apply(encoded).getId();
+        }
+        long[] encodeNanos = new long[ROUNDS];
+        long[] decodeNanos = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += size.applyAsInt(encoder.apply(scheduling));
+            }
+            long encodedAt = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += decoder.apply(encoded).getId();
+            }
+            encodeNanos[round] = (encodedAt - start) / ITERATIONS;
+            decodeNanos[round] = (System.nanoTime() - encodedAt) / ITERATIONS;
+        }
+        // Impede que o JIT descarte o trabalho medido
+        assertTrue(sink != 0);
+        return new Result(name, size.applyAsInt(encoded), median(encodeNanos), median(decodeNanos));
+    }
+
+    static SchedulingResponse scheduling(int equipmentCount, int sparePartCount) {
+        SchedulingResponse scheduling = new SchedulingResponse();
+        scheduling.setId(18_734L);
+        scheduling.setVersion(4L);
+        scheduling.setFarmName("Fazenda Santa Helena");
+        scheduling.setClientName("João Ávila");
+        scheduling.setClientEmail("joao.avila@fazendasantahelena.com.br");
+        scheduling.setAddress("Estrada Municipal POM-010, km 12, Zona Rural");
+        scheduling.setLatitude(-22.108512);
+        scheduling.setLongitude(-50.174233);
+        scheduling.setScheduledAt(LocalDateTime.of(2024, 5, 10, 8, 30));
+        scheduling.setServiceDescription("Revisão preventiva do pulverizador, calibração da barra e troca de bicos");
+        scheduling.setStatus("PENDING");
+        scheduling.setPriority("HIGH");
+        scheduling.setTechnicianUsername("carlos.tecnico");
+        scheduling.setTechnicianFullName("Carlos Pereira");
+        scheduling.setTechnicianEmail("carlos.pereira@jacto.com.br");
+        scheduling.setTechnicianId(12L);
+
+        List<EquipmentResponse> equipments = new ArrayList<>();
+        for (int i = 0; i < equipmentCount; i++) {
+            EquipmentResponse equipment = new EquipmentResponse();
+            equipment.setId(1_000L + i);
+            equipment.setName("Pulverizador Uniport 3030");
+            equipment.setSerialNumber("UNP3030-2021-00" + i);
+            equipment.setDescription("Barra de 30 m, tanque de 3000 L");
+            equipments.add(equipment);
+        }
+        scheduling.setEquipments(equipments);
+
+        List<SparePartResponse> spareParts = new ArrayList<>();
+        for (int i = 0; i < sparePartCount; i++) {
+            SparePartResponse sparePart = new SparePartResponse();
+            sparePart.setId(2_000L + i);
+            sparePart.setName("Bico leque 110-02");
+            sparePart.setPartNumber("BL-110-0" + i);
+            sparePart.setQuantity(12);
+            spareParts.add(sparePart);
+        }
+        scheduling.setSpareParts(spareParts);
+
+        GeoLocationDetails location = new GeoLocationDetails();
+        location.setLatitude(-22.108512);
+        location.setLongitude(-50.174233);
+        location.setCity("Pompéia");
+        location.setState("São Paulo");
+        location.setPostalCode("17580-000");
+        location.setCountry("Brasil");
+        location.setFormattedAddress("Zona Rural, Pompéia, Região Imediata de Marília, São Paulo, 17580-000, Brasil");
+        scheduling.setLocationDetails(location);
+        return scheduling;
+    }
+
+    private static int size(Map<String, byte[]> fields) {
+        int bytes = 0;
+        for (Map.Entry<String, byte[]> field : fields.entrySet()) {
+            bytes += field.getKey().getBytes(StandardCharsets.UTF_8).length + field.getValue().length;
+        }
+        return bytes;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private record Result(String name, int bytes, long encodeNanos, long decodeNanos) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.jacto.scheduler.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jacto.scheduler.cache.SchedulingJsonWriter;
+import com.jacto.scheduler.config.RedisConfig;
+import com.jacto.scheduler.payload.response.SchedulingResponse;
+import com.jacto.scheduler.service.RedisGuard;
+import com.jacto.scheduler.service.SchedulingLocalCache;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+// Respostas servidas da memória local: serializar o SchedulingResponse a cada requisição, como o conversor JSON
+// do Spring MVC fazia, versus devolver o corpo guardado na primeira resposta (concatenado nas listagens)
+@Tag("benchmark")
+class SchedulingJsonBenchmarkTest {
+
+    private static final int LIST_SIZE = 50;
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+    private static final int ROUNDS = 5;
+
+    private final ObjectMapper objectMapper = new RedisConfig().redisObjectMapper();
+
+    @Test
+    void cachedResponses_SerializedPerRequestVersusStoredBytes() throws Exception {
+        SchedulingJsonWriter jsonWriter = new SchedulingJsonWriter(objectMapper);
+        SchedulingLocalCache localCache = new SchedulingLocalCache(mock(StringRedisTemplate.class),
+                mock(RedisGuard.class), mock(RedisMessageListenerContainer.class), jsonWriter, 10_000, Duration.ofHours(1),
+                "scheduling:invalidation");
+        localCache.subscribe();
+        List<SchedulingResponse> list = new ArrayList<>();
+        for (long id = 1; id <= LIST_SIZE; id++) {
+            SchedulingResponse scheduling = SchedulingCodecBenchmarkTest.scheduling(3, 2);
+            scheduling.setId(id);
+            localCache.put(scheduling);
+            list.add(localCache.get(id));
+        }
+        SchedulingResponse single = list.get(0);
+
+        // Os mesmos bytes que o conversor produziria
+        assertArrayEquals(objectMapper.writeValueAsBytes(single), localCache.json(single));
+        assertArrayEquals(objectMapper.writeValueAsBytes(list), toJsonArray(localCache, list));
+
+        Result singleBefore = measure("GET /{id}, serializado por requisição", ITERATIONS,
+                () -> write(single));
+        Result singleAfter = measure("GET /{id}, bytes guardados", ITERATIONS, () -> localCache.json(single));
+        Result listBefore = measure("listagem de " + LIST_SIZE + ", serializada por requisição", ITERATIONS / 10,
+                () -> write(list));
+        Result listAfter = measure("listagem de " + LIST_SIZE + ", bytes guardados concatenados", ITERATIONS / 10,
+                () -> toJsonArray(localCache, list));
+
+        System.out.printf("Agendamento com 3 equipamentos, 2 peças e localização, servido da memória local%n");
+        for (Result result : List.of(singleBefore, singleAfter, listBefore, listAfter)) {
+            System.out.printf("  %-55s %6d bytes, %10.0f respostas/s%n",
+                    result.name, result.bytes, result.throughput);
+        }
+
+        assertTrue(singleAfter.throughput > singleBefore.throughput * 2);
+        assertTrue(listAfter.throughput > listBefore.throughput * 2);
+    }
+
+    // Mesma montagem do RedisSchedulingService.toJsonArray
+    private static byte[] toJsonArray(SchedulingLocalCache localCache, List<SchedulingResponse> schedulings) {
+        List<byte[]> items = new ArrayList<>(schedulings.size());
+        for (SchedulingResponse scheduling : schedulings) {
+            items.add(localCache.json(scheduling));
+        }
+        return SchedulingJsonWriter.array(items);
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Result measure(String name, int iterations, Supplier<byte[]> response) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += response.get().length;
+        }
+        double[] throughput = new double[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += response.get().length;
+            }
+            throughput[round] = iterations / ((System.nanoTime() - start) / 1e9);
+        }
+        // Impede que o JIT descarte o trabalho medido
+        assertTrue(sink != 0);
+        Arrays.sort(throughput);
+        return new Result(name, response.get().length, throughput[ROUNDS / 2]);
+    }
+
+    private record Result(String name, int bytes, double throughput) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.jacto.scheduler.cache;
+
+import com.jacto.scheduler.payload.response.EquipmentResponse;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import com.jacto.scheduler.payload.response.SchedulingResponse;
+import com.jacto.scheduler.payload.response.SparePartResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinarySchedulingCodecTest {
+
+    private final BinarySchedulingCodec codec = new BinarySchedulingCodec();
+
+    @Test
+    void roundTrip_ShouldPreserveCollectionsAndLocation() {
+        // Arrange
+        SchedulingResponse scheduling = fullScheduling();
+
+        // Act
+        byte[] equipments = codec.encodeEquipments(scheduling.getEquipments());
+        byte[] spareParts = codec.encodeSpareParts(scheduling.getSpareParts());
+        byte[] location = codec.encodeLocation(scheduling.getLocationDetails());
+        List<EquipmentResponse> decodedEquipments = codec.decodeEquipments(equipments, 0, equipments.length);
+        List<SparePartResponse> decodedSpareParts = codec.decodeSpareParts(spareParts, 0, spareParts.length);
+        GeoLocationDetails decodedLocation = codec.decodeLocation(location, 0, location.length);
+
+        // Assert
+        assertEquals(1, decodedEquipments.size());
+        assertEquals(10L, decodedEquipments.get(0).getId());
+        assertEquals("Pulverizador Uniport 3030", decodedEquipments.get(0).getName());
+        assertEquals("PJ-3000", decodedEquipments.get(0).getSerialNumber());
+        assertEquals("Barra de 30 m", decodedEquipments.get(0).getDescription());
+        assertEquals(20L, decodedSpareParts.get(0).getId());
+        assertEquals("BL-110", decodedSpareParts.get(0).getPartNumber());
+        assertEquals(4, decodedSpareParts.get(0).getQuantity());
+        assertEquals("Pompéia", decodedLocation.getCity());
+        assertEquals(-22.1085, decodedLocation.getLatitude());
+        assertEquals("17580-000", decodedLocation.getPostalCode());
+    }
+
+    @Test
+    void roundTrip_WithEmptyCollectionsAndNullFields_ShouldKeepThem() {
+        // Arrange
+        SparePartResponse sparePart = new SparePartResponse();
+        sparePart.setId(1L);
+        GeoLocationDetails location = new GeoLocationDetails();
+        location.setCity("Pompéia");
+
+        // Act
+        byte[] equipments = codec.encodeEquipments(List.of());
+        byte[] spareParts = codec.encodeSpareParts(List.of(sparePart));
+        byte[] encodedLocation = codec.encodeLocation(location);
+
+        // Assert
+        assertTrue(codec.decodeEquipments(equipments, 0, equipments.length).isEmpty());
+        SparePartResponse decodedSparePart = codec.decodeSpareParts(spareParts, 0, spareParts.length).get(0);
+        assertEquals(1L, decodedSparePart.getId());
+        assertNull(decodedSparePart.getName());
+        assertNull(decodedSparePart.getQuantity());
+        GeoLocationDetails decodedLocation = codec.decodeLocation(encodedLocation, 0, encodedLocation.length);
+        assertEquals("Pompéia", decodedLocation.getCity());
+        assertNull(decodedLocation.getLatitude());
+    }
+
+    @Test
+    void decode_WithTruncatedValue_ShouldFail() {
+        // Arrange
+        byte[] encoded = codec.encodeEquipments(fullScheduling().getEquipments());
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length / 2);
+
+        // Act & Assert
+        assertThrows(SerializationException.class, () -> codec.decodeEquipments(truncated, 0, truncated.length));
+    }
+
+    static SchedulingResponse fullScheduling() {
+        SchedulingResponse scheduling = new SchedulingResponse();
+        scheduling.setId(42L);
+        scheduling.setVersion(7L);
+        scheduling.setFarmName("Fazenda Santa Helena");
+        scheduling.setClientName("João Ávila");
+        scheduling.setClientEmail("joao@fazenda.com.br");
+        scheduling.setAddress("Estrada Municipal POM-010, km 12, Zona Rural");
+        scheduling.setLatitude(-22.1085);
+        scheduling.setLongitude(-50.1742);
+        scheduling.setScheduledAt(LocalDateTime.of(2024, 5, 10, 8, 30, 15, 123_000_000));
+        scheduling.setServiceDescription("Revisão preventiva do pulverizador e troca de bicos");
+        scheduling.setStatus("PENDING");
+        scheduling.setPriority("HIGH");
+        scheduling.setTechnicianUsername("tecnico");
+        scheduling.setTechnicianFullName("Técnico de Campo");
+        scheduling.setTechnicianEmail("tecnico@jacto.com.br");
+        scheduling.setTechnicianId(3L);
+
+        EquipmentResponse equipment = new EquipmentResponse();
+        equipment.setId(10L);
+        equipment.setName("Pulverizador Uniport 3030");
+        equipment.setSerialNumber("PJ-3000");
+        equipment.setDescription("Barra de 30 m");
+        scheduling.setEquipments(List.of(equipment));
+
+        SparePartResponse sparePart = new SparePartResponse();
+        sparePart.setId(20L);
+        sparePart.setName("Bico leque");
+        sparePart.setPartNumber("BL-110");
+        sparePart.setQuantity(4);
+        scheduling.setSpareParts(List.of(sparePart));
+
+        GeoLocationDetails location = new GeoLocationDetails();
+        location.setLatitude(-22.1085);
+        location.setLongitude(-50.1742);
+        location.setCity("Pompéia");
+        location.setState("São Paulo");
+        location.setPostalCode("17580-000");
+        location.setCountry("Brasil");
+        location.setFormattedAddress("Zona Rural, Pompéia, São Paulo, 17580-000, Brasil");
+        scheduling.setLocationDetails(location);
+        return scheduling;
+    }
+}
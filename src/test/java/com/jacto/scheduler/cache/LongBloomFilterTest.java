@@ -0,0 +1,56 @@
+package com.jacto.scheduler.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongBloomFilterTest {
+
+    @Test
+    void mightContain_ShouldNeverMissInsertedIds() {
+        // Arrange
+        LongBloomFilter filter = LongBloomFilter.create(10_000, 0.01, Long.MAX_VALUE);
+
+        // Act
+        for (long id = 1; id <= 10_000; id++) {
+            filter.put(id);
+        }
+
+        // Assert
+        for (long id = 1; id <= 10_000; id++) {
+            assertTrue(filter.mightContain(id));
+        }
+    }
+
+    @Test
+    void mightContain_ShouldStayNearConfiguredFalsePositiveRate() {
+        // Arrange
+        LongBloomFilter filter = LongBloomFilter.create(10_000, 0.01, Long.MAX_VALUE);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.put(id);
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (long id = 10_001; id <= 110_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        assertTrue(falsePositives < 2_000, "falsos positivos: " + falsePositives);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+        // ~9,6 bits por id para 1%
+        assertEquals(12_000, filter.memoryBytes(), 100);
+    }
+
+    @Test
+    void create_ShouldRespectMemoryCap() {
+        // Act
+        LongBloomFilter filter = LongBloomFilter.create(1_000_000, 0.001, 8 * 1024 * 8);
+
+        // Assert
+        assertEquals(8 * 1024, filter.memoryBytes());
+    }
+}
@@ -0,0 +1,196 @@
+package com.jacto.scheduler.cache;
+
+import com.jacto.scheduler.config.RedisConfig;
+import com.jacto.scheduler.payload.response.SchedulingResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchedulingCacheFormatTest {
+
+    private final JsonSchedulingCodec json = new JsonSchedulingCodec(new RedisConfig().redisObjectMapper());
+    private final BinarySchedulingCodec binary = new BinarySchedulingCodec();
+
+    @Test
+    void write_ShouldStoreVersionAndScalarFieldsAsText() {
+        // Arrange
+        SchedulingCacheFormat format = new SchedulingCacheFormat(List.of(json, binary), "binary", 1024);
+
+        // Act
+        Map<String, byte[]> fields = format.write(BinarySchedulingCodecTest.fullScheduling());
+
+        // Assert
+        assertEquals("7", text(fields.get(SchedulingCacheFormat.VERSION)));
+        assertEquals("PENDING", text(fields.get("status")));
+        assertEquals("2024-05-10T08:30:15.123", text(fields.get("scheduledAt")));
+        assertEquals(BinarySchedulingCodec.ID, fields.get(SchedulingCacheFormat.EQUIPMENTS)[0]);
+        assertFalse(fields.containsKey("completedAt"));
+        assertFalse(fields.containsKey(SchedulingCacheFormat.SOFT_EXPIRY));
+    }
+
+    @Test
+    void roundTrip_ShouldPreserveAllFields() {
+        // Arrange
+        SchedulingCacheFormat format = new SchedulingCacheFormat(List.of(binary), "binary", 1024);
+
+        // Act
+        SchedulingResponse decoded = format.read(format.write(BinarySchedulingCodecTest.fullScheduling()));
+
+        // Assert
+        assertEquals(42L, decoded.getId());
+        assertEquals(7L, decoded.getVersion());
+        assertEquals("João Ávila", decoded.getClientName());
+        assertEquals(-50.1742, decoded.getLongitude());
+        assertEquals(LocalDateTime.of(2024, 5, 10, 8, 30, 15, 123_000_000), decoded.getScheduledAt());
+        assertNull(decoded.getCompletedAt());
+        assertNull(decoded.getClientRating());
+        assertEquals("PJ-3000", decoded.getEquipments().get(0).getSerialNumber());
+        assertEquals(4, decoded.getSpareParts().get(0).getQuantity());
+        assertEquals("Pompéia", decoded.getLocationDetails().getCity());
+        assertEquals(3L, decoded.getTechnicianId());
+    }
+
+    @Test
+    void write_WithoutVersion_ShouldStoreMinusOne() {
+        // Arrange
+        SchedulingCacheFormat format = new SchedulingCacheFormat(List.of(binary), "binary", 1024);
+        SchedulingResponse scheduling = new SchedulingResponse();
+        scheduling.setId(1L);
+
+        // Act
+        Map<String, byte[]> fields = format.write(scheduling);
+        SchedulingResponse decoded = format.read(fields);
+
+        // Assert
+        assertEquals("-1", text(fields.get(SchedulingCacheFormat.VERSION)));
+        assertNull(decoded.getVersion());
+        assertNull(decoded.getEquipments());
+        assertNull(decoded.getLocationDetails());
+    }
+
+    @Test
+    void write_AboveThreshold_ShouldCompressOnlyLargeSubdocuments() {
+        // Arrange
+        SchedulingCacheFormat format = new SchedulingCacheFormat(List.of(binary), "binary", 64);
+        SchedulingResponse scheduling = BinarySchedulingCodecTest.fullScheduling();
+        scheduling.getEquipments().get(0).setDescription("Barra de 30 m. ".repeat(50));
+
+        // Act
+        Map<String, byte[]> fields = format.write(scheduling);
+        SchedulingResponse decoded = format.read(fields);
+
+        // Assert
+        byte[] equipments = fields.get(SchedulingCacheFormat.EQUIPMENTS);
+        assertEquals(1, equipments[1]);
+        assertTrue(equipments.length < binary.encodeEquipments(scheduling.getEquipments()).length);
+        assertEquals(0, fields.get(SchedulingCacheFormat.SPARE_PARTS)[1]);
+        assertEquals(scheduling.getEquipments().get(0).getDescription(),
+                decoded.getEquipments().get(0).getDescription());
+    }
+
+    @Test
+    void write_WithSoftExpiry_ShouldStoreItAsText() {
+        // Arrange
+        SchedulingCacheFormat format = new SchedulingCacheFormat(List.of(binary), "binary", 1024);
+        SchedulingResponse scheduling = BinarySchedulingCodecTest.fullScheduling();
+
+        // Act
+        Map<String, byte[]> fields = format.write(scheduling, 1_700_000_000_000L);
+
+        // Assert
+        assertEquals(1_700_000_000_000L, SchedulingCacheFormat.softExpiresAt(fields));
+        assertEquals(-1L, SchedulingCacheFormat.softExpiresAt(format.write(scheduling)));
+        assertEquals(7L, format.read(fields).getVersion());
+    }
+
+    @Test
+    void diff_ShouldReturnOnlyChangedAndRemovedFields() {
+        // Arrange
+        SchedulingCacheFormat format = new SchedulingCacheFormat(List.of(binary), "binary", 1024);
+        SchedulingResponse before = BinarySchedulingCodecTest.fullScheduling();
+        before.setPriority(null);
+        SchedulingResponse after = BinarySchedulingCodecTest.fullScheduling();
+        after.setVersion(8L);
+        after.setStatus("COMPLETED");
+        after.setServiceDescription(null);
+
+        // Act
+        SchedulingCacheFormat.FieldChanges changes = format.diff(before, after);
+
+        // Assert
+        assertEquals(List.of(SchedulingCacheFormat.VERSION, "status", "priority"),
+                List.copyOf(changes.updated().keySet()));
+        assertEquals("COMPLETED", text(changes.updated().get("status")));
+        assertEquals(List.of("serviceDescription"), changes.removed());
+        assertTrue(format.diff(after, after).isEmpty());
+    }
+
+    @Test
+    void missing_ShouldBeRecognizedAndHaveNoVersion() {
+        // Act
+        Map<String, byte[]> marker = SchedulingCacheFormat.missing();
+
+        // Assert
+        assertTrue(SchedulingCacheFormat.isMissing(marker));
+        assertFalse(marker.containsKey(SchedulingCacheFormat.VERSION));
+        assertFalse(SchedulingCacheFormat.isMissing(Map.of()));
+        assertFalse(SchedulingCacheFormat.isMissing(null));
+    }
+
+    @Test
+    void read_ShouldDecodeSubdocumentsWrittenWithAnotherCodec() {
+        // Arrange
+        SchedulingCacheFormat jsonWriter = new SchedulingCacheFormat(List.of(json, binary), "json", 1024);
+        SchedulingCacheFormat binaryWriter = new SchedulingCacheFormat(List.of(json, binary), "binary", 1024);
+
+        // Act
+        Map<String, byte[]> fields = jsonWriter.write(BinarySchedulingCodecTest.fullScheduling());
+        SchedulingResponse decoded = binaryWriter.read(fields);
+
+        // Assert
+        assertEquals(JsonSchedulingCodec.ID, fields.get(SchedulingCacheFormat.EQUIPMENTS)[0]);
+        assertEquals("Fazenda Santa Helena", decoded.getFarmName());
+        assertEquals("PJ-3000", decoded.getEquipments().get(0).getSerialNumber());
+        assertEquals("Pompéia", decoded.getLocationDetails().getCity());
+    }
+
+    @Test
+    void read_WithEmptyHash_ShouldReturnNull() {
+        // Arrange
+        SchedulingCacheFormat format = new SchedulingCacheFormat(List.of(binary), "binary", 1024);
+
+        // Act & Assert
+        assertNull(format.read(Map.of()));
+        assertNull(format.read(null));
+    }
+
+    @Test
+    void read_WithoutVersionOrWithInvalidField_ShouldFail() {
+        // Arrange
+        SchedulingCacheFormat format = new SchedulingCacheFormat(List.of(json, binary), "binary", 1024);
+        Map<String, byte[]> withoutVersion = Map.of("id", "1".getBytes(StandardCharsets.US_ASCII));
+        Map<String, byte[]> invalidDate = new HashMap<>(format.write(BinarySchedulingCodecTest.fullScheduling()));
+        invalidDate.put("scheduledAt", "amanhã".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertThrows(SerializationException.class, () -> format.read(withoutVersion));
+        assertThrows(SerializationException.class, () -> format.read(invalidDate));
+    }
+
+    @Test
+    void constructor_WithUnknownCodec_ShouldFail() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SchedulingCacheFormat(List.of(json, binary), "protobuf", 1024));
+    }
+
+    private static String text(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
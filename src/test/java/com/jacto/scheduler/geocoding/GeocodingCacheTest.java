@@ -0,0 +1,231 @@
+package com.jacto.scheduler.geocoding;
+
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeocodingCacheTest {
+
+    private GeocodingCache geocodingCache;
+
+    @BeforeEach
+    void setUp() {
+        geocodingCache = new GeocodingCache(100, Duration.ofHours(1), 0.0001);
+    }
+
+    @Test
+    void keyFor_ShouldGroupCoordinatesWithinPrecision() {
+        // Act & Assert
+        assertEquals(geocodingCache.keyFor(-23.55051, -46.63331), geocodingCache.keyFor(-23.55049, -46.63329));
+        assertNotEquals(geocodingCache.keyFor(-23.5505, -46.6333), geocodingCache.keyFor(-23.5507, -46.6333));
+    }
+
+    @Test
+    void get_ShouldReturnCachedValueForNearbyCoordinates() {
+        // Arrange
+        GeoLocationDetails details = new GeoLocationDetails();
+        details.setCity("São Paulo");
+        geocodingCache.put(-23.5505, -46.6333, details);
+
+        // Act
+        GeoLocationDetails result = geocodingCache.get(-23.55052, -46.63328);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals("São Paulo", result.getCity());
+        assertNull(geocodingCache.get(-22.9068, -43.1729));
+    }
+
+    @Test
+    void bindTo_ShouldExposeHitAndMissMetrics() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        geocodingCache.bindTo(registry);
+        geocodingCache.put(-23.5505, -46.6333, new GeoLocationDetails());
+
+        // Act
+        geocodingCache.get(-23.5505, -46.6333);
+        geocodingCache.get(-22.9068, -43.1729);
+
+        // Assert
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "geocoding").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "geocoding").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void constructor_WithInvalidPrecision_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new GeocodingCache(100, Duration.ofHours(1), 0));
+    }
+
+    @Test
+    void loadSnapshot_ShouldServeEntriesFromPreviousRun(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path path = directory.resolve("geocoding-cache.bin");
+        GeoLocationDetails details = new GeoLocationDetails();
+        details.setCity("Pompéia");
+        geocodingCache.put(-22.1086, -50.1711, details);
+        assertEquals(1, geocodingCache.saveSnapshot(path));
+        GeocodingCache restarted = new GeocodingCache(100, Duration.ofHours(1), 0.0001);
+
+        // Act
+        boolean loaded = restarted.loadSnapshot(path);
+
+        // Assert
+        assertTrue(loaded);
+        assertEquals(0, restarted.size());
+        assertEquals("Pompéia", restarted.get(-22.10861, -50.17109).getCity());
+        assertEquals(1, restarted.size());
+        assertNull(restarted.get(-23.5505, -46.6333));
+    }
+
+    @Test
+    void loadSnapshot_WithDifferentPrecision_ShouldIgnoreFile(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path path = directory.resolve("geocoding-cache.bin");
+        geocodingCache.put(-22.1086, -50.1711, new GeoLocationDetails());
+        geocodingCache.saveSnapshot(path);
+        GeocodingCache coarser = new GeocodingCache(100, Duration.ofHours(1), 0.001);
+
+        // Act & Assert
+        assertFalse(coarser.loadSnapshot(path));
+        assertNull(coarser.get(-22.1086, -50.1711));
+    }
+
+    @Test
+    void saveSnapshot_ShouldKeepEntriesNotYetPromoted(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path path = directory.resolve("geocoding-cache.bin");
+        geocodingCache.put(-22.1086, -50.1711, new GeoLocationDetails());
+        geocodingCache.put(-22.2139, -49.9458, new GeoLocationDetails());
+        geocodingCache.saveSnapshot(path);
+        GeocodingCache restarted = new GeocodingCache(100, Duration.ofHours(1), 0.0001);
+        restarted.loadSnapshot(path);
+        restarted.get(-22.1086, -50.1711);
+        restarted.put(-23.3045, -51.1696, new GeoLocationDetails());
+
+        // Act
+        int saved = restarted.saveSnapshot(path);
+
+        // Assert
+        assertEquals(3, saved);
+        assertEquals(3, GeocodingSnapshot.open(path).size());
+    }
+
+    @Test
+    void get_FromSnapshot_ShouldKeepTheRemainingTtl(@TempDir Path directory) throws IOException {
+        // Arrange: consultado 50 minutos antes do restart, com TTL de 1 hora
+        Path path = directory.resolve("geocoding-cache.bin");
+        MutableClock clock = new MutableClock();
+        GeocodingCache previous = new GeocodingCache(100, Duration.ofHours(1), 0.0001, clock);
+        previous.put(-22.1086, -50.1711, new GeoLocationDetails());
+        previous.saveSnapshot(path);
+        clock.advance(Duration.ofMinutes(50));
+        GeocodingCache restarted = new GeocodingCache(100, Duration.ofHours(1), 0.0001, clock);
+        restarted.loadSnapshot(path);
+
+        // Act
+        GeoLocationDetails promoted = restarted.get(-22.1086, -50.1711);
+        clock.advance(Duration.ofMinutes(11));
+
+        // Assert: a promoção não renovou o TTL
+        assertNotNull(promoted);
+        assertNull(restarted.get(-22.1086, -50.1711));
+    }
+
+    @Test
+    void put_WithEarlierWriteTime_ShouldKeepOnlyTheRemainingTtl() {
+        // Arrange: endereço que outro nó consultou 50 minutos atrás, com TTL de 1 hora
+        MutableClock clock = new MutableClock();
+        GeocodingCache cache = new GeocodingCache(100, Duration.ofHours(1), 0.0001, clock);
+        long writtenAt = clock.millis() - Duration.ofMinutes(50).toMillis();
+
+        // Act
+        cache.put(-22.1086, -50.1711, new GeoLocationDetails(), writtenAt);
+        cache.put(-22.2139, -49.9458, new GeoLocationDetails(), writtenAt - Duration.ofHours(1).toMillis());
+        GeoLocationDetails copied = cache.get(-22.1086, -50.1711);
+        clock.advance(Duration.ofMinutes(11));
+
+        // Assert: a cópia não ganhou um TTL inteiro; a já vencida nem foi guardada
+        assertNotNull(copied);
+        assertNull(cache.get(-22.1086, -50.1711));
+        assertNull(cache.get(-22.2139, -49.9458));
+    }
+
+    @Test
+    void saveSnapshot_ShouldDropExpiredEntriesIncludingCarriedOverOnes(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path path = directory.resolve("geocoding-cache.bin");
+        MutableClock clock = new MutableClock();
+        GeocodingCache previous = new GeocodingCache(100, Duration.ofHours(1), 0.0001, clock);
+        previous.put(-22.1086, -50.1711, new GeoLocationDetails());
+        clock.advance(Duration.ofMinutes(40));
+        previous.put(-22.2139, -49.9458, new GeoLocationDetails());
+        previous.saveSnapshot(path);
+        clock.advance(Duration.ofMinutes(30));
+        GeocodingCache restarted = new GeocodingCache(100, Duration.ofHours(1), 0.0001, clock);
+
+        // Act
+        boolean loaded = restarted.loadSnapshot(path);
+        GeoLocationDetails expired = restarted.get(-22.1086, -50.1711);
+        int saved = restarted.saveSnapshot(path);
+
+        // Assert: só a entrada de 30 minutos sobrevive, nem servida nem regravada a de 70
+        assertTrue(loaded);
+        assertNull(expired);
+        assertEquals(1, saved);
+        assertNotNull(restarted.get(-22.2139, -49.9458));
+    }
+
+    @Test
+    void loadSnapshot_WhenEveryEntryExpired_ShouldIgnoreFile(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path path = directory.resolve("geocoding-cache.bin");
+        MutableClock clock = new MutableClock();
+        GeocodingCache previous = new GeocodingCache(100, Duration.ofHours(1), 0.0001, clock);
+        previous.put(-22.1086, -50.1711, new GeoLocationDetails());
+        previous.saveSnapshot(path);
+        clock.advance(Duration.ofHours(2));
+
+        // Act & Assert
+        assertFalse(new GeocodingCache(100, Duration.ofHours(1), 0.0001, clock).loadSnapshot(path));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-05-10T08:30:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
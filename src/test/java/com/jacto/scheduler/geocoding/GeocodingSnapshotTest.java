@@ -0,0 +1,74 @@
+package com.jacto.scheduler.geocoding;
+
+import com.jacto.scheduler.geocoding.GeocodingCache.CoordinateKey;
+import com.jacto.scheduler.geocoding.GeocodingCache.Entry;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeocodingSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void write_ShouldRoundTripEntries() throws IOException {
+        // Arrange
+        Path path = directory.resolve("geocoding-cache.bin");
+        Map<CoordinateKey, Entry> entries = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            entries.put(new CoordinateKey(-221_000 - i, -501_000 + i), new Entry(details("Cidade " + i), 1_000L + i));
+        }
+        GeoLocationDetails partial = new GeoLocationDetails();
+        partial.setCity("Pompéia");
+        entries.put(new CoordinateKey(0, 0), new Entry(partial, 7L));
+
+        // Act
+        GeocodingSnapshot.write(path, 0.0001, entries);
+        GeocodingSnapshot snapshot = GeocodingSnapshot.open(path);
+
+        // Assert
+        assertEquals(501, snapshot.size());
+        assertEquals(0.0001, snapshot.precision());
+        assertEquals(Instant.ofEpochMilli(1_499L), snapshot.newestWrittenAt());
+        assertEquals(1_042L, snapshot.get(new CoordinateKey(-221_042, -500_958)).writtenAt());
+        GeoLocationDetails result = snapshot.get(new CoordinateKey(-221_042, -500_958)).details();
+        assertEquals("Cidade 42", result.getCity());
+        assertEquals("São Paulo", result.getState());
+        assertEquals("17580-000", result.getPostalCode());
+        assertEquals("Cidade 42, São Paulo, Brasil", result.getFormattedAddress());
+        assertEquals("Pompéia", snapshot.get(new CoordinateKey(0, 0)).details().getCity());
+        assertNull(snapshot.get(new CoordinateKey(0, 0)).details().getState());
+        assertEquals(7L, snapshot.get(new CoordinateKey(0, 0)).writtenAt());
+        assertNull(snapshot.get(new CoordinateKey(1, 1)));
+    }
+
+    @Test
+    void open_WithUnknownFormat_ShouldFail() throws IOException {
+        // Arrange
+        Path path = directory.resolve("geocoding-cache.bin");
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> GeocodingSnapshot.open(path));
+    }
+
+    private static GeoLocationDetails details(String city) {
+        GeoLocationDetails details = new GeoLocationDetails();
+        details.setCity(city);
+        details.setState("São Paulo");
+        details.setPostalCode("17580-000");
+        details.setCountry("Brasil");
+        details.setFormattedAddress(city + ", São Paulo, Brasil");
+        return details;
+    }
+}
@@ -0,0 +1,93 @@
+package com.jacto.scheduler.geocoding;
+
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NominatimClientTest {
+
+    private static final String RESPONSE = """
+            {"display_name":"Pompéia, São Paulo, 17580-000, Brasil",
+             "address":{"city":"Pompéia","state":"São Paulo","postcode":"17580-000","country":"Brasil"}}
+            """;
+
+    private HttpServer server;
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final AtomicReference<String> lastQuery = new AtomicReference<>();
+    private NominatimClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/reverse", exchange -> {
+            lastQuery.set(exchange.getRequestURI().getQuery());
+            byte[] body = RESPONSE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status.get(), body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        client = new NominatimClient("http://localhost:" + server.getAddress().getPort(), new RestTemplate(),
+                HttpClient.newHttpClient(), Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void reverseAsync_ShouldParseNominatimResponse() {
+        // Act
+        GeoLocationDetails result = client.reverseAsync(-22.12, -50.18).join();
+
+        // Assert
+        assertEquals("Pompéia", result.getCity());
+        assertEquals("São Paulo", result.getState());
+        assertEquals("17580-000", result.getPostalCode());
+        assertEquals("Brasil", result.getCountry());
+        assertEquals("Pompéia, São Paulo, 17580-000, Brasil", result.getFormattedAddress());
+        assertEquals(-22.12, result.getLatitude());
+        assertTrue(lastQuery.get().contains("lat=-22.12"));
+        assertTrue(lastQuery.get().contains("addressdetails=1"));
+    }
+
+    @Test
+    void reverseAsync_WhenProviderFails_ShouldCompleteExceptionally() {
+        // Arrange
+        status.set(503);
+
+        // Act
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> client.reverseAsync(-22.12, -50.18).get());
+
+        // Assert
+        assertTrue(exception.getCause().getMessage().contains("503"));
+    }
+
+    @Test
+    void reverse_ShouldMatchAsyncResult() {
+        // Act
+        GeoLocationDetails blocking = client.reverse(-22.12, -50.18);
+        GeoLocationDetails async = client.reverseAsync(-22.12, -50.18).join();
+
+        // Assert
+        assertEquals(blocking.getFormattedAddress(), async.getFormattedAddress());
+        assertEquals(blocking.getCity(), async.getCity());
+    }
+}
@@ -0,0 +1,165 @@
+package com.jacto.scheduler.geocoding;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Nominatim local para testes e benchmarks: responde /reverse no formato do Nominatim com latência e erros injetados.
+// Pode ser iniciado isoladamente (main) e apontado por geocoding.nominatim.base-url
+public class NominatimStandIn implements AutoCloseable {
+
+    static {
+        // Sem TCP_NODELAY cada resposta soma atrasos de Nagle/ACK atrasado à latência simulada
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    // A latência é simulada com agendamento, para o stand-in não ocupar uma thread por requisição
+    private final ScheduledExecutorService responder;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration jitter = Duration.ZERO;
+    private volatile double errorRate;
+    private volatile int errorStatus = 503;
+
+    private NominatimStandIn(int port) throws IOException {
+        handlers = Executors.newFixedThreadPool(2);
+        responder = Executors.newScheduledThreadPool(2);
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 2_048);
+        server.createContext("/reverse", this::handle);
+        server.setExecutor(handlers);
+        server.start();
+    }
+
+    public static NominatimStandIn start() throws IOException {
+        return start(0);
+    }
+
+    public static NominatimStandIn start(int port) throws IOException {
+        return new NominatimStandIn(port);
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    // Cada resposta leva latency mais um atraso uniforme entre zero e jitter
+    public NominatimStandIn withLatency(Duration latency, Duration jitter) {
+        this.latency = latency;
+        this.jitter = jitter;
+        return this;
+    }
+
+    // Fração das requisições (0 a 1) respondida com o status de erro, após a mesma latência
+    public NominatimStandIn withErrors(double errorRate, int errorStatus) {
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("Taxa de erros deve estar entre 0 e 1");
+        }
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+        return this;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        responder.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) {
+        requests.incrementAndGet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean fail = errorRate > 0 && random.nextDouble() < errorRate;
+        long delayNanos = latency.toNanos();
+        if (!jitter.isZero()) {
+            delayNanos += random.nextLong(jitter.toNanos() + 1);
+        }
+
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        Runnable reply = () -> {
+            if (fail) {
+                failures.incrementAndGet();
+                respond(exchange, errorStatus, "{\"error\":\"Stand-in: falha injetada\"}");
+            } else {
+                respond(exchange, 200, responseFor(query.get("lat"), query.get("lon")));
+            }
+        };
+        if (delayNanos == 0) {
+            reply.run();
+        } else {
+            responder.schedule(reply, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String responseFor(String latitude, String longitude) {
+        return String.format(Locale.ROOT, """
+                {"lat":"%s","lon":"%s","display_name":"Fazenda Stand-in, Pompéia, São Paulo, 17580-000, Brasil",
+                 "address":{"city":"Pompéia","state":"São Paulo","postcode":"17580-000","country":"Brasil"}}
+                """, latitude, longitude);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String response) {
+        try {
+            byte[] body = response.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (IOException e) {
+            // Cliente desistiu (timeout); nada a fazer
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int separator = pair.indexOf('=');
+                if (separator > 0) {
+                    parameters.put(pair.substring(0, separator), pair.substring(separator + 1));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    // Uso: NominatimStandIn [porta] [latência em ms] [taxa de erros]
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        long latencyMillis = args.length > 1 ? Long.parseLong(args[1]) : 200;
+        double errorRate = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+        NominatimStandIn standIn = start(port)
+                .withLatency(Duration.ofMillis(latencyMillis), Duration.ofMillis(latencyMillis / 2))
+                .withErrors(errorRate, 503);
+        Runtime.getRuntime().addShutdownHook(new Thread(standIn::close));
+        System.out.printf("Nominatim stand-in em %s (latência %d ms, %.0f%% de erros)%n",
+                standIn.baseUrl(), latencyMillis, errorRate * 100);
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,79 @@
+package com.jacto.scheduler.geocoding;
+
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NominatimStandInTest {
+
+    private NominatimStandIn standIn;
+    private NominatimClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        standIn = NominatimStandIn.start();
+        client = new NominatimClient(standIn.baseUrl(), new RestTemplate(), HttpClient.newHttpClient(),
+                Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        standIn.close();
+    }
+
+    @Test
+    void reverse_ShouldServeNominatimFormat() {
+        // Act
+        GeoLocationDetails result = client.reverse(-22.12, -50.18);
+
+        // Assert
+        assertEquals("Pompéia", result.getCity());
+        assertEquals("São Paulo", result.getState());
+        assertEquals("17580-000", result.getPostalCode());
+        assertNotNull(result.getFormattedAddress());
+        assertEquals(1, standIn.getRequests());
+    }
+
+    @Test
+    void reverseAsync_ShouldHonorInjectedLatency() {
+        // Arrange
+        standIn.withLatency(Duration.ofMillis(100), Duration.ZERO);
+
+        // Act
+        long start = System.nanoTime();
+        GeoLocationDetails result = client.reverseAsync(-22.12, -50.18).join();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertEquals("Pompéia", result.getCity());
+        assertTrue(elapsedMillis >= 100, "resposta em " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void reverseAsync_WithInjectedErrors_ShouldFail() {
+        // Arrange
+        standIn.withErrors(1.0, 503);
+
+        // Act
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> client.reverseAsync(-22.12, -50.18).join());
+
+        // Assert
+        assertTrue(exception.getCause().getMessage().contains("503"));
+        assertEquals(1, standIn.getFailures());
+    }
+
+    @Test
+    void withErrors_WithInvalidRate_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> standIn.withErrors(1.5, 503));
+    }
+}
@@ -0,0 +1,80 @@
+package com.jacto.scheduler.geocoding;
+
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OfflineGeocodingProviderTest {
+
+    private OfflineReverseGeocoder gazetteer;
+    private GeocodingProvider remote;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream("/geocoding/gazetteer-sample.tsv"), StandardCharsets.UTF_8))) {
+            gazetteer = OfflineReverseGeocoder.load(reader, 50);
+        }
+        remote = mock(GeocodingProvider.class);
+    }
+
+    @Test
+    void reverse_WithoutRemote_ShouldAnswerFromGazetteer() {
+        // Arrange
+        OfflineGeocodingProvider provider = new OfflineGeocodingProvider(gazetteer);
+
+        // Act & Assert
+        assertTrue(provider.isLocal());
+        assertEquals("Pompéia", provider.reverse(-22.12, -50.18).getCity());
+        assertThrows(RuntimeException.class, () -> provider.reverse(0.0, 0.0));
+        assertTrue(provider.reverseAsync(0.0, 0.0).isCompletedExceptionally());
+    }
+
+    @Test
+    void reverse_WithRemote_ShouldKeepLocalFieldsAndRemoteAddress() {
+        // Arrange
+        GeoLocationDetails details = new GeoLocationDetails();
+        details.setCity("Outra");
+        details.setFormattedAddress("Estrada Municipal, Pompéia, São Paulo, 17580-000, Brasil");
+        when(remote.reverse(anyDouble(), anyDouble())).thenReturn(details);
+        when(remote.reverseAsync(anyDouble(), anyDouble())).thenReturn(CompletableFuture.completedFuture(details));
+        OfflineGeocodingProvider provider = new OfflineGeocodingProvider(gazetteer, remote);
+
+        // Act
+        GeoLocationDetails result = provider.reverse(-22.12, -50.18);
+        GeoLocationDetails asyncResult = provider.reverseAsync(-22.12, -50.18).join();
+
+        // Assert
+        assertFalse(provider.isLocal());
+        assertEquals("Pompéia", result.getCity());
+        assertEquals("Estrada Municipal, Pompéia, São Paulo, 17580-000, Brasil", result.getFormattedAddress());
+        assertEquals("Pompéia", asyncResult.getCity());
+        assertEquals(result.getFormattedAddress(), asyncResult.getFormattedAddress());
+    }
+
+    @Test
+    void reverse_WhenRemoteFails_ShouldFallBackToGazetteerOnlyNearby() {
+        // Arrange
+        RuntimeException failure = new RuntimeException("Serviço de geocodificação respondeu com status 503");
+        when(remote.reverse(anyDouble(), anyDouble())).thenThrow(failure);
+        when(remote.reverseAsync(anyDouble(), anyDouble())).thenReturn(CompletableFuture.failedFuture(failure));
+        OfflineGeocodingProvider provider = new OfflineGeocodingProvider(gazetteer, remote);
+
+        // Act & Assert
+        assertEquals("Pompéia, São Paulo, 17580-000, Brasil", provider.reverse(-22.12, -50.18).getFormattedAddress());
+        assertEquals("Pompéia", provider.reverseAsync(-22.12, -50.18).join().getCity());
+        assertSame(failure, assertThrows(RuntimeException.class, () -> provider.reverse(0.0, 0.0)));
+        assertTrue(provider.reverseAsync(0.0, 0.0).isCompletedExceptionally());
+    }
+}
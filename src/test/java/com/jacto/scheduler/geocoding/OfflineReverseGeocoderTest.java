@@ -0,0 +1,146 @@
+package com.jacto.scheduler.geocoding;
+
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfflineReverseGeocoderTest {
+
+    private static OfflineReverseGeocoder loadSample() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                OfflineReverseGeocoderTest.class.getResourceAsStream("/geocoding/gazetteer-sample.tsv"),
+                StandardCharsets.UTF_8))) {
+            return OfflineReverseGeocoder.load(reader, 50);
+        }
+    }
+
+    @Test
+    void nearest_ShouldReturnClosestPostalArea() throws IOException {
+        // Arrange
+        OfflineReverseGeocoder geocoder = loadSample();
+
+        // Act
+        GeoLocationDetails result = geocoder.nearest(-22.12, -50.18);
+
+        // Assert
+        assertEquals(5, geocoder.size());
+        assertNotNull(result);
+        assertEquals("Pompéia", result.getCity());
+        assertEquals("São Paulo", result.getState());
+        assertEquals("17580-000", result.getPostalCode());
+        assertEquals("Brasil", result.getCountry());
+        assertEquals("Pompéia, São Paulo, 17580-000, Brasil", result.getFormattedAddress());
+        assertEquals(-22.12, result.getLatitude());
+        assertEquals(-50.18, result.getLongitude());
+        assertTrue(result.getDistance() < 2.0);
+    }
+
+    @Test
+    void nearest_BeyondMaxDistance_ShouldReturnNull() throws IOException {
+        // Arrange
+        OfflineReverseGeocoder geocoder = loadSample();
+
+        // Act & Assert
+        assertNull(geocoder.nearest(0.0, 0.0));
+    }
+
+    @Test
+    void reverse_BeyondMaxDistance_ShouldFail() throws IOException {
+        // Arrange
+        OfflineReverseGeocoder geocoder = loadSample();
+
+        // Act & Assert
+        assertEquals("Pompéia", geocoder.reverse(-22.12, -50.18).getCity());
+        assertThrows(RuntimeException.class, () -> geocoder.reverse(0.0, 0.0));
+    }
+
+    private static final String CITIES_LINE = String.join("\t", "3452925", "Pompéia", "Pompeia", "", "-22.10861",
+            "-50.17111", "P", "PPL", "BR", "", "27", "3540200", "", "", "19964", "", "576", "America/Sao_Paulo",
+            "2022-01-01");
+
+    @Test
+    void load_WithCitiesFormat_ShouldLeaveStateEmptyWithoutAdminNames() throws IOException {
+        // Act
+        OfflineReverseGeocoder geocoder = OfflineReverseGeocoder.load(
+                new BufferedReader(new StringReader(CITIES_LINE)), 50);
+        GeoLocationDetails result = geocoder.nearest(-22.1, -50.17);
+
+        // Assert: o código admin1 ("27") não é nome de estado
+        assertEquals("Pompéia", result.getCity());
+        assertNull(result.getState());
+        assertNull(result.getPostalCode());
+        assertEquals("Brasil", result.getCountry());
+        assertEquals("Pompéia, Brasil", result.getFormattedAddress());
+    }
+
+    @Test
+    void load_WithCitiesFormatAndAdminNames_ShouldUseStateName() throws IOException {
+        // Arrange
+        Map<String, String> admin1Names = OfflineReverseGeocoder.loadAdmin1Names(new BufferedReader(new StringReader(
+                "BR.26\tSanta Catarina\tSanta Catarina\t3450387\nBR.27\tSão Paulo\tSao Paulo\t3448433\n")));
+
+        // Act
+        OfflineReverseGeocoder geocoder = OfflineReverseGeocoder.load(
+                new BufferedReader(new StringReader(CITIES_LINE)), admin1Names, 50);
+        GeoLocationDetails result = geocoder.nearest(-22.1, -50.17);
+
+        // Assert
+        assertEquals("São Paulo", result.getState());
+        assertEquals("Pompéia, São Paulo, Brasil", result.getFormattedAddress());
+    }
+
+    @Test
+    void load_WithoutValidRows_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () ->
+                OfflineReverseGeocoder.load(new BufferedReader(new StringReader("# vazio\nlinha inválida\n")), 50));
+    }
+
+    @Test
+    void nearest_ShouldMatchBruteForceSearch() throws IOException {
+        // Arrange
+        Random random = new Random(42);
+        int size = 2000;
+        double[][] points = new double[size][];
+        StringBuilder tsv = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            points[i] = new double[]{-34 + random.nextDouble() * 39, -74 + random.nextDouble() * 40};
+            tsv.append(String.join("\t", "BR", String.valueOf(i), "Local " + i, "Estado", "", "", "", "", "",
+                    String.valueOf(points[i][0]), String.valueOf(points[i][1]), "")).append('\n');
+        }
+        OfflineReverseGeocoder geocoder = OfflineReverseGeocoder.load(
+                new BufferedReader(new StringReader(tsv.toString())), 20_000);
+
+        for (int query = 0; query < 500; query++) {
+            double latitude = -34 + random.nextDouble() * 39;
+            double longitude = -74 + random.nextDouble() * 40;
+
+            // Act
+            GeoLocationDetails result = geocoder.nearest(latitude, longitude);
+
+            // Assert
+            double expected = Double.MAX_VALUE;
+            for (double[] point : points) {
+                expected = Math.min(expected, haversineKm(latitude, longitude, point[0], point[1]));
+            }
+            assertEquals(expected, result.getDistance(), 0.01);
+        }
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * 6371.0088 * Math.asin(Math.sqrt(a));
+    }
+}
@@ -0,0 +1,187 @@
+package com.jacto.scheduler.geocoding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private SingleFlight<String, String> singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new SingleFlight<>();
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_WithConcurrentCallers_ShouldLoadOnce() throws Exception {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("-22.1,-50.1", Duration.ofSeconds(5), () -> {
+            loads.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return "Pompéia";
+        }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute("-22.1,-50.1", Duration.ofSeconds(5), () -> {
+                loads.incrementAndGet();
+                return "outro";
+            })));
+        }
+        waitUntil(() -> singleFlight.getCoalescedCalls() == 5);
+
+        // Act
+        release.countDown();
+
+        // Assert
+        assertEquals("Pompéia", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("Pompéia", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    void execute_AfterFailure_ShouldLoadAgain() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        assertThrows(RuntimeException.class, () -> singleFlight.execute("chave", Duration.ofSeconds(1), () -> {
+            loads.incrementAndGet();
+            throw new RuntimeException("Resposta vazia do serviço de geocodificação");
+        }));
+        String result = singleFlight.execute("chave", Duration.ofSeconds(1), () -> {
+            loads.incrementAndGet();
+            return "ok";
+        });
+
+        // Assert
+        assertEquals("ok", result);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void execute_WhenLeaderHangs_ShouldTimeOutAndReleaseKey() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        executor.submit(() -> singleFlight.execute("chave", Duration.ofSeconds(5), () -> {
+            leaderStarted.countDown();
+            await(release);
+            return "lento";
+        }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () ->
+                singleFlight.execute("chave", Duration.ofMillis(50), () -> "não deveria executar"));
+        assertEquals("novo", singleFlight.execute("chave", Duration.ofMillis(50), () -> "novo"));
+
+        release.countDown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    void executeAsync_WithConcurrentCallers_ShouldShareSingleLoad() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> response = new CompletableFuture<>();
+
+        // Act
+        CompletableFuture<String> leader = singleFlight.executeAsync("chave", Duration.ofSeconds(5), () -> {
+            loads.incrementAndGet();
+            return response;
+        });
+        CompletableFuture<String> follower = singleFlight.executeAsync("chave", Duration.ofSeconds(5), () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture("outro");
+        });
+        response.complete("Pompéia");
+
+        // Assert
+        assertEquals("Pompéia", leader.join());
+        assertEquals("Pompéia", follower.join());
+        assertEquals(1, loads.get());
+        assertEquals(1, singleFlight.getCoalescedCalls());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    void executeAsync_AfterFailure_ShouldReleaseKeyWithOriginalCause() {
+        // Arrange
+        CompletableFuture<String> failed = singleFlight.executeAsync("chave", Duration.ofSeconds(5), () ->
+                CompletableFuture.failedFuture(new IllegalStateException("Read timed out")));
+
+        // Act
+        ExecutionException exception = assertThrows(ExecutionException.class, failed::get);
+
+        // Assert
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertEquals(0, singleFlight.getInFlightCount());
+        assertEquals("ok", singleFlight.executeAsync("chave", Duration.ofSeconds(5), () -> CompletableFuture.completedFuture("ok")).join());
+    }
+
+    @Test
+    void executeAsync_WhenLeaderHangs_ShouldTimeOutFollowerAndReleaseKey() {
+        // Arrange: a chamada original nunca termina
+        singleFlight.executeAsync("chave", Duration.ofSeconds(5), CompletableFuture::new);
+
+        // Act
+        CompletableFuture<String> follower = singleFlight.executeAsync("chave", Duration.ofMillis(50), () ->
+                CompletableFuture.completedFuture("outro"));
+
+        // Assert
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+        assertEquals(0, singleFlight.getInFlightCount());
+        assertEquals("ok", singleFlight.executeAsync("chave", Duration.ofSeconds(5), () ->
+                CompletableFuture.completedFuture("ok")).join());
+    }
+}
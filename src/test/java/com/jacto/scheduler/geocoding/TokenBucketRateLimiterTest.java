@@ -0,0 +1,78 @@
+package com.jacto.scheduler.geocoding;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    @Test
+    void tryAcquire_WithinBurst_ShouldNotWait() {
+        // Arrange
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(1, 3);
+
+        // Act
+        long start = System.nanoTime();
+        boolean acquired = rateLimiter.tryAcquire(Duration.ZERO)
+                && rateLimiter.tryAcquire(Duration.ZERO)
+                && rateLimiter.tryAcquire(Duration.ZERO);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertTrue(acquired);
+        assertTrue(elapsedMillis < 100);
+    }
+
+    @Test
+    void tryAcquire_WhenEmptyAndWaitTooShort_ShouldReject() {
+        // Arrange
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(1, 1);
+        assertTrue(rateLimiter.tryAcquire(Duration.ZERO));
+
+        // Act & Assert
+        assertFalse(rateLimiter.tryAcquire(Duration.ofMillis(100)));
+    }
+
+    @Test
+    void tryAcquire_WhenEmpty_ShouldWaitForRefill() {
+        // Arrange
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(20, 1);
+        assertTrue(rateLimiter.tryAcquire(Duration.ZERO));
+
+        // Act
+        long start = System.nanoTime();
+        boolean acquired = rateLimiter.tryAcquire(Duration.ofSeconds(1));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertTrue(acquired);
+        assertTrue(elapsedMillis >= 30, "esperou " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void constructor_WithInvalidRate_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(0, 1));
+    }
+
+    @Test
+    void reserve_WhenEmpty_ShouldReturnWaitWithoutSleeping() {
+        // Arrange
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(10, 1);
+        assertEquals(0, rateLimiter.reserve(Duration.ZERO));
+
+        // Act
+        long start = System.nanoTime();
+        long firstWait = rateLimiter.reserve(Duration.ofSeconds(1));
+        long secondWait = rateLimiter.reserve(Duration.ofSeconds(1));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertTrue(firstWait > 0 && firstWait <= Duration.ofMillis(100).toNanos());
+        assertTrue(secondWait > firstWait);
+        assertEquals(-1, rateLimiter.reserve(Duration.ofMillis(50)));
+        assertTrue(elapsedMillis < 50);
+    }
+}
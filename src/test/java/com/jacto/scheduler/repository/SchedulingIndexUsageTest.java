@@ -0,0 +1,250 @@
+package com.jacto.scheduler.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jacto.scheduler.enumerations.Role;
+import com.jacto.scheduler.enumerations.SchedulingStatus;
+import com.jacto.scheduler.model.Equipment;
+import com.jacto.scheduler.model.Scheduling;
+import com.jacto.scheduler.model.SchedulingLocation;
+import com.jacto.scheduler.model.SparePart;
+import com.jacto.scheduler.model.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Roda as consultas dos repositórios sobre o esquema das migrações e confere o plano de cada uma com EXPLAIN.
+// Com a leitura sequencial desligada e o plano genérico (sem os valores dos parâmetros), toda tabela tem de ser
+// alcançada por um índice com condição na primeira coluna: percorrer um índice inteiro indica índice faltando
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.jacto.scheduler.repository.SchedulingIndexUsageTest$CapturingInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SchedulingIndexUsageTest {
+
+    private static final Set<String> SCAN_NODES = Set.of("Index Scan", "Index Only Scan", "Bitmap Index Scan");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SchedulingRepository schedulingRepository;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @Autowired
+    private SparePartRepository sparePartRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LocalDateTime now = LocalDateTime.of(2024, 5, 10, 12, 0);
+
+    private User technician;
+    private Scheduling scheduling;
+
+    @BeforeEach
+    void setUp() {
+        technician = new User();
+        technician.setUsername("tecnico");
+        technician.setPassword("senha");
+        technician.setFullName("Técnico");
+        technician.setEmail("tecnico@jacto.com");
+        technician.setRole(Role.TECNICO);
+        entityManager.persist(technician);
+
+        // Volume e variedade suficientes para as estatísticas do planejador se parecerem com as de produção
+        for (int i = 0; i < 500; i++) {
+            scheduling = persistScheduling(i % 20 == 0 ? technician : null, i);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        jdbcTemplate.execute("ANALYZE");
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void everyRepositoryQuery_ShouldUseAnIndex() {
+        // Arrange
+        PageRequest page = PageRequest.of(0, 10);
+        LocalDateTime start = now.minusDays(30);
+        LocalDateTime end = now.plusDays(30);
+
+        // Act: cada consulta dos repositórios, inclusive as cargas em lote das coleções
+        schedulingRepository.findAllById(List.of(scheduling.getId())).forEach(s -> s.getSpareParts().size());
+        schedulingRepository.findIndexEntriesByTechnician(technician, page);
+        schedulingRepository.findIndexEntriesByTechnicianBefore(technician, now, 10L, page);
+        schedulingRepository.findUpcomingIndexEntries(technician, now, page);
+        schedulingRepository.findUpcomingIndexEntriesAfter(technician, now, 10L, page);
+        schedulingRepository.findIndexEntries(technician.getId(), 0L, page);
+        schedulingRepository.findIdsAfter(0L, page);
+        schedulingRepository.findSchedulingsForDateRange(start, end);
+        schedulingRepository.findAverageRatingForTechnician(technician);
+        schedulingRepository.countCompletedSchedulings(technician);
+        schedulingRepository.findByDateRange(start, end).forEach(s -> s.getEquipments().size());
+        schedulingRepository.findByTechnicianAndDateRange(technician.getId(), start, end);
+        schedulingRepository.findByClientAndDateRange("Cliente 0", start, end);
+        schedulingRepository.findPendingGeocoding(page);
+        schedulingRepository.findRetryableGeocoding(now, page);
+        schedulingRepository.markGeocodeAttempted(scheduling.getId(), now);
+        schedulingRepository.updateLocation(scheduling.getId(), -22.2139, -50.1742, new SchedulingLocation());
+        schedulingRepository.findAllById(List.of(scheduling.getId()));
+        entityManager.clear();
+        schedulingRepository.findById(scheduling.getId());
+        equipmentRepository.findByScheduling(scheduling);
+        sparePartRepository.findByScheduling(scheduling);
+        userRepository.findByUsername("tecnico");
+        userRepository.existsByUsername("tecnico");
+
+        // Assert
+        List<String> statements = new ArrayList<>(new LinkedHashSet<>(CapturingInspector.STATEMENTS));
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+        Map<String, String> leadingColumns = leadingColumns();
+        List<String> withoutIndex = new ArrayList<>();
+        for (int i = 0; i < statements.size(); i++) {
+            JsonNode plan = explain("q" + i, statements.get(i));
+            if (!usesIndexes(plan, leadingColumns)) {
+                withoutIndex.add(statements.get(i) + "\n" + plan.toPrettyString());
+            }
+        }
+        assertTrue(statements.size() >= 20, "Consultas capturadas: " + statements.size());
+        assertTrue(withoutIndex.isEmpty(), "Consultas sem índice:\n" + String.join("\n\n", withoutIndex));
+    }
+
+    private Scheduling persistScheduling(User owner, int i) {
+        if (owner == null) {
+            owner = new User();
+            owner.setUsername("tecnico" + i);
+            owner.setPassword("senha");
+            owner.setFullName("Técnico " + i);
+            owner.setEmail("tecnico" + i + "@jacto.com");
+            owner.setRole(Role.TECNICO);
+            entityManager.persist(owner);
+        }
+
+        Scheduling scheduling = new Scheduling();
+        scheduling.setTechnician(owner);
+        scheduling.setFarmName("Fazenda " + i);
+        scheduling.setClientName("Cliente " + i % 50);
+        scheduling.setClientEmail("cliente@fazenda.com");
+        scheduling.setAddress("Estrada Municipal, km 3");
+        scheduling.setLatitude(-22.2139);
+        scheduling.setLongitude(-50.1742);
+        scheduling.setScheduledAt(now.minusDays(250).plusDays(i));
+        scheduling.setStatus(SchedulingStatus.values()[i % SchedulingStatus.values().length]);
+        if (i % 10 != 0) {
+            SchedulingLocation location = new SchedulingLocation();
+            location.setGeocodedAt(now);
+            scheduling.setLocation(location);
+        }
+        entityManager.persist(scheduling);
+
+        Equipment equipment = new Equipment();
+        equipment.setScheduling(scheduling);
+        equipment.setName("Pulverizador");
+        entityManager.persist(equipment);
+        SparePart sparePart = new SparePart();
+        sparePart.setScheduling(scheduling);
+        sparePart.setName("Bico");
+        sparePart.setQuantity(4);
+        entityManager.persist(sparePart);
+        return scheduling;
+    }
+
+    // O PREPARE deduz o tipo de cada parâmetro; executado com nulos e o plano genérico, o planejador não
+    // aproveita valores e mostra o plano que vale para quaisquer parâmetros
+    private JsonNode explain(String name, String sql) {
+        StringBuilder prepared = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                prepared.append('$').append(++parameters);
+            } else {
+                prepared.append(c);
+            }
+        }
+        jdbcTemplate.execute("PREPARE " + name + " AS " + prepared);
+        String nulls = String.join(", ", Collections.nCopies(parameters, "NULL"));
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN (FORMAT JSON) EXECUTE " + name + (parameters > 0 ? "(" + nulls + ")" : ""), String.class);
+        jdbcTemplate.execute("DEALLOCATE " + name);
+        try {
+            return objectMapper.readTree(plan).get(0).get("Plan");
+        } catch (Exception e) {
+            throw new IllegalStateException("Plano ilegível: " + plan, e);
+        }
+    }
+
+    // Uma condição só na segunda coluna de um índice composto ainda percorre o índice inteiro: ela precisa
+    // restringir a primeira
+    private static boolean usesIndexes(JsonNode node, Map<String, String> leadingColumns) {
+        String type = node.get("Node Type").asText();
+        if (type.equals("Seq Scan")) {
+            return false;
+        }
+        if (SCAN_NODES.contains(type)) {
+            String column = leadingColumns.get(node.get("Index Name").asText());
+            Pattern leading = Pattern.compile("\\((ROW\\()?" + column + "\\b");
+            if (!leading.matcher(node.path("Index Cond").asText()).find()) {
+                return false;
+            }
+        }
+        for (JsonNode child : node.path("Plans")) {
+            if (!usesIndexes(child, leadingColumns)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<String, String> leadingColumns() {
+        Map<String, String> columns = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT i.relname, a.attname FROM pg_index x
+                JOIN pg_class i ON i.oid = x.indexrelid
+                JOIN pg_attribute a ON a.attrelid = x.indrelid AND a.attnum = x.indkey[0]
+                """, row -> {
+            columns.put(row.getString(1), row.getString(2));
+        });
+        return columns;
+    }
+
+    // Guarda o SQL de leitura e escrita gerado pelo Hibernate; inserções ficam de fora
+    public static class CapturingInspector implements StatementInspector {
+        private static final long serialVersionUID = 1L;
+
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            if (!sql.stripLeading().toLowerCase().startsWith("insert")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.jacto.scheduler.repository;
+
+import com.jacto.scheduler.enumerations.Role;
+import com.jacto.scheduler.model.Equipment;
+import com.jacto.scheduler.model.Scheduling;
+import com.jacto.scheduler.model.SparePart;
+import com.jacto.scheduler.model.User;
+import com.jacto.scheduler.payload.request.EquipmentRequest;
+import com.jacto.scheduler.payload.request.SchedulingUpdateRequest;
+import com.jacto.scheduler.payload.request.SparePartRequest;
+import com.jacto.scheduler.payload.response.SchedulingResponse;
+import com.jacto.scheduler.report.service.impl.ReportServiceImpl;
+import com.jacto.scheduler.service.GeocodingBatchEnricher;
+import com.jacto.scheduler.service.NotificationService;
+import com.jacto.scheduler.service.RedisSchedulingIndex;
+import com.jacto.scheduler.service.RedisSchedulingService;
+import com.jacto.scheduler.service.SchedulingIdFilter;
+import com.jacto.scheduler.service.SchedulingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Atualização dos itens de um agendamento no Postgres: as linhas que não mudaram mantêm o id e a versão do
+// agendamento sobe exatamente uma vez por alteração, com ou sem mudança nos campos dele
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SchedulingService.class, ReportServiceImpl.class})
+class SchedulingItemMergeTest {
+
+    @MockBean
+    private RedisSchedulingService redisSchedulingService;
+
+    @MockBean
+    private RedisSchedulingIndex schedulingIndex;
+
+    @MockBean
+    private SchedulingIdFilter schedulingIdFilter;
+
+    @MockBean
+    private GeocodingBatchEnricher geocodingBatchEnricher;
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SchedulingService schedulingService;
+
+    private Long schedulingId;
+    private Long version;
+
+    @BeforeEach
+    void setUp() {
+        User technician = new User();
+        technician.setUsername("tecnico");
+        technician.setPassword("senha");
+        technician.setFullName("Técnico");
+        technician.setEmail("tecnico@jacto.com");
+        technician.setRole(Role.TECNICO);
+        entityManager.persist(technician);
+
+        Scheduling scheduling = new Scheduling();
+        scheduling.setTechnician(technician);
+        scheduling.setFarmName("Fazenda Santa Helena");
+        scheduling.setClientName("João Ávila");
+        scheduling.setClientEmail("joao@fazenda.com");
+        scheduling.setAddress("Estrada Municipal, km 3");
+        scheduling.setLatitude(-22.2139);
+        scheduling.setLongitude(-50.1742);
+        scheduling.setScheduledAt(LocalDateTime.now().plusDays(1));
+        for (String serialNumber : List.of("PJ-1000", "PJ-2000", "PJ-3000")) {
+            Equipment equipment = new Equipment();
+            equipment.setScheduling(scheduling);
+            equipment.setName("Pulverizador");
+            equipment.setSerialNumber(serialNumber);
+            scheduling.getEquipments().add(equipment);
+        }
+        for (String partNumber : List.of("BC-110", "FL-80")) {
+            SparePart sparePart = new SparePart();
+            sparePart.setScheduling(scheduling);
+            sparePart.setName("Peça " + partNumber);
+            sparePart.setPartNumber(partNumber);
+            sparePart.setQuantity(4);
+            scheduling.getSpareParts().add(sparePart);
+        }
+        entityManager.persist(scheduling);
+        entityManager.flush();
+        entityManager.clear();
+        schedulingId = scheduling.getId();
+        version = scheduling.getVersion();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("tecnico", null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void updateScheduling_ChangingOnlyOneQuantity_ShouldKeepRowsAndBumpVersionOnce() {
+        // Arrange
+        Map<String, Long> partIds = sparePartIds();
+        SchedulingUpdateRequest request = new SchedulingUpdateRequest();
+        request.setSpareParts(List.of(sparePart("BC-110", 4), sparePart("FL-80", 6)));
+
+        // Act
+        SchedulingResponse response = update(request);
+
+        // Assert
+        assertEquals(version + 1, response.getVersion());
+        assertEquals(version + 1, reload().getVersion());
+        assertEquals(partIds, sparePartIds());
+        assertEquals(6, reload().getSpareParts().stream()
+                .filter(part -> "FL-80".equals(part.getPartNumber()))
+                .findFirst().orElseThrow().getQuantity());
+    }
+
+    @Test
+    void updateScheduling_AddingAndRemovingItems_ShouldTouchOnlyThoseRows() {
+        // Arrange
+        Map<String, Long> equipmentIds = equipmentIds();
+        SchedulingUpdateRequest request = new SchedulingUpdateRequest();
+        request.setFarmName("Fazenda Boa Vista");
+        request.setEquipments(List.of(equipment("PJ-1000"), equipment("PJ-3000"), equipment("PJ-4000")));
+
+        // Act
+        SchedulingResponse response = update(request);
+
+        // Assert: campos e itens alterados no mesmo flush, uma única versão nova
+        assertEquals(version + 1, response.getVersion());
+        Map<String, Long> after = equipmentIds();
+        assertEquals(Set.of("PJ-1000", "PJ-3000", "PJ-4000"), after.keySet());
+        assertEquals(equipmentIds.get("PJ-1000"), after.get("PJ-1000"));
+        assertEquals(equipmentIds.get("PJ-3000"), after.get("PJ-3000"));
+        assertEquals("Fazenda Boa Vista", reload().getFarmName());
+    }
+
+    @Test
+    void updateScheduling_WithTheSameItems_ShouldNotChangeTheVersion() {
+        // Arrange
+        SchedulingUpdateRequest request = new SchedulingUpdateRequest();
+        request.setEquipments(List.of(equipment("PJ-3000"), equipment("PJ-1000"), equipment("PJ-2000")));
+        request.setSpareParts(List.of(sparePart("FL-80", 4), sparePart("BC-110", 4)));
+
+        // Act
+        SchedulingResponse response = update(request);
+
+        // Assert
+        assertEquals(version, response.getVersion());
+        assertEquals(version, reload().getVersion());
+    }
+
+    private SchedulingResponse update(SchedulingUpdateRequest request) {
+        SchedulingResponse response = schedulingService.updateScheduling(schedulingId, request);
+        entityManager.flush();
+        entityManager.clear();
+        return response;
+    }
+
+    private Scheduling reload() {
+        entityManager.clear();
+        return entityManager.find(Scheduling.class, schedulingId);
+    }
+
+    private Map<String, Long> equipmentIds() {
+        return reload().getEquipments().stream()
+                .collect(Collectors.toMap(Equipment::getSerialNumber, Equipment::getId));
+    }
+
+    private Map<String, Long> sparePartIds() {
+        return reload().getSpareParts().stream()
+                .collect(Collectors.toMap(SparePart::getPartNumber, SparePart::getId));
+    }
+
+    private static EquipmentRequest equipment(String serialNumber) {
+        EquipmentRequest request = new EquipmentRequest();
+        request.setName("Pulverizador");
+        request.setSerialNumber(serialNumber);
+        return request;
+    }
+
+    private static SparePartRequest sparePart(String partNumber, int quantity) {
+        SparePartRequest request = new SparePartRequest();
+        request.setName("Peça " + partNumber);
+        request.setPartNumber(partNumber);
+        request.setQuantity(quantity);
+        return request;
+    }
+}
@@ -0,0 +1,121 @@
+package com.jacto.scheduler.repository;
+
+import com.jacto.scheduler.enumerations.Role;
+import com.jacto.scheduler.model.Scheduling;
+import com.jacto.scheduler.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Percorre as listagens página a página pelo cursor (scheduledAt, id), inclusive com datas repetidas
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SchedulingPaginationTest {
+
+    private static final PageRequest PAGE = PageRequest.of(0, 2);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SchedulingRepository schedulingRepository;
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 5, 10, 12, 0);
+
+    private User technician;
+    private final List<Scheduling> schedulings = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        technician = new User();
+        technician.setUsername("tecnico");
+        technician.setPassword("senha");
+        technician.setFullName("Técnico");
+        technician.setEmail("tecnico@jacto.com");
+        technician.setRole(Role.TECNICO);
+        entityManager.persist(technician);
+
+        // Três visitas no mesmo horário atravessam a fronteira entre páginas
+        int[] hoursFromNow = {-48, 3, 3, -5, 3, 26, -5};
+        for (int hours : hoursFromNow) {
+            schedulings.add(persistScheduling(now.plusHours(hours)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findIndexEntriesByTechnicianBefore_ShouldWalkAllSchedulingsNewestFirst() {
+        // Arrange
+        List<Long> expected = schedulings.stream()
+                .sorted(Comparator.comparing(Scheduling::getScheduledAt).thenComparing(Scheduling::getId).reversed())
+                .map(Scheduling::getId)
+                .toList();
+
+        // Act
+        List<Long> walked = new ArrayList<>();
+        List<SchedulingIndexEntry> page = schedulingRepository.findIndexEntriesByTechnician(technician, PAGE);
+        while (!page.isEmpty()) {
+            page.forEach(entry -> walked.add(entry.getId()));
+            SchedulingIndexEntry last = page.get(page.size() - 1);
+            assertEquals(scheduling(last.getId()).getScheduledAt(), last.getScheduledAt());
+            page = schedulingRepository.findIndexEntriesByTechnicianBefore(
+                    technician, last.getScheduledAt(), last.getId(), PAGE);
+        }
+
+        // Assert
+        assertEquals(expected, walked);
+    }
+
+    @Test
+    void findUpcomingIndexEntriesAfter_ShouldWalkFutureSchedulingsInOrder() {
+        // Arrange
+        List<Long> expected = schedulings.stream()
+                .filter(s -> s.getScheduledAt().isAfter(now))
+                .sorted(Comparator.comparing(Scheduling::getScheduledAt).thenComparing(Scheduling::getId))
+                .map(Scheduling::getId)
+                .toList();
+
+        // Act
+        List<Long> walked = new ArrayList<>();
+        List<SchedulingIndexEntry> page = schedulingRepository.findUpcomingIndexEntries(technician, now, PAGE);
+        while (!page.isEmpty()) {
+            page.forEach(entry -> walked.add(entry.getId()));
+            SchedulingIndexEntry last = page.get(page.size() - 1);
+            page = schedulingRepository.findUpcomingIndexEntriesAfter(
+                    technician, last.getScheduledAt(), last.getId(), PAGE);
+        }
+
+        // Assert
+        assertEquals(4, expected.size());
+        assertEquals(expected, walked);
+    }
+
+    private Scheduling scheduling(Long id) {
+        return schedulings.stream().filter(s -> s.getId().equals(id)).findFirst().orElseThrow();
+    }
+
+    private Scheduling persistScheduling(LocalDateTime scheduledAt) {
+        Scheduling scheduling = new Scheduling();
+        scheduling.setTechnician(technician);
+        scheduling.setFarmName("Fazenda");
+        scheduling.setClientName("Cliente");
+        scheduling.setClientEmail("cliente@fazenda.com");
+        scheduling.setAddress("Estrada Municipal, km 3");
+        scheduling.setLatitude(-22.2139);
+        scheduling.setLongitude(-50.1742);
+        scheduling.setScheduledAt(scheduledAt);
+        return entityManager.persist(scheduling);
+    }
+}
@@ -0,0 +1,232 @@
+package com.jacto.scheduler.repository;
+
+import com.jacto.scheduler.enumerations.Role;
+import com.jacto.scheduler.enumerations.SchedulingStatus;
+import com.jacto.scheduler.model.Equipment;
+import com.jacto.scheduler.model.Scheduling;
+import com.jacto.scheduler.model.SparePart;
+import com.jacto.scheduler.model.User;
+import com.jacto.scheduler.payload.response.SchedulingResponse;
+import com.jacto.scheduler.report.service.impl.ReportServiceImpl;
+import com.jacto.scheduler.service.GeocodingBatchEnricher;
+import com.jacto.scheduler.service.NotificationService;
+import com.jacto.scheduler.service.RedisSchedulingIndex;
+import com.jacto.scheduler.service.RedisSchedulingService;
+import com.jacto.scheduler.service.SchedulingCursor;
+import com.jacto.scheduler.service.SchedulingIdFilter;
+import com.jacto.scheduler.service.SchedulingPage;
+import com.jacto.scheduler.service.SchedulingService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+// Quantidade de comandos SQL de cada endpoint que lista agendamentos. O número não pode depender de quantos
+// agendamentos são retornados: se crescer com eles, alguma associação voltou a ser carregada uma a uma
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SchedulingService.class, ReportServiceImpl.class})
+class SchedulingQueryCountTest {
+
+    private static final int SCHEDULINGS_PER_TECHNICIAN = 6;
+
+    // Sem cache nem índice no Redis: todos os agendamentos são carregados do banco
+    @MockBean
+    private RedisSchedulingService redisSchedulingService;
+
+    @MockBean
+    private RedisSchedulingIndex schedulingIndex;
+
+    @MockBean
+    private SchedulingIdFilter schedulingIdFilter;
+
+    @MockBean
+    private GeocodingBatchEnricher geocodingBatchEnricher;
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SchedulingService schedulingService;
+
+    @Autowired
+    private ReportServiceImpl reportService;
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+    private final LocalDateTime end = start.plusDays(30);
+
+    @BeforeEach
+    void setUp() {
+        when(geocodingBatchEnricher.enrich(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        User technician = persistTechnician("tecnico.um");
+        persistSchedulings(technician);
+        persistSchedulings(persistTechnician("tecnico.dois"));
+        entityManager.flush();
+        entityManager.clear();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(technician.getUsername(), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getAllSchedulings_ShouldNotQueryPerScheduling() {
+        // Act
+        List<SchedulingResponse> responses =
+                count(() -> schedulingService.getAllSchedulingsForCurrentUser(null, 50)).content();
+
+        // Assert: usuário, ids, agendamentos com técnico, equipamentos e peças
+        assertEquals(SCHEDULINGS_PER_TECHNICIAN, responses.size());
+        assertEquals(2, responses.get(0).getEquipments().size());
+        assertEquals(5, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void getUpcomingSchedulings_ShouldNotQueryPerScheduling() {
+        // Act
+        List<SchedulingResponse> responses =
+                count(() -> schedulingService.getUpcomingSchedulingsForCurrentUser(null, 50)).content();
+
+        // Assert
+        assertEquals(SCHEDULINGS_PER_TECHNICIAN, responses.size());
+        assertEquals(1, responses.get(0).getSpareParts().size());
+        assertEquals(5, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllSchedulings_NextPage_ShouldCostTheSameAsTheFirst() {
+        // Arrange
+        SchedulingCursor after = schedulingService.getAllSchedulingsForCurrentUser(null, 2).next();
+
+        // Act
+        SchedulingPage<List<SchedulingResponse>> page =
+                count(() -> schedulingService.getAllSchedulingsForCurrentUser(after, 2));
+
+        // Assert
+        assertEquals(2, page.content().size());
+        assertEquals(5, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void visitsReport_ShouldNotQueryPerScheduling() {
+        // Act
+        count(() -> reportService.generateVisitsReport(start, end));
+
+        // Assert: agendamentos com técnico e equipamentos
+        assertEquals(2, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void technicianPerformanceReport_ShouldNotQueryPerScheduling() {
+        // Act
+        count(() -> reportService.generateTechnicianPerformanceReport(start, end));
+
+        // Assert
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void customerAnalysisReport_ShouldNotQueryPerScheduling() {
+        // Act
+        count(() -> reportService.generateCustomerAnalysisReport(start, end));
+
+        // Assert
+        assertEquals(2, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void equipmentMaintenanceReport_ShouldNotQueryPerScheduling() {
+        // Act
+        count(() -> reportService.generateEquipmentMaintenanceReport(start, end));
+
+        // Assert
+        assertEquals(2, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void slaComplianceReport_ShouldNotQueryPerScheduling() {
+        // Act
+        count(() -> reportService.generateSLAComplianceReport(start, end));
+
+        // Assert
+        assertEquals(1, statistics().getPrepareStatementCount());
+    }
+
+    private <T> T count(Supplier<T> action) {
+        statistics().clear();
+        return action.get();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private User persistTechnician(String username) {
+        User technician = new User();
+        technician.setUsername(username);
+        technician.setPassword("senha");
+        technician.setFullName("Técnico " + username);
+        technician.setEmail(username + "@jacto.com");
+        technician.setRole(Role.TECNICO);
+        return entityManager.persist(technician);
+    }
+
+    private void persistSchedulings(User technician) {
+        for (int i = 0; i < SCHEDULINGS_PER_TECHNICIAN; i++) {
+            Scheduling scheduling = new Scheduling();
+            scheduling.setTechnician(technician);
+            scheduling.setFarmName("Fazenda " + i);
+            scheduling.setClientName("Cliente " + i);
+            scheduling.setClientEmail("cliente" + i + "@fazenda.com");
+            scheduling.setAddress("Estrada Municipal, km " + i);
+            scheduling.setLatitude(-22.2139);
+            scheduling.setLongitude(-50.1742);
+            scheduling.setScheduledAt(start.plusDays(i + 1));
+            scheduling.setStatus(i % 2 == 0 ? SchedulingStatus.COMPLETED : SchedulingStatus.PENDING);
+            scheduling.setCompletedAt(i % 2 == 0 ? start.plusDays(i + 1).plusHours(3) : null);
+            entityManager.persist(scheduling);
+
+            for (int j = 0; j < 2; j++) {
+                Equipment equipment = new Equipment();
+                equipment.setScheduling(scheduling);
+                equipment.setName("Pulverizador " + j);
+                equipment.setSerialNumber("PJ-" + i + j);
+                entityManager.persist(equipment);
+            }
+
+            SparePart sparePart = new SparePart();
+            sparePart.setScheduling(scheduling);
+            sparePart.setName("Bico");
+            sparePart.setQuantity(4);
+            entityManager.persist(sparePart);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.jacto.scheduler.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Banco criado pelo ddl-auto antes das migrações: marcado na V1, precisa receber todas as colunas e índices
+// posteriores. Roda num schema próprio do Postgres de teste
+class SchemaBaselineTest {
+
+    private static final String URL = "jdbc:postgresql://localhost:5432/scheduler_test";
+    private static final String SCHEMA = "ddl_auto_baseline";
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection(URL, "postgres", "postgres");
+        execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        execute("CREATE SCHEMA " + SCHEMA);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        connection.close();
+    }
+
+    @Test
+    void migrate_OnDatabaseFromDdlAuto_ShouldBaselineAndAddLaterColumns() throws Exception {
+        // Arrange: o esquema anterior às migrações, com um agendamento já gravado
+        execute("SET search_path TO " + SCHEMA);
+        execute(initialSchema());
+        execute("INSERT INTO users (username, password, full_name, email, role) "
+                + "VALUES ('tecnico', 'senha', 'Técnico', 'tecnico@jacto.com', 'TECNICO')");
+        execute("INSERT INTO schedulings (technician_id, farm_name, client_name, client_email, address, latitude, "
+                + "longitude, scheduled_at, status, priority) SELECT id, 'Fazenda Santa Helena', 'João Ávila', "
+                + "'joao@fazenda.com', 'Estrada Municipal, km 3', -22.2139, -50.1742, now(), 'PENDING', 'MEDIUM' "
+                + "FROM users");
+
+        // Act
+        Flyway.configure()
+                .dataSource(URL, "postgres", "postgres")
+                .schemas(SCHEMA)
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+
+        // Assert
+        List<String> columns = query("SELECT column_name FROM information_schema.columns "
+                + "WHERE table_schema = '" + SCHEMA + "' AND table_name = 'schedulings'");
+        assertTrue(columns.containsAll(List.of("location_city", "location_state", "location_postal_code",
+                "location_country", "location_formatted_address", "location_geocoded_at",
+                "location_geocode_attempted_at", "version")), columns.toString());
+        assertEquals(List.of("0"), query("SELECT version FROM " + SCHEMA + ".schedulings"));
+        assertTrue(query("SELECT indexname FROM pg_indexes WHERE schemaname = '" + SCHEMA + "'")
+                .contains("idx_schedulings_pending_geocoding"));
+        // Sequências que o Hibernate valida (as de colunas identity não aparecem aqui)
+        assertTrue(query("SELECT sequence_name FROM information_schema.sequences WHERE sequence_schema = '" + SCHEMA + "'")
+                .containsAll(List.of("equipments_id_seq", "spare_parts_id_seq")));
+        assertEquals(List.of("1", "1.1", "2", "3", "4"), query("SELECT version FROM " + SCHEMA
+                + ".flyway_schema_history WHERE success ORDER BY installed_rank"));
+    }
+
+    private static String initialSchema() throws IOException {
+        try (InputStream input = SchemaBaselineTest.class.getResourceAsStream("/db/migration/V1__initial_schema.sql")) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private List<String> query(String sql) throws SQLException {
+        List<String> values = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            while (result.next()) {
+                values.add(result.getString(1));
+            }
+        }
+        return values;
+    }
+}
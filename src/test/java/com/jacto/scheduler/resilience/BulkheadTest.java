@@ -0,0 +1,83 @@
+package com.jacto.scheduler.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    @Test
+    void execute_WhenAllPermitsAreTaken_ShouldRejectCall() throws Exception {
+        // Arrange
+        Bulkhead bulkhead = new Bulkhead("nominatim", 1, Duration.ofMillis(20));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> running = executor.submit(() -> bulkhead.execute(() -> {
+                started.countDown();
+                await(release);
+                return "lento";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Act & Assert
+            assertThrows(CallNotPermittedException.class, () -> bulkhead.execute(() -> "rápido"));
+            assertEquals(0, bulkhead.getAvailableCalls());
+
+            release.countDown();
+            assertEquals("lento", running.get(5, TimeUnit.SECONDS));
+            assertEquals("rápido", bulkhead.execute(() -> "rápido"));
+            assertEquals(1, bulkhead.getAvailableCalls());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_WhenCallFails_ShouldReleasePermit() {
+        // Arrange
+        Bulkhead bulkhead = new Bulkhead("nominatim", 1, Duration.ZERO);
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> bulkhead.execute(() -> {
+            throw new IllegalStateException("Read timed out");
+        }));
+
+        // Assert
+        assertEquals(1, bulkhead.getAvailableCalls());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void executeAsync_ShouldHoldPermitUntilFutureCompletes() {
+        // Arrange
+        Bulkhead bulkhead = new Bulkhead("nominatim", 1, Duration.ofSeconds(5));
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> running = bulkhead.executeAsync(() -> pending);
+
+        // Act
+        CompletableFuture<String> rejected = bulkhead.executeAsync(() -> CompletableFuture.completedFuture("rápido"));
+        pending.complete("lento");
+
+        // Assert
+        assertTrue(rejected.isCompletedExceptionally());
+        assertEquals("lento", running.join());
+        assertEquals(1, bulkhead.getAvailableCalls());
+    }
+}
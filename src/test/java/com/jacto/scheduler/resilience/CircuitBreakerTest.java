@@ -0,0 +1,130 @@
+package com.jacto.scheduler.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private AtomicLong clock;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        circuitBreaker = new CircuitBreaker("nominatim", 4, 4, 0.5, Duration.ofSeconds(30), clock::get);
+    }
+
+    @Test
+    void execute_WhenFailureRateReachesThreshold_ShouldOpenAndRejectCalls() {
+        // Arrange
+        succeed();
+        succeed();
+        fail();
+        fail();
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act & Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(CallNotPermittedException.class, () -> circuitBreaker.execute(calls::incrementAndGet));
+        assertEquals(0, calls.get());
+        assertEquals(1, circuitBreaker.getNotPermittedCalls());
+    }
+
+    @Test
+    void execute_BelowMinimumCalls_ShouldStayClosed() {
+        // Arrange & Act
+        fail();
+        fail();
+        fail();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void execute_AfterOpenDuration_ShouldCloseWhenProbeSucceeds() {
+        // Arrange
+        openCircuit();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        // Act
+        assertEquals("ok", circuitBreaker.execute(() -> "ok"));
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void execute_WhenProbeFails_ShouldOpenAgain() {
+        // Arrange
+        openCircuit();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        // Act
+        fail();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(CallNotPermittedException.class, () -> circuitBreaker.execute(() -> "ok"));
+    }
+
+    @Test
+    void execute_WhenInnerCallIsRejected_ShouldNotCountAsFailure() {
+        // Arrange & Act
+        for (int i = 0; i < 4; i++) {
+            assertThrows(CallNotPermittedException.class, () -> circuitBreaker.execute(() -> {
+                throw new CallNotPermittedException("Limite de chamadas simultâneas a nominatim atingido");
+            }));
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private void succeed() {
+        circuitBreaker.execute(() -> "ok");
+    }
+
+    private void fail() {
+        assertThrows(IllegalStateException.class, () -> circuitBreaker.execute(() -> {
+            throw new IllegalStateException("Read timed out");
+        }));
+    }
+
+    @Test
+    void executeAsync_ShouldRecordOutcomeWhenFutureCompletes() {
+        // Arrange
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.executeAsync(() -> CompletableFuture.failedFuture(new IllegalStateException("Read timed out")));
+        }
+
+        // Act
+        CompletableFuture<String> result = circuitBreaker.executeAsync(() -> pending);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        pending.completeExceptionally(new IllegalStateException("Read timed out"));
+
+        // Assert
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        CompletableFuture<String> rejected = circuitBreaker.executeAsync(() -> CompletableFuture.completedFuture("ok"));
+        ExecutionException exception = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(CallNotPermittedException.class, exception.getCause());
+    }
+}
@@ -0,0 +1,114 @@
+package com.jacto.scheduler.scheduling;
+
+import com.jacto.scheduler.repository.SchedulingCoordinates;
+import com.jacto.scheduler.repository.SchedulingRepository;
+import com.jacto.scheduler.service.SchedulingLocationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class GeocodingBackfillSchedulerTest {
+
+    private final SchedulingRepository schedulingRepository = mock(SchedulingRepository.class);
+    private final SchedulingLocationService schedulingLocationService = mock(SchedulingLocationService.class);
+    private GeocodingBackfillScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        // Pausa longa entre as requisições: a execução fica em andamento durante o teste
+        scheduler = new GeocodingBackfillScheduler(schedulingRepository, schedulingLocationService,
+                50, 500, Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofHours(6));
+        List<SchedulingCoordinates> pending = List.of(coordinates(1L), coordinates(2L));
+        when(schedulingRepository.findPendingGeocoding(any(Pageable.class))).thenReturn(pending);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void trigger_ShouldNotBlockTheSchedulerThread() {
+        // Act
+        long start = System.nanoTime();
+        scheduler.trigger();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert: o primeiro item é processado na thread do backfill, que segue dormindo
+        assertTrue(elapsedMillis < 500, "disparo em " + elapsedMillis + " ms");
+        verify(schedulingLocationService, timeout(2000)).geocode(1L, -22.2139, -50.1742);
+        verify(schedulingLocationService, never()).geocode(eq(2L), any(), any());
+    }
+
+    @Test
+    void start_WhileRunning_ShouldSkipTheRound() {
+        // Act
+        Future<?> first = scheduler.start();
+        Future<?> second = scheduler.start();
+
+        // Assert
+        assertNotNull(first);
+        assertNull(second);
+    }
+
+    @Test
+    void shutdown_ShouldInterruptThePause() throws Exception {
+        // Arrange
+        Future<?> run = scheduler.start();
+        verify(schedulingLocationService, timeout(2000)).geocode(anyLong(), any(), any());
+
+        // Act
+        scheduler.shutdown();
+
+        // Assert
+        run.get(2, TimeUnit.SECONDS);
+        verify(schedulingLocationService, times(1)).geocode(anyLong(), any(), any());
+    }
+
+    @Test
+    void backfill_ShouldMarkEachAttemptAndRetryFailuresAfterThePending() {
+        // Arrange: sem pausas; o 3 falhou numa execução anterior
+        GeocodingBackfillScheduler immediate = new GeocodingBackfillScheduler(schedulingRepository,
+                schedulingLocationService, 2, 500, Duration.ZERO, Duration.ZERO, Duration.ofHours(6));
+        List<SchedulingCoordinates> pending = List.of(coordinates(1L), coordinates(2L));
+        List<SchedulingCoordinates> failed = List.of(coordinates(3L));
+        when(schedulingRepository.findPendingGeocoding(any(Pageable.class))).thenReturn(pending).thenReturn(List.of());
+        when(schedulingRepository.findRetryableGeocoding(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(failed).thenReturn(List.of());
+        when(schedulingLocationService.geocode(anyLong(), any(), any())).thenReturn(false);
+
+        // Act
+        immediate.backfill();
+
+        // Assert: cada um tentado uma vez, os nunca tentados antes das novas tentativas
+        InOrder inOrder = inOrder(schedulingRepository, schedulingLocationService);
+        for (long id = 1L; id <= 3L; id++) {
+            inOrder.verify(schedulingRepository).markGeocodeAttempted(eq(id), any(LocalDateTime.class));
+            inOrder.verify(schedulingLocationService).geocode(eq(id), any(), any());
+        }
+        verify(schedulingLocationService, times(3)).geocode(anyLong(), any(), any());
+        immediate.shutdown();
+    }
+
+    private static SchedulingCoordinates coordinates(Long id) {
+        SchedulingCoordinates coordinates = mock(SchedulingCoordinates.class);
+        when(coordinates.getId()).thenReturn(id);
+        when(coordinates.getLatitude()).thenReturn(-22.2139);
+        when(coordinates.getLongitude()).thenReturn(-50.1742);
+        return coordinates;
+    }
+}
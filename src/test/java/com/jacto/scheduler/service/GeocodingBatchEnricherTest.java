@@ -0,0 +1,163 @@
+package com.jacto.scheduler.service;
+
+import com.jacto.scheduler.geocoding.GeocodingCache;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import com.jacto.scheduler.payload.response.SchedulingResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GeocodingBatchEnricherTest {
+
+    @Mock
+    private GeocodingService geocodingService;
+
+    private final GeocodingCache geocodingCache = new GeocodingCache();
+
+    private GeocodingBatchEnricher enricher;
+
+    @BeforeEach
+    void setUp() {
+        enricher = new GeocodingBatchEnricher(geocodingService, geocodingCache, Duration.ofMillis(300));
+        lenient().when(geocodingService.getCachedLocationDetails(any()))
+                .thenReturn(new GeocodingService.CachedLocations(Map.of(), Set.of()));
+    }
+
+    @Test
+    void enrich_ShouldResolveEachDistinctCoordinateOnce() {
+        // Arrange
+        GeoLocationDetails details = new GeoLocationDetails();
+        details.setCity("Pompéia");
+        when(geocodingService.getLocationDetailsAsync(anyDouble(), anyDouble()))
+                .thenReturn(CompletableFuture.completedFuture(details));
+
+        SchedulingResponse first = response(1L, -22.1, -50.1);
+        SchedulingResponse sameFarm = response(2L, -22.10001, -50.10001);
+        SchedulingResponse otherFarm = response(3L, -22.5, -50.5);
+
+        // Act
+        List<SchedulingResponse> result = enricher.enrich(List.of(first, sameFarm, otherFarm));
+
+        // Assert
+        verify(geocodingService, times(2)).getLocationDetailsAsync(anyDouble(), anyDouble());
+        assertEquals("Pompéia", result.get(1).getLocationDetails().getCity());
+        assertEquals(-22.10001, result.get(1).getLocationDetails().getLatitude());
+        assertNotNull(result.get(2).getLocationDetails());
+    }
+
+    @Test
+    void enrich_ShouldSkipAlreadyGeocodedItems() {
+        // Arrange
+        SchedulingResponse geocoded = response(1L, -22.1, -50.1);
+        geocoded.setLocationDetails(new GeoLocationDetails());
+
+        // Act
+        List<SchedulingResponse> result = enricher.enrich(List.of(geocoded));
+
+        // Assert
+        assertSame(geocoded, result.get(0));
+        verifyNoInteractions(geocodingService);
+    }
+
+    @Test
+    void enrich_WhenBudgetExpires_ShouldReturnWithoutLocation() {
+        // Arrange
+        when(geocodingService.getLocationDetailsAsync(-22.5, -50.5)).thenReturn(new CompletableFuture<>());
+        when(geocodingService.getLocationDetailsAsync(-22.1, -50.1))
+                .thenReturn(CompletableFuture.completedFuture(new GeoLocationDetails()));
+        SchedulingResponse fast = response(1L, -22.1, -50.1);
+        SchedulingResponse slow = response(2L, -22.5, -50.5);
+
+        // Act
+        long start = System.nanoTime();
+        List<SchedulingResponse> result = enricher.enrich(List.of(fast, slow));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertNotNull(result.get(0).getLocationDetails());
+        assertNull(result.get(1).getLocationDetails());
+        assertTrue(elapsedMillis < 1_000, "levou " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void enrich_WhenLookupFails_ShouldKeepOtherResults() {
+        // Arrange
+        when(geocodingService.getLocationDetailsAsync(-22.5, -50.5)).thenReturn(CompletableFuture.failedFuture(
+                new RuntimeException("Resposta vazia do serviço de geocodificação")));
+        when(geocodingService.getLocationDetailsAsync(-22.1, -50.1))
+                .thenReturn(CompletableFuture.completedFuture(new GeoLocationDetails()));
+        SchedulingResponse ok = response(1L, -22.1, -50.1);
+        SchedulingResponse failed = response(2L, -22.5, -50.5);
+
+        // Act
+        List<SchedulingResponse> result = enricher.enrich(List.of(ok, failed));
+
+        // Assert
+        assertNotNull(result.get(0).getLocationDetails());
+        assertNull(result.get(1).getLocationDetails());
+    }
+
+    @Test
+    void enrich_WithSharedCacheResults_ShouldNotCallProvider() {
+        // Arrange
+        SchedulingResponse known = response(1L, -22.1, -50.1);
+        SchedulingResponse recentlyFailed = response(2L, -22.5, -50.5);
+        GeoLocationDetails details = new GeoLocationDetails();
+        details.setCity("Pompéia");
+        when(geocodingService.getCachedLocationDetails(any())).thenReturn(new GeocodingService.CachedLocations(
+                Map.of(geocodingCache.keyFor(-22.1, -50.1), details),
+                Set.of(geocodingCache.keyFor(-22.5, -50.5))));
+
+        // Act
+        List<SchedulingResponse> result = enricher.enrich(List.of(known, recentlyFailed));
+
+        // Assert
+        assertEquals("Pompéia", result.get(0).getLocationDetails().getCity());
+        assertEquals(-22.1, result.get(0).getLocationDetails().getLatitude());
+        assertNull(result.get(1).getLocationDetails());
+        verify(geocodingService, never()).getLocationDetailsAsync(anyDouble(), anyDouble());
+    }
+
+    @Test
+    void enrich_ShouldNotChangeTheGivenResponses() {
+        // Arrange: a mesma instância pode estar no cache local, servida a outras requisições
+        GeoLocationDetails details = new GeoLocationDetails();
+        details.setCity("Pompéia");
+        when(geocodingService.getLocationDetailsAsync(anyDouble(), anyDouble()))
+                .thenReturn(CompletableFuture.completedFuture(details));
+        SchedulingResponse shared = response(1L, -22.1, -50.1);
+        shared.setFarmName("Fazenda Santa Helena");
+
+        // Act
+        List<SchedulingResponse> result = enricher.enrich(List.of(shared));
+
+        // Assert
+        assertNull(shared.getLocationDetails());
+        assertNotSame(shared, result.get(0));
+        assertEquals(1L, result.get(0).getId());
+        assertEquals("Fazenda Santa Helena", result.get(0).getFarmName());
+        assertEquals("Pompéia", result.get(0).getLocationDetails().getCity());
+    }
+
+    private static SchedulingResponse response(Long id, Double latitude, Double longitude) {
+        SchedulingResponse response = new SchedulingResponse();
+        response.setId(id);
+        response.setLatitude(latitude);
+        response.setLongitude(longitude);
+        return response;
+    }
+}
@@ -1,6 +1,18 @@
 package com.jacto.scheduler.service;
 
+import com.jacto.scheduler.geocoding.GeocodingCache;
+import com.jacto.scheduler.geocoding.GeocodingProvider;
+import com.jacto.scheduler.geocoding.NominatimClient;
+import com.jacto.scheduler.geocoding.OfflineGeocodingProvider;
+import com.jacto.scheduler.geocoding.OfflineReverseGeocoder;
+import com.jacto.scheduler.geocoding.StubGeocodingProvider;
+import com.jacto.scheduler.geocoding.TokenBucketRateLimiter;
 import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import com.jacto.scheduler.resilience.Bulkhead;
+import com.jacto.scheduler.resilience.CallNotPermittedException;
+import com.jacto.scheduler.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,12 +21,33 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +56,9 @@ class GeocodingServiceTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private RedisGeocodingCache sharedCache;
+
     private GeocodingService geocodingService;
 
     private Double latitude;
@@ -34,7 +70,7 @@ class GeocodingServiceTest {
         latitude = -23.5505;
         longitude = -46.6333;
         nominatimBaseUrl = "https://nominatim.openstreetmap.org";
-        geocodingService = new GeocodingService(nominatimBaseUrl, restTemplate);
+        geocodingService = new GeocodingService(nominatimBaseUrl, restTemplate, sharedCache);
     }
 
     @Test
@@ -75,4 +111,357 @@ class GeocodingServiceTest {
         );
         assertEquals("Resposta vazia do serviço de geocodificação", exception.getMessage());
     }
+
+    @Test
+    void getLocationDetails_WithNearbyCoordinates_ShouldUseCache() {
+        // Arrange
+        Map<String, Object> response = new HashMap<>();
+        response.put("display_name", "Fazenda Teste, São Paulo, Brasil");
+        when(restTemplate.getForObject(anyString(), any())).thenReturn(response);
+
+        // Act
+        GeoLocationDetails first = geocodingService.getLocationDetails(latitude, longitude);
+        GeoLocationDetails second = geocodingService.getLocationDetails(latitude + 0.00001, longitude - 0.00001);
+
+        // Assert
+        verify(restTemplate, times(1)).getForObject(anyString(), any());
+        assertEquals(first.getFormattedAddress(), second.getFormattedAddress());
+        assertEquals(latitude + 0.00001, second.getLatitude());
+        assertEquals(longitude - 0.00001, second.getLongitude());
+    }
+
+    @Test
+    void getLocationDetails_WhenServiceFails_ShouldNotCacheFailure() {
+        // Arrange
+        Map<String, Object> response = new HashMap<>();
+        response.put("display_name", "Fazenda Teste, São Paulo, Brasil");
+        when(restTemplate.getForObject(anyString(), any())).thenReturn(null, response);
+
+        // Act
+        assertThrows(RuntimeException.class, () -> geocodingService.getLocationDetails(latitude, longitude));
+        GeoLocationDetails result = geocodingService.getLocationDetails(latitude, longitude);
+
+        // Assert
+        assertEquals("Fazenda Teste, São Paulo, Brasil", result.getFormattedAddress());
+        verify(restTemplate, times(2)).getForObject(anyString(), any());
+    }
+
+    @Test
+    void getLocationDetails_InOfflineMode_ShouldNotCallNominatim() throws IOException {
+        // Arrange
+        GeocodingService offlineService = offlineService(false);
+
+        // Act
+        GeoLocationDetails result = offlineService.getLocationDetails(-22.12, -50.18);
+
+        // Assert
+        assertEquals("Pompéia", result.getCity());
+        assertEquals("São Paulo", result.getState());
+        assertEquals("17580-000", result.getPostalCode());
+        verify(restTemplate, never()).getForObject(anyString(), any());
+    }
+
+    @Test
+    void getLocationDetails_InOfflineModeFarFromGazetteer_ShouldThrowException() throws IOException {
+        // Arrange
+        GeocodingService offlineService = offlineService(false);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> offlineService.getLocationDetails(0.0, 0.0));
+        verify(restTemplate, never()).getForObject(anyString(), any());
+    }
+
+    @Test
+    void getLocationDetails_InOfflineModeWithFallback_ShouldUseRemoteFormattedAddress() throws IOException {
+        // Arrange
+        Map<String, Object> response = new HashMap<>();
+        response.put("display_name", "Estrada Municipal, Pompéia, São Paulo, 17580-000, Brasil");
+        when(restTemplate.getForObject(anyString(), any())).thenReturn(response);
+        GeocodingService offlineService = offlineService(true);
+
+        // Act
+        GeoLocationDetails result = offlineService.getLocationDetails(-22.12, -50.18);
+
+        // Assert
+        assertEquals("Estrada Municipal, Pompéia, São Paulo, 17580-000, Brasil", result.getFormattedAddress());
+        assertEquals("Pompéia", result.getCity());
+        assertEquals("17580-000", result.getPostalCode());
+    }
+
+    @Test
+    void getLocationDetails_InOfflineModeWhenFallbackFails_ShouldReturnLocalDetails() throws IOException {
+        // Arrange
+        when(restTemplate.getForObject(anyString(), any())).thenReturn(null);
+        GeocodingService offlineService = offlineService(true);
+
+        // Act
+        GeoLocationDetails result = offlineService.getLocationDetails(-22.12, -50.18);
+
+        // Assert
+        assertEquals("Pompéia, São Paulo, 17580-000, Brasil", result.getFormattedAddress());
+    }
+
+    private GeocodingService offlineService(boolean remoteFallback) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream("/geocoding/gazetteer-sample.tsv"), StandardCharsets.UTF_8))) {
+            return asyncService(new OfflineGeocodingProvider(OfflineReverseGeocoder.load(reader, 50),
+                    remoteFallback ? new NominatimClient(nominatimBaseUrl, restTemplate) : null));
+        }
+    }
+
+    @Test
+    void getLocationDetails_WhenProviderKeepsFailing_ShouldFailFastWithoutCallingIt() {
+        // Arrange
+        when(restTemplate.getForObject(anyString(), any())).thenThrow(new RuntimeException("Read timed out"));
+        GeocodingService guardedService = new GeocodingService(new NominatimClient(nominatimBaseUrl, restTemplate), new GeocodingCache(),
+                Duration.ofSeconds(10), new TokenBucketRateLimiter(1000, 1000), Duration.ZERO,
+                new CircuitBreaker("nominatim", 4, 4, 0.5, Duration.ofMinutes(1)),
+                new Bulkhead("nominatim", 4, Duration.ofSeconds(1)), sharedCache, Runnable::run);
+        for (int i = 0; i < 4; i++) {
+            double lat = latitude + i;
+            assertThrows(RuntimeException.class, () -> guardedService.getLocationDetails(lat, longitude));
+        }
+
+        // Act & Assert
+        assertThrows(CallNotPermittedException.class, () -> guardedService.getLocationDetails(latitude + 10, longitude));
+        verify(restTemplate, times(4)).getForObject(anyString(), any());
+    }
+
+    @Test
+    void getLocationDetails_WhenThrottled_ShouldWaitOutsideTheBulkheadAndTheProviderTimer() throws Exception {
+        // Arrange: uma ficha a cada 500 ms e uma única vaga, sem espera, no bulkhead
+        Map<String, Object> response = new HashMap<>();
+        response.put("display_name", "Fazenda Teste, São Paulo, Brasil");
+        when(restTemplate.getForObject(anyString(), any())).thenReturn(response);
+        GeocodingService throttledService = new GeocodingService(new NominatimClient(nominatimBaseUrl, restTemplate),
+                new GeocodingCache(), Duration.ofSeconds(10), new TokenBucketRateLimiter(2, 1), Duration.ofSeconds(2),
+                new CircuitBreaker("nominatim", 20, 10, 0.5, Duration.ofSeconds(30)),
+                new Bulkhead("nominatim", 1, Duration.ZERO), sharedCache, Runnable::run);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        throttledService.bindTo(registry);
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+
+        // Act: as que esperam a ficha não ocupam a vaga de quem já está chamando o provedor
+        try {
+            List<CompletableFuture<GeoLocationDetails>> calls = List.of(0, 1, 2).stream()
+                    .map(i -> CompletableFuture.supplyAsync(
+                            () -> throttledService.getLocationDetails(latitude + i, longitude), callers))
+                    .toList();
+            for (CompletableFuture<GeoLocationDetails> call : calls) {
+                assertNotNull(call.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        // Assert: a latência medida é só a do provedor
+        Timer success = registry.get("geocoding.provider.requests").tag("outcome", "success").timer();
+        assertEquals(3, success.count());
+        assertTrue(success.max(TimeUnit.MILLISECONDS) < 400, "max " + success.max(TimeUnit.MILLISECONDS) + " ms");
+    }
+
+    @Test
+    void getLocationDetails_WhenSharedCacheHasCell_ShouldNotCallNominatim() {
+        // Arrange
+        GeoLocationDetails shared = new GeoLocationDetails();
+        shared.setCity("São Paulo");
+        when(sharedCache.cell(any())).thenReturn("6gyf4bf8");
+        when(sharedCache.get("6gyf4bf8")).thenReturn(new RedisGeocodingCache.Entry(shared, System.currentTimeMillis()));
+
+        // Act
+        GeoLocationDetails result = geocodingService.getLocationDetails(latitude, longitude);
+        geocodingService.getLocationDetails(latitude, longitude);
+
+        // Assert
+        assertEquals("São Paulo", result.getCity());
+        assertEquals(latitude, result.getLatitude());
+        verify(sharedCache, times(1)).get("6gyf4bf8");
+        verify(restTemplate, never()).getForObject(anyString(), any());
+    }
+
+    @Test
+    void getLocationDetails_WhenSharedEntryIsOlderThanLocalTtl_ShouldNotKeepLocalCopy() {
+        // Arrange: consultado por outro nó há 2 horas; o TTL local é de 1 hora
+        GeocodingCache localCache = new GeocodingCache(100, Duration.ofHours(1), GeocodingCache.DEFAULT_PRECISION);
+        GeocodingService service = new GeocodingService(new NominatimClient(nominatimBaseUrl, restTemplate), localCache,
+                Duration.ofSeconds(10), new TokenBucketRateLimiter(1000, 1000), Duration.ZERO,
+                new CircuitBreaker("nominatim", 20, 10, 0.5, Duration.ofSeconds(30)),
+                new Bulkhead("nominatim", 4, Duration.ofSeconds(1)), sharedCache, Runnable::run);
+        GeoLocationDetails shared = new GeoLocationDetails();
+        shared.setCity("São Paulo");
+        when(sharedCache.cell(any())).thenReturn("6gyf4bf8");
+        when(sharedCache.get("6gyf4bf8")).thenReturn(new RedisGeocodingCache.Entry(shared,
+                System.currentTimeMillis() - Duration.ofHours(2).toMillis()));
+
+        // Act
+        GeoLocationDetails result = service.getLocationDetails(latitude, longitude);
+
+        // Assert: servido do Redis, mas a cópia local não ganhou um TTL novo
+        assertEquals("São Paulo", result.getCity());
+        assertNull(localCache.get(latitude, longitude));
+    }
+
+    @Test
+    void getLocationDetails_WhenSharedCacheHasRecentFailure_ShouldNotCallNominatim() {
+        // Arrange
+        when(sharedCache.cell(any())).thenReturn("6gyf4bf8");
+        when(sharedCache.get("6gyf4bf8")).thenReturn(RedisGeocodingCache.Entry.NEGATIVE);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> geocodingService.getLocationDetails(latitude, longitude));
+        verify(restTemplate, never()).getForObject(anyString(), any());
+    }
+
+    @Test
+    void getLocationDetails_ShouldShareResultsAndFailuresThroughRedis() {
+        // Arrange
+        Map<String, Object> response = new HashMap<>();
+        response.put("display_name", "Fazenda Teste, São Paulo, Brasil");
+        when(sharedCache.cell(any())).thenReturn("6gyf4bf8", "6gyf4bf9");
+        when(restTemplate.getForObject(anyString(), any())).thenReturn(response).thenReturn(null);
+
+        // Act
+        geocodingService.getLocationDetails(latitude, longitude);
+        assertThrows(RuntimeException.class, () -> geocodingService.getLocationDetails(latitude + 1, longitude));
+
+        // Assert
+        verify(sharedCache).put(eq("6gyf4bf8"), any(GeoLocationDetails.class), anyLong());
+        verify(sharedCache).putNegative("6gyf4bf9");
+    }
+
+    @Test
+    void getCachedLocationDetails_ShouldReadMissingCellsWithSingleBatch() {
+        // Arrange
+        GeocodingCache localCache = new GeocodingCache();
+        GeocodingService service = new GeocodingService(new NominatimClient(nominatimBaseUrl, restTemplate), localCache,
+                Duration.ofSeconds(10), new TokenBucketRateLimiter(1000, 1000), Duration.ZERO,
+                new CircuitBreaker("nominatim", 20, 10, 0.5, Duration.ofSeconds(30)),
+                new Bulkhead("nominatim", 4, Duration.ofSeconds(1)), sharedCache, Runnable::run);
+        GeoLocationDetails local = new GeoLocationDetails();
+        local.setCity("Pompéia");
+        localCache.put(-22.1, -50.1, local);
+        GeoLocationDetails shared = new GeoLocationDetails();
+        shared.setCity("Marília");
+        when(sharedCache.cell(localCache.keyFor(-22.2, -49.9))).thenReturn("6gv0aaaa");
+        when(sharedCache.cell(localCache.keyFor(-23.3, -51.1))).thenReturn("6gtzzzzz");
+        when(sharedCache.getAll(any())).thenReturn(Map.of(
+                "6gv0aaaa", new RedisGeocodingCache.Entry(shared, System.currentTimeMillis()),
+                "6gtzzzzz", RedisGeocodingCache.Entry.NEGATIVE));
+
+        Map<GeocodingCache.CoordinateKey, double[]> cells = new HashMap<>();
+        cells.put(localCache.keyFor(-22.1, -50.1), new double[]{-22.1, -50.1});
+        cells.put(localCache.keyFor(-22.2, -49.9), new double[]{-22.2, -49.9});
+        cells.put(localCache.keyFor(-23.3, -51.1), new double[]{-23.3, -51.1});
+
+        // Act
+        GeocodingService.CachedLocations result = service.getCachedLocationDetails(cells);
+
+        // Assert
+        assertEquals("Pompéia", result.found().get(localCache.keyFor(-22.1, -50.1)).getCity());
+        assertEquals("Marília", result.found().get(localCache.keyFor(-22.2, -49.9)).getCity());
+        assertEquals(Set.of(localCache.keyFor(-23.3, -51.1)), result.failed());
+        assertNotNull(localCache.get(-22.2, -49.9));
+        verify(sharedCache, times(1)).getAll(any());
+        verify(restTemplate, never()).getForObject(anyString(), any());
+    }
+
+    @Test
+    void getLocationDetailsAsync_WithConcurrentCallers_ShouldIssueSingleRequest() {
+        // Arrange
+        GeocodingProvider provider = mock(GeocodingProvider.class);
+        CompletableFuture<GeoLocationDetails> response = new CompletableFuture<>();
+        when(provider.reverseAsync(anyDouble(), anyDouble())).thenReturn(response);
+        GeocodingService service = asyncService(provider);
+
+        // Act
+        CompletableFuture<GeoLocationDetails> first = service.getLocationDetailsAsync(latitude, longitude);
+        CompletableFuture<GeoLocationDetails> second = service.getLocationDetailsAsync(latitude + 0.00001, longitude);
+        assertFalse(first.isDone());
+        GeoLocationDetails details = new GeoLocationDetails();
+        details.setCity("São Paulo");
+        response.complete(details);
+
+        // Assert
+        assertEquals("São Paulo", first.join().getCity());
+        assertEquals(latitude + 0.00001, second.join().getLatitude());
+        assertEquals("São Paulo", service.getLocationDetailsAsync(latitude, longitude).join().getCity());
+        verify(provider, times(1)).reverseAsync(anyDouble(), anyDouble());
+        verify(sharedCache).put(any(), eq(details), anyLong());
+    }
+
+    @Test
+    void getLocationDetailsAsync_WhenProviderFails_ShouldRecordNegativeEntry() {
+        // Arrange
+        GeocodingProvider provider = mock(GeocodingProvider.class);
+        when(provider.reverseAsync(anyDouble(), anyDouble())).thenReturn(
+                CompletableFuture.failedFuture(new RuntimeException("Serviço de geocodificação respondeu com status 503")));
+        when(sharedCache.cell(any())).thenReturn("6gyf4bf8");
+        GeocodingService service = asyncService(provider);
+
+        // Act
+        CompletableFuture<GeoLocationDetails> result = service.getLocationDetailsAsync(latitude, longitude);
+
+        // Assert
+        assertTrue(result.isCompletedExceptionally());
+        verify(sharedCache).putNegative("6gyf4bf8");
+    }
+
+    @Test
+    void getLocationDetails_WithStubProvider_ShouldNotCallNominatim() {
+        // Arrange
+        GeocodingService service = asyncService(new StubGeocodingProvider());
+
+        // Act
+        GeoLocationDetails result = service.getLocationDetails(latitude, longitude);
+
+        // Assert
+        assertEquals("Pompéia", result.getCity());
+        assertEquals(latitude, result.getLatitude());
+        assertEquals("Pompéia", service.getLocationDetailsAsync(latitude + 1, longitude).join().getCity());
+        verify(restTemplate, never()).getForObject(anyString(), any());
+        verify(sharedCache, times(2)).put(any(), any(), anyLong());
+    }
+
+    private GeocodingService asyncService(GeocodingProvider provider) {
+        return asyncService(provider, Runnable::run);
+    }
+
+    private GeocodingService asyncService(GeocodingProvider provider, Executor redisExecutor) {
+        return new GeocodingService(provider, new GeocodingCache(), Duration.ofSeconds(10),
+                new TokenBucketRateLimiter(1000, 1000), Duration.ZERO,
+                new CircuitBreaker("nominatim", 20, 10, 0.5, Duration.ofSeconds(30)),
+                new Bulkhead("nominatim", 4, Duration.ofSeconds(1)), sharedCache, redisExecutor);
+    }
+
+    @Test
+    void getLocationDetailsAsync_ShouldKeepRedisOffTheHttpClientThreads() {
+        // Arrange: a resposta do provedor chega por uma thread "do HttpClient"
+        ExecutorService http = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "geocoding-http-1"));
+        ExecutorService redis = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "geocoding-redis-1"));
+        try {
+            GeoLocationDetails details = new GeoLocationDetails();
+            details.setCity("São Paulo");
+            GeocodingProvider provider = mock(GeocodingProvider.class);
+            when(provider.reverseAsync(anyDouble(), anyDouble())).thenAnswer(invocation -> CompletableFuture.supplyAsync(
+                    () -> details, CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS, http)));
+            List<String> redisThreads = new CopyOnWriteArrayList<>();
+            when(sharedCache.get(any())).thenAnswer(invocation -> {
+                redisThreads.add(Thread.currentThread().getName());
+                return null;
+            });
+            doAnswer(invocation -> redisThreads.add(Thread.currentThread().getName()))
+                    .when(sharedCache).put(any(), any(), anyLong());
+            GeocodingService service = asyncService(provider, redis);
+
+            // Act
+            GeoLocationDetails result = service.getLocationDetailsAsync(latitude, longitude).join();
+
+            // Assert
+            assertEquals("São Paulo", result.getCity());
+            assertEquals(List.of("geocoding-redis-1", "geocoding-redis-1"), redisThreads);
+        } finally {
+            http.shutdownNow();
+            redis.shutdownNow();
+        }
+    }
 }
@@ -1,14 +1,21 @@
 package com.jacto.scheduler.service;
 
 import com.jacto.scheduler.config.KafkaConfig;
+import com.jacto.scheduler.messaging.SchedulingUpdatedMessage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
 
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 
@@ -40,10 +47,31 @@ class NotificationServiceTest {
     @Test
     void sendSchedulingUpdatedNotification_ShouldSendToKafka() {
         // Act
-        notificationService.sendSchedulingUpdatedNotification(schedulingId);
+        SchedulingItemChanges itemChanges = new SchedulingItemChanges(
+                new SchedulingItemChanges.Counts(1, 0, 2), SchedulingItemChanges.Counts.NONE);
+        notificationService.sendSchedulingUpdatedNotification(schedulingId, itemChanges);
+
+        // Assert: a mensagem leva o resumo dos itens junto com o id
+        verify(kafkaTemplate).send(eq(KafkaConfig.SCHEDULING_UPDATED_TOPIC),
+                eq(new SchedulingUpdatedMessage(schedulingId, itemChanges)));
+    }
+
+    @Test
+    void schedulingUpdatedMessage_ShouldSurviveTheKafkaJsonRoundTrip() {
+        // Arrange: serializador e desserializador configurados como no KafkaConfig
+        SchedulingUpdatedMessage message = new SchedulingUpdatedMessage(schedulingId, new SchedulingItemChanges(
+                new SchedulingItemChanges.Counts(1, 2, 3), new SchedulingItemChanges.Counts(0, 0, 1)));
+        RecordHeaders headers = new RecordHeaders();
+        JsonDeserializer<Object> deserializer = new JsonDeserializer<>();
+        deserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES,
+                "com.jacto.scheduler.model,com.jacto.scheduler.messaging"), false);
+
+        // Act
+        byte[] bytes = new JsonSerializer<Object>().serialize(KafkaConfig.SCHEDULING_UPDATED_TOPIC, headers, message);
+        Object received = deserializer.deserialize(KafkaConfig.SCHEDULING_UPDATED_TOPIC, headers, bytes);
 
         // Assert
-        verify(kafkaTemplate).send(eq(KafkaConfig.SCHEDULING_UPDATED_TOPIC), eq(schedulingId));
+        assertEquals(message, received);
     }
 
     @Test
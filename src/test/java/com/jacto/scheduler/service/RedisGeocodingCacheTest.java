@@ -0,0 +1,124 @@
+package com.jacto.scheduler.service;
+
+import com.jacto.scheduler.geocoding.GeocodingCache;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisGeocodingCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final GeocodingCache geocodingCache = new GeocodingCache();
+
+    private RedisGeocodingCache redisGeocodingCache;
+
+    @BeforeEach
+    void setUp() {
+        redisGeocodingCache = new RedisGeocodingCache(redisTemplate, geocodingCache, Duration.ofDays(30),
+                Duration.ofMinutes(10));
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void cell_ShouldFollowTheLocalCacheGrid() {
+        // Act
+        String cell = redisGeocodingCache.cell(geocodingCache.keyFor(-22.21391, -50.17418));
+
+        // Assert: a mesma célula local (~11 m) é a mesma chave; a vizinha, outra
+        assertEquals("0.0001:-222139:-501742", cell);
+        assertEquals(cell, redisGeocodingCache.cell(geocodingCache.keyFor(-22.21386, -50.17424)));
+        assertNotEquals(cell, redisGeocodingCache.cell(geocodingCache.keyFor(-22.21401, -50.17418)));
+    }
+
+    @Test
+    void put_ShouldStoreCompactValueWithLongTtl() {
+        // Arrange
+        GeoLocationDetails details = new GeoLocationDetails();
+        details.setCity("Pompéia");
+        details.setState("São Paulo");
+        details.setCountry("Brasil");
+        details.setFormattedAddress("Pompéia, São Paulo, Brasil");
+
+        // Act
+        redisGeocodingCache.put("0.0001:-222139:-501742", details, 1_715_329_800_000L);
+
+        // Assert
+        verify(valueOperations).set("geocode:0.0001:-222139:-501742",
+                "Pompéia\u001FSão Paulo\u001F\u001FBrasil\u001FPompéia, São Paulo, Brasil\u001F1715329800000",
+                Duration.ofDays(30));
+    }
+
+    @Test
+    void putNegative_ShouldUseShortTtl() {
+        // Act
+        redisGeocodingCache.putNegative("0.0001:-222139:-501742");
+
+        // Assert
+        verify(valueOperations).set("geocode:0.0001:-222139:-501742", "!", Duration.ofMinutes(10));
+    }
+
+    @Test
+    void getAll_ShouldDecodeHitsAndNegativesFromSingleMultiGet() {
+        // Arrange
+        when(valueOperations.multiGet(List.of("geocode:a", "geocode:b", "geocode:c")))
+                .thenReturn(Arrays.asList("Pompéia\u001FSão Paulo\u001F17580-000\u001FBrasil\u001F\u001F1715329800000",
+                        "!", null));
+
+        // Act
+        Map<String, RedisGeocodingCache.Entry> result = redisGeocodingCache.getAll(List.of("a", "b", "c"));
+
+        // Assert
+        assertEquals(2, result.size());
+        GeoLocationDetails details = result.get("a").details();
+        assertEquals("Pompéia", details.getCity());
+        assertEquals("17580-000", details.getPostalCode());
+        assertNull(details.getFormattedAddress());
+        assertEquals(1_715_329_800_000L, result.get("a").writtenAt());
+        assertTrue(result.get("b").isNegative());
+        assertFalse(result.containsKey("c"));
+        verify(valueOperations, times(1)).multiGet(anyCollection());
+    }
+
+    @Test
+    void get_ValueWithoutWriteTime_ShouldDecodeWithUnknownAge() {
+        // Arrange: gravado antes do momento da consulta fazer parte do valor
+        when(valueOperations.get("geocode:a")).thenReturn("Pompéia\u001FSão Paulo\u001F\u001FBrasil\u001F");
+
+        // Act
+        RedisGeocodingCache.Entry entry = redisGeocodingCache.get("a");
+
+        // Assert
+        assertEquals("Pompéia", entry.details().getCity());
+        assertEquals(0, entry.writtenAt());
+    }
+
+    @Test
+    void get_WhenRedisIsDown_ShouldBehaveAsMiss() {
+        // Arrange
+        when(valueOperations.get(anyString())).thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        // Act & Assert
+        assertNull(redisGeocodingCache.get("0.0001:-222139:-501742"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.jacto.scheduler.service;
+
+import com.jacto.scheduler.resilience.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RedisGuardTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private RedisGuard redisGuard;
+
+    @BeforeEach
+    void setUp() {
+        redisGuard = new RedisGuard(new CircuitBreaker("redis", 4, 4, 0.5, Duration.ofMinutes(1)), redisTemplate, 2);
+    }
+
+    @Test
+    void call_WhenCircuitOpen_ShouldReturnFallbackWithoutCallingRedis() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            redisGuard.call(() -> {
+                calls.incrementAndGet();
+                throw new RedisConnectionFailureException("indisponível");
+            }, "fallback");
+        }
+
+        // Act
+        String result = redisGuard.call(() -> {
+            calls.incrementAndGet();
+            return "redis";
+        }, "fallback");
+
+        // Assert
+        assertEquals("fallback", result);
+        assertEquals(4, calls.get());
+        assertFalse(redisGuard.isAvailable());
+    }
+
+    @Test
+    void write_WhenBufferFull_ShouldDropOldestKey() {
+        // Arrange
+        when(redisTemplate.delete(List.of("b", "c"))).thenReturn(2L);
+
+        // Act
+        for (String key : List.of("a", "b", "c")) {
+            redisGuard.write(key, () -> {
+                throw new RedisConnectionFailureException("indisponível");
+            }, null);
+        }
+        redisGuard.resync();
+
+        // Assert
+        assertEquals(1, redisGuard.getDroppedKeys());
+        verify(redisTemplate).delete(List.of("b", "c"));
+        assertEquals(0, redisGuard.getPendingKeys());
+    }
+
+    @Test
+    void resync_WhenRedisStillDown_ShouldKeepKeysPending() {
+        // Arrange
+        AtomicInteger resynced = new AtomicInteger();
+        redisGuard.write("a", () -> {
+            throw new RedisConnectionFailureException("indisponível");
+        }, resynced::incrementAndGet);
+        when(redisTemplate.delete(anyList())).thenThrow(new RedisConnectionFailureException("indisponível"));
+
+        // Act
+        redisGuard.resync();
+
+        // Assert
+        assertEquals(1, redisGuard.getPendingKeys());
+        assertEquals(0, resynced.get());
+    }
+
+    @Test
+    void resync_WithoutPendingKeys_ShouldNotCallRedis() {
+        // Act
+        redisGuard.resync();
+
+        // Assert
+        verify(redisTemplate, never()).delete(anyList());
+    }
+}
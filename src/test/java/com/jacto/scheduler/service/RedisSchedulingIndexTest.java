@@ -0,0 +1,214 @@
+package com.jacto.scheduler.service;
+
+import com.jacto.scheduler.repository.SchedulingIndexEntry;
+import com.jacto.scheduler.repository.SchedulingRepository;
+import com.jacto.scheduler.resilience.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RedisSchedulingIndexTest {
+
+    private static final String INDEX_KEY = "technician:1:schedulings";
+    private static final String REMOVED_KEY = "technician:1:schedulings:removed";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private SchedulingRepository schedulingRepository;
+
+    private RedisGuard redisGuard;
+
+    private RedisSchedulingIndex schedulingIndex;
+
+    @BeforeEach
+    void setUp() {
+        redisGuard = new RedisGuard(new CircuitBreaker("redis", 20, 10, 0.5, Duration.ofSeconds(10)),
+                redisTemplate, 100);
+        schedulingIndex = new RedisSchedulingIndex(redisTemplate, redisGuard, schedulingRepository,
+                Duration.ofHours(24), Duration.ofMinutes(5), 2);
+    }
+
+    @Test
+    void findAll_WithReadyIndex_ShouldReturnPositionsInOrder() {
+        // Arrange: pares id, pontuação
+        LocalDateTime later = LocalDateTime.of(2024, 3, 2, 9, 30);
+        LocalDateTime earlier = LocalDateTime.of(2024, 3, 1, 10, 0);
+        when(redisTemplate.execute(eq(RedisSchedulingIndex.RANGE), eq(List.of(INDEX_KEY)),
+                eq("desc"), eq("+inf"), eq(""), eq("3")))
+                .thenReturn(List.of(3L, epochMilli(later), 1L, epochMilli(earlier), 2L, epochMilli(earlier)));
+
+        // Act
+        Optional<List<SchedulingCursor>> positions = schedulingIndex.findAll(1L, null, 3);
+
+        // Assert
+        assertEquals(Optional.of(List.of(
+                new SchedulingCursor(later, 3L),
+                new SchedulingCursor(earlier, 1L),
+                new SchedulingCursor(earlier, 2L))), positions);
+    }
+
+    @Test
+    void findAll_WithCursor_ShouldStartAfterItsScoreAndId() {
+        // Arrange
+        LocalDateTime scheduledAt = LocalDateTime.of(2024, 3, 1, 10, 0);
+        String score = String.valueOf(scheduledAt.toInstant(ZoneOffset.UTC).toEpochMilli());
+        when(redisTemplate.execute(eq(RedisSchedulingIndex.RANGE), eq(List.of(INDEX_KEY)),
+                eq("desc"), eq(score), eq("9"), eq("3")))
+                .thenReturn(List.of(8L, epochMilli(scheduledAt), 4L, epochMilli(scheduledAt.minusDays(1))));
+
+        // Act
+        Optional<List<SchedulingCursor>> positions =
+                schedulingIndex.findAll(1L, new SchedulingCursor(scheduledAt, 9L), 3);
+
+        // Assert
+        assertEquals(Optional.of(List.of(
+                new SchedulingCursor(scheduledAt, 8L),
+                new SchedulingCursor(scheduledAt.minusDays(1), 4L))), positions);
+    }
+
+    @Test
+    void findUpcoming_WithoutIndex_ShouldReturnEmpty() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.of(2024, 3, 1, 10, 0);
+        String score = String.valueOf(now.toInstant(ZoneOffset.UTC).toEpochMilli());
+        when(redisTemplate.execute(eq(RedisSchedulingIndex.RANGE), eq(List.of(INDEX_KEY)),
+                eq("asc"), eq(score), eq(""), eq("10")))
+                .thenReturn(null);
+
+        // Act & Assert
+        assertEquals(Optional.empty(), schedulingIndex.findUpcoming(1L, now, null, 10));
+    }
+
+    @Test
+    void findAll_WhenRedisFails_ShouldReturnEmpty() {
+        // Arrange
+        when(redisTemplate.execute(eq(RedisSchedulingIndex.RANGE), eq(List.of(INDEX_KEY)),
+                eq("desc"), eq("+inf"), eq(""), eq("10")))
+                .thenThrow(new RedisConnectionFailureException("indisponível"));
+
+        // Act & Assert
+        assertEquals(Optional.empty(), schedulingIndex.findAll(1L, null, 10));
+    }
+
+    @Test
+    void rebuild_ShouldIndexAllPagesAndMarkReady() {
+        // Arrange
+        LocalDateTime scheduledAt = LocalDateTime.of(2024, 3, 1, 10, 0);
+        String score = String.valueOf(scheduledAt.toInstant(ZoneOffset.UTC).toEpochMilli());
+        when(redisTemplate.execute(RedisSchedulingIndex.START_REBUILD, List.of(INDEX_KEY), "300")).thenReturn(1L);
+        when(schedulingRepository.findIndexEntries(1L, 0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(entry(4L, scheduledAt), entry(9L, scheduledAt)));
+        when(schedulingRepository.findIndexEntries(1L, 9L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(entry(12L, scheduledAt)));
+        // Act
+        schedulingIndex.rebuild(1L);
+
+        // Assert
+        verify(redisTemplate).execute(RedisSchedulingIndex.ADD_PAGE, List.of(INDEX_KEY, REMOVED_KEY),
+                score, "4", score, "9");
+        verify(redisTemplate).execute(RedisSchedulingIndex.ADD_PAGE, List.of(INDEX_KEY, REMOVED_KEY), score, "12");
+        verify(redisTemplate).execute(RedisSchedulingIndex.FINISH_REBUILD, List.of(INDEX_KEY, REMOVED_KEY), "86400");
+    }
+
+    @Test
+    void rebuild_WhenAlreadyBuilding_ShouldNotQueryDatabase() {
+        // Arrange
+        when(redisTemplate.execute(RedisSchedulingIndex.START_REBUILD, List.of(INDEX_KEY), "300")).thenReturn(0L);
+
+        // Act
+        schedulingIndex.rebuild(1L);
+
+        // Assert
+        verify(schedulingRepository, never()).findIndexEntries(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void rebuild_WhenIndexDisappears_ShouldStopWithoutMarkingReady() {
+        // Arrange
+        LocalDateTime scheduledAt = LocalDateTime.of(2024, 3, 1, 10, 0);
+        when(redisTemplate.execute(RedisSchedulingIndex.START_REBUILD, List.of(INDEX_KEY), "300")).thenReturn(1L);
+        when(schedulingRepository.findIndexEntries(1L, 0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(entry(4L, scheduledAt), entry(9L, scheduledAt)));
+        String score = String.valueOf(scheduledAt.toInstant(ZoneOffset.UTC).toEpochMilli());
+        when(redisTemplate.execute(RedisSchedulingIndex.ADD_PAGE, List.of(INDEX_KEY, REMOVED_KEY),
+                score, "4", score, "9")).thenReturn(-1L);
+
+        // Act
+        schedulingIndex.rebuild(1L);
+
+        // Assert
+        verify(schedulingRepository, never()).findIndexEntries(1L, 9L, PageRequest.of(0, 2));
+        verify(redisTemplate, never())
+                .execute(RedisSchedulingIndex.FINISH_REBUILD, List.of(INDEX_KEY, REMOVED_KEY), "86400");
+    }
+
+    @Test
+    void remove_ShouldRecordTombstoneWhileBuilding() {
+        // Act
+        schedulingIndex.remove(1L, 5L);
+
+        // Assert
+        verify(redisTemplate).execute(RedisSchedulingIndex.REMOVE, List.of(INDEX_KEY, REMOVED_KEY), "5", "300");
+    }
+
+    @Test
+    void add_WhenRedisFails_ShouldDropIndexOnceRedisRecovers() {
+        // Arrange
+        LocalDateTime scheduledAt = LocalDateTime.of(2024, 3, 1, 10, 0);
+        String score = String.valueOf(scheduledAt.toInstant(ZoneOffset.UTC).toEpochMilli());
+        when(redisTemplate.execute(RedisSchedulingIndex.ADD, List.of(INDEX_KEY), score, "5"))
+                .thenThrow(new RedisConnectionFailureException("indisponível"));
+        when(redisTemplate.delete(List.of(INDEX_KEY))).thenReturn(1L);
+
+        // Act
+        schedulingIndex.add(1L, 5L, scheduledAt);
+        redisGuard.resync();
+
+        // Assert
+        verify(redisTemplate).delete(List.of(INDEX_KEY));
+        assertEquals(0, redisGuard.getPendingKeys());
+    }
+
+    private static SchedulingIndexEntry entry(Long id, LocalDateTime scheduledAt) {
+        return new SchedulingIndexEntry() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getScheduledAt() {
+                return scheduledAt;
+            }
+        };
+    }
+
+    private static long epochMilli(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -1,20 +1,37 @@
 package com.jacto.scheduler.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jacto.scheduler.cache.BinarySchedulingCodec;
+import com.jacto.scheduler.cache.SchedulingCacheFormat;
+import com.jacto.scheduler.exception.ResourceNotFoundException;
+import com.jacto.scheduler.payload.response.EquipmentResponse;
 import com.jacto.scheduler.payload.response.SchedulingResponse;
+import com.jacto.scheduler.resilience.CircuitBreaker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -23,15 +40,26 @@ import static org.mockito.Mockito.*;
 class RedisSchedulingServiceTest {
 
     @Mock
-    private RedisTemplate<String, Object> redisTemplate;
+    private RedisTemplate<String, byte[]> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, byte[]> valueOperations;
 
     @Mock
-    private ValueOperations<String, Object> valueOperations;
+    private HashOperations<String, String, byte[]> hashOperations;
+
+    @Spy
+    private SchedulingCacheFormat format =
+            new SchedulingCacheFormat(List.of(new BinarySchedulingCodec()), "binary", 1024);
 
     @Mock
-    private ObjectMapper objectMapper;
+    private SchedulingLocalCache localCache;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private RedisGuard redisGuard;
 
-    @InjectMocks
     private RedisSchedulingService redisSchedulingService;
 
     private SchedulingResponse testScheduling;
@@ -45,27 +73,160 @@ class RedisSchedulingServiceTest {
         testScheduling.setFarmName("Fazenda Teste");
 
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.<String, byte[]>opsForHash()).thenReturn(hashOperations);
+        // Abre após 4 chamadas com metade de falhas
+        redisGuard = new RedisGuard(new CircuitBreaker("redis", 4, 4, 0.5, Duration.ofMinutes(1)),
+                stringRedisTemplate, 100);
+        // Sem variação no TTL, para as expirações serem previsíveis
+        redisSchedulingService = new RedisSchedulingService(redisTemplate, format, localCache, redisGuard,
+                Duration.ofHours(24), Duration.ZERO, Duration.ofMinutes(10), Duration.ofMillis(100), 1.0, Duration.ofSeconds(5),
+                Duration.ofSeconds(60));
     }
 
     @Test
-    void saveScheduling_ShouldSaveToRedis() {
+    void saveScheduling_ShouldWriteWholeHash() {
         // Act
         redisSchedulingService.saveScheduling(testScheduling);
 
         // Assert
-        verify(valueOperations).set(
-            eq("scheduling:" + schedulingId),
-            eq(testScheduling),
-            eq(24L),
-            eq(java.util.concurrent.TimeUnit.HOURS)
-        );
+        Object[] args = scriptArgs(RedisSchedulingService.WRITE, "scheduling:hash:" + schedulingId);
+        assertEquals("87000", text(args[0]));
+        assertEquals("", text(args[1]));
+        Map<String, byte[]> fields = pairs(args, 2);
+        assertEquals("Fazenda Teste", format.read(fields).getFarmName());
+        long softExpiresAt = SchedulingCacheFormat.softExpiresAt(fields);
+        assertTrue(Math.abs(softExpiresAt - System.currentTimeMillis() - Duration.ofHours(24).toMillis()) < 60_000);
+        verify(localCache).update(testScheduling);
+    }
+
+    @Test
+    void saveChanges_ShouldPatchOnlyChangedFields() {
+        // Arrange
+        SchedulingResponse before = detailedScheduling();
+        SchedulingResponse after = detailedScheduling();
+        after.setVersion(8L);
+        after.setStatus("COMPLETED");
+        when(redisTemplate.execute(eq(RedisSchedulingService.PATCH), anyList(), any(Object[].class))).thenReturn(1L);
+
+        // Act
+        redisSchedulingService.saveChanges(before, after);
+
+        // Assert
+        Object[] args = scriptArgs(RedisSchedulingService.PATCH, "scheduling:hash:" + schedulingId);
+        assertEquals("7", text(args[0]));
+        assertEquals("0", text(args[1]));
+        Map<String, byte[]> fields = pairs(args, 2);
+        assertEquals(List.of(SchedulingCacheFormat.VERSION, "status"), List.copyOf(fields.keySet()));
+        assertEquals("8", text(fields.get(SchedulingCacheFormat.VERSION)));
+        assertEquals("COMPLETED", text(fields.get("status")));
+        verify(redisTemplate, never()).execute(eq(RedisSchedulingService.WRITE), anyList(), any(Object[].class));
+        verify(localCache).update(after);
+    }
+
+    @Test
+    void saveChanges_WhenRedisHoldsAnotherVersion_ShouldRewriteWholeHash() {
+        // Arrange
+        SchedulingResponse before = detailedScheduling();
+        SchedulingResponse after = detailedScheduling();
+        after.setVersion(8L);
+        after.setClientFeedback("Ótimo serviço!");
+        when(redisTemplate.execute(eq(RedisSchedulingService.PATCH), anyList(), any(Object[].class))).thenReturn(0L);
+
+        // Act
+        redisSchedulingService.saveChanges(before, after);
+
+        // Assert
+        Object[] args = scriptArgs(RedisSchedulingService.WRITE, "scheduling:hash:" + schedulingId);
+        SchedulingResponse written = format.read(pairs(args, 2));
+        assertEquals(8L, written.getVersion());
+        assertEquals("Ótimo serviço!", written.getClientFeedback());
+        assertEquals("PJ-3000", written.getEquipments().get(0).getSerialNumber());
+        verify(localCache).update(after);
+    }
+
+    @Test
+    void saveChanges_WithoutChanges_ShouldSkipRedis() {
+        // Act
+        redisSchedulingService.saveChanges(detailedScheduling(),
+                detailedScheduling());
+
+        // Assert
+        verify(redisTemplate, never()).execute(any(), anyList(), any(Object[].class));
+        verify(localCache, never()).update(any());
+    }
+
+    @Test
+    void cacheScheduling_ShouldNotInvalidateOtherNodes() {
+        // Arrange
+        when(redisTemplate.execute(eq(RedisSchedulingService.CACHE_IF_NEWER), anyList(), any(Object[].class)))
+                .thenReturn(1L);
+
+        // Act
+        redisSchedulingService.cacheScheduling(testScheduling);
+
+        // Assert
+        verify(localCache).put(testScheduling);
+        verify(localCache, never()).update(any());
+    }
+
+    @Test
+    void cacheScheduling_WithVersion_ShouldWriteThroughCompareAndSet() {
+        // Arrange
+        testScheduling.setVersion(3L);
+        when(redisTemplate.execute(eq(RedisSchedulingService.CACHE_IF_NEWER), anyList(), any(Object[].class)))
+                .thenReturn(1L);
+
+        // Act
+        boolean written = redisSchedulingService.cacheScheduling(testScheduling);
+
+        // Assert
+        assertTrue(written);
+        ArgumentCaptor<Object[]> captor = ArgumentCaptor.forClass(Object[].class);
+        verify(redisTemplate).execute(eq(RedisSchedulingService.CACHE_IF_NEWER),
+                eq(List.of("scheduling:hash:" + schedulingId, "scheduling:refresh:" + schedulingId)),
+                captor.capture());
+        Object[] args = captor.getValue();
+        assertEquals("3", text(args[0]));
+        assertEquals("87000", text(args[1]));
+        assertEquals(3L, format.read(pairs(args, 3)).getVersion());
+        verify(redisTemplate, never()).execute(eq(RedisSchedulingService.WRITE), anyList(), any(Object[].class));
+        verify(localCache).put(testScheduling);
+    }
+
+    @Test
+    void cacheScheduling_WhenRedisHoldsSameOrNewerVersion_ShouldSkipLocalCache() {
+        // Arrange
+        testScheduling.setVersion(3L);
+        when(redisTemplate.execute(eq(RedisSchedulingService.CACHE_IF_NEWER), anyList(), any(Object[].class)))
+                .thenReturn(0L);
+
+        // Act
+        boolean written = redisSchedulingService.cacheScheduling(testScheduling);
+
+        // Assert
+        assertFalse(written);
+        verify(localCache, never()).put(any());
+    }
+
+    @Test
+    void getScheduling_WhenInLocalCache_ShouldSkipRedis() {
+        // Arrange
+        when(localCache.get(schedulingId)).thenReturn(testScheduling);
+
+        // Act
+        SchedulingResponse result = redisSchedulingService.getScheduling(schedulingId);
+
+        // Assert
+        assertSame(testScheduling, result);
+        verify(hashOperations, never()).entries(any());
+        verify(format, never()).read(any());
     }
 
     @Test
     void getScheduling_WhenExists_ShouldReturnScheduling() {
         // Arrange
-        when(valueOperations.get("scheduling:" + schedulingId)).thenReturn(testScheduling);
-        when(objectMapper.convertValue(testScheduling, SchedulingResponse.class)).thenReturn(testScheduling);
+        Map<String, byte[]> cached = format.write(testScheduling);
+        when(hashOperations.entries("scheduling:hash:" + schedulingId)).thenReturn(cached);
 
         // Act
         SchedulingResponse result = redisSchedulingService.getScheduling(schedulingId);
@@ -74,12 +235,13 @@ class RedisSchedulingServiceTest {
         assertNotNull(result);
         assertEquals(schedulingId, result.getId());
         assertEquals("Fazenda Teste", result.getFarmName());
+        verify(localCache).put(result);
     }
 
     @Test
     void getScheduling_WhenNotExists_ShouldReturnNull() {
         // Arrange
-        when(valueOperations.get("scheduling:" + schedulingId)).thenReturn(null);
+        when(hashOperations.entries("scheduling:hash:" + schedulingId)).thenReturn(null);
 
         // Act
         SchedulingResponse result = redisSchedulingService.getScheduling(schedulingId);
@@ -89,11 +251,287 @@ class RedisSchedulingServiceTest {
     }
 
     @Test
-    void deleteScheduling_ShouldDeleteFromRedis() {
+    void getScheduling_WhenExpiredAndLockAcquired_ShouldReportMissForRecompute() {
+        // Arrange
+        Map<String, byte[]> expired = format.write(testScheduling, System.currentTimeMillis() - 1);
+        when(hashOperations.entries("scheduling:hash:" + schedulingId)).thenReturn(expired);
+        when(valueOperations.setIfAbsent(eq("scheduling:refresh:" + schedulingId), any(), eq(Duration.ofSeconds(5))))
+                .thenReturn(true);
+
+        // Act
+        SchedulingResponse result = redisSchedulingService.getScheduling(schedulingId);
+
+        // Assert
+        assertNull(result);
+        verify(localCache, never()).put(any());
+    }
+
+    @Test
+    void getScheduling_WhenExpiredAndAnotherNodeRecomputes_ShouldServeStaleValue() {
+        // Arrange
+        Map<String, byte[]> expired = format.write(testScheduling, System.currentTimeMillis() - 1);
+        when(hashOperations.entries("scheduling:hash:" + schedulingId)).thenReturn(expired);
+        when(valueOperations.setIfAbsent(any(), any(), any(Duration.class))).thenReturn(false);
+
+        // Act
+        SchedulingResponse result = redisSchedulingService.getScheduling(schedulingId);
+
+        // Assert
+        assertEquals("Fazenda Teste", result.getFarmName());
+        verify(localCache, never()).put(any());
+    }
+
+    @Test
+    void getScheduling_WhenFarFromExpiry_ShouldNotTakeLock() {
+        // Arrange
+        Map<String, byte[]> fresh = format.write(testScheduling, System.currentTimeMillis() + Duration.ofHours(1).toMillis());
+        when(hashOperations.entries("scheduling:hash:" + schedulingId)).thenReturn(fresh);
+
+        // Act
+        SchedulingResponse result = redisSchedulingService.getScheduling(schedulingId);
+
+        // Assert
+        assertNotNull(result);
+        verify(valueOperations, never()).setIfAbsent(any(), any(), any(Duration.class));
+        verify(localCache).put(result);
+    }
+
+    @Test
+    void getSchedulings_ShouldLeaveOutExpiredEntriesThisNodeRecomputes() {
+        // Arrange
+        SchedulingResponse other = new SchedulingResponse();
+        other.setId(2L);
+        long now = System.currentTimeMillis();
+        Map<String, byte[]> expired = format.write(testScheduling, now - 1);
+        Map<String, byte[]> fresh = format.write(other, now + Duration.ofHours(1).toMillis());
+        // Primeiro o pipeline de HGETALL, depois o das travas de recálculo
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(List.of(expired, fresh))
+                .thenReturn(List.of(true));
+
+        // Act
+        Map<Long, SchedulingResponse> result = redisSchedulingService.getSchedulings(List.of(1L, 2L));
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(2L).getId());
+        verify(redisTemplate, times(2)).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    void getScheduling_WhenHashIsUnreadable_ShouldTreatAsMiss() {
+        // Arrange
+        when(hashOperations.entries("scheduling:hash:" + schedulingId))
+                .thenReturn(Map.of("farmName", "Fazenda Teste".getBytes(StandardCharsets.UTF_8)));
+
+        // Act
+        SchedulingResponse result = redisSchedulingService.getScheduling(schedulingId);
+
+        // Assert
+        assertNull(result);
+        verify(localCache, never()).put(any());
+    }
+
+    @Test
+    void getSchedulings_ShouldFetchOnlyLocalMissesInOnePipeline() {
+        // Arrange
+        SchedulingResponse remote = new SchedulingResponse();
+        remote.setId(2L);
+        remote.setFarmName("Fazenda Remota");
+        Map<String, byte[]> cached = format.write(remote);
+        when(localCache.get(1L)).thenReturn(testScheduling);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(List.of(cached, Map.of()));
+
+        // Act
+        Map<Long, SchedulingResponse> result = redisSchedulingService.getSchedulings(List.of(1L, 2L, 3L));
+
+        // Assert
+        assertEquals(2, result.size());
+        assertSame(testScheduling, result.get(1L));
+        assertEquals("Fazenda Remota", result.get(2L).getFarmName());
+        verify(hashOperations, never()).entries(any());
+        verify(localCache).put(result.get(2L));
+    }
+
+    @Test
+    void cacheSchedulings_ShouldWriteInOnePipeline() {
+        // Arrange
+        SchedulingResponse stale = new SchedulingResponse();
+        stale.setId(2L);
+        stale.setVersion(1L);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(List.of(1L, 0L));
+
+        // Act
+        int written = redisSchedulingService.cacheSchedulings(List.of(testScheduling, stale));
+
+        // Assert
+        assertEquals(1, written);
+        verify(redisTemplate).executePipelined(any(SessionCallback.class));
+        verify(localCache).put(testScheduling);
+        verify(localCache, never()).put(stale);
+        verify(localCache, never()).update(any());
+    }
+
+    @Test
+    void toJsonArray_ShouldJoinBodiesFromLocalCache() {
+        // Arrange
+        SchedulingResponse other = new SchedulingResponse();
+        other.setId(2L);
+        when(localCache.json(testScheduling)).thenReturn("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        when(localCache.json(other)).thenReturn("{\"id\":2}".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        byte[] array = redisSchedulingService.toJsonArray(List.of(testScheduling, other));
+
+        // Assert
+        assertEquals("[{\"id\":1},{\"id\":2}]", new String(array, StandardCharsets.UTF_8));
+        assertEquals("[]", new String(redisSchedulingService.toJsonArray(List.of()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void cacheSchedulings_WhenEmpty_ShouldSkipRedis() {
+        // Act
+        redisSchedulingService.cacheSchedulings(List.of());
+
+        // Assert
+        verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    void deleteScheduling_ShouldLeaveMissingMarker() {
         // Act
         redisSchedulingService.deleteScheduling(schedulingId);
 
         // Assert
-        verify(redisTemplate).delete("scheduling:" + schedulingId);
+        Object[] args = scriptArgs(RedisSchedulingService.WRITE, "scheduling:hash:" + schedulingId);
+        assertEquals("60", text(args[0]));
+        assertEquals("", text(args[1]));
+        assertTrue(SchedulingCacheFormat.isMissing(pairs(args, 2)));
+        verify(localCache).invalidate(schedulingId);
+    }
+
+    @Test
+    void evictScheduling_ShouldDeleteWithoutMissingMarker() {
+        // Act
+        redisSchedulingService.evictScheduling(schedulingId);
+
+        // Assert
+        verify(redisTemplate).delete("scheduling:hash:" + schedulingId);
+        verify(redisTemplate, never()).execute(eq(RedisSchedulingService.WRITE), anyList(), any(Object[].class));
+        verify(localCache).invalidate(schedulingId);
+    }
+
+    @Test
+    void getScheduling_WhenMarkedMissing_ShouldThrowNotFound() {
+        // Arrange
+        when(hashOperations.entries("scheduling:hash:" + schedulingId)).thenReturn(SchedulingCacheFormat.missing());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> redisSchedulingService.getScheduling(schedulingId));
+    }
+
+    @Test
+    void cacheMissing_ShouldNotOverwriteExistingValue() {
+        // Act
+        redisSchedulingService.cacheMissing(schedulingId);
+
+        // Assert
+        Object[] args = scriptArgs(RedisSchedulingService.WRITE, "scheduling:hash:" + schedulingId);
+        assertEquals("nx", text(args[1]));
+        assertTrue(SchedulingCacheFormat.isMissing(pairs(args, 2)));
+    }
+
+    @Test
+    void getScheduling_WhenRedisFails_ShouldReportMissInsteadOfThrowing() {
+        // Arrange
+        when(hashOperations.entries("scheduling:hash:" + schedulingId))
+                .thenThrow(new RedisConnectionFailureException("indisponível"));
+
+        // Act & Assert
+        assertNull(redisSchedulingService.getScheduling(schedulingId));
+    }
+
+    @Test
+    void getScheduling_WhenCircuitOpen_ShouldSkipRedis() {
+        // Arrange
+        when(hashOperations.entries("scheduling:hash:" + schedulingId))
+                .thenThrow(new RedisConnectionFailureException("indisponível"));
+        for (int i = 0; i < 4; i++) {
+            redisSchedulingService.getScheduling(schedulingId);
+        }
+
+        // Act
+        SchedulingResponse result = redisSchedulingService.getScheduling(schedulingId);
+
+        // Assert
+        assertNull(result);
+        verify(hashOperations, times(4)).entries("scheduling:hash:" + schedulingId);
+        assertFalse(redisGuard.isAvailable());
+    }
+
+    @Test
+    void saveScheduling_WhenRedisFails_ShouldUpdateOnlyLocalCopyAndResyncLater() {
+        // Arrange
+        when(redisTemplate.execute(eq(RedisSchedulingService.WRITE), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("indisponível"));
+        when(stringRedisTemplate.delete(List.of("scheduling:hash:" + schedulingId))).thenReturn(1L);
+
+        // Act
+        redisSchedulingService.saveScheduling(testScheduling);
+        verify(localCache).put(testScheduling);
+        verify(localCache, never()).update(any());
+        assertEquals(1, redisGuard.getPendingKeys());
+        redisGuard.resync();
+
+        // Assert
+        verify(stringRedisTemplate).delete(List.of("scheduling:hash:" + schedulingId));
+        verify(localCache).invalidate(schedulingId);
+        assertEquals(0, redisGuard.getPendingKeys());
+    }
+
+    @Test
+    void cacheScheduling_WhenRedisFails_ShouldKeepDatabaseReadInLocalCache() {
+        // Arrange
+        when(redisTemplate.execute(eq(RedisSchedulingService.CACHE_IF_NEWER), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("indisponível"));
+
+        // Act
+        boolean written = redisSchedulingService.cacheScheduling(testScheduling);
+
+        // Assert
+        assertFalse(written);
+        verify(localCache).put(testScheduling);
+    }
+
+    private SchedulingResponse detailedScheduling() {
+        SchedulingResponse scheduling = new SchedulingResponse();
+        scheduling.setId(schedulingId);
+        scheduling.setVersion(7L);
+        scheduling.setFarmName("Fazenda Teste");
+        scheduling.setStatus("PENDING");
+        EquipmentResponse equipment = new EquipmentResponse();
+        equipment.setId(10L);
+        equipment.setSerialNumber("PJ-3000");
+        scheduling.setEquipments(List.of(equipment));
+        return scheduling;
+    }
+
+    // Argumentos do script executado sobre a chave, depois de KEYS
+    private Object[] scriptArgs(RedisScript<Long> script, String key) {
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(redisTemplate).execute(eq(script), eq(List.of(key)), args.capture());
+        return args.getValue();
+    }
+
+    private static Map<String, byte[]> pairs(Object[] args, int from) {
+        Map<String, byte[]> fields = new LinkedHashMap<>();
+        for (int i = from; i < args.length; i += 2) {
+            fields.put(text(args[i]), (byte[]) args[i + 1]);
+        }
+        return fields;
+    }
+
+    private static String text(Object value) {
+        return new String((byte[]) value, StandardCharsets.UTF_8);
     }
 }
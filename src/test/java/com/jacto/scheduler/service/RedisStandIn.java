@@ -0,0 +1,481 @@
+package com.jacto.scheduler.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Redis local para testes e benchmarks: fala RESP2 e cobre só os comandos que o cache de agendamentos usa.
+// A latência injetada simula a rede: cada resposta sai latency depois da chegada do comando
+public class RedisStandIn implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final Thread acceptor;
+    private static final String WRITE_SHA = sha1(RedisSchedulingService.WRITE_SOURCE.getBytes(StandardCharsets.UTF_8));
+    private static final String CACHE_IF_NEWER_SHA =
+            sha1(RedisSchedulingService.CACHE_IF_NEWER_SOURCE.getBytes(StandardCharsets.UTF_8));
+    private static final String PATCH_SHA = sha1(RedisSchedulingService.PATCH_SOURCE.getBytes(StandardCharsets.UTF_8));
+
+    private final Map<String, Entry> data = new ConcurrentHashMap<>();
+    private final Set<String> loadedScripts = ConcurrentHashMap.newKeySet();
+    private final List<Socket> connections = new ArrayList<>();
+    private final AtomicLong commands = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final Map<String, AtomicLong> commandsByName = new ConcurrentHashMap<>();
+
+    private volatile Duration latency = Duration.ZERO;
+
+    private RedisStandIn(int port) throws IOException {
+        server = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        acceptor = new Thread(this::accept, "redis-stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public static RedisStandIn start() throws IOException {
+        return start(0);
+    }
+
+    public static RedisStandIn start(int port) throws IOException {
+        return new RedisStandIn(port);
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    public RedisStandIn withLatency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    public long getCommands() {
+        return commands.get();
+    }
+
+    public long getCommands(String name) {
+        AtomicLong count = commandsByName.get(name);
+        return count == null ? 0 : count.get();
+    }
+
+    // Valores efetivamente gravados, por qualquer comando ou script
+    public long getWrites() {
+        return writes.get();
+    }
+
+    // Tamanho dos argumentos de todos os comandos recebidos (nome, chaves e valores), sem o enquadramento RESP
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    @Override
+    public void close() {
+        try {
+            server.close();
+        } catch (IOException e) {
+            // Já fechado
+        }
+        synchronized (connections) {
+            for (Socket connection : connections) {
+                try {
+                    connection.close();
+                } catch (IOException e) {
+                    // Cliente já desconectou
+                }
+            }
+        }
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket connection = server.accept();
+                connection.setTcpNoDelay(true);
+                synchronized (connections) {
+                    connections.add(connection);
+                }
+                Thread handler = new Thread(() -> serve(connection), "redis-stand-in-connection");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                // Servidor fechado
+            }
+        }
+    }
+
+    // Uma thread lê e carimba a chegada de cada comando; outra responde só quando a latência desde a chegada passou.
+    // Assim os comandos de um pipeline esperam juntos, como numa rede de verdade, em vez de somar atrasos
+    private void serve(Socket connection) {
+        BlockingQueue<Arrival> pending = new LinkedBlockingQueue<>();
+        Thread reader = new Thread(() -> {
+            try {
+                InputStream in = new BufferedInputStream(connection.getInputStream());
+                while (true) {
+                    List<byte[]> command = readCommand(in);
+                    for (byte[] argument : command) {
+                        bytesReceived.addAndGet(argument.length);
+                    }
+                    pending.add(new Arrival(command, System.nanoTime()));
+                }
+            } catch (IOException e) {
+                pending.add(Arrival.CLOSED);
+            }
+        }, "redis-stand-in-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        try (connection) {
+            OutputStream out = new BufferedOutputStream(connection.getOutputStream());
+            while (true) {
+                Arrival arrival = pending.take();
+                if (arrival == Arrival.CLOSED) {
+                    return;
+                }
+                long wait = arrival.receivedAt + latency.toNanos() - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                execute(arrival.command, out);
+                if (pending.isEmpty()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // Cliente desconectou
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void execute(List<byte[]> command, OutputStream out) throws IOException {
+        String name = new String(command.get(0), StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+        commands.incrementAndGet();
+        commandsByName.computeIfAbsent(name, ignored -> new AtomicLong()).incrementAndGet();
+        switch (name) {
+            case "PING" -> simple(out, "PONG");
+            case "CLIENT", "SELECT" -> simple(out, "OK");
+            case "GET" -> bulk(out, read(key(command, 1)));
+            case "MGET" -> {
+                array(out, command.size() - 1);
+                for (int i = 1; i < command.size(); i++) {
+                    bulk(out, read(key(command, i)));
+                }
+            }
+            // SET chave valor [EX|PX] [NX]: com NX e a chave existente, nada é gravado
+            case "SET" -> {
+                if (hasOption(command, "NX") && read(key(command, 1)) != null) {
+                    bulk(out, null);
+                } else {
+                    store(key(command, 1), new Entry(command.get(2), expiry(command)));
+                    simple(out, "OK");
+                }
+            }
+            // SETEX chave segundos valor: é o que o RedisTemplate envia para set com expiração
+            case "SETEX", "PSETEX" -> {
+                long amount = Long.parseLong(new String(command.get(2), StandardCharsets.US_ASCII));
+                long expiresAt = System.currentTimeMillis() + (name.equals("SETEX") ? amount * 1_000 : amount);
+                store(key(command, 1), new Entry(command.get(3), expiresAt));
+                simple(out, "OK");
+            }
+            case "DEL" -> {
+                long removed = 0;
+                for (int i = 1; i < command.size(); i++) {
+                    if (data.remove(key(command, i)) != null) {
+                        removed++;
+                    }
+                }
+                integer(out, removed);
+            }
+            case "EXPIRE" -> {
+                Entry entry = data.get(key(command, 1));
+                if (entry != null) {
+                    long seconds = Long.parseLong(new String(command.get(2), StandardCharsets.US_ASCII));
+                    store(key(command, 1), entry.expiringAt(System.currentTimeMillis() + seconds * 1_000));
+                }
+                integer(out, entry != null ? 1 : 0);
+            }
+            // Resposta no formato do RESP2: campos e valores intercalados
+            case "HGETALL" -> {
+                Map<String, byte[]> fields = readHash(key(command, 1));
+                if (fields == null) {
+                    array(out, 0);
+                } else {
+                    array(out, fields.size() * 2);
+                    for (Map.Entry<String, byte[]> field : fields.entrySet()) {
+                        bulk(out, field.getKey().getBytes(StandardCharsets.UTF_8));
+                        bulk(out, field.getValue());
+                    }
+                }
+            }
+            case "EVAL" -> {
+                String sha = sha1(command.get(1));
+                loadedScripts.add(sha);
+                evaluate(sha, command, out);
+            }
+            case "EVALSHA" -> {
+                String sha = new String(command.get(1), StandardCharsets.US_ASCII);
+                if (loadedScripts.contains(sha)) {
+                    evaluate(sha, command, out);
+                } else {
+                    error(out, "NOSCRIPT No matching script. Please use EVAL.");
+                }
+            }
+            // Sem assinantes: ninguém recebe a mensagem
+            case "PUBLISH" -> integer(out, 0);
+            // HELLO incluso: o cliente volta para o RESP2
+            default -> error(out, "ERR unknown command '" + name + "'");
+        }
+    }
+
+    // Não há interpretador Lua: os scripts da aplicação são reproduzidos em Java, identificados pelo SHA-1
+    private void evaluate(String sha, List<byte[]> command, OutputStream out) throws IOException {
+        int keyCount = Integer.parseInt(new String(command.get(2), StandardCharsets.US_ASCII));
+        List<byte[]> arguments = command.subList(3 + keyCount, command.size());
+        if (sha.equals(WRITE_SHA)) {
+            integer(out, write(key(command, 3), arguments));
+        } else if (sha.equals(CACHE_IF_NEWER_SHA)) {
+            integer(out, cacheIfNewer(key(command, 3), key(command, 4), arguments));
+        } else if (sha.equals(PATCH_SHA)) {
+            integer(out, patch(key(command, 3), arguments));
+        } else {
+            error(out, "ERR script não suportado pelo stand-in");
+        }
+    }
+
+    // Mesmo comportamento de RedisSchedulingService.WRITE_SOURCE
+    private long write(String key, List<byte[]> arguments) {
+        boolean onlyIfAbsent = "nx".equals(new String(arguments.get(1), StandardCharsets.US_ASCII));
+        if (onlyIfAbsent && (read(key) != null || readHash(key) != null)) {
+            return 0;
+        }
+        store(key, Entry.hash(pairs(arguments, 2, new LinkedHashMap<>()), expiresIn(arguments.get(0))));
+        return 1;
+    }
+
+    // Mesmo comportamento de RedisSchedulingService.CACHE_IF_NEWER_SOURCE
+    private long cacheIfNewer(String key, String lockKey, List<byte[]> arguments) {
+        long incoming = parseLong(arguments.get(0));
+        boolean lockHolder = Arrays.equals(read(lockKey), arguments.get(2));
+        if (incoming >= 0) {
+            Map<String, byte[]> current = readHash(key);
+            byte[] version = current == null ? null : current.get("#v");
+            if (version != null) {
+                long stored = parseLong(version);
+                if (stored > incoming || (stored == incoming && !lockHolder)) {
+                    return 0;
+                }
+            }
+        }
+        store(key, Entry.hash(pairs(arguments, 3, new LinkedHashMap<>()), expiresIn(arguments.get(1))));
+        if (lockHolder) {
+            data.remove(lockKey);
+        }
+        return 1;
+    }
+
+    // Mesmo comportamento de RedisSchedulingService.PATCH_SOURCE
+    private long patch(String key, List<byte[]> arguments) {
+        Map<String, byte[]> current = readHash(key);
+        byte[] version = current == null ? null : current.get("#v");
+        if (!Arrays.equals(version, arguments.get(0))) {
+            return 0;
+        }
+        Map<String, byte[]> fields = new LinkedHashMap<>(current);
+        int removed = (int) parseLong(arguments.get(1));
+        for (int i = 0; i < removed; i++) {
+            fields.remove(new String(arguments.get(2 + i), StandardCharsets.UTF_8));
+        }
+        store(key, Entry.hash(pairs(arguments, 2 + removed, fields), data.get(key).expiresAt));
+        return 1;
+    }
+
+    private static Map<String, byte[]> pairs(List<byte[]> arguments, int from, Map<String, byte[]> fields) {
+        for (int i = from; i + 1 < arguments.size(); i += 2) {
+            fields.put(new String(arguments.get(i), StandardCharsets.UTF_8), arguments.get(i + 1));
+        }
+        return fields;
+    }
+
+    private static long expiresIn(byte[] seconds) {
+        return System.currentTimeMillis() + parseLong(seconds) * 1_000;
+    }
+
+    private static String sha1(byte[] source) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(source));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void store(String key, Entry entry) {
+        writes.incrementAndGet();
+        data.put(key, entry);
+    }
+
+    private byte[] read(String key) {
+        Entry entry = live(key);
+        return entry == null ? null : entry.value;
+    }
+
+    private Map<String, byte[]> readHash(String key) {
+        Entry entry = live(key);
+        return entry == null ? null : entry.fields;
+    }
+
+    private Entry live(String key) {
+        Entry entry = data.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt > 0 && entry.expiresAt <= System.currentTimeMillis()) {
+            data.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    // SET chave valor [EX segundos | PX milissegundos]
+    private static long expiry(List<byte[]> command) {
+        for (int i = 3; i + 1 < command.size(); i++) {
+            String option = new String(command.get(i), StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+            if (option.equals("EX")) {
+                return System.currentTimeMillis() + parseLong(command.get(i + 1)) * 1_000;
+            }
+            if (option.equals("PX")) {
+                return System.currentTimeMillis() + parseLong(command.get(i + 1));
+            }
+        }
+        return 0;
+    }
+
+    private static boolean hasOption(List<byte[]> command, String name) {
+        for (int i = 3; i < command.size(); i++) {
+            if (new String(command.get(i), StandardCharsets.US_ASCII).equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long parseLong(byte[] value) {
+        return Long.parseLong(new String(value, StandardCharsets.US_ASCII));
+    }
+
+    private static String key(List<byte[]> command, int index) {
+        return new String(command.get(index), StandardCharsets.UTF_8);
+    }
+
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        String header = readLine(in);
+        if (header.isEmpty() || header.charAt(0) != '*') {
+            throw new IOException("Comando RESP inválido: " + header);
+        }
+        int count = Integer.parseInt(header.substring(1));
+        List<byte[]> arguments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String length = readLine(in);
+            byte[] argument = in.readNBytes(Integer.parseInt(length.substring(1)));
+            readLine(in);
+            arguments.add(argument);
+        }
+        return arguments;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int current;
+        while ((current = in.read()) != '\n') {
+            if (current == -1) {
+                throw new EOFException();
+            }
+            if (current != '\r') {
+                line.append((char) current);
+            }
+        }
+        return line.toString();
+    }
+
+    private static void simple(OutputStream out, String value) throws IOException {
+        out.write(('+' + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void error(OutputStream out, String message) throws IOException {
+        out.write(('-' + message + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void integer(OutputStream out, long value) throws IOException {
+        out.write((":" + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void array(OutputStream out, int size) throws IOException {
+        out.write(("*" + size + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void bulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(value);
+        out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // Texto (value) ou hash (fields)
+    private record Entry(byte[] value, Map<String, byte[]> fields, long expiresAt) {
+
+        Entry(byte[] value, long expiresAt) {
+            this(value, null, expiresAt);
+        }
+
+        static Entry hash(Map<String, byte[]> fields, long expiresAt) {
+            return new Entry(null, fields, expiresAt);
+        }
+
+        Entry expiringAt(long expiresAt) {
+            return new Entry(value, fields, expiresAt);
+        }
+    }
+
+    private record Arrival(List<byte[]> command, long receivedAt) {
+        static final Arrival CLOSED = new Arrival(List.of(), 0);
+    }
+
+    // Uso: RedisStandIn [porta] [latência em µs]
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 6380;
+        long latencyMicros = args.length > 1 ? Long.parseLong(args[1]) : 250;
+        RedisStandIn standIn = start(port).withLatency(Duration.ofNanos(latencyMicros * 1_000));
+        Runtime.getRuntime().addShutdownHook(new Thread(standIn::close));
+        System.out.printf("Redis stand-in na porta %d (latência %d µs)%n", standIn.port(), latencyMicros);
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,301 @@
+package com.jacto.scheduler.service;
+
+import com.jacto.scheduler.cache.BinarySchedulingCodec;
+import com.jacto.scheduler.cache.SchedulingCacheFormat;
+import com.jacto.scheduler.config.RedisConfig;
+import com.jacto.scheduler.exception.ResourceNotFoundException;
+import com.jacto.scheduler.model.Scheduling;
+import com.jacto.scheduler.model.User;
+import com.jacto.scheduler.payload.response.EquipmentResponse;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import com.jacto.scheduler.payload.response.SchedulingResponse;
+import com.jacto.scheduler.repository.SchedulingRepository;
+import com.jacto.scheduler.repository.UserRepository;
+import com.jacto.scheduler.resilience.CircuitBreaker;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RedisStandInTest {
+
+    private RedisStandIn standIn;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisSchedulingService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        standIn = RedisStandIn.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", standIn.port()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        // Mesmo template e formato da aplicação
+        SchedulingCacheFormat format = new SchedulingCacheFormat(List.of(new BinarySchedulingCodec()), "binary", 1024);
+        service = new RedisSchedulingService(new RedisConfig().schedulingRedisTemplate(connectionFactory), format,
+                mock(SchedulingLocalCache.class), redisGuard(connectionFactory),
+                Duration.ofHours(24), Duration.ofHours(2), Duration.ofMinutes(10),
+                Duration.ofMillis(100), 1.0, Duration.ofSeconds(5), Duration.ofSeconds(60));
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+        standIn.close();
+    }
+
+    @Test
+    void saveAndGet_ShouldRoundTripThroughStandIn() {
+        // Arrange
+        SchedulingResponse scheduling = scheduling(1L);
+
+        // Act
+        service.saveScheduling(scheduling);
+        SchedulingResponse result = service.getScheduling(1L);
+
+        // Assert
+        assertEquals("Fazenda 1", result.getFarmName());
+        assertEquals(scheduling.getScheduledAt(), result.getScheduledAt());
+        assertNull(service.getScheduling(2L));
+    }
+
+    @Test
+    void bulkOperations_ShouldNotPayLatencyPerItem() {
+        // Arrange
+        List<SchedulingResponse> schedulings = LongStream.rangeClosed(1, 20).mapToObj(RedisStandInTest::scheduling).toList();
+        List<Long> ids = LongStream.rangeClosed(1, 21).boxed().toList();
+        // Aquecimento: a primeira conversão do Jackson e o primeiro pipeline custam mais que a latência simulada
+        service.cacheSchedulings(List.of(scheduling(100L)));
+        service.getSchedulings(List.of(100L));
+        standIn.withLatency(Duration.ofMillis(50));
+        long start = System.nanoTime();
+
+        // Act
+        service.cacheSchedulings(schedulings);
+        Map<Long, SchedulingResponse> result = service.getSchedulings(ids);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertEquals(20, result.size());
+        assertEquals("Fazenda 2", result.get(2L).getFarmName());
+        assertEquals(21, standIn.getCommands("EVAL"));
+        assertEquals(22, standIn.getCommands("HGETALL"));
+        // Item a item seriam 21 esperas; o pipeline abre uma conexão dedicada (HELLO e PING) e espera uma vez,
+        // o pipeline de HGETALL mais uma
+        assertTrue(elapsedMillis < 8 * 50, "lote em " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void cacheScheduling_ShouldNeverReplaceSameOrNewerVersion() {
+        // Arrange
+        service.cacheScheduling(scheduling(1L, 2L, "Atual"));
+
+        // Act
+        boolean stale = service.cacheScheduling(scheduling(1L, 1L, "Leitura antiga"));
+        boolean same = service.cacheScheduling(scheduling(1L, 2L, "Atual"));
+        boolean cachedBeforeNewer = "Atual".equals(service.getScheduling(1L).getFarmName());
+        boolean newer = service.cacheScheduling(scheduling(1L, 3L, "Nova"));
+
+        // Assert
+        assertFalse(stale);
+        assertFalse(same);
+        assertTrue(cachedBeforeNewer);
+        assertTrue(newer);
+        assertEquals("Nova", service.getScheduling(1L).getFarmName());
+        assertEquals(3L, service.getScheduling(1L).getVersion());
+        // O script foi carregado na primeira chamada e reaproveitado nas seguintes
+        assertEquals(1, standIn.getCommands("EVAL"));
+        assertEquals(4, standIn.getCommands("EVALSHA"));
+    }
+
+    @Test
+    void cacheSchedulings_ShouldSkipStaleEntriesInPipeline() {
+        // Arrange
+        service.cacheScheduling(scheduling(1L, 5L, "Atual"));
+
+        // Act
+        int written = service.cacheSchedulings(List.of(scheduling(1L, 4L, "Leitura antiga"), scheduling(2L, 1L, "Nova")));
+
+        // Assert
+        assertEquals(1, written);
+        assertEquals("Atual", service.getScheduling(1L).getFarmName());
+        assertEquals("Nova", service.getScheduling(2L).getFarmName());
+    }
+
+    @Test
+    void expiredEntry_ShouldBeRecomputedByOneNodeWhileOthersServeStale() {
+        // Arrange: expiração lógica imediata, com uma hora de carência no Redis
+        SchedulingCacheFormat format = new SchedulingCacheFormat(List.of(new BinarySchedulingCodec()), "binary", 1024);
+        RedisSchedulingService first = node(format);
+        RedisSchedulingService second = node(format);
+        first.saveScheduling(scheduling(1L, 2L, "Atual"));
+
+        // Act
+        SchedulingResponse firstRead = first.getScheduling(1L);
+        SchedulingResponse secondRead = second.getScheduling(1L);
+        boolean othersRefresh = second.cacheScheduling(scheduling(1L, 2L, "Atual"));
+        boolean refreshed = first.cacheScheduling(scheduling(1L, 2L, "Recalculado"));
+
+        // Assert
+        assertNull(firstRead);
+        assertEquals("Atual", secondRead.getFarmName());
+        assertFalse(othersRefresh);
+        assertTrue(refreshed);
+        // A gravação liberou a trava: o valor regravado também já venceu e pode ser recalculado de novo
+        assertNull(second.getScheduling(1L));
+    }
+
+    @Test
+    void saveChanges_ShouldPatchOnlyChangedFieldsOverPreviousVersion() {
+        // Arrange
+        SchedulingResponse before = scheduling(1L, 2L, "Fazenda 1");
+        EquipmentResponse equipment = new EquipmentResponse();
+        equipment.setId(10L);
+        equipment.setSerialNumber("PJ-3000");
+        before.setEquipments(List.of(equipment));
+        service.saveScheduling(before);
+        SchedulingResponse after = scheduling(1L, 3L, "Fazenda 1");
+        after.setEquipments(before.getEquipments());
+        after.setStatus("COMPLETED");
+        SchedulingResponse outdated = scheduling(1L, 2L, "Fazenda 1");
+        outdated.setEquipments(before.getEquipments());
+        SchedulingResponse rewritten = scheduling(1L, 4L, "Fazenda Renomeada");
+        rewritten.setEquipments(before.getEquipments());
+
+        // Act
+        service.saveChanges(before, after);
+        SchedulingResponse patched = service.getScheduling(1L);
+        // Parte da versão 2, mas o Redis já guarda a 3: o hash inteiro é regravado
+        service.saveChanges(outdated, rewritten);
+        SchedulingResponse result = service.getScheduling(1L);
+
+        // Assert
+        assertEquals("COMPLETED", patched.getStatus());
+        assertEquals(3L, patched.getVersion());
+        assertEquals("PJ-3000", patched.getEquipments().get(0).getSerialNumber());
+        assertEquals("Fazenda Renomeada", result.getFarmName());
+        assertEquals(4L, result.getVersion());
+        assertNull(result.getStatus());
+    }
+
+    @Test
+    void delete_ShouldReplaceValueWithMissingMarker() {
+        // Arrange
+        service.saveScheduling(scheduling(1L));
+
+        // Act
+        service.deleteScheduling(1L);
+
+        // Assert
+        assertThrows(ResourceNotFoundException.class, () -> service.getScheduling(1L));
+        assertTrue(service.getSchedulings(List.of(1L)).isEmpty());
+        assertEquals(1, standIn.size());
+    }
+
+    @Test
+    void getById_RightAfterGeocoding_ShouldReturnTheSchedulingWithItsLocation() {
+        // Arrange: agendamento em cache desde a criação, localização gravada pela geocodificação
+        Scheduling stored = storedScheduling(1L);
+        SchedulingRepository repository = mock(SchedulingRepository.class);
+        when(repository.findById(1L)).thenReturn(Optional.of(stored));
+        when(repository.updateLocation(eq(1L), eq(-22.2139), eq(-50.1742), any())).thenAnswer(invocation -> {
+            stored.setLocation(invocation.getArgument(3));
+            return 1;
+        });
+        GeoLocationDetails details = new GeoLocationDetails();
+        details.setCity("Pompéia");
+        GeocodingService geocodingService = mock(GeocodingService.class);
+        when(geocodingService.getLocationDetails(-22.2139, -50.1742)).thenReturn(details);
+        SchedulingIdFilter idFilter = mock(SchedulingIdFilter.class);
+        when(idFilter.mightExist(1L)).thenReturn(true);
+        SchedulingService schedulingService = new SchedulingService(repository, mock(UserRepository.class),
+                mock(NotificationService.class), mock(ApplicationEventPublisher.class),
+                mock(GeocodingBatchEnricher.class), service, mock(RedisSchedulingIndex.class), idFilter,
+                mock(EntityManager.class));
+        service.saveScheduling(scheduling(1L));
+
+        // Act
+        boolean geocoded = new SchedulingLocationService(repository, geocodingService, service)
+                .geocode(1L, -22.2139, -50.1742);
+        SchedulingResponse result = schedulingService.getSchedulingByIdForKafka(1L);
+
+        // Assert: a cópia sem localização saiu do cache e a leitura foi ao banco, sem marca de inexistente
+        assertTrue(geocoded);
+        assertEquals("Pompéia", result.getLocationDetails().getCity());
+        assertEquals("Pompéia", service.getScheduling(1L).getLocationDetails().getCity());
+    }
+
+    @Test
+    void cacheMissing_ShouldNotHideSchedulingCachedMeanwhile() {
+        // Arrange
+        service.cacheScheduling(scheduling(1L));
+
+        // Act
+        service.cacheMissing(1L);
+        service.cacheMissing(2L);
+
+        // Assert
+        assertEquals("Fazenda 1", service.getScheduling(1L).getFarmName());
+        assertThrows(ResourceNotFoundException.class, () -> service.getScheduling(2L));
+        // Um agendamento criado depois substitui a marca
+        service.saveScheduling(scheduling(2L));
+        assertEquals("Fazenda 2", service.getScheduling(2L).getFarmName());
+    }
+
+    private RedisSchedulingService node(SchedulingCacheFormat format) {
+        return new RedisSchedulingService(new RedisConfig().schedulingRedisTemplate(connectionFactory), format,
+                mock(SchedulingLocalCache.class), redisGuard(connectionFactory),
+                Duration.ZERO, Duration.ZERO, Duration.ofHours(1),
+                Duration.ofMillis(100), 1.0, Duration.ofSeconds(5), Duration.ofSeconds(60));
+    }
+
+    private static SchedulingResponse scheduling(Long id) {
+        return scheduling(id, 1L, "Fazenda " + id);
+    }
+
+    private static SchedulingResponse scheduling(Long id, Long version, String farmName) {
+        SchedulingResponse scheduling = new SchedulingResponse();
+        scheduling.setId(id);
+        scheduling.setVersion(version);
+        scheduling.setFarmName(farmName);
+        scheduling.setScheduledAt(LocalDateTime.of(2024, 5, 10, 8, 30));
+        return scheduling;
+    }
+
+    private static Scheduling storedScheduling(Long id) {
+        User technician = new User();
+        technician.setId(1L);
+        Scheduling scheduling = new Scheduling();
+        scheduling.setId(id);
+        scheduling.setVersion(1L);
+        scheduling.setTechnician(technician);
+        scheduling.setFarmName("Fazenda " + id);
+        scheduling.setLatitude(-22.2139);
+        scheduling.setLongitude(-50.1742);
+        scheduling.setScheduledAt(LocalDateTime.of(2024, 5, 10, 8, 30));
+        return scheduling;
+    }
+
+    private static RedisGuard redisGuard(LettuceConnectionFactory connectionFactory) {
+        return new RedisGuard(new CircuitBreaker("redis", 20, 10, 0.5, Duration.ofSeconds(10)),
+                new StringRedisTemplate(connectionFactory), 1000);
+    }
+}
@@ -0,0 +1,36 @@
+package com.jacto.scheduler.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchedulingCursorTest {
+
+    @Test
+    void encode_ShouldRoundTripWithFullPrecision() {
+        // Arrange
+        SchedulingCursor cursor = new SchedulingCursor(LocalDateTime.of(2024, 5, 10, 8, 30, 15, 123_456_000), 42L);
+
+        // Act
+        String token = cursor.encode();
+
+        // Assert
+        assertEquals(cursor, SchedulingCursor.decode(token));
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void decode_WithoutToken_ShouldBeFirstPage() {
+        assertNull(SchedulingCursor.decode(null));
+        assertNull(SchedulingCursor.decode(""));
+    }
+
+    @Test
+    void decode_WithInvalidToken_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> SchedulingCursor.decode("não é base64"));
+        assertThrows(IllegalArgumentException.class, () -> SchedulingCursor.decode("YWJj"));
+        assertThrows(IllegalArgumentException.class, () -> SchedulingCursor.decode("MjAyNC0wNS0xMCxhYmM"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.jacto.scheduler.service;
+
+import com.jacto.scheduler.repository.SchedulingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SchedulingIdFilterTest {
+
+    @Mock
+    private SchedulingRepository schedulingRepository;
+
+    private SchedulingIdFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SchedulingIdFilter(schedulingRepository, 0.001, DataSize.ofMegabytes(1), 2);
+        when(schedulingRepository.count()).thenReturn(3L);
+        when(schedulingRepository.findIdsAfter(0L, PageRequest.of(0, 2))).thenReturn(List.of(1L, 4L));
+        when(schedulingRepository.findIdsAfter(4L, PageRequest.of(0, 2))).thenReturn(List.of(9L));
+    }
+
+    @Test
+    void mightExist_BeforeAnyRebuild_ShouldLetEverythingThrough() {
+        // Act & Assert
+        assertTrue(filter.mightExist(2L));
+        assertFalse(filter.mightExist(0L));
+    }
+
+    @Test
+    void mightExist_AfterFirstRebuild_ShouldNotCoverIdsYet() {
+        // Act
+        filter.rebuild();
+
+        // Assert: ids da varredura em andamento podem ter commitado depois dela
+        assertTrue(filter.mightExist(2L));
+    }
+
+    @Test
+    void mightExist_ShouldRejectMissingIdsUpToPreviousScan() {
+        // Arrange
+        filter.rebuild();
+
+        // Act
+        filter.rebuild();
+
+        // Assert
+        assertTrue(filter.mightExist(1L));
+        assertTrue(filter.mightExist(4L));
+        assertTrue(filter.mightExist(9L));
+        assertFalse(filter.mightExist(2L));
+        assertFalse(filter.mightExist(7L));
+        // Acima do maior id coberto: pode ter sido criado depois
+        assertTrue(filter.mightExist(10L));
+        assertTrue(filter.memoryBytes() > 0);
+    }
+
+    @Test
+    void rebuild_WhenDatabaseFails_ShouldKeepPreviousFilter() {
+        // Arrange
+        filter.rebuild();
+        filter.rebuild();
+        when(schedulingRepository.count()).thenThrow(new DataAccessResourceFailureException("indisponível"));
+
+        // Act
+        filter.rebuild();
+
+        // Assert
+        assertFalse(filter.mightExist(2L));
+    }
+}
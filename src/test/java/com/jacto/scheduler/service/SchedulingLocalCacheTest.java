@@ -0,0 +1,209 @@
+package com.jacto.scheduler.service;
+
+import com.jacto.scheduler.cache.SchedulingJsonWriter;
+import com.jacto.scheduler.config.RedisConfig;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import com.jacto.scheduler.payload.response.SchedulingResponse;
+import com.jacto.scheduler.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.adapter.RedisListenerExecutionFailedException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulingLocalCacheTest {
+
+    private static final String CHANNEL = "scheduling:invalidation";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private RedisGuard redisGuard;
+    private SchedulingJsonWriter jsonWriter;
+    private SchedulingLocalCache localCache;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        jsonWriter = spy(new SchedulingJsonWriter(new RedisConfig().redisObjectMapper()));
+        redisGuard = new RedisGuard(new CircuitBreaker("redis", 4, 4, 0.5, Duration.ofMinutes(1)), redisTemplate, 100);
+        localCache = new SchedulingLocalCache(redisTemplate, redisGuard, jsonWriter, 100, Duration.ofMinutes(1),
+                CHANNEL);
+        registry = new SimpleMeterRegistry();
+        localCache.bindTo(registry);
+    }
+
+    @Test
+    void update_ShouldKeepLocalCopyAndPublishInvalidation() {
+        // Arrange
+        SchedulingResponse scheduling = scheduling(7L);
+
+        // Act
+        localCache.update(scheduling);
+
+        // Assert
+        assertSame(scheduling, localCache.get(7L));
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), message.capture());
+        assertTrue(message.getValue().startsWith("7:"));
+    }
+
+    @Test
+    void invalidate_WhenRedisCircuitOpen_ShouldNotPublish() {
+        // Arrange: falhas suficientes para abrir o circuito
+        doThrow(new RedisConnectionFailureException("indisponível"))
+                .when(redisTemplate).convertAndSend(eq(CHANNEL), anyString());
+        for (long id = 1; id <= 4; id++) {
+            localCache.invalidate(id);
+        }
+        localCache.put(scheduling(7L));
+
+        // Act
+        localCache.invalidate(7L);
+
+        // Assert: a cópia local sai mesmo sem a publicação
+        assertNull(localCache.get(7L));
+        assertFalse(redisGuard.isAvailable());
+        verify(redisTemplate, times(4)).convertAndSend(eq(CHANNEL), anyString());
+    }
+
+    @Test
+    void onMessage_FromOtherNode_ShouldEvictAndRecordLag() {
+        // Arrange
+        localCache.put(scheduling(7L));
+        String body = "7:" + (System.currentTimeMillis() - 5) + ":outro-no";
+
+        // Act
+        localCache.onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8)), null);
+
+        // Assert
+        assertNull(localCache.get(7L));
+        assertEquals(1, registry.get("scheduling.cache.invalidation.lag").timer().count());
+    }
+
+    @Test
+    void onMessage_FromSameNode_ShouldKeepFreshCopy() {
+        // Arrange
+        localCache.update(scheduling(7L));
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), message.capture());
+
+        // Act
+        localCache.onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+                message.getValue().getBytes(StandardCharsets.UTF_8)), null);
+
+        // Assert
+        assertNotNull(localCache.get(7L));
+    }
+
+    @Test
+    void bindTo_ShouldExposeHitRatio() {
+        // Arrange
+        localCache.put(scheduling(7L));
+
+        // Act
+        localCache.get(7L);
+        localCache.get(8L);
+
+        // Assert
+        assertEquals(0.5, registry.get("scheduling.cache.l1.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void subscribe_WhenRedisIsDown_ShouldBypassLocalCopies() {
+        // Arrange
+        RedisMessageListenerContainer container = mock(RedisMessageListenerContainer.class);
+        doThrow(new RedisListenerExecutionFailedException("Unable to connect to Redis")).when(container).start();
+        SchedulingLocalCache unsubscribed = new SchedulingLocalCache(redisTemplate, redisGuard, container,
+                jsonWriter, 100, Duration.ofMinutes(1), CHANNEL);
+
+        // Act
+        unsubscribed.subscribe();
+        unsubscribed.put(scheduling(7L));
+
+        // Assert
+        assertFalse(unsubscribed.isSubscribed());
+        assertNull(unsubscribed.get(7L));
+        verify(container).stop();
+    }
+
+    @Test
+    void json_ForLocalCopy_ShouldSerializeOnce() {
+        // Arrange
+        SchedulingResponse scheduling = scheduling(7L);
+        scheduling.setFarmName("Fazenda Teste");
+        scheduling.setVersion(3L);
+        localCache.put(scheduling);
+
+        // Act
+        byte[] first = localCache.json(scheduling);
+        byte[] second = localCache.json(scheduling);
+
+        // Assert
+        assertSame(first, second);
+        assertTrue(new String(first, StandardCharsets.UTF_8).contains("\"farmName\":\"Fazenda Teste\""));
+        // A versão é só do cache: não sai no corpo HTTP
+        assertFalse(new String(first, StandardCharsets.UTF_8).contains("version"));
+        verify(jsonWriter, times(1)).write(scheduling);
+        assertEquals(0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void json_ForEnrichedCopy_ShouldNotReuseNorChangeLocalBody() {
+        // Arrange
+        SchedulingResponse scheduling = scheduling(7L);
+        localCache.put(scheduling);
+        byte[] withoutLocation = localCache.json(scheduling);
+        GeoLocationDetails location = new GeoLocationDetails();
+        location.setCity("Pompéia");
+
+        // Act
+        byte[] withLocation = localCache.json(scheduling.withLocationDetails(location));
+
+        // Assert
+        assertTrue(new String(withLocation, StandardCharsets.UTF_8).contains("Pompéia"));
+        assertSame(withoutLocation, localCache.json(scheduling));
+        assertFalse(new String(withoutLocation, StandardCharsets.UTF_8).contains("Pompéia"));
+    }
+
+    @Test
+    void json_ForOtherInstance_ShouldNotReuseLocalBody() {
+        // Arrange
+        localCache.put(scheduling(7L));
+        SchedulingResponse fromDatabase = scheduling(7L);
+
+        // Act
+        localCache.json(fromDatabase);
+        localCache.json(fromDatabase);
+
+        // Assert
+        verify(jsonWriter, times(2)).write(fromDatabase);
+    }
+
+    private static SchedulingResponse scheduling(Long id) {
+        SchedulingResponse scheduling = new SchedulingResponse();
+        scheduling.setId(id);
+        return scheduling;
+    }
+}
@@ -0,0 +1,84 @@
+package com.jacto.scheduler.service;
+
+import com.jacto.scheduler.model.SchedulingLocation;
+import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import com.jacto.scheduler.repository.SchedulingRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulingLocationServiceTest {
+
+    @Mock
+    private SchedulingRepository schedulingRepository;
+
+    @Mock
+    private GeocodingService geocodingService;
+
+    @Mock
+    private RedisSchedulingService redisSchedulingService;
+
+    @InjectMocks
+    private SchedulingLocationService schedulingLocationService;
+
+    @Test
+    void geocode_ShouldPersistLocationAndEvictCache() {
+        // Arrange
+        GeoLocationDetails details = new GeoLocationDetails();
+        details.setCity("Pompéia");
+        details.setState("São Paulo");
+        details.setCountry("Brasil");
+        when(geocodingService.getLocationDetails(-22.1, -50.1)).thenReturn(details);
+        when(schedulingRepository.updateLocation(eq(1L), eq(-22.1), eq(-50.1), any())).thenReturn(1);
+
+        // Act
+        boolean result = schedulingLocationService.geocode(1L, -22.1, -50.1);
+
+        // Assert
+        assertTrue(result);
+        ArgumentCaptor<SchedulingLocation> captor = ArgumentCaptor.forClass(SchedulingLocation.class);
+        verify(schedulingRepository).updateLocation(eq(1L), eq(-22.1), eq(-50.1), captor.capture());
+        assertEquals("Pompéia", captor.getValue().getCity());
+        assertNotNull(captor.getValue().getGeocodedAt());
+        verify(redisSchedulingService).evictScheduling(1L);
+        verify(redisSchedulingService, never()).deleteScheduling(anyLong());
+    }
+
+    @Test
+    void geocode_WhenCoordinatesChangedMeanwhile_ShouldKeepCache() {
+        // Arrange
+        when(geocodingService.getLocationDetails(-22.1, -50.1)).thenReturn(new GeoLocationDetails());
+        when(schedulingRepository.updateLocation(eq(1L), eq(-22.1), eq(-50.1), any())).thenReturn(0);
+
+        // Act
+        boolean result = schedulingLocationService.geocode(1L, -22.1, -50.1);
+
+        // Assert
+        assertFalse(result);
+        verify(redisSchedulingService, never()).evictScheduling(anyLong());
+    }
+
+    @Test
+    void geocode_WhenProviderFails_ShouldNotUpdate() {
+        // Arrange
+        when(geocodingService.getLocationDetails(-22.1, -50.1))
+                .thenThrow(new RuntimeException("Resposta vazia do serviço de geocodificação"));
+
+        // Act
+        boolean result = schedulingLocationService.geocode(1L, -22.1, -50.1);
+
+        // Assert
+        assertFalse(result);
+        verify(schedulingRepository, never()).updateLocation(anyLong(), any(), any(), any());
+    }
+}
@@ -1,25 +1,38 @@
 package com.jacto.scheduler.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -27,18 +40,24 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import com.jacto.scheduler.enumerations.SchedulingStatus;
 import com.jacto.scheduler.enumerations.ServicePriority;
 import com.jacto.scheduler.exception.ResourceNotFoundException;
+import com.jacto.scheduler.model.Equipment;
 import com.jacto.scheduler.model.Scheduling;
+import com.jacto.scheduler.model.SchedulingLocation;
+import com.jacto.scheduler.model.SparePart;
 import com.jacto.scheduler.model.User;
 import com.jacto.scheduler.payload.request.ClientFeedbackRequest;
+import com.jacto.scheduler.payload.request.EquipmentRequest;
 import com.jacto.scheduler.payload.request.SchedulingRequest;
 import com.jacto.scheduler.payload.request.SchedulingUpdateRequest;
-import com.jacto.scheduler.payload.response.GeoLocationDetails;
+import com.jacto.scheduler.payload.request.SparePartRequest;
 import com.jacto.scheduler.payload.response.SchedulingResponse;
-import com.jacto.scheduler.repository.EquipmentRepository;
+import com.jacto.scheduler.repository.SchedulingIndexEntry;
 import com.jacto.scheduler.repository.SchedulingRepository;
-import com.jacto.scheduler.repository.SparePartRepository;
 import com.jacto.scheduler.repository.UserRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
 class SchedulingServiceTest {
@@ -47,22 +66,28 @@ class SchedulingServiceTest {
     private SchedulingRepository schedulingRepository;
 
     @Mock
-    private EquipmentRepository equipmentRepository;
+    private UserRepository userRepository;
 
     @Mock
-    private SparePartRepository sparePartRepository;
+    private NotificationService notificationService;
 
     @Mock
-    private UserRepository userRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     @Mock
-    private NotificationService notificationService;
+    private GeocodingBatchEnricher geocodingBatchEnricher;
+
+    @Mock
+    private RedisSchedulingService redisSchedulingService;
 
     @Mock
-    private GeocodingService geocodingService;
+    private RedisSchedulingIndex schedulingIndex;
 
     @Mock
-    private RedisSchedulingService redisSchedulingService;
+    private SchedulingIdFilter schedulingIdFilter;
+
+    @Mock
+    private EntityManager entityManager;
 
     @Mock
     private SecurityContext securityContext;
@@ -79,6 +104,9 @@ class SchedulingServiceTest {
 
     @BeforeEach
     void setUp() {
+        // O enriquecimento devolve a lista recebida quando não há o que geocodificar
+        when(geocodingBatchEnricher.enrich(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
         // Configurar usuário de teste
         testUser = new User();
         testUser.setId(1L);
@@ -116,6 +144,7 @@ class SchedulingServiceTest {
         SecurityContextHolder.setContext(securityContext);
         when(authentication.getName()).thenReturn("testuser");
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(schedulingIdFilter.mightExist(anyLong())).thenReturn(true);
     }
 
     @Test
@@ -123,8 +152,6 @@ class SchedulingServiceTest {
         // Arrange
         when(schedulingRepository.save(any(Scheduling.class))).thenReturn(testScheduling);
         when(schedulingRepository.findById(anyLong())).thenReturn(Optional.of(testScheduling));
-        when(geocodingService.getLocationDetails(anyDouble(), anyDouble()))
-                .thenReturn(new GeoLocationDetails());
 
         // Act
         SchedulingResponse response = schedulingService.createScheduling(testSchedulingRequest);
@@ -135,6 +162,39 @@ class SchedulingServiceTest {
         assertEquals(testSchedulingRequest.getClientName(), response.getClientName());
         verify(schedulingRepository).save(any(Scheduling.class));
         verify(notificationService).sendSchedulingCreatedNotification(anyLong());
+        verify(eventPublisher).publishEvent(new SchedulingLocationChangedEvent(1L, -23.5505, -46.6333));
+        verify(schedulingIndex).add(1L, 1L, testScheduling.getScheduledAt());
+    }
+
+    @Test
+    void createScheduling_WithItems_ShouldPersistThemThroughCascade() {
+        // Arrange
+        EquipmentRequest equipment = new EquipmentRequest();
+        equipment.setName("Pulverizador");
+        SparePartRequest sparePart = new SparePartRequest();
+        sparePart.setName("Bico");
+        sparePart.setQuantity(4);
+        testSchedulingRequest.setEquipments(List.of(equipment));
+        testSchedulingRequest.setSpareParts(List.of(sparePart));
+        when(schedulingRepository.save(any(Scheduling.class))).thenAnswer(invocation -> {
+            Scheduling saved = invocation.getArgument(0);
+            saved.setId(2L);
+            return saved;
+        });
+
+        // Act
+        SchedulingResponse response = schedulingService.createScheduling(testSchedulingRequest);
+
+        // Assert
+        ArgumentCaptor<Scheduling> saved = ArgumentCaptor.forClass(Scheduling.class);
+        verify(schedulingRepository).save(saved.capture());
+        Equipment savedEquipment = saved.getValue().getEquipments().iterator().next();
+        assertSame(saved.getValue(), savedEquipment.getScheduling());
+        assertEquals("Pulverizador", savedEquipment.getName());
+        assertEquals(4, saved.getValue().getSpareParts().iterator().next().getQuantity());
+        assertEquals(1, response.getEquipments().size());
+        assertEquals(1, response.getSpareParts().size());
+        verify(schedulingRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -152,8 +212,6 @@ class SchedulingServiceTest {
     void getSchedulingById_ShouldReturnScheduling() {
         // Arrange
         when(schedulingRepository.findById(1L)).thenReturn(Optional.of(testScheduling));
-        when(geocodingService.getLocationDetails(anyDouble(), anyDouble()))
-                .thenReturn(new GeoLocationDetails());
 
         // Act
         SchedulingResponse response = schedulingService.getSchedulingById(1L);
@@ -164,6 +222,196 @@ class SchedulingServiceTest {
         assertEquals(testScheduling.getFarmName(), response.getFarmName());
     }
 
+    @Test
+    void getAllSchedulingsForCurrentUser_ShouldEnrichPendingAndCache() {
+        // Arrange
+        when(schedulingRepository.findIndexEntriesByTechnician(testUser, PageRequest.of(0, 51)))
+                .thenReturn(List.of(entry(1L)));
+        when(redisSchedulingService.getSchedulings(List.of(1L))).thenReturn(Map.of());
+        when(schedulingRepository.findAllById(List.of(1L))).thenReturn(List.of(testScheduling));
+
+        // Act
+        List<SchedulingResponse> responses = schedulingService.getAllSchedulingsForCurrentUser(null, 50).content();
+
+        // Assert
+        assertEquals(1, responses.size());
+        verify(schedulingIndex).rebuild(1L);
+        verify(geocodingBatchEnricher).enrich(responses);
+        ArgumentCaptor<Collection<SchedulingResponse>> cached = ArgumentCaptor.captor();
+        verify(redisSchedulingService).cacheSchedulings(cached.capture());
+        assertEquals(List.of(responses.get(0)), List.copyOf(cached.getValue()));
+    }
+
+    @Test
+    void getAllSchedulingsJsonForCurrentUser_ShouldSerializeThroughCache() {
+        // Arrange
+        SchedulingResponse cachedResponse = new SchedulingResponse();
+        cachedResponse.setId(1L);
+        byte[] body = "[{\"id\":1}]".getBytes(StandardCharsets.UTF_8);
+        when(schedulingIndex.findAll(1L, null, 51)).thenReturn(Optional.of(List.of(position(1L))));
+        when(redisSchedulingService.getSchedulings(List.of(1L))).thenReturn(Map.of(1L, cachedResponse));
+        when(redisSchedulingService.toJsonArray(List.of(cachedResponse))).thenReturn(body);
+
+        // Act
+        byte[] result = schedulingService.getAllSchedulingsJsonForCurrentUser(null, 50).content();
+
+        // Assert
+        assertSame(body, result);
+        verify(schedulingRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void getAllSchedulingsForCurrentUser_ShouldLoadOnlyCacheMisses() {
+        // Arrange
+        SchedulingResponse cachedResponse = new SchedulingResponse();
+        cachedResponse.setId(2L);
+        when(schedulingRepository.findIndexEntriesByTechnician(testUser, PageRequest.of(0, 51)))
+                .thenReturn(List.of(entry(2L), entry(1L)));
+        when(redisSchedulingService.getSchedulings(List.of(2L, 1L))).thenReturn(Map.of(2L, cachedResponse));
+        when(schedulingRepository.findAllById(List.of(1L))).thenReturn(List.of(testScheduling));
+
+        // Act
+        List<SchedulingResponse> responses = schedulingService.getAllSchedulingsForCurrentUser(null, 50).content();
+
+        // Assert
+        assertEquals(2, responses.size());
+        assertEquals(cachedResponse, responses.get(0));
+        assertEquals(1L, responses.get(1).getId());
+        verify(schedulingRepository).findAllById(List.of(1L));
+    }
+
+    @Test
+    void getAllSchedulingsForCurrentUser_WithReadyIndex_ShouldNotQueryIds() {
+        // Arrange
+        SchedulingResponse cachedResponse = new SchedulingResponse();
+        cachedResponse.setId(1L);
+        when(schedulingIndex.findAll(1L, null, 51)).thenReturn(Optional.of(List.of(position(1L))));
+        when(redisSchedulingService.getSchedulings(List.of(1L))).thenReturn(Map.of(1L, cachedResponse));
+
+        // Act
+        List<SchedulingResponse> responses = schedulingService.getAllSchedulingsForCurrentUser(null, 50).content();
+
+        // Assert
+        assertEquals(List.of(cachedResponse), responses);
+        verify(schedulingRepository, never())
+                .findIndexEntriesByTechnician(any(User.class), any(Pageable.class));
+        verify(schedulingRepository, never()).findAllById(any());
+        verify(schedulingIndex, never()).rebuild(anyLong());
+    }
+
+    @Test
+    void getAllSchedulingsForCurrentUser_WithStaleIndexEntry_ShouldRemoveIt() {
+        // Arrange
+        when(schedulingIndex.findAll(1L, null, 51)).thenReturn(Optional.of(List.of(position(1L), position(7L))));
+        when(redisSchedulingService.getSchedulings(List.of(1L, 7L))).thenReturn(Map.of());
+        when(schedulingRepository.findAllById(List.of(1L, 7L))).thenReturn(List.of(testScheduling));
+
+        // Act
+        List<SchedulingResponse> responses = schedulingService.getAllSchedulingsForCurrentUser(null, 50).content();
+
+        // Assert
+        assertEquals(1, responses.size());
+        verify(schedulingIndex).remove(1L, 7L);
+        verify(schedulingIndex, never()).remove(1L, 1L);
+    }
+
+    @Test
+    void getUpcomingSchedulingsForCurrentUser_WhenAllCached_ShouldNotQueryEntities() {
+        // Arrange
+        SchedulingResponse cachedResponse = new SchedulingResponse();
+        cachedResponse.setId(1L);
+        when(schedulingRepository.findUpcomingIndexEntries(
+                any(User.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(entry(1L)));
+        when(redisSchedulingService.getSchedulings(List.of(1L))).thenReturn(Map.of(1L, cachedResponse));
+
+        // Act
+        List<SchedulingResponse> responses = schedulingService.getUpcomingSchedulingsForCurrentUser(null, 50).content();
+
+        // Assert
+        assertEquals(List.of(cachedResponse), responses);
+        verify(schedulingRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void getAllSchedulingsForCurrentUser_WithMoreThanSize_ShouldReturnCursorOfLastPosition() {
+        // Arrange
+        SchedulingResponse newest = new SchedulingResponse();
+        newest.setId(3L);
+        newest.setScheduledAt(LocalDateTime.of(2024, 6, 1, 9, 0));
+        SchedulingResponse older = new SchedulingResponse();
+        older.setId(2L);
+        older.setScheduledAt(LocalDateTime.of(2024, 5, 1, 9, 0));
+        when(schedulingIndex.findAll(1L, null, 3)).thenReturn(Optional.of(List.of(
+                SchedulingCursor.of(entry(3L, newest.getScheduledAt())),
+                SchedulingCursor.of(entry(2L, older.getScheduledAt())),
+                position(1L))));
+        when(redisSchedulingService.getSchedulings(List.of(3L, 2L))).thenReturn(Map.of(3L, newest, 2L, older));
+
+        // Act
+        SchedulingPage<List<SchedulingResponse>> page = schedulingService.getAllSchedulingsForCurrentUser(null, 2);
+
+        // Assert
+        assertEquals(List.of(newest, older), page.content());
+        assertEquals(new SchedulingCursor(older.getScheduledAt(), 2L), page.next());
+        verify(redisSchedulingService, never()).getSchedulings(List.of(3L, 2L, 1L));
+    }
+
+    @Test
+    void getAllSchedulingsForCurrentUser_WhenWholePageWasRemoved_ShouldStillReturnCursor() {
+        // Arrange: os dois primeiros ids sumiram entre a leitura do índice e a carga
+        LocalDateTime scheduledAt = LocalDateTime.of(2024, 5, 1, 9, 0);
+        when(schedulingIndex.findAll(1L, null, 3)).thenReturn(Optional.of(List.of(
+                position(3L), new SchedulingCursor(scheduledAt, 2L), position(1L))));
+        when(redisSchedulingService.getSchedulings(List.of(3L, 2L))).thenReturn(Map.of());
+        when(schedulingRepository.findAllById(List.of(3L, 2L))).thenReturn(List.of());
+
+        // Act
+        SchedulingPage<List<SchedulingResponse>> page = schedulingService.getAllSchedulingsForCurrentUser(null, 2);
+
+        // Assert: página vazia, mas a listagem continua depois do último id lido
+        assertEquals(List.of(), page.content());
+        assertEquals(new SchedulingCursor(scheduledAt, 2L), page.next());
+    }
+
+    @Test
+    void getAllSchedulingsForCurrentUser_WithCursorAndWithoutIndex_ShouldQueryAfterCursor() {
+        // Arrange
+        SchedulingCursor after = new SchedulingCursor(LocalDateTime.of(2024, 5, 1, 9, 0), 2L);
+        when(schedulingRepository.findIndexEntriesByTechnicianBefore(
+                testUser, after.scheduledAt(), 2L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(entry(1L)));
+        when(redisSchedulingService.getSchedulings(List.of(1L))).thenReturn(Map.of());
+        when(schedulingRepository.findAllById(List.of(1L))).thenReturn(List.of(testScheduling));
+
+        // Act
+        SchedulingPage<List<SchedulingResponse>> page = schedulingService.getAllSchedulingsForCurrentUser(after, 2);
+
+        // Assert
+        assertEquals(1, page.content().size());
+        assertNull(page.next());
+        verify(schedulingRepository, never())
+                .findIndexEntriesByTechnician(any(User.class), any(Pageable.class));
+    }
+
+    @Test
+    void getUpcomingSchedulingsForCurrentUser_WithPastCursor_ShouldStartFromNow() {
+        // Arrange
+        SchedulingCursor past = new SchedulingCursor(LocalDateTime.now().minusHours(1), 5L);
+        when(schedulingRepository.findUpcomingIndexEntries(
+                any(User.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // Act
+        SchedulingPage<List<SchedulingResponse>> page = schedulingService.getUpcomingSchedulingsForCurrentUser(past, 10);
+
+        // Assert
+        assertEquals(List.of(), page.content());
+        verify(schedulingIndex).findUpcoming(eq(1L), any(LocalDateTime.class), eq(null), eq(11));
+        verify(schedulingRepository, never()).findUpcomingIndexEntriesAfter(
+                any(User.class), any(LocalDateTime.class), anyLong(), any(Pageable.class));
+    }
+
     @Test
     void getSchedulingById_WithNonExistentId_ShouldThrowException() {
         // Arrange
@@ -173,6 +421,20 @@ class SchedulingServiceTest {
         assertThrows(ResourceNotFoundException.class, () ->
             schedulingService.getSchedulingById(999L)
         );
+        verify(redisSchedulingService).cacheMissing(999L);
+    }
+
+    @Test
+    void getSchedulingById_WhenFilterRulesIdOut_ShouldSkipCacheAndDatabase() {
+        // Arrange
+        when(schedulingIdFilter.mightExist(999L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () ->
+            schedulingService.getSchedulingById(999L)
+        );
+        verify(redisSchedulingService, never()).getScheduling(anyLong());
+        verify(schedulingRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -183,9 +445,7 @@ class SchedulingServiceTest {
         updateRequest.setStatus("COMPLETED");
 
         when(schedulingRepository.findById(1L)).thenReturn(Optional.of(testScheduling));
-        when(schedulingRepository.save(any(Scheduling.class))).thenReturn(testScheduling);
-        when(geocodingService.getLocationDetails(anyDouble(), anyDouble()))
-                .thenReturn(new GeoLocationDetails());
+        when(schedulingRepository.saveAndFlush(any(Scheduling.class))).thenReturn(testScheduling);
 
         // Act
         SchedulingResponse response = schedulingService.updateScheduling(1L, updateRequest);
@@ -194,8 +454,168 @@ class SchedulingServiceTest {
         assertNotNull(response);
         assertEquals("Nova Fazenda", response.getFarmName());
         assertEquals("COMPLETED", response.getStatus());
-        verify(schedulingRepository).save(any(Scheduling.class));
-        verify(notificationService).sendSchedulingUpdatedNotification(anyLong());
+        verify(schedulingRepository).saveAndFlush(any(Scheduling.class));
+        ArgumentCaptor<SchedulingResponse> before = ArgumentCaptor.forClass(SchedulingResponse.class);
+        verify(redisSchedulingService).saveChanges(before.capture(), eq(response));
+        assertEquals("PENDING", before.getValue().getStatus());
+        assertEquals(response.getEquipments(), before.getValue().getEquipments());
+        verify(notificationService).sendSchedulingUpdatedNotification(1L, SchedulingItemChanges.NONE);
+        verify(eventPublisher, never()).publishEvent(any(SchedulingLocationChangedEvent.class));
+    }
+
+    @Test
+    void updateScheduling_WithEquipments_ShouldReplaceThemBeforeFlushing() {
+        // Arrange
+        Equipment previous = new Equipment();
+        previous.setScheduling(testScheduling);
+        previous.setName("Trator");
+        testScheduling.getEquipments().add(previous);
+        EquipmentRequest equipment = new EquipmentRequest();
+        equipment.setName("Pulverizador");
+        SchedulingUpdateRequest updateRequest = new SchedulingUpdateRequest();
+        updateRequest.setEquipments(List.of(equipment));
+
+        when(schedulingRepository.findById(1L)).thenReturn(Optional.of(testScheduling));
+        when(schedulingRepository.saveAndFlush(any(Scheduling.class))).thenAnswer(invocation -> {
+            // Os itens já estão no agendamento quando o flush acontece
+            Scheduling flushed = invocation.getArgument(0);
+            assertEquals(1, flushed.getEquipments().size());
+            assertEquals("Pulverizador", flushed.getEquipments().iterator().next().getName());
+            return flushed;
+        });
+
+        // Act
+        SchedulingResponse response = schedulingService.updateScheduling(1L, updateRequest);
+
+        // Assert
+        assertEquals(1, response.getEquipments().size());
+        assertEquals("Pulverizador", response.getEquipments().get(0).getName());
+        verify(schedulingRepository).saveAndFlush(testScheduling);
+    }
+
+    @Test
+    void updateScheduling_WithSameSerialNumber_ShouldUpdateExistingItemsInPlace() {
+        // Arrange
+        Equipment equipment = equipment(10L, "PJ-3000", "Barra de 18 m");
+        SparePart sparePart = sparePart(20L, "BC-110", 4);
+        testScheduling.getEquipments().add(equipment);
+        testScheduling.getSpareParts().add(sparePart);
+        SchedulingUpdateRequest updateRequest = new SchedulingUpdateRequest();
+        updateRequest.setEquipments(List.of(equipmentRequest("PJ-3000", "Barra de 24 m")));
+        updateRequest.setSpareParts(List.of(sparePartRequest("BC-110", 4)));
+
+        when(schedulingRepository.findById(1L)).thenReturn(Optional.of(testScheduling));
+        when(schedulingRepository.saveAndFlush(any(Scheduling.class))).thenReturn(testScheduling);
+
+        // Act
+        schedulingService.updateScheduling(1L, updateRequest);
+
+        // Assert: o mesmo equipamento, alterado; a peça intacta
+        assertEquals(1, testScheduling.getEquipments().size());
+        assertSame(equipment, testScheduling.getEquipments().iterator().next());
+        assertEquals("Barra de 24 m", equipment.getDescription());
+        assertSame(sparePart, testScheduling.getSpareParts().iterator().next());
+        verify(entityManager).lock(testScheduling, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+        verify(notificationService).sendSchedulingUpdatedNotification(1L, new SchedulingItemChanges(
+                new SchedulingItemChanges.Counts(0, 1, 0), SchedulingItemChanges.Counts.NONE));
+
+        // Só a coleção alterada é regravada no cache
+        ArgumentCaptor<SchedulingResponse> before = ArgumentCaptor.forClass(SchedulingResponse.class);
+        verify(redisSchedulingService).saveChanges(before.capture(), any(SchedulingResponse.class));
+        assertNull(before.getValue().getEquipments());
+        assertEquals(1, before.getValue().getSpareParts().size());
+    }
+
+    @Test
+    void updateScheduling_WithChangedItems_ShouldInsertAndRemoveOnlyTheDifference() {
+        // Arrange
+        Equipment kept = equipment(10L, "PJ-3000", "Barra de 18 m");
+        Equipment dropped = equipment(11L, "PJ-2000", null);
+        testScheduling.getEquipments().add(kept);
+        testScheduling.getEquipments().add(dropped);
+        SchedulingUpdateRequest updateRequest = new SchedulingUpdateRequest();
+        updateRequest.setEquipments(List.of(
+                equipmentRequest("PJ-3000", "Barra de 18 m"),
+                equipmentRequest("PJ-4000", null)));
+
+        when(schedulingRepository.findById(1L)).thenReturn(Optional.of(testScheduling));
+        when(schedulingRepository.saveAndFlush(any(Scheduling.class))).thenReturn(testScheduling);
+
+        // Act
+        schedulingService.updateScheduling(1L, updateRequest);
+
+        // Assert
+        assertEquals(2, testScheduling.getEquipments().size());
+        assertTrue(testScheduling.getEquipments().contains(kept));
+        assertFalse(testScheduling.getEquipments().contains(dropped));
+        assertTrue(testScheduling.getEquipments().stream()
+                .anyMatch(e -> e.getId() == null && "PJ-4000".equals(e.getSerialNumber())));
+    }
+
+    @Test
+    void updateScheduling_WithUnchangedItems_ShouldNotNotifyNorRewriteThem() {
+        // Arrange
+        testScheduling.getEquipments().add(equipment(10L, "PJ-3000", "Barra de 18 m"));
+        testScheduling.getSpareParts().add(sparePart(20L, "BC-110", 4));
+        SchedulingUpdateRequest updateRequest = new SchedulingUpdateRequest();
+        updateRequest.setEquipments(List.of(equipmentRequest("PJ-3000", "Barra de 18 m")));
+        updateRequest.setSpareParts(List.of(sparePartRequest("BC-110", 4)));
+
+        when(schedulingRepository.findById(1L)).thenReturn(Optional.of(testScheduling));
+        when(schedulingRepository.saveAndFlush(any(Scheduling.class))).thenReturn(testScheduling);
+
+        // Act
+        schedulingService.updateScheduling(1L, updateRequest);
+
+        // Assert
+        verify(entityManager, never()).lock(any(), any(LockModeType.class));
+        verify(notificationService, never()).sendSchedulingUpdatedNotification(anyLong(), any());
+        ArgumentCaptor<SchedulingResponse> before = ArgumentCaptor.forClass(SchedulingResponse.class);
+        verify(redisSchedulingService).saveChanges(before.capture(), any(SchedulingResponse.class));
+        assertEquals(1, before.getValue().getEquipments().size());
+        assertEquals(1, before.getValue().getSpareParts().size());
+    }
+
+    @Test
+    void updateScheduling_WithNewCoordinates_ShouldRequestGeocoding() {
+        // Arrange
+        SchedulingLocation location = new SchedulingLocation();
+        location.setCity("São Paulo");
+        location.setGeocodedAt(LocalDateTime.now());
+        testScheduling.setLocation(location);
+
+        SchedulingUpdateRequest updateRequest = new SchedulingUpdateRequest();
+        updateRequest.setLatitude(-22.2139);
+        updateRequest.setLongitude(-49.9458);
+
+        when(schedulingRepository.findById(1L)).thenReturn(Optional.of(testScheduling));
+        when(schedulingRepository.saveAndFlush(any(Scheduling.class))).thenReturn(testScheduling);
+
+        // Act
+        SchedulingResponse response = schedulingService.updateScheduling(1L, updateRequest);
+
+        // Assert
+        assertNull(response.getLocationDetails());
+        verify(eventPublisher).publishEvent(new SchedulingLocationChangedEvent(1L, -22.2139, -49.9458));
+    }
+
+    @Test
+    void getSchedulingById_ShouldReturnPersistedLocation() {
+        // Arrange
+        SchedulingLocation location = new SchedulingLocation();
+        location.setCity("São Paulo");
+        location.setCountry("Brasil");
+        location.setGeocodedAt(LocalDateTime.now());
+        testScheduling.setLocation(location);
+        when(schedulingRepository.findById(1L)).thenReturn(Optional.of(testScheduling));
+
+        // Act
+        SchedulingResponse response = schedulingService.getSchedulingById(1L);
+
+        // Assert
+        assertNotNull(response.getLocationDetails());
+        assertEquals("São Paulo", response.getLocationDetails().getCity());
+        assertEquals(testScheduling.getLatitude(), response.getLocationDetails().getLatitude());
     }
 
     @Test
@@ -209,6 +629,7 @@ class SchedulingServiceTest {
         // Assert
         verify(schedulingRepository).delete(testScheduling);
         verify(redisSchedulingService).deleteScheduling(1L);
+        verify(schedulingIndex).remove(1L, 1L);
     }
 
     @Test
@@ -220,9 +641,7 @@ class SchedulingServiceTest {
         feedbackRequest.setFeedback("Ótimo serviço!");
 
         when(schedulingRepository.findById(1L)).thenReturn(Optional.of(testScheduling));
-        when(schedulingRepository.save(any(Scheduling.class))).thenReturn(testScheduling);
-        when(geocodingService.getLocationDetails(anyDouble(), anyDouble()))
-                .thenReturn(new GeoLocationDetails());
+        when(schedulingRepository.saveAndFlush(any(Scheduling.class))).thenReturn(testScheduling);
 
         // Act
         SchedulingResponse response = schedulingService.addClientFeedback(1L, feedbackRequest);
@@ -231,6 +650,9 @@ class SchedulingServiceTest {
         assertNotNull(response);
         assertEquals(5.0, response.getClientRating());
         assertEquals("Ótimo serviço!", response.getClientFeedback());
+        ArgumentCaptor<SchedulingResponse> before = ArgumentCaptor.forClass(SchedulingResponse.class);
+        verify(redisSchedulingService).saveChanges(before.capture(), eq(response));
+        assertNull(before.getValue().getClientFeedback());
     }
 
     @Test
@@ -247,4 +669,62 @@ class SchedulingServiceTest {
             schedulingService.addClientFeedback(1L, feedbackRequest)
         );
     }
+
+    private Equipment equipment(Long id, String serialNumber, String description) {
+        Equipment equipment = new Equipment();
+        equipment.setId(id);
+        equipment.setScheduling(testScheduling);
+        equipment.setName("Pulverizador");
+        equipment.setSerialNumber(serialNumber);
+        equipment.setDescription(description);
+        return equipment;
+    }
+
+    private SparePart sparePart(Long id, String partNumber, Integer quantity) {
+        SparePart sparePart = new SparePart();
+        sparePart.setId(id);
+        sparePart.setScheduling(testScheduling);
+        sparePart.setName("Bico");
+        sparePart.setPartNumber(partNumber);
+        sparePart.setQuantity(quantity);
+        return sparePart;
+    }
+
+    private static EquipmentRequest equipmentRequest(String serialNumber, String description) {
+        EquipmentRequest request = new EquipmentRequest();
+        request.setName("Pulverizador");
+        request.setSerialNumber(serialNumber);
+        request.setDescription(description);
+        return request;
+    }
+
+    private static SparePartRequest sparePartRequest(String partNumber, Integer quantity) {
+        SparePartRequest request = new SparePartRequest();
+        request.setName("Bico");
+        request.setPartNumber(partNumber);
+        request.setQuantity(quantity);
+        return request;
+    }
+
+    private static SchedulingCursor position(Long id) {
+        return SchedulingCursor.of(entry(id));
+    }
+
+    private static SchedulingIndexEntry entry(Long id) {
+        return entry(id, LocalDateTime.of(2024, 6, 1, 9, 0));
+    }
+
+    private static SchedulingIndexEntry entry(Long id, LocalDateTime scheduledAt) {
+        return new SchedulingIndexEntry() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getScheduledAt() {
+                return scheduledAt;
+            }
+        };
+    }
 }